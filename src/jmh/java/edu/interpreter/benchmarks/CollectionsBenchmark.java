@@ -0,0 +1,100 @@
+package edu.interpreter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.Dictionary;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+
+/**
+ * Reads and writes the heap, in every storage, and the dictionary the symbol tables used to be.
+ * Every operation cycles over a fixed set of keys, so the collections keep their size.
+ * @author David Perisanu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollectionsBenchmark {
+    @Param({ "Boxed", "Primitive", "Direct", "Concurrent", "Arena" })
+    public ProgramState.HeapStorage heapStorage;
+
+    @Param({ "1024" })
+    public int size;
+
+    private IHeap<Integer, Integer> heap;
+    private Dictionary<String, Integer> dictionary;
+    private String[] names;
+    private int index;
+
+    /**
+     * Fills the heap and the dictionary.
+     */
+    @Setup
+    public void setup() {
+        heap = heapStorage.create();
+        dictionary = new Dictionary<>();
+        names = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            names[i] = "v" + i;
+            heap.add(i + 1, i);
+            dictionary.add(names[i], i);
+        }
+    }
+
+    /**
+     * Reads an address of the heap.
+     * @return The value at the address.
+     */
+    @Benchmark
+    public Integer heapGet() {
+        return heap.get(next() + 1);
+    }
+
+    /**
+     * Writes an address of the heap.
+     */
+    @Benchmark
+    public void heapAdd() {
+        int i = next();
+
+        heap.add(i + 1, i);
+    }
+
+    /**
+     * Reads a variable of the dictionary.
+     * @return The value of the variable.
+     */
+    @Benchmark
+    public Integer dictionaryGet() {
+        return dictionary.get(names[next()]);
+    }
+
+    /**
+     * Writes a variable of the dictionary.
+     */
+    @Benchmark
+    public void dictionaryAdd() {
+        int i = next();
+
+        dictionary.add(names[i], i);
+    }
+
+    /**
+     * Gets the next key index.
+     * @return The next key index.
+     */
+    private int next() {
+        index = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.interpreter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.interpreter.model.utilities.DeepCopy;
+import edu.interpreter.model.utilities.Dictionary;
+import edu.interpreter.model.utilities.SymbolTable;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+
+/**
+ * Copies symbol tables the way forks do: with <code>DeepCopy.copy</code> and, for slot symbol tables, copy on write.
+ * @author David Perisanu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeepCopyBenchmark {
+    @Param({ "8", "64", "512" })
+    public int variables;
+
+    private Dictionary<String, Integer> dictionary;
+    private SymbolTable symbolTable;
+
+    /**
+     * Fills a dictionary and a slot symbol table with the same variables.
+     */
+    @Setup
+    public void setup() {
+        dictionary = new Dictionary<>();
+        symbolTable = new SymbolTable();
+
+        for (int i = 0; i < variables; i++) {
+            dictionary.add("v" + i, i);
+            symbolTable.add("v" + i, i);
+        }
+    }
+
+    /**
+     * Serializes and deserializes a dictionary symbol table.
+     * @return The copy.
+     * @throws Exception if the copy fails.
+     */
+    @Benchmark
+    public Object deepCopyDictionary() throws Exception {
+        return DeepCopy.copy(dictionary);
+    }
+
+    /**
+     * Serializes and deserializes a slot symbol table.
+     * @return The copy.
+     * @throws Exception if the copy fails.
+     */
+    @Benchmark
+    public Object deepCopySymbolTable() throws Exception {
+        return DeepCopy.copy(symbolTable);
+    }
+
+    /**
+     * Copies a slot symbol table and writes the copy once, which makes it copy its frame.
+     * @return The copy.
+     */
+    @Benchmark
+    public IDictionary<String, Integer> copyOnWriteSymbolTable() {
+        SymbolTable copy = symbolTable.copy();
+
+        copy.add("v0", 1);
+        return copy;
+    }
+}
@@ -0,0 +1,52 @@
+package edu.interpreter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.interpreter.controller.Controller;
+
+/**
+ * Runs the examples of the laboratories with <code>Controller.executeAllSteps</code>.
+ * @author David Perisanu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExamplesBenchmark {
+    @Param({ "exam1", "exam2", "lab5-1", "lab5-2", "lab5-3", "lab7-1", "lab7-2", "lab8" })
+    public String example;
+
+    @Param({ "TreeWalking", "Bytecode" })
+    public Controller.ExecutionMode executionMode;
+
+    private Controller controller;
+
+    /**
+     * Builds a new controller before every run, since a run consumes its program states.
+     */
+    @Setup(Level.Invocation)
+    public void setup() {
+        controller = Programs.example(example);
+        controller.executionMode(executionMode);
+    }
+
+    /**
+     * Runs the example to completion.
+     * @return The controller.
+     * @throws Exception if the example fails.
+     */
+    @Benchmark
+    public Controller executeAllSteps() throws Exception {
+        controller.executeAllSteps();
+        return controller;
+    }
+}
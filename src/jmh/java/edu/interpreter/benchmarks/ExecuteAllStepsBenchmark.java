@@ -0,0 +1,56 @@
+package edu.interpreter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.interpreter.controller.Controller;
+
+/**
+ * Runs a program that forks 1 to 1000 program states with <code>Controller.executeAllSteps</code>.
+ * @author David Perisanu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecuteAllStepsBenchmark {
+    @Param({ "1", "10", "100", "1000" })
+    public int forks;
+
+    @Param({ "LockStep", "WorkStealing" })
+    public Controller.SchedulingMode schedulingMode;
+
+    @Param({ "TreeWalking", "Bytecode" })
+    public Controller.ExecutionMode executionMode;
+
+    private Controller controller;
+
+    /**
+     * Builds a new controller before every run, since a run consumes its program states.
+     */
+    @Setup(Level.Invocation)
+    public void setup() {
+        controller = Programs.forks(forks);
+        controller.schedulingMode(schedulingMode);
+        controller.executionMode(executionMode);
+    }
+
+    /**
+     * Runs the program and every program state it forks to completion.
+     * @return The controller.
+     * @throws Exception if the program fails.
+     */
+    @Benchmark
+    public Controller executeAllSteps() throws Exception {
+        controller.executeAllSteps();
+        return controller;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.interpreter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import edu.interpreter.model.ProgramState;
+
+/**
+ * Runs programs to completion with <code>ProgramState.executeOneStep</code>, without any scheduler.
+ * <code>fixture</code> only builds the program states, so its score is the part of <code>run</code> not spent stepping.
+ * @author David Perisanu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExecuteOneStepBenchmark {
+    @Param({ "arithmetic", "whileLoop", "lab7-1", "lab7-2", "lab5-2" })
+    public String program;
+
+    @Param({ "1000" })
+    public int size;
+
+    /**
+     * Builds the program state of the benchmarked program.
+     * @return The program state.
+     */
+    @Benchmark
+    public ProgramState fixture() {
+        switch (program) {
+            case "arithmetic":
+                return Programs.arithmetic(size);
+            case "whileLoop":
+                return Programs.whileLoop(size);
+            default:
+                return Programs.exampleState(program);
+        }
+    }
+
+    /**
+     * Builds the program state of the benchmarked program and executes it step by step.
+     * @return The completed program state.
+     */
+    @Benchmark
+    public ProgramState run() {
+        ProgramState programState = fixture();
+
+        while (programState.notCompleted())
+            programState.executeOneStep();
+
+        return programState;
+    }
+}
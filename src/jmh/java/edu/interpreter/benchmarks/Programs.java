@@ -0,0 +1,160 @@
+package edu.interpreter.benchmarks;
+
+import edu.interpreter.controller.Controller;
+import edu.interpreter.examples.Exam;
+import edu.interpreter.examples.Laboratory5;
+import edu.interpreter.examples.Laboratory7;
+import edu.interpreter.examples.Laboratory8;
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.expressions.ArithmeticExpression;
+import edu.interpreter.model.expressions.ArithmeticExpression.ArithmeticOperator;
+import edu.interpreter.model.expressions.BooleanExpression;
+import edu.interpreter.model.expressions.BooleanExpression.RelationalOperator;
+import edu.interpreter.model.expressions.ConstantExpression;
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.VariableExpression;
+import edu.interpreter.model.statements.AssignmentStatement;
+import edu.interpreter.model.statements.CompoundStatement;
+import edu.interpreter.model.statements.ForkStatement;
+import edu.interpreter.model.statements.PrintStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.statements.WhileLoopStatement;
+import edu.interpreter.model.utilities.Deque;
+import edu.interpreter.model.utilities.FileTable;
+import edu.interpreter.model.utilities.Heap;
+import edu.interpreter.model.utilities.LatchTable;
+import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.SymbolTable;
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.repository.Repository;
+
+/**
+ * Programs the benchmarks run: the examples of the laboratories plus scalable arithmetic, loop and fork programs.
+ * @author David Perisanu
+ */
+public final class Programs {
+    private Programs() { }  // Simulate static class.
+
+    /**
+     * Creates the controller of an example, with logging turned off.
+     * @param name The name of the example: <code>exam1</code>, <code>exam2</code>, <code>lab5-1</code>, <code>lab5-2</code>,
+     * <code>lab5-3</code>, <code>lab7-1</code>, <code>lab7-2</code> or <code>lab8</code>.
+     * @return The controller of the example.
+     * @throws InvalidArgumentException if the example does not exist.
+     */
+    public static Controller example(String name) throws InvalidArgumentException {
+        Controller controller;
+
+        switch (name) {
+            case "exam1":
+                controller = Exam.example1();
+                break;
+            case "exam2":
+                controller = Exam.example2();
+                break;
+            case "lab5-1":
+                controller = Laboratory5.example1();
+                break;
+            case "lab5-2":
+                controller = Laboratory5.example2();
+                break;
+            case "lab5-3":
+                controller = Laboratory5.example3();
+                break;
+            case "lab7-1":
+                controller = Laboratory7.example1();
+                break;
+            case "lab7-2":
+                controller = Laboratory7.example2();
+                break;
+            case "lab8":
+                controller = Laboratory8.example1();
+                break;
+            default:
+                throw new InvalidArgumentException("Example " + name + " does not exist.");
+        }
+
+        controller.repository().logFilePath("");
+        return controller;
+    }
+
+    /**
+     * Creates the first program state of an example, with logging turned off.
+     * @param name The name of the example.
+     * @return The first program state of the example.
+     * @throws InvalidArgumentException if the example does not exist.
+     */
+    public static ProgramState exampleState(String name) throws InvalidArgumentException {
+        return example(name).repository().programStates().get(0);
+    }
+
+    /**
+     * <code>x = 1; x = (x * 3 + 7) / 2 - 1;</code> repeated <code>count</code> times, then <code>print(x);</code>
+     * @param count The number of arithmetic assignments.
+     * @return The program state.
+     */
+    public static ProgramState arithmetic(int count) {
+        Deque<Statement> executionStack = new Deque<>();
+        Expression expression = new ArithmeticExpression(
+            new ArithmeticExpression(new ArithmeticExpression(new ArithmeticExpression(new VariableExpression("x"), ArithmeticOperator.Multiplication, new ConstantExpression(3)), ArithmeticOperator.Addition, new ConstantExpression(7)), ArithmeticOperator.Division, new ConstantExpression(2)),
+            ArithmeticOperator.Substraction, new ConstantExpression(1));
+        Statement statement = new AssignmentStatement("x", expression);
+
+        executionStack.pushFront(new AssignmentStatement("x", new ConstantExpression(1)));
+        for (int i = 0; i < count; i++)
+            executionStack.pushFront(statement);
+        executionStack.pushFront(new PrintStatement(new VariableExpression("x")));
+
+        return state(executionStack);
+    }
+
+    /**
+     * <code>i = iterations; s = 0; while (i > 0) { s = s + i; i = i - 1; } print(s);</code>
+     * @param iterations The number of iterations of the loop.
+     * @return The program state.
+     */
+    public static ProgramState whileLoop(int iterations) {
+        Deque<Statement> executionStack = new Deque<>();
+        Statement body = new CompoundStatement(
+            new AssignmentStatement("s", new ArithmeticExpression(new VariableExpression("s"), ArithmeticOperator.Addition, new VariableExpression("i"))),
+            new AssignmentStatement("i", new ArithmeticExpression(new VariableExpression("i"), ArithmeticOperator.Substraction, new ConstantExpression(1))));
+
+        executionStack.pushFront(new AssignmentStatement("i", new ConstantExpression(iterations)));
+        executionStack.pushFront(new AssignmentStatement("s", new ConstantExpression(0)));
+        executionStack.pushFront(new WhileLoopStatement(new BooleanExpression(new VariableExpression("i"), RelationalOperator.Greater, new ConstantExpression(0)), body));
+        executionStack.pushFront(new PrintStatement(new VariableExpression("s")));
+
+        return state(executionStack);
+    }
+
+    /**
+     * <code>i = forks; while (i > 0) { fork(v = i * 2; print(v)); i = i - 1; }</code>
+     * @param forks The number of forked program states.
+     * @return The controller of the program, with logging turned off.
+     */
+    public static Controller forks(int forks) {
+        Deque<Statement> executionStack = new Deque<>();
+        Repository repository = new Repository();
+        Statement child = new CompoundStatement(
+            new AssignmentStatement("v", new ArithmeticExpression(new VariableExpression("i"), ArithmeticOperator.Multiplication, new ConstantExpression(2))),
+            new PrintStatement(new VariableExpression("v")));
+        Statement body = new CompoundStatement(
+            new ForkStatement(child),
+            new AssignmentStatement("i", new ArithmeticExpression(new VariableExpression("i"), ArithmeticOperator.Substraction, new ConstantExpression(1))));
+
+        executionStack.pushFront(new AssignmentStatement("i", new ConstantExpression(forks)));
+        executionStack.pushFront(new WhileLoopStatement(new BooleanExpression(new VariableExpression("i"), RelationalOperator.Greater, new ConstantExpression(0)), body));
+
+        repository.add(state(executionStack));
+        return new Controller(repository);
+    }
+
+    /**
+     * Creates a program state with the provided execution stack and empty tables.
+     * @param executionStack The execution stack.
+     * @return The program state.
+     */
+    private static ProgramState state(Deque<Statement> executionStack) {
+        return new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), new LatchTable<>());
+    }
+}
@@ -0,0 +1,75 @@
+package edu.interpreter.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import edu.interpreter.controller.Controller;
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.repository.AsyncLogWriter;
+import edu.interpreter.repository.Repository;
+
+/**
+ * Measures how many program states the <code>Repository</code> logs per second.
+ * The logged program state is the one of the eighth laboratory after a few steps, so every section of the log has content.
+ * @author David Perisanu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RepositoryBenchmark {
+    @Param({ "Block", "Drop" })
+    public AsyncLogWriter.BackpressurePolicy backpressurePolicy;
+
+    private File logFile;
+    private Repository repository;
+    private ProgramState programState;
+
+    /**
+     * Opens a temporary log file and prepares the logged program state.
+     * @throws IOException if the log file could not be created.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Controller controller = Programs.example("lab8");
+
+        programState = controller.repository().programStates().get(0);
+        for (int i = 0; i < 3; i++)
+            programState.executeOneStep();
+
+        logFile = File.createTempFile("repository", ".log");
+        repository = new Repository(logFile.getPath());
+        repository.backpressurePolicy(backpressurePolicy);
+    }
+
+    /**
+     * Closes and deletes the log file.
+     * @throws IOException if the log file could not be closed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        repository.close();
+        logFile.delete();
+    }
+
+    /**
+     * Logs the header, the execution state and the footer of the program state.
+     * @throws IOException if the log could not be written.
+     */
+    @Benchmark
+    public void logProgramState() throws IOException {
+        repository.logProgramStateExecutionHeader(programState);
+        repository.logProgramStateExecution(programState);
+        repository.logProgramStateExecutionFooter(programState);
+    }
+}
@@ -0,0 +1,286 @@
+package edu.interpreter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.interpreter.controller.Controller;
+import edu.interpreter.controller.Controller.ExecutionMode;
+import edu.interpreter.controller.Controller.SchedulingMode;
+import edu.interpreter.metrics.ExecutionMetrics;
+import edu.interpreter.metrics.Histogram;
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.parser.ProgramCache;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ConcurrentHeap;
+import edu.interpreter.model.utilities.Deque;
+import edu.interpreter.model.utilities.FileOutputSink;
+import edu.interpreter.model.utilities.FileTable;
+import edu.interpreter.model.utilities.LatchTable;
+import edu.interpreter.model.utilities.SymbolTable;
+import edu.interpreter.repository.Repository;
+
+/**
+ * The headless entry point that runs many program files in parallel, each one in its own <code>Controller</code>.
+ * The output messages of every program are streamed to a file of the output directory, and throughput statistics are printed once every program has run.
+ * <p>
+ * Usage: <code>BatchRunner [--threads n] [--output directory] [--cache directory] [--optimize] [--bytecode] (file | directory)...</code>
+ * @author David Perisanu
+ */
+public class BatchRunner {
+    private final int threads;
+    private final Path outputDirectory;
+    private final ProgramCache programCache;
+    private final ExecutionMode executionMode;
+    private final ExecutionMetrics metrics;
+    private final Histogram latency;
+    private final LongAdder succeeded;
+    private final LongAdder failed;
+
+    /**
+     * Initializes a new instance of the <code>BatchRunner</code> class with the specified values.
+     * @param threads The number of threads shared by every program.
+     * @param outputDirectoryPath The directory the output files are written to.
+     * @param programCache The cache the programs are parsed through.
+     * @param executionMode The way the statements of the programs are executed.
+     */
+    public BatchRunner(int threads, String outputDirectoryPath, ProgramCache programCache, ExecutionMode executionMode) {
+        this.threads = Math.max(threads, 1);
+        this.outputDirectory = Paths.get(outputDirectoryPath);
+        this.programCache = programCache;
+        this.executionMode = executionMode;
+        metrics = new ExecutionMetrics();
+        latency = new Histogram();
+        succeeded = new LongAdder();
+        failed = new LongAdder();
+    }
+
+    /**
+     * Runs the program files or the program files of the directories provided as arguments.
+     * @param args The options followed by the program files and directories.
+     */
+    public static void main(String[] args) {
+        ArrayList<String> paths = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outputDirectoryPath = "output", cacheDirectoryPath = "";
+        boolean optimization = false;
+        ExecutionMode executionMode = ExecutionMode.TreeWalking;
+        BatchRunner batchRunner;
+        long start;
+
+        try {
+            for (int i = 0; i < args.length; i++)
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+
+                    case "--output":
+                        outputDirectoryPath = args[++i];
+                        break;
+
+                    case "--cache":
+                        cacheDirectoryPath = args[++i];
+                        break;
+
+                    case "--optimize":
+                        optimization = true;
+                        break;
+
+                    case "--bytecode":
+                        executionMode = ExecutionMode.Bytecode;
+                        break;
+
+                    default:
+                        if (args[i].startsWith("--"))
+                            throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+                        paths.add(args[i]);
+                }
+        }
+        catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value." : e.getMessage());
+            paths.clear();
+        }
+
+        if (paths.isEmpty()) {
+            System.err.println("Usage: BatchRunner [--threads n] [--output directory] [--cache directory] [--optimize] [--bytecode] (file | directory)...");
+            System.exit(2);
+        }
+
+        batchRunner = new BatchRunner(threads, outputDirectoryPath, new ProgramCache(cacheDirectoryPath, optimization, 256), executionMode);
+
+        try {
+            start = System.nanoTime();
+            batchRunner.run(programPaths(paths));
+            System.out.print(batchRunner.statistics(System.nanoTime() - start));
+        }
+        catch (IOException | InterruptedException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        }
+
+        System.exit(batchRunner.failed() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Gets the program files of a list of paths: files are kept and directories are replaced by the regular files they contain, recursively.
+     * @param paths The paths of files and directories.
+     * @return The program files, in the order of the paths and sorted inside every directory.
+     * @throws IOException if a directory could not be read.
+     */
+    public static ArrayList<Path> programPaths(Iterable<String> paths) throws IOException {
+        ArrayList<Path> programPaths = new ArrayList<>();
+
+        for (String path : paths)
+            if (Files.isDirectory(Paths.get(path)))
+                try (Stream<Path> files = Files.walk(Paths.get(path))) {
+                    programPaths.addAll(files.filter(Files::isRegularFile).sorted().collect(Collectors.toList()));
+                }
+            else
+                programPaths.add(Paths.get(path));
+
+        return programPaths;
+    }
+
+    /**
+     * Gets the number of programs that have run to completion.
+     * @return The number of succeeded programs.
+     */
+    public long succeeded() {
+        return succeeded.sum();
+    }
+
+    /**
+     * Gets the number of programs that could not be parsed or failed while running.
+     * @return The number of failed programs.
+     */
+    public long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * Runs every program file and writes its output messages to <code>name.out</code> inside the output directory,
+     * or the error that stopped it to <code>name.err</code>.
+     * The threads are split between the programs: as many programs as threads run at a time, and when there are fewer
+     * programs than threads every program runs its program states on its share of the threads.
+     * @param programPaths The program files.
+     * @throws IOException if the output directory could not be created.
+     * @throws InterruptedException if the current thread is interrupted while waiting for the programs.
+     */
+    public void run(java.util.List<Path> programPaths) throws IOException, InterruptedException {
+        HashSet<String> outputNames = new HashSet<>();
+        int concurrency = Math.max(Math.min(threads, programPaths.size()), 1);
+        int parallelism = Math.max(threads / concurrency, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        Files.createDirectories(outputDirectory);
+
+        try {
+            for (Path programPath : programPaths) {
+                String outputName = programPath.getFileName().toString();
+
+                // Programs of different directories may have the same name.
+                for (int i = 2; !outputNames.add(outputName); i++)
+                    outputName = programPath.getFileName() + "-" + i;
+
+                final String name = outputName;
+                executor.execute(() -> runProgram(programPath, name, parallelism));
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the throughput statistics of the programs that have run.
+     * @param elapsedTime The time taken by the programs, in nanoseconds.
+     * @return The statistics, one per line.
+     */
+    public String statistics(long elapsedTime) {
+        long steps = metrics.registry().counter("steps").sum();
+        double seconds = Math.max(elapsedTime, 1) / 1e9;
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(String.format("Programs:   %d (%d succeeded, %d failed)%n", latency.count(), succeeded(), failed()));
+        stringBuilder.append(String.format("Time:       %.3f s on %d threads%n", seconds, threads));
+        stringBuilder.append(String.format("Throughput: %.1f programs/s, %.0f steps/s (%d steps)%n", latency.count() / seconds, steps / seconds, steps));
+        stringBuilder.append(String.format("Latency:    mean %.3f ms, p50 <= %.3f ms, p99 <= %.3f ms, max %.3f ms%n", latency.mean() / 1e6, latency.percentile(0.5) / 1e6, latency.percentile(0.99) / 1e6, latency.max() / 1e6));
+        stringBuilder.append(String.format("Cache:      %d memory hits, %d disk hits, %d parses%n", programCache.memoryHits(), programCache.diskHits(), programCache.parses()));
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Runs a program file in its own <code>Controller</code> and writes its output messages or its error.
+     * The output messages are written while the program runs, and the output file is deleted if the program fails.
+     * @param programPath The program file.
+     * @param outputName The name of the output file, without extension.
+     * @param parallelism The number of threads the program states of the program run on.
+     */
+    private void runProgram(Path programPath, String outputName, int parallelism) {
+        long start = System.nanoTime();
+        Deque<Statement> executionStack = new Deque<>();
+        Path outputPath = outputDirectory.resolve(outputName + ".out");
+        FileOutputSink outputMessages = null;
+        ProgramState programState;
+        Repository repository;
+        Controller controller;
+
+        try {
+            executionStack.pushBack(programCache.programFromFile(programPath.toString()));
+            outputMessages = new FileOutputSink(outputPath.toString());
+            programState = new ProgramState(executionStack, new SymbolTable(), outputMessages, new FileTable<>(), new ConcurrentHeap(), new LatchTable<>());
+            repository = new Repository();
+            repository.add(programState);
+
+            controller = new Controller(repository);
+            controller.executionMode(executionMode);
+            controller.schedulingMode(SchedulingMode.WorkStealing);
+            controller.parallelism(parallelism);
+            controller.metrics(metrics);
+            controller.executeAllSteps();
+
+            outputMessages.close();
+            succeeded.increment();
+        }
+        catch (Exception e) {
+            failed.increment();
+            System.err.println(programPath + ": " + e.getMessage());
+
+            try {
+                if (outputMessages != null) {
+                    try {
+                        outputMessages.close();
+                    }
+                    catch (IOException ignored) {
+                        // The output of a failed program is deleted anyway.
+                    }
+
+                    Files.deleteIfExists(outputPath);
+                }
+
+                Files.write(outputDirectory.resolve(outputName + ".err"), Collections.singletonList(String.valueOf(e.getMessage())), StandardCharsets.UTF_8);
+            }
+            catch (IOException ignored) {
+                // The error has already been printed.
+            }
+        }
+        finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+}
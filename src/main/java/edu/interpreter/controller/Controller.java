@@ -2,33 +2,91 @@ package edu.interpreter.controller;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import edu.interpreter.metrics.ExecutionMetrics;
+import edu.interpreter.metrics.Profiler;
+import edu.interpreter.model.Optimizer;
 import edu.interpreter.model.ProgramState;
-import edu.interpreter.model.utilities.Heap;
+import edu.interpreter.model.bytecode.BytecodeCompiler;
+import edu.interpreter.model.bytecode.CompiledStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.Deque;
 import edu.interpreter.model.utilities.List;
 import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
-import edu.interpreter.model.utilities.interfaces.IHeap;
 import edu.interpreter.model.utilities.interfaces.IList;
 import edu.interpreter.repository.IRepository;
 import edu.interpreter.repository.Repository;
+import edu.interpreter.repository.ScheduleRecorder;
+import edu.interpreter.repository.ScheduleReplayer;
+import edu.interpreter.repository.Snapshot;
+import edu.interpreter.repository.TraceWriter;
 
 /**
  * Represents a <code>ProgramState</code> controller.
  * @author David Perisanu
  */
 public class Controller {
+    /**
+     * Represents the way the statements of the program states are executed.
+     */
+    public enum ExecutionMode {
+        /**
+         * Every step pops a <code>Statement</code> off the execution stack and executes it (reference mode).
+         */
+        TreeWalking,
+        /**
+         * The execution stacks are compiled to bytecode and run by the virtual machine.
+         */
+        Bytecode
+    }
+
+    /**
+     * Represents the way the program states are scheduled on the worker threads.
+     */
+    public enum SchedulingMode {
+        /**
+         * Every program state executes one step per round, or up to a quantum of steps when all steps are executed, and all of them wait for each other (reference mode).
+         */
+        LockStep,
+        /**
+         * Every program state runs quanta of steps as tasks of a work-stealing pool.
+         */
+        WorkStealing
+    }
+
     IRepository repository;
     ExecutorService executor;
+    ExecutionMode executionMode;
+    SchedulingMode schedulingMode;
+    int parallelism;
+    int quantum;
+    GarbageCollector garbageCollector;
+    TraceWriter traceWriter;
+    boolean optimization;
+    Set<ProgramState> optimizedPrograms;
+    ExecutionMetrics metrics;
+    Profiler profiler;
+    ScheduleRecorder scheduleRecorder;
+    ScheduleReplayer scheduleReplayer;
 
     /**
      * Initializes a new instance of the <code>Controller</code> class that has the default value.
      */
     public Controller() {
         repository = new Repository();
+        executionMode = ExecutionMode.TreeWalking;
+        schedulingMode = SchedulingMode.LockStep;
+        parallelism = Runtime.getRuntime().availableProcessors();
+        quantum = 1024;
+        garbageCollector = new GarbageCollector();
+        optimization = false;
+        optimizedPrograms = Collections.newSetFromMap(new WeakHashMap<>());
     }
 
     /**
@@ -37,6 +95,13 @@ public class Controller {
      */
     public Controller(IRepository repository) {
         this.repository = repository;
+        executionMode = ExecutionMode.TreeWalking;
+        schedulingMode = SchedulingMode.LockStep;
+        parallelism = Runtime.getRuntime().availableProcessors();
+        quantum = 1024;
+        garbageCollector = new GarbageCollector();
+        optimization = false;
+        optimizedPrograms = Collections.newSetFromMap(new WeakHashMap<>());
     }
 
     /**
@@ -62,6 +127,183 @@ public class Controller {
         this.executor = executor;
     }
 
+    /**
+     * Gets the <code>ExecutionMode</code> of the controller.
+     * @return The <code>ExecutionMode</code> of the controller.
+     */
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Sets the <code>ExecutionMode</code> of the controller.
+     */
+    public void executionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Gets the <code>SchedulingMode</code> of the controller.
+     * @return The <code>SchedulingMode</code> of the controller.
+     */
+    public SchedulingMode schedulingMode() {
+        return schedulingMode;
+    }
+
+    /**
+     * Sets the <code>SchedulingMode</code> of the controller.
+     */
+    public void schedulingMode(SchedulingMode schedulingMode) {
+        this.schedulingMode = schedulingMode;
+    }
+
+    /**
+     * Gets the number of worker threads used by the work-stealing scheduler of the controller.
+     * @return The number of worker threads used by the work-stealing scheduler.
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of worker threads used by the work-stealing scheduler of the controller.
+     */
+    public void parallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the maximum number of steps a program state executes before it yields when all steps are executed.
+     * @return The maximum number of steps a program state executes before it yields.
+     */
+    public int quantum() {
+        return quantum;
+    }
+
+    /**
+     * Sets the maximum number of steps a program state executes before it yields when all steps are executed.
+     * The quantum is ignored while the repository has a log file, so that every step is logged.
+     */
+    public void quantum(int quantum) {
+        this.quantum = quantum;
+    }
+
+    /**
+     * Gets the <code>GarbageCollector</code> of the controller.
+     * @return The <code>GarbageCollector</code> of the controller.
+     */
+    public GarbageCollector garbageCollector() {
+        return garbageCollector;
+    }
+
+    /**
+     * Sets the <code>GarbageCollector</code> of the controller.
+     */
+    public void garbageCollector(GarbageCollector garbageCollector) {
+        this.garbageCollector = garbageCollector;
+    }
+
+    /**
+     * Gets the <code>TraceWriter</code> that records the steps of the program states.
+     * @return The <code>TraceWriter</code> of the controller, or <code>null</code> if the steps are not traced.
+     */
+    public TraceWriter traceWriter() {
+        return traceWriter;
+    }
+
+    /**
+     * Sets the <code>TraceWriter</code> that records the steps of the program states.
+     * The program states are traced from their next step on, together with the program states they fork.
+     */
+    public void traceWriter(TraceWriter traceWriter) {
+        this.traceWriter = traceWriter;
+    }
+
+    /**
+     * Gets the <code>ExecutionMetrics</code> that measure the program states.
+     * @return The <code>ExecutionMetrics</code> of the controller, or <code>null</code> if the program states are not measured.
+     */
+    public ExecutionMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the <code>ExecutionMetrics</code> that measure the program states.
+     * The program states are measured from their next step on, together with the program states they fork.
+     */
+    public void metrics(ExecutionMetrics metrics) {
+        this.metrics = metrics;
+
+        if (metrics != null && repository instanceof Repository)
+            metrics.registry().gauge("log.bytes", ((Repository)repository)::loggedBytes);
+    }
+
+    /**
+     * Gets the <code>Profiler</code> that times the statements and expressions of the program states.
+     * @return The <code>Profiler</code> of the controller, or <code>null</code> if the program states are not profiled.
+     */
+    public Profiler profiler() {
+        return profiler;
+    }
+
+    /**
+     * Sets the <code>Profiler</code> that times the statements and expressions of the program states.
+     * The program states are profiled from their next step on, and the profile is reported once <code>executeAllSteps</code> returns.
+     * Expressions are only profiled in tree-walking mode.
+     */
+    public void profiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Gets the <code>ScheduleRecorder</code> that records the interleaving of the steps of the program states.
+     * @return The <code>ScheduleRecorder</code> of the controller, or <code>null</code> if the schedule is not recorded.
+     */
+    public ScheduleRecorder scheduleRecorder() {
+        return scheduleRecorder;
+    }
+
+    /**
+     * Sets the <code>ScheduleRecorder</code> that records the interleaving of the steps of the program states.
+     * The program states are recorded from their next step on, and no two of their steps run at the same time while they are.
+     */
+    public void scheduleRecorder(ScheduleRecorder scheduleRecorder) {
+        this.scheduleRecorder = scheduleRecorder;
+    }
+
+    /**
+     * Gets the <code>ScheduleReplayer</code> that replaces the scheduler of <code>executeAllSteps</code>.
+     * @return The <code>ScheduleReplayer</code> of the controller, or <code>null</code> if the program states are scheduled.
+     */
+    public ScheduleReplayer scheduleReplayer() {
+        return scheduleReplayer;
+    }
+
+    /**
+     * Sets the <code>ScheduleReplayer</code> that replaces the scheduler of <code>executeAllSteps</code>, which then reproduces a recorded schedule
+     * on the calling thread. The execution mode and the optimization must be the ones the schedule was recorded with.
+     * The replayed program states are still traced, profiled and recorded if the controller does so.
+     */
+    public void scheduleReplayer(ScheduleReplayer scheduleReplayer) {
+        this.scheduleReplayer = scheduleReplayer;
+    }
+
+    /**
+     * Gets a value that indicates whether the execution stacks are simplified by the <code>Optimizer</code> before they are executed.
+     * @return <code>true</code> if the execution stacks are simplified; otherwise, <code>false</code>.
+     */
+    public boolean optimization() {
+        return optimization;
+    }
+
+    /**
+     * Sets a value that indicates whether the execution stacks are simplified by the <code>Optimizer</code> before they are executed.
+     * Simplified statements are logged the way they are executed, so constant operands appear folded.
+     */
+    public void optimization(boolean optimization) {
+        this.optimization = optimization;
+    }
+
     /**
      * Shuts down the executor.
      */
@@ -70,23 +312,77 @@ public class Controller {
             executor.shutdown();
     }
 
+    /**
+     * Saves the uncompleted program states of the repository to a checkpoint file. Must not be called while steps are executed.
+     * @param filePath The path of the checkpoint file.
+     * @throws IOException if the file could not be written or an open file cannot be recorded.
+     */
+    public void saveSnapshot(String filePath) throws IOException {
+        Snapshot.save(removeCompletedPrograms(repository.programStates()), filePath);
+    }
+
+    /**
+     * Replaces the program states of the repository with the program states of a checkpoint file, so that the next steps resume them.
+     * @param filePath The path of the checkpoint file.
+     * @throws IOException if the file could not be read or is not a checkpoint of a supported version.
+     */
+    public void restoreSnapshot(String filePath) throws IOException {
+        repository.programStates(Snapshot.restore(filePath));
+    }
+
     /**
      * Executes a step for every program state inside a <code>IList<></code>.
      * @param programStates <code>IList<></code> of program states.
      */
     public void executeOneStepGlobal(IList<ProgramState> programStates) throws FileNotFoundException, IOException, InterruptedException {
+        executeStepsGlobal(programStates, 1);
+    }
+
+    /**
+     * Gets the number of steps a program state executes before it yields when all steps are executed.
+     * The schedulers log the program states between rounds, so a log file makes every round a single step.
+     * @return The quantum, or 1 if the repository has a log file.
+     */
+    private int stepsPerRound() {
+        return repository.logFilePath().length() > 0 ? 1 : quantum;
+    }
+
+    /**
+     * Executes up to a quantum of steps for every program state inside a <code>IList<></code>.
+     * Every program state stops early when it parks on a latch, forks or completes, and the program states are logged before and after the round.
+     * @param programStates <code>IList<></code> of program states.
+     * @param maxSteps The maximum number of steps every program state executes.
+     */
+    public void executeStepsGlobal(IList<ProgramState> programStates, int maxSteps) throws FileNotFoundException, IOException, InterruptedException {
         List<Callable<ProgramState>> callableProgramStates;
+        List<ProgramState> runningProgramStates;
+        long roundStart;
+
+        optimizePrograms(programStates);
+        recordPrograms(programStates);
+        profilePrograms(programStates);
+        compilePrograms(programStates);
+        tracePrograms(programStates);
+        measurePrograms(programStates);
+
+        // Program states parked on a latch are skipped until a count down unparks them.
+        runningProgramStates = new List<>();
+        programStates.all().stream().filter(programState -> !programState.parked()).forEach(programState -> runningProgramStates.add(programState));
+
+        if (runningProgramStates.size() == 0 && removeCompletedPrograms(programStates).size() > 0)
+            throw new InvalidOperationException("Deadlock. Every program state waits for a latch.");
 
         if (repository.logFilePath().length() > 0)
-            for (ProgramState programState : programStates.all()) {
+            for (ProgramState programState : runningProgramStates.all()) {
                 repository.logProgramStateExecutionHeader(programState);
                 repository.logProgramStateExecution(programState);
                 repository.logProgramStateExecutionFooter(programState);
             }
 
         callableProgramStates = new List<>();
-        
-        programStates.all().stream().map((ProgramState programState) -> (Callable<ProgramState>)(() -> { return programState.executeOneStep(); })).forEach(programState -> callableProgramStates.add(programState));
+        roundStart = System.nanoTime();
+
+        runningProgramStates.all().stream().map((ProgramState programState) -> (Callable<ProgramState>)(() -> { return programState.executeSteps(maxSteps); })).forEach(programState -> callableProgramStates.add(programState));
         executor.invokeAll(callableProgramStates.all()).stream().map(future -> {
             try {
                 return future.get();
@@ -94,10 +390,20 @@ public class Controller {
             catch (Exception e) {
                 throw new InvalidOperationException(e.getMessage());
             }
-        }).filter(programState -> programState != null).forEach(programState -> programStates.add(programState));
+        }).filter(programState -> programState != null).forEach(programState -> {
+            programStates.add(programState);
+            runningProgramStates.add(programState);
+        });
+
+        if (metrics != null)
+            metrics.roundCompleted(System.nanoTime() - roundStart);
+
+        // Every program state has finished its step, so the heaps can be swept.
+        if (garbageCollector != null)
+            garbageCollector.step(programStates);
 
         if (repository.logFilePath().length() > 0)
-            for (ProgramState programState : programStates.all()) {
+            for (ProgramState programState : runningProgramStates.all()) {
                 repository.logProgramStateExecutionHeader(programState);
                 repository.logProgramStateExecution(programState);
                 repository.logProgramStateExecutionFooter(programState);
@@ -108,21 +414,66 @@ public class Controller {
 
     /**
      * Executes every <code>Statement</code> of the current <code>ProgramState</code>.
+     * The logging file of the repository is closed once the programs are done; the next log opens it again and appends to it.
      * @throws FileNotFoundException if the logging file path is not valid.
      * @throws IOException if the repository log file exists but is a directory rather than a regular file, does not exist but cannot be created, cannot be opened for any other reason, or file could not be closed.
      */
     public void executeAllSteps() throws FileNotFoundException, IOException, InterruptedException {
         IList<ProgramState> programStates;
 
+        if (scheduleReplayer != null) {
+            replayPrograms();
+            return;
+        }
+
+        if (schedulingMode == SchedulingMode.WorkStealing) {
+            programStates = removeCompletedPrograms(repository.programStates());
+            optimizePrograms(programStates);
+            recordPrograms(programStates);
+            profilePrograms(programStates);
+            compilePrograms(programStates);
+            tracePrograms(programStates);
+            measurePrograms(programStates);
+
+            try {
+                new WorkStealingScheduler(parallelism, stepsPerRound(), repository, garbageCollector).run(programStates);
+            }
+            finally {
+                repository.close();
+                if (traceWriter != null)
+                    traceWriter.flush();
+                if (scheduleRecorder != null)
+                    scheduleRecorder.flush();
+                if (profiler != null)
+                    profiler.report();
+            }
+            repository.programStates(removeCompletedPrograms(programStates));
+            return;
+        }
+
         executor = Executors.newFixedThreadPool(2);
         programStates = removeCompletedPrograms(repository.programStates());
 
-        while (programStates.size() > 0) {
-            executeOneStepGlobal(programStates);
-            programStates = removeCompletedPrograms(repository.programStates());
+        try {
+            // Every round runs a quantum of steps, so collecting and filtering the program states is paid once per quantum.
+            while (programStates.size() > 0) {
+                executeStepsGlobal(programStates, stepsPerRound());
+                programStates = removeCompletedPrograms(repository.programStates());
+            }
         }
-        
-        executor.shutdownNow();
+        finally {
+            executor.shutdownNow();
+
+            // The log is written in the background, so make sure it is complete and released once the programs are.
+            repository.close();
+            if (traceWriter != null)
+                traceWriter.flush();
+            if (scheduleRecorder != null)
+                scheduleRecorder.flush();
+            if (profiler != null)
+                profiler.report();
+        }
+
         repository.programStates(programStates);
 
         // ProgramState programState = repository.getProgramState();
@@ -143,9 +494,6 @@ public class Controller {
 
         //     executeOneStep();
 
-        //     // Get rid of the garbage (heap addresses that are not refered by any symbol table pair).
-        //     programState.heap(garbageCollector(programState.symbolTable().allValues(), programState.heap()));
-
         //     System.out.println(programState);
         //     if (repository.logFilePath().length() > 0)
         //         // Log current program state representation.
@@ -160,20 +508,116 @@ public class Controller {
     }
 
     /**
-     * Constructs an <code>IHeap</code> that contains only the refered values.
-     * @param @symbolTableValues A collection of all the values from symbol table.
-     * @param heap Heap of the <code>ProgramState</code>.
-     * @return The constructed <code>IHeap</code>.
+     * Executes every <code>Statement</code> of the current program states in the order recorded by the <code>ScheduleReplayer</code>, on the calling thread.
+     * The program states are still traced, profiled, recorded and measured if the controller does so.
+     * @throws IOException if the schedule could not be read.
+     * @throws InvalidOperationException if the program states do not follow the schedule.
+     */
+    private void replayPrograms() throws IOException {
+        IList<ProgramState> programStates;
+
+        programStates = removeCompletedPrograms(repository.programStates());
+        optimizePrograms(programStates);
+        recordPrograms(programStates);
+        profilePrograms(programStates);
+        compilePrograms(programStates);
+        tracePrograms(programStates);
+        measurePrograms(programStates);
+
+        try {
+            programStates = scheduleReplayer.replay(programStates);
+        }
+        finally {
+            repository.close();
+        }
+
+        repository.programStates(removeCompletedPrograms(programStates));
+    }
+
+    /**
+     * Simplifies the execution stacks of the program states if the controller optimizes them.
+     * Every program state is simplified once; the program states it forks run statements that are already simplified.
+     * @param programStates <code>IList<></code> of program states.
+     */
+    private void optimizePrograms(IList<ProgramState> programStates) {
+        if (!optimization)
+            return;
+
+        for (ProgramState programState : programStates.all())
+            if (optimizedPrograms.add(programState) && programState.notCompleted())
+                programState.executionStack(Optimizer.optimize(programState.executionStack()));
+    }
+
+    /**
+     * Starts profiling the program states that are not profiled yet, if the controller has a <code>Profiler</code>.
+     * The expressions are instrumented in tree-walking mode only, since the bytecode compiler does not know the profiled expressions.
+     * @param programStates <code>IList<></code> of program states.
+     */
+    private void profilePrograms(IList<ProgramState> programStates) {
+        if (profiler == null)
+            return;
+
+        for (ProgramState programState : programStates.all())
+            if (programState.notCompleted())
+                profiler.instrument(programState, executionMode == ExecutionMode.TreeWalking);
+    }
+
+    /**
+     * Compiles the execution stacks of the program states to bytecode if the controller runs in bytecode mode.
+     * Execution stacks that have already been compiled are left untouched.
+     * @param programStates <code>IList<></code> of program states.
+     */
+    private void compilePrograms(IList<ProgramState> programStates) {
+        if (executionMode != ExecutionMode.Bytecode)
+            return;
+
+        for (ProgramState programState : programStates.all())
+            if (programState.notCompleted() && !(programState.executionStack().back() instanceof CompiledStatement)) {
+                Deque<Statement> executionStack = new Deque<>();
+
+                executionStack.pushBack(BytecodeCompiler.compile(programState.executionStack()));
+                programState.executionStack(executionStack);
+            }
+    }
+
+    /**
+     * Starts tracing the program states that are not traced yet, if the controller has a <code>TraceWriter</code>.
+     * @param programStates <code>IList<></code> of program states.
+     */
+    private void tracePrograms(IList<ProgramState> programStates) {
+        if (traceWriter == null)
+            return;
+
+        for (ProgramState programState : programStates.all())
+            traceWriter.observe(programState);
+    }
+
+    /**
+     * Starts recording the schedule of the program states that are not recorded yet, if the controller has a <code>ScheduleRecorder</code>.
+     * The recorder is added before the other execution listeners, so that they do not count the time a step waits for its turn.
+     * @param programStates <code>IList<></code> of program states.
      */
-    private IHeap<Integer, Integer> garbageCollector(Collection<Integer> symbolTableValues, IHeap<Integer, Integer> heap) {
-        IHeap<Integer, Integer> newHeap = new Heap<>(heap.size());
+    private void recordPrograms(IList<ProgramState> programStates) {
+        if (scheduleRecorder == null)
+            return;
 
-        // for (Integer key : heap.allKeys())
-        //     if (symbolTableValues.contains(key))
-        //         newHeap.add(key, heap.get(key));
-        heap.entries().stream().filter(pair -> symbolTableValues.contains(pair.right())).forEach(pair -> newHeap.add(pair.left(), pair.right()));
+        for (ProgramState programState : programStates.all())
+            scheduleRecorder.observe(programState);
+    }
 
-        return newHeap;
+    /**
+     * Starts measuring the program states that are not measured yet, if the controller has <code>ExecutionMetrics</code>.
+     * @param programStates <code>IList<></code> of program states.
+     */
+    private void measurePrograms(IList<ProgramState> programStates) {
+        if (metrics == null)
+            return;
+
+        for (ProgramState programState : programStates.all())
+            if (programState.metrics() != metrics && programState.notCompleted()) {
+                programState.metrics(metrics);
+                metrics.stateStarted(programState);
+            }
     }
 
     /**
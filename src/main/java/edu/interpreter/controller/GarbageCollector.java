@@ -0,0 +1,218 @@
+package edu.interpreter.controller;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.ObservedHeap;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.IList;
+
+/**
+ * Represents a mark-and-sweep garbage collector for the heaps of the program states.
+ * The roots are the values of the symbol tables of all the live program states that share a heap, even through different observers.
+ * Heap values are followed conservatively: any value that is also an address of the same heap keeps that address alive.
+ * @author David Perisanu
+ */
+public class GarbageCollector {
+    private int stepInterval;
+    private int heapThreshold;
+    private volatile int nextThreshold;
+    private int steps;
+    private long collections;
+    private long lastReclaimed;
+    private long totalReclaimed;
+
+    /**
+     * Initializes a new instance of the <code>GarbageCollector</code> class that has the default values.
+     * A collection is made every 64 steps or whenever a heap holds at least 1024 addresses.
+     */
+    public GarbageCollector() {
+        this(64, 1024);
+    }
+
+    /**
+     * Initializes a new instance of the <code>GarbageCollector</code> class with the specified values.
+     * @param stepInterval The number of global steps between two collections, or 0 to disable the step trigger.
+     * @param heapThreshold The heap size that triggers a collection, or 0 to disable the size trigger.
+     */
+    public GarbageCollector(int stepInterval, int heapThreshold) {
+        this.stepInterval = stepInterval;
+        this.heapThreshold = heapThreshold;
+        nextThreshold = heapThreshold;
+    }
+
+    /**
+     * Gets the number of global steps between two collections of the <code>GarbageCollector</code>.
+     * @return The number of global steps between two collections, or 0 if the step trigger is disabled.
+     */
+    public int stepInterval() {
+        return stepInterval;
+    }
+
+    /**
+     * Sets the number of global steps between two collections of the <code>GarbageCollector</code>.
+     * @param stepInterval The number of global steps between two collections, or 0 to disable the step trigger.
+     */
+    public void stepInterval(int stepInterval) {
+        this.stepInterval = stepInterval;
+    }
+
+    /**
+     * Gets the heap size that triggers a collection of the <code>GarbageCollector</code>.
+     * @return The heap size that triggers a collection, or 0 if the size trigger is disabled.
+     */
+    public int heapThreshold() {
+        return heapThreshold;
+    }
+
+    /**
+     * Sets the heap size that triggers a collection of the <code>GarbageCollector</code>.
+     * @param heapThreshold The heap size that triggers a collection, or 0 to disable the size trigger.
+     */
+    public void heapThreshold(int heapThreshold) {
+        this.heapThreshold = heapThreshold;
+        nextThreshold = heapThreshold;
+    }
+
+    /**
+     * Gets the number of collections made by the <code>GarbageCollector</code>.
+     * @return The number of collections made by the <code>GarbageCollector</code>.
+     */
+    public long collections() {
+        return collections;
+    }
+
+    /**
+     * Gets the number of addresses reclaimed by the last collection of the <code>GarbageCollector</code>.
+     * @return The number of addresses reclaimed by the last collection.
+     */
+    public long lastReclaimed() {
+        return lastReclaimed;
+    }
+
+    /**
+     * Gets the number of addresses reclaimed by all the collections of the <code>GarbageCollector</code>.
+     * @return The number of addresses reclaimed by all the collections.
+     */
+    public long totalReclaimed() {
+        return totalReclaimed;
+    }
+
+    /**
+     * Counts a global step and makes a collection if one of the triggers fires.
+     * Must not run while any of the program states is executing.
+     * @param programStates <code>IList<></code> of program states.
+     * @return The number of reclaimed addresses, or -1 if no collection was made.
+     */
+    public long step(IList<ProgramState> programStates) {
+        boolean collect = false;
+
+        steps++;
+        if (stepInterval > 0 && steps >= stepInterval)
+            collect = true;
+        else
+            for (ProgramState programState : programStates.all())
+                if (programState.heap() != null && thresholdReached(programState.heap().size())) {
+                    collect = true;
+                    break;
+                }
+
+        return collect ? collect(programStates) : -1;
+    }
+
+    /**
+     * Checks if a heap has reached the size that triggers a collection.
+     * @param heapSize The size of the heap.
+     * @return True if the heap should be collected, false otherwise.
+     */
+    public boolean thresholdReached(int heapSize) {
+        int threshold = nextThreshold;
+
+        return threshold > 0 && heapSize >= threshold;
+    }
+
+    /**
+     * Reclaims every heap address that cannot be reached from the symbol tables of the live program states.
+     * Must not run while any of the program states is executing.
+     * @param programStates <code>IList<></code> of program states.
+     * @return The number of reclaimed addresses.
+     */
+    public long collect(IList<ProgramState> programStates) {
+        IdentityHashMap<IHeap<Integer, Integer>, ArrayList<IDictionary<String, Integer>>> roots = new IdentityHashMap<>();
+        IdentityHashMap<IHeap<Integer, Integer>, IHeap<Integer, Integer>> sweptHeaps = new IdentityHashMap<>();
+        long reclaimed = 0;
+        int live = 0;
+
+        // The heaps are grouped by the heap that holds the values, so that program states observed by different wrappers share their roots.
+        for (ProgramState programState : programStates.all())
+            if (programState.heap() != null && programState.notCompleted()) {
+                IHeap<Integer, Integer> inner = programState.heap();
+
+                while (inner instanceof ObservedHeap)
+                    inner = ((ObservedHeap)inner).inner();
+
+                sweptHeaps.putIfAbsent(inner, programState.heap());
+                roots.computeIfAbsent(inner, heap -> new ArrayList<>()).add(programState.symbolTable());
+            }
+
+        for (Map.Entry<IHeap<Integer, Integer>, ArrayList<IDictionary<String, Integer>>> entry : roots.entrySet()) {
+            IHeap<Integer, Integer> heap = sweptHeaps.get(entry.getKey());
+            HashSet<Integer> marked = mark(heap, entry.getValue());
+
+            for (Integer address : heap.allKeys())
+                if (!marked.contains(address)) {
+                    heap.remove(address);
+                    reclaimed++;
+                }
+
+            live = Math.max(live, heap.size());
+        }
+
+        // Let the heap grow past the live data before the size trigger fires again.
+        if (heapThreshold > 0)
+            nextThreshold = Math.max(heapThreshold, 2 * live);
+
+        steps = 0;
+        collections++;
+        lastReclaimed = reclaimed;
+        totalReclaimed += reclaimed;
+
+        return reclaimed;
+    }
+
+    /**
+     * Marks every address of a heap that can be reached from the provided symbol tables.
+     * @param heap The heap to mark.
+     * @param symbolTables The symbol tables of the program states that share the heap.
+     * @return The set of reachable addresses.
+     */
+    private HashSet<Integer> mark(IHeap<Integer, Integer> heap, ArrayList<IDictionary<String, Integer>> symbolTables) {
+        HashSet<Integer> marked = new HashSet<>();
+        ArrayList<Integer> pending = new ArrayList<>();
+
+        for (IDictionary<String, Integer> symbolTable : symbolTables)
+            pending.addAll(symbolTable.allValues());
+
+        while (!pending.isEmpty()) {
+            Integer value = pending.remove(pending.size() - 1);
+
+            if (heap.contains(value) && marked.add(value))
+                pending.add(heap.get(value));
+        }
+
+        return marked;
+    }
+
+    /**
+     * Gets a string representation of the <code>GarbageCollector</code>.
+     * @return The string representation of the <code>GarbageCollector</code>.
+     */
+    @Override
+    public String toString() {
+        return "Collections: " + collections + ", last reclaimed: " + lastReclaimed + ", total reclaimed: " + totalReclaimed;
+    }
+}
@@ -0,0 +1,272 @@
+package edu.interpreter.controller;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IList;
+import edu.interpreter.repository.IRepository;
+
+/**
+ * Runs program states to completion on a <code>ForkJoinPool</code>.
+ * Every program state runs as a task that executes up to a quantum of steps before it yields to the other tasks,
+ * and every forked program state is submitted as a new task. A program state parked on a latch has no task
+ * until the count down that unparks it submits a new one.
+ * @author David Perisanu
+ */
+public class WorkStealingScheduler {
+    private final int parallelism;
+    private final int quantum;
+    private final IRepository repository;
+    private final GarbageCollector garbageCollector;
+
+    private ForkJoinPool pool;
+    private Set<ProgramState> live;
+    private int pending;
+    private int sleeping;
+    private AtomicInteger quanta;
+    private AtomicReference<Throwable> failure;
+    private CountDownLatch done;
+    private ReentrantReadWriteLock world;
+
+    /**
+     * Initializes a new instance of the <code>WorkStealingScheduler</code> class with the specified values.
+     * @param parallelism The number of worker threads.
+     * @param quantum The maximum number of steps a program state executes before it yields.
+     * @param repository The repository that logs the program states.
+     * @param garbageCollector The garbage collector of the heaps, or <code>null</code> if the heaps are not collected.
+     */
+    public WorkStealingScheduler(int parallelism, int quantum, IRepository repository, GarbageCollector garbageCollector) {
+        this.parallelism = parallelism;
+        this.quantum = quantum;
+        this.repository = repository;
+        this.garbageCollector = garbageCollector;
+    }
+
+    /**
+     * Executes every <code>Statement</code> of the provided program states and of the program states they fork.
+     * @param programStates <code>IList<></code> of program states.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws InvalidOperationException if any program state fails.
+     */
+    public void run(IList<ProgramState> programStates) throws InterruptedException {
+        pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        live = ConcurrentHashMap.newKeySet();
+        pending = programStates.size();
+        sleeping = 0;
+        quanta = new AtomicInteger();
+        failure = new AtomicReference<>();
+        done = new CountDownLatch(1);
+        world = new ReentrantReadWriteLock();
+
+        try {
+            if (programStates.size() == 0)
+                return;
+
+            for (ProgramState programState : programStates.all()) {
+                live.add(programState);
+                programState.unparkListener(this::resume);
+                pool.execute(new StepTask(programState));
+            }
+
+            done.await();
+        }
+        finally {
+            pool.shutdownNow();
+
+            for (ProgramState programState : live)
+                programState.unparkListener(null);
+        }
+
+        // Exceptions of the program states, such as a division by zero, reach the caller unchanged.
+        if (failure.get() instanceof RuntimeException)
+            throw (RuntimeException)failure.get();
+        if (failure.get() instanceof Error)
+            throw (Error)failure.get();
+        if (failure.get() != null)
+            throw new InvalidOperationException(String.valueOf(failure.get().getMessage()), failure.get());
+    }
+
+    /**
+     * Marks a program state as completed and wakes up the caller of <code>run</code> after the last one.
+     * @param programState The completed program state.
+     */
+    private void finish(ProgramState programState) {
+        live.remove(programState);
+        programState.unparkListener(null);
+
+        synchronized (this) {
+            pending--;
+            if (pending == 0)
+                done.countDown();
+            else
+                detectDeadlock();
+        }
+    }
+
+    /**
+     * Registers a program state forked by a running task and submits its first task.
+     * @param programState The forked program state.
+     */
+    private void spawn(ProgramState programState) {
+        synchronized (this) {
+            pending++;
+        }
+
+        live.add(programState);
+        programState.unparkListener(this::resume);
+        new StepTask(programState).fork();
+    }
+
+    /**
+     * Marks a parked program state whose task has ended as asleep.
+     */
+    private void sleep() {
+        synchronized (this) {
+            sleeping++;
+            detectDeadlock();
+        }
+    }
+
+    /**
+     * Submits a new task for a program state that has been unparked while asleep.
+     * @param programState The unparked program state.
+     */
+    private void resume(ProgramState programState) {
+        synchronized (this) {
+            sleeping--;
+        }
+
+        pool.execute(new StepTask(programState));
+    }
+
+    /**
+     * Fails the run if every program state that has not completed is asleep, since none of them can be unparked anymore.
+     */
+    private void detectDeadlock() {
+        if (pending > 0 && sleeping == pending)
+            fail(new InvalidOperationException("Deadlock. Every program state waits for a latch."));
+    }
+
+    /**
+     * Records the first failure and wakes up the caller of <code>run</code>.
+     * @param throwable The failure.
+     */
+    private void fail(Throwable throwable) {
+        failure.compareAndSet(null, throwable);
+        done.countDown();
+    }
+
+    /**
+     * Makes a collection of the heaps while no program state is executing, if one of its triggers fires.
+     * @param programState The program state that has just used up its quantum.
+     */
+    private void collectGarbage(ProgramState programState) {
+        int interval = garbageCollector.stepInterval();
+        List<ProgramState> programStates;
+
+        if (!(interval > 0 && quanta.incrementAndGet() % interval == 0) && !(programState.heap() != null && garbageCollector.thresholdReached(programState.heap().size())))
+            return;
+
+        world.writeLock().lock();
+        try {
+            programStates = new List<>();
+            for (ProgramState liveProgramState : live)
+                programStates.add(liveProgramState);
+
+            garbageCollector.collect(programStates);
+        }
+        finally {
+            world.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Represents a task that executes a quantum of steps of a program state.
+     */
+    private final class StepTask extends RecursiveAction {
+        // An inner class can only declare constant static fields.
+        private static final long serialVersionUID = 1L;
+        private final ProgramState programState;
+
+        /**
+         * Initializes a new instance of the <code>StepTask</code> class with the specified value.
+         * @param programState The program state to execute.
+         */
+        StepTask(ProgramState programState) {
+            this.programState = programState;
+        }
+
+        /**
+         * Executes up to a quantum of steps, then submits the forked program states and the continuation.
+         */
+        @Override
+        protected void compute() {
+            if (failure.get() != null)
+                return;
+
+            try {
+                int step = 0;
+
+                log();
+
+                world.readLock().lock();
+                try {
+                    while (step < quantum && programState.notCompleted() && !programState.parked()) {
+                        ProgramState forkProgramState = programState.executeOneStep();
+
+                        if (forkProgramState != null)
+                            spawn(forkProgramState);
+                        step++;
+                    }
+                }
+                finally {
+                    world.readLock().unlock();
+                }
+
+                log();
+
+                if (!programState.notCompleted()) {
+                    finish(programState);
+                    return;
+                }
+
+                // The task ends without a continuation; the count down that unparks the program state submits the next one.
+                if (programState.parked() && programState.sleep()) {
+                    sleep();
+                    return;
+                }
+
+                if (garbageCollector != null && step > 0)
+                    collectGarbage(programState);
+
+                // The pool runs in asynchronous mode, so the continuation queues behind the tasks that are already waiting.
+                new StepTask(programState).fork();
+            }
+            catch (Throwable throwable) {
+                fail(throwable);
+            }
+        }
+
+        /**
+         * Logs the program state if the repository has a log file.
+         * @throws Exception if the log file could not be written.
+         */
+        private void log() throws Exception {
+            if (repository.logFilePath().length() > 0)
+                synchronized (repository) {
+                    repository.logProgramStateExecutionHeader(programState);
+                    repository.logProgramStateExecution(programState);
+                    repository.logProgramStateExecutionFooter(programState);
+                }
+        }
+    }
+}
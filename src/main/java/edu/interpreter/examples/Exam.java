@@ -20,12 +20,12 @@ import edu.interpreter.model.statements.LatchAwaitStatement;
 import edu.interpreter.model.statements.LatchCountDownStatement;
 import edu.interpreter.model.statements.PrintStatement;
 import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ConcurrentHeap;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.FileTable;
-import edu.interpreter.model.utilities.Heap;
 import edu.interpreter.model.utilities.LatchTable;
 import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.SymbolTable;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.repository.IRepository;
 import edu.interpreter.repository.Repository;
@@ -105,7 +105,7 @@ public class Exam {
         executionStack.pushFront(countDown4);
         executionStack.pushFront(print5);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), new LatchTable<>()));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new ConcurrentHeap(), new LatchTable<>()));
         repository.logFilePath("ex1.txt");
 
         return new Controller(repository);
@@ -152,7 +152,7 @@ public class Exam {
         executionStack.pushFront(assign5);
         executionStack.pushFront(print);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), new LatchTable<>()));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new ConcurrentHeap(), new LatchTable<>()));
         repository.logFilePath("ex2.txt");
 
         return new Controller(repository);
@@ -10,8 +10,8 @@ import edu.interpreter.model.statements.AssignmentStatement;
 import edu.interpreter.model.statements.PrintStatement;
 import edu.interpreter.model.statements.Statement;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.SymbolTable;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IList;
@@ -34,7 +34,7 @@ public final class Laboratory2 {
         Statement printStmt = new PrintStatement(new VariableExpression("v"));
 
         IDeque<Statement> executionStack = new Deque<>();
-        IDictionary<String, Integer> symbolTable = new Dictionary<>();
+        IDictionary<String, Integer> symbolTable = new SymbolTable();
         IList<String> outputMessages = new List<>();
         ProgramState programState = new ProgramState(executionStack, symbolTable, outputMessages, null, null, null);
         IRepository repository = new Repository();
@@ -67,7 +67,7 @@ public final class Laboratory2 {
         Statement printStmt = new PrintStatement(new VariableExpression("b"));
 
         IDeque<Statement> executionStack = new Deque<>();
-        IDictionary<String, Integer> symbolTable = new Dictionary<>();
+        IDictionary<String, Integer> symbolTable = new SymbolTable();
         IList<String> outputMessages = new List<>();
         ProgramState programState = new ProgramState(executionStack, symbolTable, outputMessages, null, null, null);
         IRepository repository = new Repository();
@@ -16,10 +16,10 @@ import edu.interpreter.model.statements.PrintStatement;
 import edu.interpreter.model.statements.ReadFileStatement;
 import edu.interpreter.model.statements.Statement;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.FileTable;
 import edu.interpreter.model.utilities.List;
 import edu.interpreter.model.utilities.Pair;
+import edu.interpreter.model.utilities.SymbolTable;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IFileTable;
@@ -62,7 +62,7 @@ public final class Laboratory4 {
         CloseReadFileStatement closeFileStmt = new CloseReadFileStatement(new VariableExpression("var_f"));
 
         IDeque<Statement> executionStack = new Deque<>();
-        IDictionary<String, Integer> symbolTable = new Dictionary<>();
+        IDictionary<String, Integer> symbolTable = new SymbolTable();
         IList<String> outputMessages = new List<>();
         IFileTable<Integer, Pair<String, BufferedReader>> fileTable = new FileTable<>();
         ProgramState programState = new ProgramState(executionStack, symbolTable, outputMessages, fileTable, null, null);
@@ -115,7 +115,7 @@ public final class Laboratory4 {
         CloseReadFileStatement closeFileStmt = new CloseReadFileStatement(new VariableExpression("var_f"));
 
         IDeque<Statement> executionStack = new Deque<>();
-        IDictionary<String, Integer> symbolTable = new Dictionary<>();
+        IDictionary<String, Integer> symbolTable = new SymbolTable();
         IList<String> outputMessages = new List<>();
         IFileTable<Integer, Pair<String, BufferedReader>> fileTable = new FileTable<>();
         ProgramState programState = new ProgramState(executionStack, symbolTable, outputMessages, fileTable, null, null);
@@ -13,10 +13,10 @@ import edu.interpreter.model.statements.HeapWritingStatement;
 import edu.interpreter.model.statements.PrintStatement;
 import edu.interpreter.model.statements.Statement;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.FileTable;
 import edu.interpreter.model.utilities.Heap;
 import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.SymbolTable;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.repository.IRepository;
 import edu.interpreter.repository.Repository;
@@ -56,7 +56,7 @@ public class Laboratory5 {
         executionStack.pushFront(heapAllocStmt2);
         executionStack.pushFront(printStmt);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -95,7 +95,7 @@ public class Laboratory5 {
         executionStack.pushFront(printStmt1);
         executionStack.pushFront(printStmt2);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -139,7 +139,7 @@ public class Laboratory5 {
         executionStack.pushFront(printStmt1);
         executionStack.pushFront(printStmt2);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -187,7 +187,7 @@ public class Laboratory5 {
         executionStack.pushFront(printStmt2);
         executionStack.pushFront(assignStmt2);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -17,10 +17,10 @@ import edu.interpreter.model.statements.ReadFileStatement;
 import edu.interpreter.model.statements.Statement;
 import edu.interpreter.model.statements.WhileLoopStatement;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.FileTable;
 import edu.interpreter.model.utilities.Heap;
 import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.SymbolTable;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.repository.IRepository;
 import edu.interpreter.repository.Repository;
@@ -59,7 +59,7 @@ public class Laboratory7 {
         executionStack.pushFront(printStmt1);
         executionStack.pushFront(printStmt2);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -90,7 +90,7 @@ public class Laboratory7 {
         executionStack.pushFront(whileStmt);
         executionStack.pushFront(printStmt);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -126,7 +126,7 @@ public class Laboratory7 {
         executionStack.pushFront(printStmt);
         executionStack.pushFront(conditionalStmt);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new Heap<>(), null));
 
         return new Controller(repository);
     }
@@ -12,11 +12,11 @@ import edu.interpreter.model.statements.HeapAllocationStatement;
 import edu.interpreter.model.statements.HeapWritingStatement;
 import edu.interpreter.model.statements.PrintStatement;
 import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ConcurrentHeap;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.FileTable;
-import edu.interpreter.model.utilities.Heap;
 import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.SymbolTable;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.repository.IRepository;
 import edu.interpreter.repository.Repository;
@@ -64,7 +64,7 @@ public class Laboratory8 {
         executionStack.pushFront(printStmt3);
         executionStack.pushFront(printStmt4);
 
-        repository.add(new ProgramState(executionStack, new Dictionary<>(), new List<>(), new FileTable<>(), new Heap<>(), null));
+        repository.add(new ProgramState(executionStack, new SymbolTable(), new List<>(), new FileTable<>(), new ConcurrentHeap(), null));
         
         return new Controller(repository);
     }
@@ -0,0 +1,158 @@
+package edu.interpreter.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+
+/**
+ * Collects the metrics of the execution of program states into a <code>MetricsRegistry</code>.
+ * The instruments are looked up once, so that recording an event only updates striped counters.
+ * @author David Perisanu
+ */
+public class ExecutionMetrics {
+    private final MetricsRegistry registry;
+    private final LongAdder steps;
+    private final LongAdder forks;
+    private final LongAdder liveStates;
+    private final LongAdder completedStates;
+    private final LongAdder heapAllocations;
+    private final Histogram stepsPerState;
+    private final Histogram latchWait;
+    private final Histogram roundLatency;
+    private final ClassValue<LongAdder> statements;
+    private final Set<IHeap<Integer, Integer>> heaps;
+
+    /**
+     * Initializes a new instance of the <code>ExecutionMetrics</code> class with a new <code>MetricsRegistry</code>.
+     */
+    public ExecutionMetrics() {
+        this(new MetricsRegistry());
+    }
+
+    /**
+     * Initializes a new instance of the <code>ExecutionMetrics</code> class with the specified value.
+     * @param registry The registry that holds the metrics.
+     */
+    public ExecutionMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        steps = registry.counter("steps");
+        forks = registry.counter("forks");
+        liveStates = new LongAdder();
+        completedStates = registry.counter("states.completed");
+        heapAllocations = registry.counter("heap.allocations");
+        stepsPerState = registry.histogram("states.steps");
+        latchWait = registry.histogram("latch.wait.ns");
+        roundLatency = registry.histogram("round.latency.ns");
+        statements = new ClassValue<LongAdder>() {
+            /**
+             * Gets the counter of the statements of a class.
+             * @param type The class of the statements.
+             * @return The counter of the statements of the class.
+             */
+            @Override
+            protected LongAdder computeValue(Class<?> type) {
+                return registry.counter("statements." + type.getSimpleName());
+            }
+        };
+        heaps = Collections.newSetFromMap(new WeakHashMap<>());
+
+        registry.gauge("states.live", liveStates::sum);
+        registry.gauge("heap.size", this::heapSize);
+    }
+
+    /**
+     * Gets the <code>MetricsRegistry</code> of the <code>ExecutionMetrics</code>.
+     * @return The <code>MetricsRegistry</code> that holds the metrics.
+     */
+    public MetricsRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Records a program state that starts being measured.
+     * @param programState The program state.
+     */
+    public void stateStarted(ProgramState programState) {
+        liveStates.increment();
+
+        if (programState.heap() != null)
+            synchronized (heaps) {
+                heaps.add(programState.heap());
+            }
+    }
+
+    /**
+     * Records a program state forked by a measured program state.
+     * @param programState The forked program state.
+     */
+    public void stateForked(ProgramState programState) {
+        forks.increment();
+        stateStarted(programState);
+    }
+
+    /**
+     * Records a measured program state that has executed its last step.
+     * @param programState The completed program state.
+     */
+    public void stateCompleted(ProgramState programState) {
+        liveStates.decrement();
+        completedStates.increment();
+        stepsPerState.record(programState.executedSteps());
+    }
+
+    /**
+     * Records a step about to execute a <code>Statement</code>.
+     * @param statement The <code>Statement</code>.
+     */
+    public void stepExecuted(Statement statement) {
+        steps.increment();
+        statements.get(statement.getClass()).increment();
+    }
+
+    /**
+     * Records the allocation of a heap cell.
+     */
+    public void heapAllocated() {
+        heapAllocations.increment();
+    }
+
+    /**
+     * Records the time a program state has waited for a latch.
+     * @param nanoseconds The waiting time, in nanoseconds.
+     */
+    public void latchWaited(long nanoseconds) {
+        latchWait.record(nanoseconds);
+    }
+
+    /**
+     * Records the time a lock-step round has taken.
+     * @param nanoseconds The time of the round, in nanoseconds.
+     */
+    public void roundCompleted(long nanoseconds) {
+        roundLatency.record(nanoseconds);
+    }
+
+    /**
+     * Gets the number of cells of the heaps of the measured program states. Shared heaps are counted once.
+     * @return The number of heap cells.
+     */
+    private long heapSize() {
+        ArrayList<IHeap<Integer, Integer>> snapshot;
+        long size = 0;
+
+        synchronized (heaps) {
+            snapshot = new ArrayList<>(heaps);
+        }
+
+        for (IHeap<Integer, Integer> heap : snapshot)
+            size += heap.size();
+
+        return size;
+    }
+}
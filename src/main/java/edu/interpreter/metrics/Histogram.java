@@ -0,0 +1,99 @@
+package edu.interpreter.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the distribution of non-negative values inside power of two buckets.
+ * Every bucket is a striped counter, so recording from many threads does not contend on a single location.
+ * @author David Perisanu
+ */
+public class Histogram {
+    private static final int BUCKETS = 65;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * Initializes a new instance of the <code>Histogram</code> class that is empty.
+     */
+    public Histogram() {
+        buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+
+        // Bucket b holds the values from 2^(b - 1) to 2^b - 1; bucket 0 holds 0.
+        buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded values of the <code>Histogram</code>.
+     * @return The number of recorded values.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values of the <code>Histogram</code>.
+     * @return The sum of the recorded values.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the greatest recorded value of the <code>Histogram</code>.
+     * @return The greatest recorded value, or 0 if no value has been recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values of the <code>Histogram</code>.
+     * @return The mean of the recorded values, or 0 if no value has been recorded.
+     */
+    public long mean() {
+        long n = count();
+
+        return n == 0 ? 0 : sum() / n;
+    }
+
+    /**
+     * Gets an upper bound of a percentile of the recorded values of the <code>Histogram</code>.
+     * The bound is the end of the bucket that holds the percentile, so it is at most twice the exact value.
+     * @param percentile The percentile, between 0 and 1.
+     * @return An upper bound of the percentile, or 0 if no value has been recorded.
+     */
+    public long percentile(double percentile) {
+        long target = (long)Math.ceil(percentile * count()), seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+
+            if (seen >= target && seen > 0)
+                return Math.min(i == 0 ? 0 : i == 64 ? Long.MAX_VALUE : (1L << i) - 1, max());
+        }
+
+        return max();
+    }
+}
@@ -0,0 +1,164 @@
+package edu.interpreter.metrics;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends the metrics of a <code>MetricsRegistry</code> to a file at a fixed period.
+ * Counters are written together with their rate per second since the previous dump.
+ * @author David Perisanu
+ */
+public class MetricsDumper implements AutoCloseable {
+    /**
+     * Represents the format of the dumps.
+     */
+    public enum Format {
+        /**
+         * A block of <code>name = value</code> lines under the time of the dump.
+         */
+        Text,
+        /**
+         * One <code>time,metric,value,rate</code> row for every metric.
+         */
+        Csv
+    }
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final MetricsRegistry registry;
+    private final Format format;
+    private final Writer writer;
+    private final ScheduledExecutorService scheduler;
+    private final HashMap<String, Long> previousValues;
+    private long previousTime;
+    private volatile IOException failure;
+
+    /**
+     * Initializes a new instance of the <code>MetricsDumper</code> class with the specified values and starts dumping.
+     * @param registry The registry of the dumped metrics.
+     * @param filePath The path of the file the dumps are appended to.
+     * @param period The time between two dumps, in milliseconds.
+     * @param format The format of the dumps.
+     * @throws FileNotFoundException if the file path is not valid.
+     */
+    public MetricsDumper(MetricsRegistry registry, String filePath, long period, Format format) throws FileNotFoundException {
+        Path path = Paths.get(filePath);
+
+        this.registry = registry;
+        this.format = format;
+        previousValues = new HashMap<>();
+        previousTime = System.nanoTime();
+
+        try {
+            boolean empty = !Files.exists(path) || Files.size(path) == 0;
+
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (empty && format == Format.Csv)
+                writer.write("time,metric,value,rate" + LINE_SEPARATOR);
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Metrics file path is not valid.");
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dumper " + filePath);
+
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                dump();
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the <code>Format</code> of the dumps of the <code>MetricsDumper</code>.
+     * @return The <code>Format</code> of the dumps.
+     */
+    public Format format() {
+        return format;
+    }
+
+    /**
+     * Appends the current metrics to the file.
+     * @throws IOException if the file could not be written.
+     */
+    public synchronized void dump() throws IOException {
+        SortedMap<String, Long> snapshot = registry.snapshot();
+        StringBuilder stringBuilder = new StringBuilder();
+        String time = LocalDateTime.now().toString();
+        long now = System.nanoTime();
+        double seconds = Math.max(now - previousTime, 1) / 1e9;
+
+        if (format == Format.Text)
+            stringBuilder.append("[").append(time).append("]").append(LINE_SEPARATOR);
+
+        for (Map.Entry<String, Long> metric : snapshot.entrySet()) {
+            String name = metric.getKey();
+            long value = metric.getValue();
+            boolean counter = registry.isCounter(name);
+            long rate = counter ? Math.round((value - previousValues.getOrDefault(name, 0L)) / seconds) : 0;
+
+            if (format == Format.Text) {
+                stringBuilder.append("    ").append(name).append(" = ").append(value);
+                if (counter)
+                    stringBuilder.append(" (").append(rate).append("/s)");
+                stringBuilder.append(LINE_SEPARATOR);
+            }
+            else
+                stringBuilder.append(time).append(',').append(name).append(',').append(value).append(',').append(counter ? Long.toString(rate) : "").append(LINE_SEPARATOR);
+
+            if (counter)
+                previousValues.put(name, value);
+        }
+
+        previousTime = now;
+
+        writer.write(stringBuilder.toString());
+        writer.flush();
+    }
+
+    /**
+     * Stops dumping, appends a last dump and closes the file.
+     * @throws IOException if the file could not be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            dump();
+        }
+        finally {
+            writer.close();
+        }
+
+        if (failure != null)
+            throw new IOException("Metrics file could not be written. " + failure.getMessage());
+    }
+}
@@ -0,0 +1,236 @@
+package edu.interpreter.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+
+/**
+ * Holds named counters, histograms and gauges.
+ * Counters are <code>LongAdder</code> instances, so that threads updating the same counter do not contend.
+ * The metrics can be read as a flat snapshot and exposed as the attributes of a JMX MBean.
+ * @author David Perisanu
+ */
+public class MetricsRegistry {
+    private final ConcurrentHashMap<String, LongAdder> counters;
+    private final ConcurrentHashMap<String, Histogram> histograms;
+    private final ConcurrentHashMap<String, LongSupplier> gauges;
+    private ObjectName objectName;
+
+    /**
+     * Initializes a new instance of the <code>MetricsRegistry</code> class that is empty.
+     */
+    public MetricsRegistry() {
+        counters = new ConcurrentHashMap<>();
+        histograms = new ConcurrentHashMap<>();
+        gauges = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the counter with the specified name, creating it if it does not exist.
+     * @param name The name of the counter.
+     * @return The counter.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Gets the histogram with the specified name, creating it if it does not exist.
+     * @param name The name of the histogram.
+     * @return The histogram.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge, a value that is read when the metrics are read. An existing gauge with the same name is replaced.
+     * @param name The name of the gauge.
+     * @param gauge The supplier of the value of the gauge.
+     */
+    public void gauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Checks if a metric of the snapshot is a counter.
+     * @param name The name of the metric.
+     * @return True if the metric is a counter, false otherwise.
+     */
+    public boolean isCounter(String name) {
+        return counters.containsKey(name);
+    }
+
+    /**
+     * Reads every metric. Every histogram is read as its count, mean, maximum and percentiles.
+     * @return The values of the metrics, sorted by name.
+     */
+    public SortedMap<String, Long> snapshot() {
+        TreeMap<String, Long> snapshot = new TreeMap<>();
+
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet())
+            snapshot.put(counter.getKey(), counter.getValue().sum());
+
+        for (Map.Entry<String, Histogram> histogram : histograms.entrySet()) {
+            String name = histogram.getKey();
+            Histogram value = histogram.getValue();
+
+            snapshot.put(name + ".count", value.count());
+            snapshot.put(name + ".mean", value.mean());
+            snapshot.put(name + ".max", value.max());
+            snapshot.put(name + ".p50", value.percentile(0.50));
+            snapshot.put(name + ".p90", value.percentile(0.90));
+            snapshot.put(name + ".p99", value.percentile(0.99));
+        }
+
+        for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet())
+            snapshot.put(gauge.getKey(), gauge.getValue().getAsLong());
+
+        return snapshot;
+    }
+
+    /**
+     * Registers the metrics as the attributes of an MBean of the platform MBean server.
+     * @param name The value of the name key of the object name of the MBean.
+     * @throws InvalidOperationException if the MBean could not be registered.
+     */
+    public synchronized void registerMBean(String name) throws InvalidOperationException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        unregisterMBean();
+
+        try {
+            objectName = new ObjectName("edu.interpreter:type=Metrics,name=" + ObjectName.quote(name));
+            server.registerMBean(new MetricsBean(), objectName);
+        }
+        catch (JMException e) {
+            objectName = null;
+            throw new InvalidOperationException("Metrics MBean could not be registered. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters the MBean of the metrics, if it has been registered.
+     * @throws InvalidOperationException if the MBean could not be unregistered.
+     */
+    public synchronized void unregisterMBean() throws InvalidOperationException {
+        if (objectName == null)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+        catch (JMException e) {
+            throw new InvalidOperationException("Metrics MBean could not be unregistered. " + e.getMessage());
+        }
+        finally {
+            objectName = null;
+        }
+    }
+
+    /**
+     * Represents an MBean whose read-only attributes are the metrics of the registry.
+     * The attributes are read from a fresh snapshot, so metrics created after the registration are exposed as well.
+     */
+    private final class MetricsBean implements DynamicMBean {
+        /**
+         * Gets the value of a metric.
+         * @param attribute The name of the metric.
+         * @return The value of the metric.
+         * @throws AttributeNotFoundException if the metric does not exist.
+         */
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Long value = snapshot().get(attribute);
+
+            if (value == null)
+                throw new AttributeNotFoundException(attribute);
+
+            return value;
+        }
+
+        /**
+         * Gets the values of several metrics. Metrics that do not exist are left out.
+         * @param attributes The names of the metrics.
+         * @return The values of the metrics.
+         */
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            SortedMap<String, Long> snapshot = snapshot();
+            AttributeList attributeList = new AttributeList();
+
+            for (String attribute : attributes)
+                if (snapshot.containsKey(attribute))
+                    attributeList.add(new Attribute(attribute, snapshot.get(attribute)));
+
+            return attributeList;
+        }
+
+        /**
+         * Rejects the update of a metric, since the metrics are read-only.
+         * @param attribute The attribute to update.
+         * @throws AttributeNotFoundException always.
+         */
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only.");
+        }
+
+        /**
+         * Rejects the update of the metrics, since the metrics are read-only.
+         * @param attributes The attributes to update.
+         * @return An empty list, since no attribute has been updated.
+         */
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        /**
+         * Rejects the invocation of an operation, since the MBean has no operations.
+         * @param actionName The name of the operation.
+         * @param params The arguments of the operation.
+         * @param signature The signature of the operation.
+         * @return Nothing.
+         * @throws UnsupportedOperationException always.
+         */
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("Metrics MBean has no operations.");
+        }
+
+        /**
+         * Gets the description of the MBean, with one attribute for every metric.
+         * @return The description of the MBean.
+         */
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            SortedMap<String, Long> snapshot = snapshot();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+            int i = 0;
+
+            for (String name : snapshot.keySet())
+                attributes[i++] = new MBeanAttributeInfo(name, Long.class.getName(), name, true, false, false);
+
+            return new MBeanInfo(MetricsRegistry.class.getName(), "Interpreter metrics.", attributes, null, new MBeanOperationInfo[0], new MBeanNotificationInfo[0]);
+        }
+    }
+}
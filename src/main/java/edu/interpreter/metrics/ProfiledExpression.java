@@ -0,0 +1,142 @@
+package edu.interpreter.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+
+/**
+ * Represents an <code>Expression</code> that counts its evaluations and times the sampled ones for a <code>Profiler</code>.
+ * The wrapped <code>Expression</code> is shown and evaluated unchanged.
+ * @author David Perisanu
+ */
+final class ProfiledExpression extends Expression {
+    private final Expression expression;
+    private final Profiler profiler;
+    private final LongAdder calls;
+    private final LongAdder samples;
+    private final LongAdder totalTime;
+    private final LongAdder selfTime;
+    private volatile Statement owner;
+    private volatile ProfiledExpression parent;
+
+    /**
+     * Initializes a new instance of the <code>ProfiledExpression</code> class with the specified values.
+     * @param expression The profiled <code>Expression</code>.
+     * @param profiler The <code>Profiler</code> that samples the evaluations.
+     */
+    ProfiledExpression(Expression expression, Profiler profiler) {
+        this.expression = expression;
+        this.profiler = profiler;
+        calls = new LongAdder();
+        samples = new LongAdder();
+        totalTime = new LongAdder();
+        selfTime = new LongAdder();
+    }
+
+    /**
+     * Gets the profiled <code>Expression</code>.
+     * @return The profiled <code>Expression</code>.
+     */
+    Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the <code>Statement</code> that evaluated the <code>ProfiledExpression</code> when it was first sampled.
+     * @return The <code>Statement</code>, or <code>null</code> if no evaluation has been sampled.
+     */
+    Statement owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the <code>ProfiledExpression</code> that evaluated this one when it was first sampled.
+     * @return The enclosing <code>ProfiledExpression</code>, or <code>null</code> if the expression is the root of its tree.
+     */
+    ProfiledExpression parent() {
+        return parent;
+    }
+
+    /**
+     * Gets the number of evaluations of the <code>ProfiledExpression</code>.
+     * @return The number of evaluations.
+     */
+    long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * Gets the number of timed evaluations of the <code>ProfiledExpression</code>.
+     * @return The number of timed evaluations.
+     */
+    long samples() {
+        return samples.sum();
+    }
+
+    /**
+     * Gets the time of the timed evaluations, including the nested expressions.
+     * @return The time in nanoseconds.
+     */
+    long totalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * Gets the time of the timed evaluations, excluding the nested expressions.
+     * @return The time in nanoseconds.
+     */
+    long selfTime() {
+        return selfTime.sum();
+    }
+
+    /**
+     * Computes the value of the profiled <code>Expression</code>, timing the evaluation if the current step is sampled.
+     * @param symbolTable Symbol table of the <code>ProgramState</code>.
+     * @param heap Heap of the <code>ProgramState</code>.
+     * @return The value of the profiled <code>Expression</code>.
+     */
+    @Override
+    public int evaluate(IDictionary<String, Integer> symbolTable, IHeap<Integer, Integer> heap) {
+        Profiler.Sampler sampler = profiler.sampler();
+        ProfiledExpression enclosing;
+        long childTime, start, elapsed;
+
+        calls.increment();
+        if (!sampler.sampling)
+            return expression.evaluate(symbolTable, heap);
+
+        enclosing = sampler.expression;
+        if (owner == null) {
+            owner = sampler.statement;
+            parent = enclosing;
+        }
+
+        childTime = sampler.childTime;
+        sampler.childTime = 0;
+        sampler.expression = this;
+        start = System.nanoTime();
+        try {
+            return expression.evaluate(symbolTable, heap);
+        }
+        finally {
+            elapsed = System.nanoTime() - start;
+            samples.increment();
+            totalTime.add(elapsed);
+            selfTime.add(elapsed - sampler.childTime);
+            sampler.childTime = childTime + elapsed;
+            sampler.expression = enclosing;
+        }
+    }
+
+    /**
+     * Gets a string representation of the profiled <code>Expression</code>.
+     * @return The string representation of the profiled <code>Expression</code>.
+     */
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
@@ -0,0 +1,434 @@
+package edu.interpreter.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.Rewriter;
+import edu.interpreter.model.expressions.ArithmeticExpression;
+import edu.interpreter.model.expressions.BooleanExpression;
+import edu.interpreter.model.expressions.ConstantExpression;
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.NegationExpression;
+import edu.interpreter.model.statements.CompoundStatement;
+import edu.interpreter.model.statements.ConditionalStatement;
+import edu.interpreter.model.statements.DoUntilStatement;
+import edu.interpreter.model.statements.ForkStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.statements.WhileLoopStatement;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+
+/**
+ * Profiles the statements and expressions executed by program states.
+ * Every step and every evaluation is counted, and one step out of every sampling interval is timed together with the
+ * expressions it evaluates. Times are reported per node of the program, either as a flat profile or as collapsed stacks
+ * whose frames are the enclosing loops, conditionals and forks of every node.
+ * @author David Perisanu
+ */
+public class Profiler implements IExecutionListener {
+    private static final int CALLS = 0;
+    private static final int SAMPLES = 1;
+    private static final int TOTAL_TIME = 2;
+    private static final int SELF_TIME = 3;
+    private static final int FRAME_LENGTH = 60;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Represents the profile of the steps executed by one thread.
+     */
+    static final class Sampler {
+        final IdentityHashMap<Statement, long[]> statements = new IdentityHashMap<>();
+        long steps;
+        boolean sampling;
+        long start;
+        long childTime;
+        Statement statement;
+        ProfiledExpression expression;
+    }
+
+    private final int samplingInterval;
+    private final ThreadLocal<Sampler> sampler;
+    private final ConcurrentLinkedQueue<Sampler> samplers;
+    private final ConcurrentLinkedQueue<ProfiledExpression> expressions;
+    private final IdentityHashMap<Statement, Statement> parents;
+    private PrintStream output;
+    private String collapsedStacksPath;
+
+    /**
+     * Initializes a new instance of the <code>Profiler</code> class that times every step.
+     */
+    public Profiler() {
+        this(1);
+    }
+
+    /**
+     * Initializes a new instance of the <code>Profiler</code> class with the specified value.
+     * @param samplingInterval The number of steps executed by a thread for every timed step.
+     */
+    public Profiler(int samplingInterval) {
+        this.samplingInterval = Math.max(samplingInterval, 1);
+        samplers = new ConcurrentLinkedQueue<>();
+        sampler = ThreadLocal.withInitial(() -> {
+            Sampler sampler = new Sampler();
+
+            samplers.add(sampler);
+            return sampler;
+        });
+        expressions = new ConcurrentLinkedQueue<>();
+        parents = new IdentityHashMap<>();
+        output = System.out;
+        collapsedStacksPath = "";
+    }
+
+    /**
+     * Gets the number of steps executed by a thread for every timed step.
+     * @return The sampling interval of the <code>Profiler</code>.
+     */
+    public int samplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Gets the stream the flat profile is printed to by <code>report</code>.
+     * @return The output stream of the <code>Profiler</code>.
+     */
+    public PrintStream output() {
+        return output;
+    }
+
+    /**
+     * Sets the stream the flat profile is printed to by <code>report</code>.
+     */
+    public void output(PrintStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Gets the path of the file the collapsed stacks are written to by <code>report</code>.
+     * @return The path of the collapsed stacks file, or an empty string if they are not written.
+     */
+    public String collapsedStacksPath() {
+        return collapsedStacksPath;
+    }
+
+    /**
+     * Sets the path of the file the collapsed stacks are written to by <code>report</code>.
+     */
+    public void collapsedStacksPath(String collapsedStacksPath) {
+        this.collapsedStacksPath = collapsedStacksPath;
+    }
+
+    /**
+     * Starts profiling a <code>ProgramState</code> and the program states it forks.
+     * The profiler is added to the execution listeners of the <code>ProgramState</code>.
+     * @param programState The <code>ProgramState</code> to profile.
+     * @param profileExpressions <code>true</code> to wrap the expressions of the execution stack so that they are profiled as well;
+     * the wrapped expressions can only run through the tree-walking path.
+     */
+    public void instrument(ProgramState programState, boolean profileExpressions) {
+        ListIterator<Statement> iterator;
+
+        if (programState.hasExecutionListener(this))
+            return;
+
+        if (profileExpressions)
+            programState.executionStack(Rewriter.rewrite(programState.executionStack(), this::instrument));
+
+        synchronized (parents) {
+            iterator = programState.executionStack().iteratorFront();
+            while (iterator.hasNext())
+                registerParents(iterator.next(), null);
+        }
+
+        programState.addExecutionListener(this);
+    }
+
+    /**
+     * Counts the step and starts timing it if it is sampled.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    @Override
+    public void stepStarting(ProgramState programState) {
+        Sampler sampler = this.sampler.get();
+        Statement statement = programState.executionStack().back();
+
+        sampler.statements.computeIfAbsent(statement, key -> new long[4])[CALLS]++;
+        sampler.statement = statement;
+
+        if (++sampler.steps % samplingInterval == 0) {
+            sampler.sampling = true;
+            sampler.childTime = 0;
+            sampler.expression = null;
+            sampler.start = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops timing the step and profiles the forked <code>ProgramState</code>, if any.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    @Override
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState) {
+        Sampler sampler = this.sampler.get();
+
+        if (sampler.sampling) {
+            long elapsed = System.nanoTime() - sampler.start;
+            long[] profile = sampler.statements.get(sampler.statement);
+
+            profile[SAMPLES]++;
+            profile[TOTAL_TIME] += elapsed;
+            profile[SELF_TIME] += elapsed - sampler.childTime;
+            sampler.sampling = false;
+        }
+
+        if (forkProgramState != null)
+            forkProgramState.addExecutionListener(this);
+    }
+
+    /**
+     * Does nothing, since count downs are profiled as the steps that execute them.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    @Override
+    public void latchCountedDown(ProgramState programState, int latch, int count) {
+    }
+
+    /**
+     * Does nothing, since allocations are profiled as the steps that execute them.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    @Override
+    public void heapAllocated(ProgramState programState, int address) {
+    }
+
+    /**
+     * Gets the flat profile: every profiled node with its estimated self and total time and its number of executions, the slowest first.
+     * The times of the statements exclude the expressions they evaluate. Must be called once the profiled program states have stopped.
+     * @return The flat profile.
+     */
+    public String flatProfile() {
+        ArrayList<Object[]> rows = new ArrayList<>();
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (Map.Entry<Statement, long[]> statement : statements().entrySet()) {
+            long[] profile = statement.getValue();
+
+            rows.add(new Object[] { estimate(profile[SELF_TIME], profile), estimate(profile[TOTAL_TIME], profile), profile[CALLS], "statement", statement.getKey().toString() });
+        }
+
+        for (ProfiledExpression expression : expressions)
+            if (expression.calls() > 0) {
+                long[] profile = { expression.calls(), expression.samples(), expression.totalTime(), expression.selfTime() };
+
+                rows.add(new Object[] { estimate(profile[SELF_TIME], profile), estimate(profile[TOTAL_TIME], profile), profile[CALLS], "expression", expression.toString() });
+            }
+
+        rows.sort((left, right) -> Long.compare((long)right[0], (long)left[0]));
+
+        stringBuilder.append("Flat profile (1 in " + samplingInterval + " steps timed)").append(LINE_SEPARATOR);
+        stringBuilder.append(String.format("%12s %12s %12s  %-10s  %s", "self ms", "total ms", "calls", "kind", "node")).append(LINE_SEPARATOR);
+        for (Object[] row : rows)
+            stringBuilder.append(String.format("%12.3f %12.3f %12d  %-10s  %s", (long)row[0] / 1e6, (long)row[1] / 1e6, row[2], row[3], row[4])).append(LINE_SEPARATOR);
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Gets the collapsed stacks: one line for every timed node, made of its enclosing frames separated by semicolons
+     * and followed by its estimated self time in nanoseconds, as read by flame graph tools.
+     * Must be called once the profiled program states have stopped.
+     * @return The collapsed stacks.
+     */
+    public String collapsedStacks() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (Map.Entry<Statement, long[]> statement : statements().entrySet()) {
+            long selfTime = estimate(statement.getValue()[SELF_TIME], statement.getValue());
+
+            if (selfTime > 0)
+                stringBuilder.append(path(statement.getKey())).append(' ').append(selfTime).append(LINE_SEPARATOR);
+        }
+
+        for (ProfiledExpression expression : expressions) {
+            long[] profile = { expression.calls(), expression.samples(), expression.totalTime(), expression.selfTime() };
+            long selfTime = estimate(profile[SELF_TIME], profile);
+
+            if (selfTime > 0 && expression.owner() != null)
+                stringBuilder.append(path(expression)).append(' ').append(selfTime).append(LINE_SEPARATOR);
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Prints the flat profile to the output stream and writes the collapsed stacks to their file, if it has been set.
+     * @throws IOException if the collapsed stacks file could not be written.
+     */
+    public void report() throws IOException {
+        output.print(flatProfile());
+        output.flush();
+
+        if (collapsedStacksPath.length() > 0)
+            Files.write(Paths.get(collapsedStacksPath), collapsedStacks().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the <code>Sampler</code> of the current thread.
+     * @return The <code>Sampler</code> of the current thread.
+     */
+    Sampler sampler() {
+        return sampler.get();
+    }
+
+    /**
+     * Wraps every node of an <code>Expression</code> tree, except the constants, inside a <code>ProfiledExpression</code>.
+     * @param expression The <code>Expression</code> to wrap.
+     * @return The wrapped <code>Expression</code>.
+     */
+    private Expression instrument(Expression expression) {
+        ProfiledExpression profiledExpression;
+
+        if (expression == null || expression instanceof ConstantExpression || expression instanceof ProfiledExpression)
+            return expression;
+
+        if (expression instanceof ArithmeticExpression) {
+            ArithmeticExpression arithmeticExpression = (ArithmeticExpression)expression;
+
+            expression = new ArithmeticExpression(instrument(arithmeticExpression.leftExpression()), arithmeticExpression.arithmeticOperator(), instrument(arithmeticExpression.rightExpression()));
+        }
+        else if (expression instanceof BooleanExpression) {
+            BooleanExpression booleanExpression = (BooleanExpression)expression;
+
+            expression = new BooleanExpression(instrument(booleanExpression.leftExpression()), booleanExpression.relationalOperator(), instrument(booleanExpression.rightExpression()));
+        }
+        else if (expression instanceof NegationExpression)
+            expression = new NegationExpression(instrument(((NegationExpression)expression).expression()));
+
+        profiledExpression = new ProfiledExpression(expression, this);
+        expressions.add(profiledExpression);
+
+        return profiledExpression;
+    }
+
+    /**
+     * Records the enclosing frame of a <code>Statement</code> and of its nested statements.
+     * Compound statements only sequence their statements, so they are not the frame of their statements.
+     * @param statement The <code>Statement</code>.
+     * @param parent The enclosing frame, or <code>null</code>.
+     */
+    private void registerParents(Statement statement, Statement parent) {
+        // Long programs are long chains of compound statements, so the chain is walked without recursion.
+        while (statement instanceof CompoundStatement) {
+            if (parents.containsKey(statement))
+                return;
+            parents.put(statement, parent);
+
+            registerParents(((CompoundStatement)statement).firstStatement(), parent);
+            statement = ((CompoundStatement)statement).secondStatement();
+        }
+
+        if (statement == null || parents.containsKey(statement))
+            return;
+        parents.put(statement, parent);
+
+        if (statement instanceof ConditionalStatement) {
+            registerParents(((ConditionalStatement)statement).ifStatement(), statement);
+            registerParents(((ConditionalStatement)statement).elseStatement(), statement);
+        }
+        else if (statement instanceof WhileLoopStatement)
+            registerParents(((WhileLoopStatement)statement).statement(), statement);
+        else if (statement instanceof DoUntilStatement)
+            registerParents(((DoUntilStatement)statement).statement(), statement);
+        else if (statement instanceof ForkStatement)
+            registerParents(((ForkStatement)statement).statement(), statement);
+    }
+
+    /**
+     * Merges the statement profiles of every thread.
+     * @return The profile of every executed <code>Statement</code>.
+     */
+    private IdentityHashMap<Statement, long[]> statements() {
+        IdentityHashMap<Statement, long[]> statements = new IdentityHashMap<>();
+
+        for (Sampler sampler : samplers)
+            for (Map.Entry<Statement, long[]> statement : sampler.statements.entrySet()) {
+                long[] profile = statements.computeIfAbsent(statement.getKey(), key -> new long[4]);
+
+                for (int i = 0; i < profile.length; i++)
+                    profile[i] += statement.getValue()[i];
+            }
+
+        return statements;
+    }
+
+    /**
+     * Estimates the time of every execution of a node from the time of its timed executions.
+     * @param time The time of the timed executions.
+     * @param profile The profile of the node.
+     * @return The estimated time.
+     */
+    private static long estimate(long time, long[] profile) {
+        return profile[SAMPLES] == 0 ? 0 : Math.round((double)time * profile[CALLS] / profile[SAMPLES]);
+    }
+
+    /**
+     * Gets the collapsed stack of a <code>Statement</code>.
+     * @param statement The <code>Statement</code>.
+     * @return The enclosing frames and the <code>Statement</code>, separated by semicolons.
+     */
+    private String path(Statement statement) {
+        ArrayList<String> frames = new ArrayList<>();
+        StringBuilder stringBuilder = new StringBuilder();
+
+        synchronized (parents) {
+            for (Statement frame = statement; frame != null; frame = parents.get(frame))
+                frames.add(frame(frame));
+        }
+
+        for (int i = frames.size() - 1; i >= 0; i--)
+            stringBuilder.append(frames.get(i)).append(i > 0 ? ";" : "");
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Gets the collapsed stack of a <code>ProfiledExpression</code>.
+     * @param expression The <code>ProfiledExpression</code>.
+     * @return The frames of the <code>Statement</code> that evaluates it, followed by the enclosing expressions and the expression.
+     */
+    private String path(ProfiledExpression expression) {
+        ArrayList<String> frames = new ArrayList<>();
+        StringBuilder stringBuilder = new StringBuilder(path(expression.owner()));
+
+        for (ProfiledExpression frame = expression; frame != null; frame = frame.parent())
+            frames.add(frame(frame));
+
+        for (int i = frames.size() - 1; i >= 0; i--)
+            stringBuilder.append(';').append(frames.get(i));
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Gets the name of a frame: the string representation of a node, shortened and without the separators of the collapsed stacks.
+     * @param node The node.
+     * @return The name of the frame.
+     */
+    private static String frame(Object node) {
+        String frame = node.toString().replace(';', ' ').replaceAll("\\s+", " ").trim();
+
+        return frame.length() > FRAME_LENGTH ? frame.substring(0, FRAME_LENGTH - 3) + "..." : frame;
+    }
+}
@@ -0,0 +1,196 @@
+package edu.interpreter.model;
+
+import edu.interpreter.model.expressions.ArithmeticExpression;
+import edu.interpreter.model.expressions.ArithmeticExpression.ArithmeticOperator;
+import edu.interpreter.model.expressions.BooleanExpression;
+import edu.interpreter.model.expressions.BooleanExpression.RelationalOperator;
+import edu.interpreter.model.expressions.ConstantExpression;
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.NegationExpression;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.interfaces.IDeque;
+
+/**
+ * Simplifies <code>Statement</code> and <code>Expression</code> trees before they are executed.
+ * Constant operands are folded and neutral operands are dropped, while every expression that could fail at run time
+ * (a division by zero, an undefined variable or an invalid heap address) is kept, so the program fails the same way.
+ * Trees that cannot be simplified are returned as they are.
+ * @author David Perisanu
+ */
+public final class Optimizer {
+    private Optimizer() { }     // Simulate static class.
+
+    /**
+     * Simplifies every <code>Statement</code> of an execution stack.
+     * @param executionStack The execution stack to simplify.
+     * @return A new execution stack with the simplified statements, or the provided one if none of them could be simplified.
+     */
+    public static IDeque<Statement> optimize(IDeque<Statement> executionStack) {
+        return Rewriter.rewrite(executionStack, Optimizer::optimize);
+    }
+
+    /**
+     * Simplifies the expressions of a <code>Statement</code> and of its nested statements.
+     * @param statement The <code>Statement</code> to simplify.
+     * @return The simplified <code>Statement</code>, or the provided one if it could not be simplified.
+     */
+    public static Statement optimize(Statement statement) {
+        return Rewriter.rewrite(statement, Optimizer::optimize);
+    }
+
+    /**
+     * Folds the constant operands of an <code>Expression</code> and drops its neutral operands.
+     * @param expression The <code>Expression</code> to simplify.
+     * @return The simplified <code>Expression</code>, or the provided one if it could not be simplified.
+     */
+    public static Expression optimize(Expression expression) {
+        if (expression instanceof ArithmeticExpression)
+            return optimize((ArithmeticExpression)expression);
+
+        if (expression instanceof BooleanExpression) {
+            BooleanExpression booleanExpression = (BooleanExpression)expression;
+            Expression leftExpression = optimize(booleanExpression.leftExpression());
+            Expression rightExpression = optimize(booleanExpression.rightExpression());
+
+            if (leftExpression instanceof ConstantExpression && rightExpression instanceof ConstantExpression)
+                return new ConstantExpression(new BooleanExpression(leftExpression, booleanExpression.relationalOperator(), rightExpression).evaluate(null, null));
+
+            if (leftExpression != booleanExpression.leftExpression() || rightExpression != booleanExpression.rightExpression())
+                return new BooleanExpression(leftExpression, booleanExpression.relationalOperator(), rightExpression);
+        }
+        else if (expression instanceof NegationExpression) {
+            NegationExpression negationExpression = (NegationExpression)expression;
+            Expression negatedExpression = optimize(negationExpression.expression());
+
+            if (negatedExpression instanceof ConstantExpression)
+                return new ConstantExpression(((ConstantExpression)negatedExpression).value() == 0 ? 1 : 0);
+
+            // A negated comparison is the comparison with the opposite operator.
+            if (negatedExpression instanceof BooleanExpression) {
+                BooleanExpression booleanExpression = (BooleanExpression)negatedExpression;
+
+                return new BooleanExpression(booleanExpression.leftExpression(), opposite(booleanExpression.relationalOperator()), booleanExpression.rightExpression());
+            }
+
+            if (negatedExpression != negationExpression.expression())
+                return new NegationExpression(negatedExpression);
+        }
+
+        return expression;
+    }
+
+    /**
+     * Folds the constant operands of an <code>ArithmeticExpression</code> and drops its neutral operands.
+     * @param arithmeticExpression The <code>ArithmeticExpression</code> to simplify.
+     * @return The simplified <code>Expression</code>, or the provided one if it could not be simplified.
+     */
+    private static Expression optimize(ArithmeticExpression arithmeticExpression) {
+        ArithmeticOperator arithmeticOperator = arithmeticExpression.arithmeticOperator();
+        Expression leftExpression = optimize(arithmeticExpression.leftExpression());
+        Expression rightExpression = optimize(arithmeticExpression.rightExpression());
+
+        if (leftExpression instanceof ConstantExpression && rightExpression instanceof ConstantExpression) {
+            // A division by a constant 0 is kept, so that it still fails when the program reaches it.
+            if (!(arithmeticOperator == ArithmeticOperator.Division && ((ConstantExpression)rightExpression).value() == 0))
+                return new ConstantExpression(new ArithmeticExpression(leftExpression, arithmeticOperator, rightExpression).evaluate(null, null));
+        }
+        else
+            switch (arithmeticOperator) {
+                case Addition:
+                    if (isConstant(leftExpression, 0))
+                        return rightExpression;
+                    if (isConstant(rightExpression, 0))
+                        return leftExpression;
+                    break;
+
+                case Substraction:
+                    if (isConstant(rightExpression, 0))
+                        return leftExpression;
+                    break;
+
+                case Multiplication:
+                    if (isConstant(leftExpression, 1))
+                        return rightExpression;
+                    if (isConstant(rightExpression, 1))
+                        return leftExpression;
+                    if ((isConstant(leftExpression, 0) && cannotFail(rightExpression)) || (isConstant(rightExpression, 0) && cannotFail(leftExpression)))
+                        return new ConstantExpression(0);
+                    break;
+
+                case Division:
+                    if (isConstant(rightExpression, 1))
+                        return leftExpression;
+                    break;
+            }
+
+        if (leftExpression != arithmeticExpression.leftExpression() || rightExpression != arithmeticExpression.rightExpression())
+            return new ArithmeticExpression(leftExpression, arithmeticOperator, rightExpression);
+
+        return arithmeticExpression;
+    }
+
+    /**
+     * Gets a value that indicates whether an <code>Expression</code> is a constant with the specified value.
+     * @param expression The <code>Expression</code>.
+     * @param value The value.
+     * @return <code>true</code> if the <code>Expression</code> is a <code>ConstantExpression</code> with the value; otherwise, <code>false</code>.
+     */
+    private static boolean isConstant(Expression expression, int value) {
+        return expression instanceof ConstantExpression && ((ConstantExpression)expression).value() == value;
+    }
+
+    /**
+     * Gets a value that indicates whether an <code>Expression</code> can be dropped without hiding a run time failure.
+     * Variables and heap reads fail when they are not defined, and divisions fail when the divisor is 0.
+     * @param expression The <code>Expression</code>.
+     * @return <code>true</code> if evaluating the <code>Expression</code> never fails; otherwise, <code>false</code>.
+     */
+    private static boolean cannotFail(Expression expression) {
+        if (expression instanceof ConstantExpression)
+            return true;
+
+        if (expression instanceof ArithmeticExpression) {
+            ArithmeticExpression arithmeticExpression = (ArithmeticExpression)expression;
+
+            return arithmeticExpression.arithmeticOperator() != ArithmeticOperator.Division && cannotFail(arithmeticExpression.leftExpression()) && cannotFail(arithmeticExpression.rightExpression());
+        }
+
+        if (expression instanceof BooleanExpression) {
+            BooleanExpression booleanExpression = (BooleanExpression)expression;
+
+            return cannotFail(booleanExpression.leftExpression()) && cannotFail(booleanExpression.rightExpression());
+        }
+
+        if (expression instanceof NegationExpression)
+            return cannotFail(((NegationExpression)expression).expression());
+
+        return false;
+    }
+
+    /**
+     * Gets the relational operator that is true exactly when the provided one is false.
+     * @param relationalOperator The relational operator.
+     * @return The opposite relational operator.
+     */
+    private static RelationalOperator opposite(RelationalOperator relationalOperator) {
+        switch (relationalOperator) {
+            case Equal:
+                return RelationalOperator.NotEqual;
+
+            case NotEqual:
+                return RelationalOperator.Equal;
+
+            case Greater:
+                return RelationalOperator.LessOrEqual;
+
+            case Less:
+                return RelationalOperator.GreaterOrEqual;
+
+            case GreaterOrEqual:
+                return RelationalOperator.Less;
+
+            default:
+                return RelationalOperator.Greater;
+        }
+    }
+}
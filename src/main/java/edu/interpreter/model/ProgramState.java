@@ -1,28 +1,90 @@
 package edu.interpreter.model;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import edu.interpreter.metrics.ExecutionMetrics;
 import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ArenaHeap;
+import edu.interpreter.model.utilities.CompositeExecutionListener;
+import edu.interpreter.model.utilities.ConcurrentHeap;
+import edu.interpreter.model.utilities.DeepCopy;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.Dictionary;
 import edu.interpreter.model.utilities.FileTable;
 import edu.interpreter.model.utilities.Heap;
 import edu.interpreter.model.utilities.IdGenerator;
+import edu.interpreter.model.utilities.IdGenerator.Namespace;
+import edu.interpreter.model.utilities.IntHeap;
 import edu.interpreter.model.utilities.LatchTable;
 import edu.interpreter.model.utilities.List;
 import edu.interpreter.model.utilities.Pair;
+import edu.interpreter.model.utilities.SymbolTable;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
 import edu.interpreter.model.utilities.interfaces.IDeque;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
 import edu.interpreter.model.utilities.interfaces.IFileTable;
 import edu.interpreter.model.utilities.interfaces.IHeap;
 import edu.interpreter.model.utilities.interfaces.ILatchTable;
 import edu.interpreter.model.utilities.interfaces.IList;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
 
 /**
  * Represents a state of the program at some point.
  * @author David Perisanu
  */
 public class ProgramState {
+    private static final int RUNNING = 0;
+    private static final int PARKING = 1;
+    private static final int SLEEPING = 2;
+
+    /**
+     * Represents the storage of the heap of a <code>ProgramState</code>.
+     */
+    public enum HeapStorage {
+        /**
+         * Boxed addresses and values inside a <code>Heap<></code> (reference storage).
+         */
+        Boxed,
+        /**
+         * Primitive open addressing table inside the Java heap.
+         */
+        Primitive,
+        /**
+         * Primitive open addressing table inside a direct buffer outside the Java heap.
+         */
+        Direct,
+        /**
+         * Lock-striped primitive tables that can be shared by program states running on different threads.
+         */
+        Concurrent,
+        /**
+         * Primitive arena indexed by address, whose dense addresses are allocated by the heap and reused once they are collected.
+         */
+        Arena;
+
+        /**
+         * Creates an empty heap that uses this storage.
+         * @return The created heap.
+         */
+        public IHeap<Integer, Integer> create() {
+            switch (this) {
+                case Primitive:
+                    return new IntHeap(false);
+                case Direct:
+                    return new IntHeap(true);
+                case Concurrent:
+                    return new ConcurrentHeap();
+                case Arena:
+                    return new ArenaHeap();
+                default:
+                    return new Heap<>();
+            }
+        }
+    }
+
     private int id;
     private IDeque<Statement> executionStack;
     private IDictionary<String, Integer> symbolTable;
@@ -30,20 +92,35 @@ public class ProgramState {
     private IFileTable<Integer, Pair<String, BufferedReader>> fileTable;
     private IHeap<Integer, Integer> heap;
     private ILatchTable<Integer, Integer> latchTable;
+    private final AtomicInteger parkState = new AtomicInteger(RUNNING);
+    private volatile Consumer<ProgramState> unparkListener;
+    private volatile IExecutionListener executionListener;
+    private long executedSteps;
+    private volatile ExecutionMetrics metrics;
+    private volatile long parkedAt;
 
     /**
      * Initializes a new instance of the <code>ProgramState</code> class that has the default values.
      */
     public ProgramState() {
-        id = IdGenerator.generateId();
+        id = IdGenerator.generateId(Namespace.State);
         executionStack = new Deque<>();
-        symbolTable = new Dictionary<>();
+        symbolTable = new SymbolTable();
         outputMessages = new List<>();
         fileTable = new FileTable<>();
-        heap = new Heap<>();
+        heap = new ConcurrentHeap();
         latchTable = new LatchTable<>();
     }
 
+    /**
+     * Initializes a new instance of the <code>ProgramState</code> class that has the default values and the specified heap storage.
+     * @param heapStorage The storage of the heap of the <code>ProgramState</code>.
+     */
+    public ProgramState(HeapStorage heapStorage) {
+        this();
+        heap = heapStorage.create();
+    }
+
     /**
      * Initializes a new instance of the <code>AssignmentStatement</code> class with the specified values.
      * @param executionStack Execution stack of the <code>ProgramState</code>.
@@ -53,7 +130,21 @@ public class ProgramState {
      * @param latchTable Latch table of the <code>ProgramState</code>.
      */
     public ProgramState(IDeque<Statement> executionStack, IDictionary<String, Integer> symbolTable, IList<String> outputMessages, IFileTable<Integer, Pair<String, BufferedReader>> fileTable, IHeap<Integer, Integer> heap, ILatchTable<Integer, Integer> latchTable) {
-        id = IdGenerator.generateId();
+        this(IdGenerator.generateId(Namespace.State), executionStack, symbolTable, outputMessages, fileTable, heap, latchTable);
+    }
+
+    /**
+     * Initializes a new instance of the <code>ProgramState</code> class that restores a recorded program state.
+     * @param id The identificator of the recorded <code>ProgramState</code>.
+     * @param executionStack Execution stack of the <code>ProgramState</code>.
+     * @param symbolTable Symbol table of the <code>ProgramState</code>.
+     * @param outputMessages List of outputed messages of the <code>ProgramState</code>.
+     * @param fileTable File table of the <code>ProgramState</code>.
+     * @param heap Heap of the <code>ProgramState</code>.
+     * @param latchTable Latch table of the <code>ProgramState</code>.
+     */
+    public ProgramState(int id, IDeque<Statement> executionStack, IDictionary<String, Integer> symbolTable, IList<String> outputMessages, IFileTable<Integer, Pair<String, BufferedReader>> fileTable, IHeap<Integer, Integer> heap, ILatchTable<Integer, Integer> latchTable) {
+        this.id = id;
         this.executionStack = executionStack;
         this.symbolTable = symbolTable;
         this.outputMessages = outputMessages;
@@ -168,11 +259,200 @@ public class ProgramState {
         return !executionStack.isEmpty();
     }
 
+    /**
+     * Checks if the <code>ProgramState</code> waits for a latch and must not be scheduled.
+     * @return True if the <code>ProgramState</code> is parked, false otherwise.
+     */
+    public boolean parked() {
+        return parkState.get() != RUNNING;
+    }
+
+    /**
+     * Parks the <code>ProgramState</code> until <code>unpark</code> is called.
+     * The <code>ProgramState</code> keeps executing its current step, and the scheduler stops scheduling it afterwards.
+     */
+    public void park() {
+        if (metrics != null)
+            parkedAt = System.nanoTime();
+
+        parkState.set(PARKING);
+    }
+
+    /**
+     * Confirms that the scheduler has stopped running the parked <code>ProgramState</code>.
+     * @return True if the <code>ProgramState</code> is asleep and the unpark listener will resume it,
+     * false if it has been unparked in the meantime and must keep running.
+     */
+    public boolean sleep() {
+        return parkState.compareAndSet(PARKING, SLEEPING);
+    }
+
+    /**
+     * Unparks the <code>ProgramState</code>.
+     * If the scheduler has stopped running it, the unpark listener is notified so that it can be scheduled again.
+     */
+    public void unpark() {
+        ExecutionMetrics metrics = this.metrics;
+
+        if (parkState.compareAndSet(PARKING, RUNNING)) {
+            if (metrics != null)
+                metrics.latchWaited(System.nanoTime() - parkedAt);
+            return;
+        }
+
+        if (parkState.compareAndSet(SLEEPING, RUNNING)) {
+            if (metrics != null)
+                metrics.latchWaited(System.nanoTime() - parkedAt);
+            if (unparkListener != null)
+                unparkListener.accept(this);
+        }
+    }
+
+    /**
+     * Sets the listener that is notified when the sleeping <code>ProgramState</code> is unparked.
+     * @param unparkListener The listener, or <code>null</code>.
+     */
+    public void unparkListener(Consumer<ProgramState> unparkListener) {
+        this.unparkListener = unparkListener;
+    }
+
+    /**
+     * Gets the listener that is notified around every step of the <code>ProgramState</code>.
+     * @return The listener, a <code>CompositeExecutionListener</code> if several listeners have been added, or <code>null</code>.
+     */
+    public IExecutionListener executionListener() {
+        return executionListener;
+    }
+
+    /**
+     * Adds a listener that is notified around every step of the <code>ProgramState</code>, after the listeners already added.
+     * A listener that has already been added is not added again.
+     * @param executionListener The listener.
+     */
+    public synchronized void addExecutionListener(IExecutionListener executionListener) {
+        this.executionListener = CompositeExecutionListener.add(this.executionListener, executionListener);
+    }
+
+    /**
+     * Removes a listener that is notified around every step of the <code>ProgramState</code>.
+     * @param executionListener The listener.
+     */
+    public synchronized void removeExecutionListener(IExecutionListener executionListener) {
+        this.executionListener = CompositeExecutionListener.remove(this.executionListener, executionListener);
+    }
+
+    /**
+     * Determines whether a listener is notified around every step of the <code>ProgramState</code>.
+     * @param executionListener The listener.
+     * @return <code>true</code> if the listener has been added, <code>false</code> otherwise.
+     */
+    public boolean hasExecutionListener(IExecutionListener executionListener) {
+        return CompositeExecutionListener.contains(this.executionListener, executionListener);
+    }
+
+    /**
+     * Gets the <code>ExecutionMetrics</code> that measure the <code>ProgramState</code>.
+     * @return The <code>ExecutionMetrics</code>, or <code>null</code> if the <code>ProgramState</code> is not measured.
+     */
+    public ExecutionMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the <code>ExecutionMetrics</code> that measure the <code>ProgramState</code> and the program states it forks.
+     * @param metrics The <code>ExecutionMetrics</code>, or <code>null</code>.
+     */
+    public void metrics(ExecutionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the number of steps the <code>ProgramState</code> has executed.
+     * @return The number of executed steps.
+     */
+    public long executedSteps() {
+        return executedSteps;
+    }
+
     /**
      * Executes the top-most <code>Statement</code> of the <code>ProgramState</code>.
      */
     public ProgramState executeOneStep() {
-        return executionStack().popBack().execute(this);
+        IExecutionListener listener = executionListener;
+        ExecutionMetrics metrics = this.metrics;
+        ProgramState forkProgramState = null;
+
+        executedSteps++;
+
+        if (metrics == null && listener == null)
+            return executionStack().popBack().execute(this);
+
+        if (metrics != null)
+            metrics.stepExecuted(executionStack().back());
+
+        if (listener == null)
+            forkProgramState = executionStack().popBack().execute(this);
+        else {
+            listener.stepStarting(this);
+            try {
+                forkProgramState = executionStack().popBack().execute(this);
+            }
+            finally {
+                listener.stepCompleted(this, forkProgramState);
+            }
+        }
+
+        if (metrics != null && executionStack().isEmpty())
+            metrics.stateCompleted(this);
+
+        return forkProgramState;
+    }
+
+    /**
+     * Executes steps of the <code>ProgramState</code> until it has executed the maximum number of steps,
+     * parks on a latch, forks or completes, whichever happens first.
+     * @param maxSteps The maximum number of steps to execute.
+     * @return The child <code>ProgramState</code> created by the last step, or <code>null</code> if no step forked.
+     */
+    public ProgramState executeSteps(int maxSteps) {
+        ProgramState forkProgramState = null;
+
+        for (int step = 0; step < maxSteps && forkProgramState == null && notCompleted() && !parked(); step++)
+            forkProgramState = executeOneStep();
+
+        return forkProgramState;
+    }
+
+    /**
+     * Creates a child <code>ProgramState</code> that shares the output messages, file table, heap and latch table
+     * and works on a copy of the symbol table. Slot symbol tables are copied on write, other symbol tables are deep copied.
+     * @param executionStack Execution stack of the child <code>ProgramState</code>.
+     * @return The child <code>ProgramState</code>.
+     * @throws InvalidOperationException if the symbol table could not be copied.
+     */
+    @SuppressWarnings("unchecked")
+    public ProgramState fork(IDeque<Statement> executionStack) throws InvalidOperationException {
+        ProgramState forkProgramState;
+
+        if (symbolTable instanceof ISymbolTable)
+            forkProgramState = new ProgramState(executionStack, ((ISymbolTable)symbolTable).copy(), outputMessages, fileTable, heap, latchTable);
+        else
+            try {
+                forkProgramState = new ProgramState(executionStack, (IDictionary<String, Integer>)DeepCopy.copy(symbolTable), outputMessages, fileTable, heap, latchTable);
+            }
+            catch (IOException e) {
+                throw new InvalidOperationException("I/O exception. Object could not be serialized.");
+            }
+            catch (ClassNotFoundException e) {
+                throw new InvalidOperationException("Class not found. Object could not be serialized.");
+            }
+
+        if (metrics != null) {
+            forkProgramState.metrics = metrics;
+            metrics.stateForked(forkProgramState);
+        }
+
+        return forkProgramState;
     }
 
     /**
@@ -0,0 +1,169 @@
+package edu.interpreter.model;
+
+import java.util.ArrayList;
+import java.util.ListIterator;
+import java.util.function.UnaryOperator;
+
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.statements.AssignmentStatement;
+import edu.interpreter.model.statements.CloseReadFileStatement;
+import edu.interpreter.model.statements.CompoundStatement;
+import edu.interpreter.model.statements.ConditionalStatement;
+import edu.interpreter.model.statements.DoUntilStatement;
+import edu.interpreter.model.statements.ForkStatement;
+import edu.interpreter.model.statements.HeapAllocationStatement;
+import edu.interpreter.model.statements.HeapWritingStatement;
+import edu.interpreter.model.statements.LatchAllocationStatement;
+import edu.interpreter.model.statements.PrintStatement;
+import edu.interpreter.model.statements.ReadFileStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.statements.WhileLoopStatement;
+import edu.interpreter.model.utilities.Deque;
+import edu.interpreter.model.utilities.interfaces.IDeque;
+
+/**
+ * Rebuilds <code>Statement</code> trees whose expressions are rewritten by a function.
+ * Statements without expressions, and statements the rewriter does not know, are kept as they are.
+ * @author David Perisanu
+ */
+public final class Rewriter {
+    private Rewriter() { }      // Simulate static class.
+
+    /**
+     * Rewrites the expressions of every <code>Statement</code> of an execution stack.
+     * @param executionStack The execution stack to rewrite.
+     * @param rewrite The function that rewrites an <code>Expression</code>.
+     * @return A new execution stack with the rewritten statements, or the provided one if none of them changed.
+     */
+    public static IDeque<Statement> rewrite(IDeque<Statement> executionStack, UnaryOperator<Expression> rewrite) {
+        ListIterator<Statement> iterator = executionStack.iteratorFront();
+        Deque<Statement> rewrittenExecutionStack = new Deque<>();
+        boolean changed = false;
+
+        while (iterator.hasNext()) {
+            Statement statement = iterator.next();
+            Statement rewrittenStatement = rewrite(statement, rewrite);
+
+            changed |= rewrittenStatement != statement;
+            rewrittenExecutionStack.pushBack(rewrittenStatement);
+        }
+
+        return changed ? rewrittenExecutionStack : executionStack;
+    }
+
+    /**
+     * Rewrites the expressions of a <code>Statement</code> and of its nested statements.
+     * Statements are rebuilt only when one of their expressions or nested statements has changed.
+     * @param statement The <code>Statement</code> to rewrite.
+     * @param rewrite The function that rewrites an <code>Expression</code>.
+     * @return The rewritten <code>Statement</code>, or the provided one if nothing changed.
+     */
+    public static Statement rewrite(Statement statement, UnaryOperator<Expression> rewrite) {
+        if (statement instanceof CompoundStatement) {
+            // Long programs are long chains of compound statements, so the chain is walked without recursion.
+            ArrayList<CompoundStatement> chain = new ArrayList<>();
+            Statement rewrittenStatement;
+
+            while (statement instanceof CompoundStatement) {
+                chain.add((CompoundStatement)statement);
+                statement = ((CompoundStatement)statement).secondStatement();
+            }
+
+            rewrittenStatement = rewrite(statement, rewrite);
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                CompoundStatement compoundStatement = chain.get(i);
+                Statement firstStatement = rewrite(compoundStatement.firstStatement(), rewrite);
+
+                if (firstStatement != compoundStatement.firstStatement() || rewrittenStatement != compoundStatement.secondStatement())
+                    rewrittenStatement = new CompoundStatement(firstStatement, rewrittenStatement);
+                else
+                    rewrittenStatement = compoundStatement;
+            }
+
+            return rewrittenStatement;
+        }
+        else if (statement instanceof AssignmentStatement) {
+            AssignmentStatement assignmentStatement = (AssignmentStatement)statement;
+            Expression expression = rewrite.apply(assignmentStatement.expression());
+
+            if (expression != assignmentStatement.expression())
+                return new AssignmentStatement(assignmentStatement.variableName(), expression);
+        }
+        else if (statement instanceof PrintStatement) {
+            PrintStatement printStatement = (PrintStatement)statement;
+            Expression expression = rewrite.apply(printStatement.expression());
+
+            if (expression != printStatement.expression())
+                return new PrintStatement(expression);
+        }
+        else if (statement instanceof ConditionalStatement) {
+            ConditionalStatement conditionalStatement = (ConditionalStatement)statement;
+            Expression expression = rewrite.apply(conditionalStatement.expression());
+            Statement ifStatement = rewrite(conditionalStatement.ifStatement(), rewrite);
+            Statement elseStatement = rewrite(conditionalStatement.elseStatement(), rewrite);
+
+            if (expression != conditionalStatement.expression() || ifStatement != conditionalStatement.ifStatement() || elseStatement != conditionalStatement.elseStatement())
+                return new ConditionalStatement(expression, ifStatement, elseStatement);
+        }
+        else if (statement instanceof WhileLoopStatement) {
+            WhileLoopStatement whileLoopStatement = (WhileLoopStatement)statement;
+            Expression expression = rewrite.apply(whileLoopStatement.expression());
+            Statement loopStatement = rewrite(whileLoopStatement.statement(), rewrite);
+
+            if (expression != whileLoopStatement.expression() || loopStatement != whileLoopStatement.statement())
+                return new WhileLoopStatement(expression, loopStatement);
+        }
+        else if (statement instanceof DoUntilStatement) {
+            DoUntilStatement doUntilStatement = (DoUntilStatement)statement;
+            Statement loopStatement = rewrite(doUntilStatement.statement(), rewrite);
+            Expression expression = rewrite.apply(doUntilStatement.expression());
+
+            if (loopStatement != doUntilStatement.statement() || expression != doUntilStatement.expression())
+                return new DoUntilStatement(loopStatement, expression);
+        }
+        else if (statement instanceof ForkStatement) {
+            ForkStatement forkStatement = (ForkStatement)statement;
+            Statement forkedStatement = rewrite(forkStatement.statement(), rewrite);
+
+            if (forkedStatement != forkStatement.statement())
+                return new ForkStatement(forkedStatement);
+        }
+        else if (statement instanceof HeapAllocationStatement) {
+            HeapAllocationStatement heapAllocationStatement = (HeapAllocationStatement)statement;
+            Expression expression = rewrite.apply(heapAllocationStatement.expression());
+
+            if (expression != heapAllocationStatement.expression())
+                return new HeapAllocationStatement(heapAllocationStatement.variableName(), expression);
+        }
+        else if (statement instanceof HeapWritingStatement) {
+            HeapWritingStatement heapWritingStatement = (HeapWritingStatement)statement;
+            Expression expression = rewrite.apply(heapWritingStatement.expression());
+
+            if (expression != heapWritingStatement.expression())
+                return new HeapWritingStatement(heapWritingStatement.variableName(), expression);
+        }
+        else if (statement instanceof LatchAllocationStatement) {
+            LatchAllocationStatement latchAllocationStatement = (LatchAllocationStatement)statement;
+            Expression expression = rewrite.apply(latchAllocationStatement.expression());
+
+            if (expression != latchAllocationStatement.expression())
+                return new LatchAllocationStatement(latchAllocationStatement.variableName(), expression);
+        }
+        else if (statement instanceof ReadFileStatement) {
+            ReadFileStatement readFileStatement = (ReadFileStatement)statement;
+            Expression expression = rewrite.apply(readFileStatement.expression());
+
+            if (expression != readFileStatement.expression())
+                return new ReadFileStatement(expression, readFileStatement.variableName());
+        }
+        else if (statement instanceof CloseReadFileStatement) {
+            CloseReadFileStatement closeReadFileStatement = (CloseReadFileStatement)statement;
+            Expression expression = rewrite.apply(closeReadFileStatement.expression());
+
+            if (expression != closeReadFileStatement.expression())
+                return new CloseReadFileStatement(expression);
+        }
+
+        return statement;
+    }
+}
@@ -0,0 +1,316 @@
+package edu.interpreter.model.bytecode;
+
+import java.util.ArrayList;
+import java.util.ListIterator;
+
+import edu.interpreter.model.expressions.ArithmeticExpression;
+import edu.interpreter.model.expressions.BooleanExpression;
+import edu.interpreter.model.expressions.ConstantExpression;
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.HeapReadingExpression;
+import edu.interpreter.model.expressions.NegationExpression;
+import edu.interpreter.model.expressions.VariableExpression;
+import edu.interpreter.model.statements.AssignmentStatement;
+import edu.interpreter.model.statements.CloseReadFileStatement;
+import edu.interpreter.model.statements.CompoundStatement;
+import edu.interpreter.model.statements.ConditionalStatement;
+import edu.interpreter.model.statements.DoUntilStatement;
+import edu.interpreter.model.statements.ForkStatement;
+import edu.interpreter.model.statements.HeapAllocationStatement;
+import edu.interpreter.model.statements.HeapWritingStatement;
+import edu.interpreter.model.statements.LatchAllocationStatement;
+import edu.interpreter.model.statements.LatchAwaitStatement;
+import edu.interpreter.model.statements.LatchCountDownStatement;
+import edu.interpreter.model.statements.OpenReadFileStatement;
+import edu.interpreter.model.statements.PrintStatement;
+import edu.interpreter.model.statements.ReadFileStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.statements.WhileLoopStatement;
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.interfaces.IDeque;
+
+/**
+ * Lowers <code>Statement</code> and <code>Expression</code> trees into flat <code>BytecodeProgram</code> instances.
+ * @author David Perisanu
+ */
+public final class BytecodeCompiler {
+    private int[] code;
+    private int size;
+    private int registers;
+    private ArrayList<Statement> statements;
+    private ArrayList<BytecodeProgram> programs;
+
+    /**
+     * Initializes a new instance of the <code>BytecodeCompiler</code> class that is empty.
+     */
+    private BytecodeCompiler() {
+        code = new int[64];
+        size = 0;
+        registers = 1;
+        statements = new ArrayList<>();
+        programs = new ArrayList<>();
+    }
+
+    /**
+     * Compiles a <code>Statement</code> into a <code>CompiledStatement</code>.
+     * @param statement The <code>Statement</code> to compile.
+     * @return The <code>CompiledStatement</code> that runs the statement.
+     * @throws InvalidArgumentException if the statement cannot be compiled.
+     */
+    public static CompiledStatement compile(Statement statement) throws InvalidArgumentException {
+        return new CompiledStatement(compileProgram(statement));
+    }
+
+    /**
+     * Compiles every <code>Statement</code> of an execution stack, from the top to the bottom, into a <code>CompiledStatement</code>.
+     * @param executionStack The execution stack to compile.
+     * @return The <code>CompiledStatement</code> that runs the whole execution stack.
+     * @throws InvalidArgumentException if a statement cannot be compiled.
+     */
+    public static CompiledStatement compile(IDeque<Statement> executionStack) throws InvalidArgumentException {
+        BytecodeCompiler compiler = new BytecodeCompiler();
+        ListIterator<Statement> iterator = executionStack.iteratorBack();
+        StringBuilder source = new StringBuilder();
+
+        while (iterator.hasPrevious()) {
+            Statement statement = iterator.previous();
+
+            compiler.statement(statement);
+            source.append(source.length() > 0 ? " " : "").append(statement);
+        }
+
+        return new CompiledStatement(compiler.build(source.toString()));
+    }
+
+    /**
+     * Compiles a <code>Statement</code> into a <code>BytecodeProgram</code>.
+     * @param statement The <code>Statement</code> to compile.
+     * @return The compiled <code>BytecodeProgram</code>.
+     */
+    private static BytecodeProgram compileProgram(Statement statement) {
+        BytecodeCompiler compiler = new BytecodeCompiler();
+
+        compiler.statement(statement);
+
+        return compiler.build(String.valueOf(statement));
+    }
+
+    /**
+     * Builds the <code>BytecodeProgram</code> from the emitted instructions.
+     * @param source The source representation of the program.
+     * @return The built <code>BytecodeProgram</code>.
+     */
+    private BytecodeProgram build(String source) {
+        int[] program = new int[size];
+
+        System.arraycopy(code, 0, program, 0, size);
+
+        return new BytecodeProgram(program, statements.toArray(new Statement[statements.size()]), programs.toArray(new BytecodeProgram[programs.size()]), registers, source);
+    }
+
+    /**
+     * Emits the instructions of a <code>Statement</code>.
+     * @param statement The <code>Statement</code> to compile.
+     * @throws InvalidArgumentException if the statement cannot be compiled.
+     */
+    private void statement(Statement statement) throws InvalidArgumentException {
+        if (statement == null)
+            return;
+
+        if (statement instanceof CompoundStatement) {
+            CompoundStatement compoundStatement = (CompoundStatement)statement;
+
+            statement(compoundStatement.firstStatement());
+            statement(compoundStatement.secondStatement());
+        }
+        else if (statement instanceof AssignmentStatement) {
+            AssignmentStatement assignmentStatement = (AssignmentStatement)statement;
+
+            expression(assignmentStatement.expression(), 0);
+            emit(OpCode.STORE, assignmentStatement.slot(), 0);
+        }
+        else if (statement instanceof PrintStatement) {
+            expression(((PrintStatement)statement).expression(), 0);
+            emit(OpCode.PRINT, 0);
+        }
+        else if (statement instanceof ConditionalStatement) {
+            ConditionalStatement conditionalStatement = (ConditionalStatement)statement;
+            int elseJump, endJump;
+
+            expression(conditionalStatement.expression(), 0);
+            elseJump = emit(OpCode.JUMP_IF_ZERO, 0, -1);
+            statement(conditionalStatement.ifStatement());
+            endJump = emit(OpCode.JUMP, -1);
+            patch(elseJump, size);
+            statement(conditionalStatement.elseStatement());
+            patch(endJump, size);
+        }
+        else if (statement instanceof WhileLoopStatement) {
+            WhileLoopStatement whileLoopStatement = (WhileLoopStatement)statement;
+            int start, exitJump;
+
+            start = size;
+            expression(whileLoopStatement.expression(), 0);
+            exitJump = emit(OpCode.JUMP_IF_ZERO, 0, -1);
+            statement(whileLoopStatement.statement());
+            emit(OpCode.JUMP, start);
+            patch(exitJump, size);
+        }
+        else if (statement instanceof DoUntilStatement) {
+            DoUntilStatement doUntilStatement = (DoUntilStatement)statement;
+            int start;
+
+            start = size;
+            statement(doUntilStatement.statement());
+            expression(doUntilStatement.expression(), 0);
+            emit(OpCode.JUMP_IF_ZERO, 0, start);
+        }
+        else if (statement instanceof HeapAllocationStatement) {
+            HeapAllocationStatement heapAllocationStatement = (HeapAllocationStatement)statement;
+
+            expression(heapAllocationStatement.expression(), 0);
+            emit(OpCode.NEW, heapAllocationStatement.slot(), 0);
+        }
+        else if (statement instanceof HeapWritingStatement) {
+            HeapWritingStatement heapWritingStatement = (HeapWritingStatement)statement;
+
+            expression(heapWritingStatement.expression(), 0);
+            emit(OpCode.WRITE_HEAP, heapWritingStatement.slot(), 0);
+        }
+        else if (statement instanceof ForkStatement) {
+            programs.add(compileProgram(((ForkStatement)statement).statement()));
+            emit(OpCode.FORK, programs.size() - 1);
+        }
+        else if (statement instanceof LatchAwaitStatement) {
+            statements.add(statement);
+            emit(OpCode.AWAIT, statements.size() - 1);
+        }
+        else if (statement instanceof OpenReadFileStatement || statement instanceof ReadFileStatement || statement instanceof CloseReadFileStatement
+            || statement instanceof LatchAllocationStatement || statement instanceof LatchCountDownStatement) {
+            // Statements that do not touch the execution stack run through the tree-walking path.
+            statements.add(statement);
+            emit(OpCode.EXECUTE, statements.size() - 1);
+        }
+        else
+            throw new InvalidArgumentException("Statement cannot be compiled: " + statement);
+    }
+
+    /**
+     * Emits the instructions that evaluate an <code>Expression</code> into a register.
+     * Operands are evaluated into the registers following the target, so the register count is the expression depth.
+     * @param expression The <code>Expression</code> to compile.
+     * @param register The target register.
+     * @throws InvalidArgumentException if the expression cannot be compiled.
+     */
+    private void expression(Expression expression, int register) throws InvalidArgumentException {
+        registers = Math.max(registers, register + 1);
+
+        if (expression instanceof ConstantExpression)
+            emit(OpCode.CONST, register, ((ConstantExpression)expression).value());
+        else if (expression instanceof VariableExpression)
+            emit(OpCode.LOAD, register, ((VariableExpression)expression).slot());
+        else if (expression instanceof HeapReadingExpression)
+            emit(OpCode.READ_HEAP, register, ((HeapReadingExpression)expression).slot());
+        else if (expression instanceof ArithmeticExpression) {
+            ArithmeticExpression arithmeticExpression = (ArithmeticExpression)expression;
+
+            expression(arithmeticExpression.leftExpression(), register);
+            expression(arithmeticExpression.rightExpression(), register + 1);
+            emit(opCode(arithmeticExpression.arithmeticOperator()), register, register, register + 1);
+        }
+        else if (expression instanceof BooleanExpression) {
+            BooleanExpression booleanExpression = (BooleanExpression)expression;
+
+            expression(booleanExpression.leftExpression(), register);
+            expression(booleanExpression.rightExpression(), register + 1);
+            emit(opCode(booleanExpression.relationalOperator()), register, register, register + 1);
+        }
+        else if (expression instanceof NegationExpression) {
+            expression(((NegationExpression)expression).expression(), register);
+            emit(OpCode.NOT, register, register);
+        }
+        else
+            throw new InvalidArgumentException("Expression cannot be compiled: " + expression);
+    }
+
+    /**
+     * Gets the operation code of an arithmetical operator.
+     * @param arithmeticOperator The arithmetical operator.
+     * @return The operation code of the operator.
+     */
+    private static int opCode(ArithmeticExpression.ArithmeticOperator arithmeticOperator) {
+        switch (arithmeticOperator) {
+            case Addition:
+                return OpCode.ADD;
+
+            case Substraction:
+                return OpCode.SUB;
+
+            case Multiplication:
+                return OpCode.MUL;
+
+            default:
+                return OpCode.DIV;
+        }
+    }
+
+    /**
+     * Gets the operation code of a relational operator.
+     * @param relationalOperator The relational operator.
+     * @return The operation code of the operator.
+     */
+    private static int opCode(BooleanExpression.RelationalOperator relationalOperator) {
+        switch (relationalOperator) {
+            case Equal:
+                return OpCode.EQ;
+
+            case NotEqual:
+                return OpCode.NE;
+
+            case Greater:
+                return OpCode.GT;
+
+            case Less:
+                return OpCode.LT;
+
+            case GreaterOrEqual:
+                return OpCode.GE;
+
+            default:
+                return OpCode.LE;
+        }
+    }
+
+
+    /**
+     * Emits an instruction.
+     * @param opCode The operation code of the instruction.
+     * @param operands The operands of the instruction.
+     * @return The position of the instruction.
+     */
+    private int emit(int opCode, int... operands) {
+        int position = size;
+
+        if (size + operands.length + 1 > code.length) {
+            int[] old = code;
+
+            code = new int[Math.max(code.length * 2, size + operands.length + 1)];
+            System.arraycopy(old, 0, code, 0, size);
+        }
+
+        code[size++] = opCode;
+        for (int operand : operands)
+            code[size++] = operand;
+
+        return position;
+    }
+
+    /**
+     * Sets the target of an emitted jump instruction.
+     * @param position The position of the jump instruction.
+     * @param target The target of the jump.
+     */
+    private void patch(int position, int target) {
+        code[position + OpCode.operands(code[position])] = target;
+    }
+}
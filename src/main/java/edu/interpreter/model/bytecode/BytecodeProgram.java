@@ -0,0 +1,94 @@
+package edu.interpreter.model.bytecode;
+
+import edu.interpreter.model.statements.Statement;
+
+/**
+ * Represents a flat bytecode program produced by the <code>BytecodeCompiler</code>.
+ * @author David Perisanu
+ */
+public final class BytecodeProgram {
+    private final int[] code;
+    private final Statement[] statements;
+    private final BytecodeProgram[] programs;
+    private final int registers;
+    private final String source;
+
+    /**
+     * Initializes a new instance of the <code>BytecodeProgram</code> class with the specified values.
+     * @param code The instructions of the program.
+     * @param statements The statements referred by the instructions.
+     * @param programs The nested programs started by the fork instructions.
+     * @param registers The number of registers used by the program.
+     * @param source The source representation of the program.
+     */
+    public BytecodeProgram(int[] code, Statement[] statements, BytecodeProgram[] programs, int registers, String source) {
+        this.code = code;
+        this.statements = statements;
+        this.programs = programs;
+        this.registers = registers;
+        this.source = source;
+    }
+
+    /**
+     * Gets the instructions of the <code>BytecodeProgram</code>.
+     * @return The instructions of the <code>BytecodeProgram</code>.
+     */
+    public int[] code() {
+        return code;
+    }
+
+    /**
+     * Gets the statements referred by the <code>BytecodeProgram</code>.
+     * @return The statements referred by the <code>BytecodeProgram</code>.
+     */
+    public Statement[] statements() {
+        return statements;
+    }
+
+    /**
+     * Gets the nested programs of the <code>BytecodeProgram</code>.
+     * @return The nested programs of the <code>BytecodeProgram</code>.
+     */
+    public BytecodeProgram[] programs() {
+        return programs;
+    }
+
+    /**
+     * Gets the number of registers used by the <code>BytecodeProgram</code>.
+     * @return The number of registers used by the <code>BytecodeProgram</code>.
+     */
+    public int registers() {
+        return registers;
+    }
+
+    /**
+     * Gets a listing of the instructions of the <code>BytecodeProgram</code>.
+     * @return A listing of the instructions of the <code>BytecodeProgram</code>.
+     */
+    public String disassemble() {
+        StringBuilder stringBuilder = new StringBuilder();
+        int pc = 0;
+
+        while (pc < code.length) {
+            int operands = OpCode.operands(code[pc]);
+
+            stringBuilder.append(pc).append(": ").append(OpCode.name(code[pc]));
+            for (int i = 1; i <= operands; i++)
+                stringBuilder.append(i == 1 ? " " : ", ").append(code[pc + i]);
+            stringBuilder.append("\n");
+
+            pc += operands + 1;
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Gets a string representation of the <code>BytecodeProgram</code>.
+     * @return The string representation of the <code>BytecodeProgram</code>.
+     */
+    @Override
+    public String toString() {
+        return source;
+    }
+}
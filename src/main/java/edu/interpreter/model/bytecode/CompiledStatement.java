@@ -0,0 +1,88 @@
+package edu.interpreter.model.bytecode;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.statements.Statement;
+
+/**
+ * Represents a statement that runs a <code>BytecodeProgram</code> on the <code>VirtualMachine</code>.
+ * Unlike the other statements, it is a frame: it holds the program counter and the registers of one program state.
+ * @author David Perisanu
+ */
+public final class CompiledStatement extends Statement {
+    private final BytecodeProgram program;
+    private final int[] registers;
+    private int programCounter;
+
+    /**
+     * Initializes a new instance of the <code>CompiledStatement</code> class with the specified value.
+     * @param program The <code>BytecodeProgram</code> to run.
+     */
+    public CompiledStatement(BytecodeProgram program) {
+        this.program = program;
+        registers = new int[program.registers()];
+        programCounter = 0;
+    }
+
+    /**
+     * Gets the <code>BytecodeProgram</code> of the <code>CompiledStatement</code>.
+     * @return The <code>BytecodeProgram</code> of the <code>CompiledStatement</code>.
+     */
+    public BytecodeProgram program() {
+        return program;
+    }
+
+    /**
+     * Gets the registers of the <code>CompiledStatement</code>.
+     * @return The registers of the <code>CompiledStatement</code>.
+     */
+    public int[] registers() {
+        return registers;
+    }
+
+    /**
+     * Gets the program counter of the <code>CompiledStatement</code>.
+     * @return The program counter of the <code>CompiledStatement</code>.
+     */
+    public int programCounter() {
+        return programCounter;
+    }
+
+    /**
+     * Sets the program counter of the <code>CompiledStatement</code>.
+     */
+    public void programCounter(int programCounter) {
+        this.programCounter = programCounter;
+    }
+
+    /**
+     * Checks if every instruction of the program has been executed.
+     * @return True if the program has been executed, false otherwise.
+     */
+    public boolean finished() {
+        return programCounter >= program.code().length;
+    }
+
+    /**
+     * Executes the <code>CompiledStatement</code> until the program ends, forks, waits for a latch or uses up its quantum.
+     * @param programState The program state before the execution of the <code>CompiledStatement</code>.
+     * @return The forked program state, if any.
+     */
+    @Override
+    public ProgramState execute(ProgramState programState) {
+        ProgramState forkProgramState = VirtualMachine.run(this, programState);
+
+        if (!finished())
+            programState.executionStack().pushBack(this);
+
+        return forkProgramState;
+    }
+
+    /**
+     * Gets a string representation of the <code>CompiledStatement</code>.
+     * @return The string representation of the <code>CompiledStatement</code>.
+     */
+    @Override
+    public String toString() {
+        return program.toString();
+    }
+}
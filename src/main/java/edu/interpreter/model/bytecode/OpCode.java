@@ -0,0 +1,150 @@
+package edu.interpreter.model.bytecode;
+
+/**
+ * Operation codes of the bytecode instructions. Every instruction is an operation code followed by its
+ * operands; <code>r</code> operands are register indexes, <code>k</code> operands are constant pool indexes.
+ * @author David Perisanu
+ */
+public final class OpCode {
+    private static final String[] names = { "CONST", "LOAD", "STORE", "ADD", "SUB", "MUL", "DIV", "EQ", "NE", "GT", "LT", "GE", "LE", "READ_HEAP", "NEW", "WRITE_HEAP", "PRINT", "JUMP", "JUMP_IF_ZERO", "FORK", "AWAIT", "EXECUTE", "NOT" };
+
+    private OpCode() { }    // Simulate static class.
+
+    /**
+     * <code>CONST r, value</code>: loads a constant into a register.
+     */
+    public static final int CONST = 0;
+    /**
+     * <code>LOAD r, k</code>: loads a variable into a register.
+     */
+    public static final int LOAD = 1;
+    /**
+     * <code>STORE k, r</code>: stores a register into a variable.
+     */
+    public static final int STORE = 2;
+    /**
+     * <code>ADD r, a, b</code>: arithmetical addition.
+     */
+    public static final int ADD = 3;
+    /**
+     * <code>SUB r, a, b</code>: arithmetical substraction.
+     */
+    public static final int SUB = 4;
+    /**
+     * <code>MUL r, a, b</code>: arithmetical multiplication.
+     */
+    public static final int MUL = 5;
+    /**
+     * <code>DIV r, a, b</code>: arithmetical division.
+     */
+    public static final int DIV = 6;
+    /**
+     * <code>EQ r, a, b</code>: relational equal-to.
+     */
+    public static final int EQ = 7;
+    /**
+     * <code>NE r, a, b</code>: relational not-equal-to.
+     */
+    public static final int NE = 8;
+    /**
+     * <code>GT r, a, b</code>: relational greater-than.
+     */
+    public static final int GT = 9;
+    /**
+     * <code>LT r, a, b</code>: relational less-than.
+     */
+    public static final int LT = 10;
+    /**
+     * <code>GE r, a, b</code>: relational greater-than-or-equal-to.
+     */
+    public static final int GE = 11;
+    /**
+     * <code>LE r, a, b</code>: relational less-than-or-equal-to.
+     */
+    public static final int LE = 12;
+    /**
+     * <code>READ_HEAP r, k</code>: loads the heap value referred by a variable into a register.
+     */
+    public static final int READ_HEAP = 13;
+    /**
+     * <code>NEW k, r</code>: allocates a heap cell initialized with a register and stores its address into a variable.
+     */
+    public static final int NEW = 14;
+    /**
+     * <code>WRITE_HEAP k, r</code>: writes a register into the heap cell referred by a variable.
+     */
+    public static final int WRITE_HEAP = 15;
+    /**
+     * <code>PRINT r</code>: appends a register to the output messages.
+     */
+    public static final int PRINT = 16;
+    /**
+     * <code>JUMP target</code>: unconditional jump.
+     */
+    public static final int JUMP = 17;
+    /**
+     * <code>JUMP_IF_ZERO r, target</code>: jumps if the register is zero (false).
+     */
+    public static final int JUMP_IF_ZERO = 18;
+    /**
+     * <code>FORK k</code>: creates a child program state that runs a nested program.
+     */
+    public static final int FORK = 19;
+    /**
+     * <code>AWAIT k</code>: waits for the latch of a <code>LatchAwaitStatement</code>.
+     */
+    public static final int AWAIT = 20;
+    /**
+     * <code>EXECUTE k</code>: executes a <code>Statement</code> through the tree-walking path.
+     */
+    public static final int EXECUTE = 21;
+    /**
+     * <code>NOT r, a</code>: logical negation.
+     */
+    public static final int NOT = 22;
+
+    /**
+     * Gets the number of operands of an operation code.
+     * @param opCode The operation code.
+     * @return The number of operands.
+     */
+    public static int operands(int opCode) {
+        switch (opCode) {
+            case JUMP: case FORK: case AWAIT: case EXECUTE: case PRINT:
+                return 1;
+
+            case CONST: case LOAD: case STORE: case READ_HEAP: case NEW: case WRITE_HEAP: case JUMP_IF_ZERO: case NOT:
+                return 2;
+
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * Gets the position of the operand of an operation code that is a symbol table slot.
+     * @param opCode The operation code.
+     * @return The position of the slot operand, counted from 1, or 0 if the operation code has none.
+     */
+    public static int slotOperand(int opCode) {
+        switch (opCode) {
+            case STORE: case NEW: case WRITE_HEAP:
+                return 1;
+
+            case LOAD: case READ_HEAP:
+                return 2;
+
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets the mnemonic of an operation code.
+     * @param opCode The operation code.
+     * @return The mnemonic of the operation code.
+     */
+    public static String name(int opCode) {
+        return opCode >= 0 && opCode < names.length ? names[opCode] : "UNKNOWN";
+    }
+}
@@ -0,0 +1,250 @@
+package edu.interpreter.model.bytecode;
+
+import edu.interpreter.metrics.ExecutionMetrics;
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.statements.LatchAwaitStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.Deque;
+import edu.interpreter.model.utilities.HeapAllocator;
+import edu.interpreter.model.utilities.OutputSink;
+import edu.interpreter.model.utilities.SlotResolver;
+import edu.interpreter.model.utilities.exceptions.DivideByZeroException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperatorException;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
+
+/**
+ * Dispatch loop that runs the <code>BytecodeProgram</code> of a <code>CompiledStatement</code>.
+ * @author David Perisanu
+ */
+public final class VirtualMachine {
+    /**
+     * Number of backward jumps a frame may take before it yields to the other program states.
+     */
+    public static final int LOOP_QUANTUM = 256;
+
+    private VirtualMachine() { }    // Simulate static class.
+
+    /**
+     * Runs a <code>CompiledStatement</code> until its program ends, forks, waits for a latch or uses up its quantum.
+     * Frames only yield before a fork, an await or a backward jump, so no register is live across steps.
+     * @param frame The <code>CompiledStatement</code> to run.
+     * @param programState The <code>ProgramState</code> that owns the frame.
+     * @return The forked program state, if any.
+     * @throws DivideByZeroException if an attempt of division by 0 is made.
+     */
+    public static ProgramState run(CompiledStatement frame, ProgramState programState) throws DivideByZeroException {
+        BytecodeProgram program;
+        IDictionary<String, Integer> symbolTable;
+        IHeap<Integer, Integer> heap;
+        ExecutionMetrics metrics;
+        int[] code, r;
+        int pc, target, budget;
+
+        program = frame.program();
+        symbolTable = programState.symbolTable();
+        heap = programState.heap();
+        metrics = programState.metrics();
+        code = program.code();
+        r = frame.registers();
+        pc = frame.programCounter();
+        budget = LOOP_QUANTUM;
+
+        while (pc < code.length) {
+            switch (code[pc]) {
+                case OpCode.CONST:
+                    r[code[pc + 1]] = code[pc + 2];
+                    pc += 3;
+                    break;
+
+                case OpCode.LOAD:
+                    r[code[pc + 1]] = load(symbolTable, code[pc + 2]);
+                    pc += 3;
+                    break;
+
+                case OpCode.STORE:
+                    store(symbolTable, code[pc + 1], r[code[pc + 2]]);
+                    pc += 3;
+                    break;
+
+                case OpCode.ADD:
+                    r[code[pc + 1]] = r[code[pc + 2]] + r[code[pc + 3]];
+                    pc += 4;
+                    break;
+
+                case OpCode.SUB:
+                    r[code[pc + 1]] = r[code[pc + 2]] - r[code[pc + 3]];
+                    pc += 4;
+                    break;
+
+                case OpCode.MUL:
+                    r[code[pc + 1]] = r[code[pc + 2]] * r[code[pc + 3]];
+                    pc += 4;
+                    break;
+
+                case OpCode.DIV:
+                    if (r[code[pc + 3]] == 0)
+                        throw new DivideByZeroException("Attempted to divide by zero.");
+
+                    r[code[pc + 1]] = r[code[pc + 2]] / r[code[pc + 3]];
+                    pc += 4;
+                    break;
+
+                case OpCode.NOT:
+                    r[code[pc + 1]] = r[code[pc + 2]] == 0 ? 1 : 0;
+                    pc += 3;
+                    break;
+
+                case OpCode.EQ:
+                    r[code[pc + 1]] = r[code[pc + 2]] == r[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+
+                case OpCode.NE:
+                    r[code[pc + 1]] = r[code[pc + 2]] != r[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+
+                case OpCode.GT:
+                    r[code[pc + 1]] = r[code[pc + 2]] > r[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+
+                case OpCode.LT:
+                    r[code[pc + 1]] = r[code[pc + 2]] < r[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+
+                case OpCode.GE:
+                    r[code[pc + 1]] = r[code[pc + 2]] >= r[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+
+                case OpCode.LE:
+                    r[code[pc + 1]] = r[code[pc + 2]] <= r[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+
+                case OpCode.READ_HEAP:
+                    r[code[pc + 1]] = heap.get(load(symbolTable, code[pc + 2]));
+                    pc += 3;
+                    break;
+
+                case OpCode.NEW: {
+                    int memoryAddress = HeapAllocator.allocate(programState, r[code[pc + 2]]);
+
+                    store(symbolTable, code[pc + 1], memoryAddress);
+                    if (metrics != null)
+                        metrics.heapAllocated();
+                    pc += 3;
+                    break;
+                }
+
+                case OpCode.WRITE_HEAP:
+                    if (!contains(symbolTable, code[pc + 1]))
+                        store(symbolTable, code[pc + 1], HeapAllocator.allocate(programState, r[code[pc + 2]]));
+                    else
+                        heap.add(load(symbolTable, code[pc + 1]), r[code[pc + 2]]);
+                    pc += 3;
+                    break;
+
+                case OpCode.PRINT:
+                    OutputSink.print(programState.outputMessages(), r[code[pc + 1]]);
+                    pc += 2;
+                    break;
+
+                case OpCode.JUMP:
+                    target = code[pc + 1];
+                    if (target <= pc && --budget == 0) {
+                        frame.programCounter(target);
+                        return null;
+                    }
+                    pc = target;
+                    break;
+
+                case OpCode.JUMP_IF_ZERO:
+                    if (r[code[pc + 1]] != 0) {
+                        pc += 3;
+                        break;
+                    }
+
+                    target = code[pc + 2];
+                    if (target <= pc && --budget == 0) {
+                        frame.programCounter(target);
+                        return null;
+                    }
+                    pc = target;
+                    break;
+
+                case OpCode.FORK: {
+                    Deque<Statement> forkExecutionStack = new Deque<>();
+
+                    forkExecutionStack.pushFront(new CompiledStatement(program.programs()[code[pc + 1]]));
+                    frame.programCounter(pc + 2);
+
+                    return programState.fork(forkExecutionStack);
+                }
+
+                case OpCode.AWAIT:
+                    if (((LatchAwaitStatement)program.statements()[code[pc + 1]]).await(programState)) {
+                        frame.programCounter(pc);
+                        return null;
+                    }
+                    pc += 2;
+                    break;
+
+                case OpCode.EXECUTE:
+                    program.statements()[code[pc + 1]].execute(programState);
+                    pc += 2;
+                    break;
+
+                default:
+                    throw new InvalidOperatorException("Operation code " + code[pc] + " has not been defined.");
+            }
+        }
+
+        frame.programCounter(pc);
+
+        return null;
+    }
+
+    /**
+     * Reads the variable stored in a slot of a symbol table.
+     * @param symbolTable The symbol table.
+     * @param slot The slot of the variable.
+     * @return The value of the variable.
+     */
+    private static int load(IDictionary<String, Integer> symbolTable, int slot) {
+        if (symbolTable instanceof ISymbolTable)
+            return ((ISymbolTable)symbolTable).get(slot);
+
+        return symbolTable.get(SlotResolver.name(slot));
+    }
+
+    /**
+     * Writes the variable stored in a slot of a symbol table.
+     * @param symbolTable The symbol table.
+     * @param slot The slot of the variable.
+     * @param value The value of the variable.
+     */
+    private static void store(IDictionary<String, Integer> symbolTable, int slot, int value) {
+        if (symbolTable instanceof ISymbolTable)
+            ((ISymbolTable)symbolTable).add(slot, value);
+        else
+            symbolTable.add(SlotResolver.name(slot), value);
+    }
+
+    /**
+     * Determines whether a symbol table holds the variable stored in a slot.
+     * @param symbolTable The symbol table.
+     * @param slot The slot of the variable.
+     * @return <code>true</code> if the variable is defined; otherwise, <code>false</code>.
+     */
+    private static boolean contains(IDictionary<String, Integer> symbolTable, int slot) {
+        if (symbolTable instanceof ISymbolTable)
+            return ((ISymbolTable)symbolTable).contains(slot);
+
+        return symbolTable.contains(SlotResolver.name(slot));
+    }
+}
@@ -66,6 +66,30 @@ public final class ArithmeticExpression extends Expression {
         this.rightExpression = rightExpression;
     }
 
+    /**
+     * Gets the <code>Expression</code> on the left of the operator of the <code>ArithmeticExpression</code>.
+     * @return The <code>Expression</code> on the left of the operator of the <code>ArithmeticExpression</code>.
+     */
+    public Expression leftExpression() {
+        return leftExpression;
+    }
+
+    /**
+     * Gets the arithmetical operator of the <code>ArithmeticExpression</code>.
+     * @return The arithmetical operator of the <code>ArithmeticExpression</code>.
+     */
+    public ArithmeticOperator arithmeticOperator() {
+        return arithmeticOperator;
+    }
+
+    /**
+     * Gets the <code>Expression</code> on the right of the operator of the <code>ArithmeticExpression</code>.
+     * @return The <code>Expression</code> on the right of the operator of the <code>ArithmeticExpression</code>.
+     */
+    public Expression rightExpression() {
+        return rightExpression;
+    }
+
     /**
      * Computes the value of the <code>ArithmeticExpression</code>.
      * @param symbolTable Symbol table of the <code>ProgramState</code>.
@@ -73,6 +73,30 @@ public class BooleanExpression extends Expression {
         this.rightExpression = rightExpression;
     }
 
+    /**
+     * Gets the <code>Expression</code> on the left of the operator of the <code>BooleanExpression</code>.
+     * @return The <code>Expression</code> on the left of the operator of the <code>BooleanExpression</code>.
+     */
+    public Expression leftExpression() {
+        return leftExpression;
+    }
+
+    /**
+     * Gets the relational operator of the <code>BooleanExpression</code>.
+     * @return The relational operator of the <code>BooleanExpression</code>.
+     */
+    public RelationalOperator relationalOperator() {
+        return relationalOperator;
+    }
+
+    /**
+     * Gets the <code>Expression</code> on the right of the operator of the <code>BooleanExpression</code>.
+     * @return The <code>Expression</code> on the right of the operator of the <code>BooleanExpression</code>.
+     */
+    public Expression rightExpression() {
+        return rightExpression;
+    }
+
     /**
      * Computes the value of the <code>BooleanExpression</code>.
      * @param symbolTable Symbol table of the <code>ProgramState</code>.
@@ -18,6 +18,14 @@ public final class ConstantExpression extends Expression {
         this.value = value;
     }
 
+    /**
+     * Gets the constant value of the <code>ConstantExpression</code>.
+     * @return The constant value of the <code>ConstantExpression</code>.
+     */
+    public int value() {
+        return value;
+    }
+
     /**
      * Computes the value of the <code>ConstantExpression</code>.
      * @param symbolTable Symbol table of the <code>ProgramState</code>.
@@ -1,8 +1,10 @@
 package edu.interpreter.model.expressions;
 
+import edu.interpreter.model.utilities.SlotResolver;
 import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
 
 /**
  * Represents a head reading expression.
@@ -10,6 +12,7 @@ import edu.interpreter.model.utilities.interfaces.IHeap;
  */
 public class HeapReadingExpression extends Expression {
     private String variableName;
+    private final int slot;
 
     /**
      * Initializes a new instance of the <code>HeapReadingExpression</code> class with the specified value.
@@ -17,6 +20,23 @@ public class HeapReadingExpression extends Expression {
      */
     public HeapReadingExpression(String variableName) {
         this.variableName = variableName;
+        slot = SlotResolver.resolve(variableName);
+    }
+
+    /**
+     * Gets the variable name of the <code>HeapReadingExpression</code>.
+     * @return The variable name of the <code>HeapReadingExpression</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the symbol table slot of the variable of the <code>HeapReadingExpression</code>.
+     * @return The symbol table slot of the variable of the <code>HeapReadingExpression</code>.
+     */
+    public int slot() {
+        return slot;
     }
 
     /**
@@ -29,6 +49,9 @@ public class HeapReadingExpression extends Expression {
      */
     @Override
     public int evaluate(IDictionary<String, Integer> symbolTable, IHeap<Integer, Integer> heap) throws InvalidArgumentException {
+        if (symbolTable instanceof ISymbolTable)
+            return heap.get(((ISymbolTable)symbolTable).get(slot));
+
         return heap.get(symbolTable.get(variableName));
     }
 
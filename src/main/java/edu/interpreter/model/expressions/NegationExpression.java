@@ -0,0 +1,48 @@
+package edu.interpreter.model.expressions;
+
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+
+/**
+ * Represents the logical negation of an <code>Expression</code>.
+ * @author David Perisanu
+ */
+public final class NegationExpression extends Expression {
+    private Expression expression;
+
+    /**
+     * Initializes a new instance of the <code>NegationExpression</code> class with the specified value.
+     * @param expression The negated <code>Expression</code>.
+     */
+    public NegationExpression(Expression expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Gets the negated <code>Expression</code> of the <code>NegationExpression</code>.
+     * @return The negated <code>Expression</code> of the <code>NegationExpression</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Computes the value of the <code>NegationExpression</code>.
+     * @param symbolTable Symbol table of the <code>ProgramState</code>.
+     * @param heap Heap of the <code>ProgramState</code>.
+     * @return 1 if the negated <code>Expression</code> evaluates to 0; otherwise, 0.
+     */
+    @Override
+    public int evaluate(IDictionary<String, Integer> symbolTable, IHeap<Integer, Integer> heap) {
+        return expression.evaluate(symbolTable, heap) == 0 ? 1 : 0;
+    }
+
+    /**
+     * Gets a string representation of the <code>NegationExpression</code>.
+     * @return The string representation of the <code>NegationExpression</code>.
+     */
+    @Override
+    public String toString() {
+        return "!(" + expression + ")";
+    }
+}
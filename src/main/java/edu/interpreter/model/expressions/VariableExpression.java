@@ -1,8 +1,10 @@
 package edu.interpreter.model.expressions;
 
+import edu.interpreter.model.utilities.SlotResolver;
 import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
 
 /**
  * Represents a variable expression.
@@ -10,6 +12,7 @@ import edu.interpreter.model.utilities.interfaces.IHeap;
  */
 public final class VariableExpression extends Expression {
     private String variableName;
+    private final int slot;
 
     /**
      * Initializes a new instance of the <code>VariableExpression</code> class with the specified value.
@@ -17,6 +20,23 @@ public final class VariableExpression extends Expression {
      */
     public VariableExpression(String variableName) {
         this.variableName = variableName;
+        slot = SlotResolver.resolve(variableName);
+    }
+
+    /**
+     * Gets the variable name of the <code>VariableExpression</code>.
+     * @return The variable name of the <code>VariableExpression</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the symbol table slot of the variable of the <code>VariableExpression</code>.
+     * @return The symbol table slot of the variable of the <code>VariableExpression</code>.
+     */
+    public int slot() {
+        return slot;
     }
 
     /**
@@ -28,6 +48,9 @@ public final class VariableExpression extends Expression {
      */
     @Override
     public int evaluate(IDictionary<String, Integer> symbolTable, IHeap<Integer, Integer> heap) throws InvalidArgumentException {
+        if (symbolTable instanceof ISymbolTable)
+            return ((ISymbolTable)symbolTable).get(slot);
+
         return symbolTable.get(variableName);
     }
 
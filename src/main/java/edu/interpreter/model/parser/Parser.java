@@ -0,0 +1,606 @@
+package edu.interpreter.model.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.interpreter.model.expressions.ArithmeticExpression;
+import edu.interpreter.model.expressions.ArithmeticExpression.ArithmeticOperator;
+import edu.interpreter.model.expressions.BooleanExpression;
+import edu.interpreter.model.expressions.BooleanExpression.RelationalOperator;
+import edu.interpreter.model.expressions.ConstantExpression;
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.HeapReadingExpression;
+import edu.interpreter.model.expressions.NegationExpression;
+import edu.interpreter.model.expressions.VariableExpression;
+import edu.interpreter.model.statements.AssignmentStatement;
+import edu.interpreter.model.statements.CloseReadFileStatement;
+import edu.interpreter.model.statements.CompoundStatement;
+import edu.interpreter.model.statements.ConditionalStatement;
+import edu.interpreter.model.statements.DoUntilStatement;
+import edu.interpreter.model.statements.ForkStatement;
+import edu.interpreter.model.statements.HeapAllocationStatement;
+import edu.interpreter.model.statements.HeapWritingStatement;
+import edu.interpreter.model.statements.LatchAllocationStatement;
+import edu.interpreter.model.statements.LatchAwaitStatement;
+import edu.interpreter.model.statements.LatchCountDownStatement;
+import edu.interpreter.model.statements.OpenReadFileStatement;
+import edu.interpreter.model.statements.PrintStatement;
+import edu.interpreter.model.statements.ReadFileStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.statements.WhileLoopStatement;
+import edu.interpreter.model.utilities.exceptions.SyntaxErrorException;
+
+/**
+ * Parses programs written in the syntax the statements and expressions print, such as
+ * <code>new(v, 2); fork(writeHeap(v, 3); print(readHeap(v));); while ((v > 0)) { v = v - 1; }</code>.
+ * Expressions may omit their parentheses, with multiplicative operators binding tighter than additive ones and additive
+ * operators binding tighter than relational ones, and <code>//</code> starts a comment that runs to the end of the line.
+ * The source is tokenized once and every token is read once, so parsing takes linear time.
+ * @author David Perisanu
+ */
+public final class Parser {
+    private static final int IDENTIFIER = 0;
+    private static final int NUMBER = 1;
+    private static final int STRING = 2;
+    private static final int SYMBOL = 3;
+    private static final int END = 4;
+    private static final String SYMBOL_CHARACTERS = "(){};,+-*/!<>=";
+    private static final String[] SYMBOLS = new String[SYMBOL_CHARACTERS.length()];
+    private static final RelationalOperator[] RELATIONAL_OPERATORS = RelationalOperator.values();
+
+    static {
+        for (int i = 0; i < SYMBOLS.length; i++)
+            SYMBOLS[i] = String.valueOf(SYMBOL_CHARACTERS.charAt(i));
+    }
+
+    private final String source;
+    private final ArrayList<String> texts;
+    private int[] kinds;
+    private int[] offsets;
+    private int position;
+
+    /**
+     * Initializes a new instance of the <code>Parser</code> class and tokenizes the source.
+     * @param source The source of the program.
+     */
+    private Parser(String source) {
+        this.source = source;
+        texts = new ArrayList<>();
+        kinds = new int[Math.max(source.length() / 4, 16)];
+        offsets = new int[kinds.length];
+        tokenize();
+    }
+
+    /**
+     * Parses the source of a program.
+     * @param source The source of the program.
+     * @return The <code>Statement</code> of the program; a sequence of statements is returned as nested compound statements.
+     * @throws SyntaxErrorException if the source does not follow the syntax of the language.
+     */
+    public static Statement parse(String source) {
+        Parser parser = new Parser(source);
+        Statement program = parser.parseSequence();
+
+        if (parser.kind() != END)
+            throw parser.error("Expected a statement but found '" + parser.text() + "'.");
+
+        return program;
+    }
+
+    /**
+     * Parses the source of an expression.
+     * @param source The source of the expression.
+     * @return The <code>Expression</code>.
+     * @throws SyntaxErrorException if the source does not follow the syntax of the language.
+     */
+    public static Expression parseExpression(String source) {
+        Parser parser = new Parser(source);
+        Expression expression = parser.parseComparison();
+
+        if (parser.kind() != END)
+            throw parser.error("Unexpected '" + parser.text() + "' after the expression.");
+
+        return expression;
+    }
+
+    /**
+     * Parses one or more statements, up to a closing brace, a closing parenthesis or the end of the source.
+     * @return The <code>Statement</code>, or a <code>CompoundStatement</code> that runs the statements in order.
+     */
+    private Statement parseSequence() {
+        ArrayList<Statement> statements = new ArrayList<>();
+        Statement sequence;
+
+        do
+            statements.add(parseStatement());
+        while (kind() != END && !is("}") && !is(")"));
+
+        // Fold from the end, so that the first statement is executed first.
+        sequence = statements.get(statements.size() - 1);
+        for (int i = statements.size() - 2; i >= 0; i--)
+            sequence = new CompoundStatement(statements.get(i), sequence);
+
+        return sequence;
+    }
+
+    /**
+     * Parses a statement.
+     * @return The <code>Statement</code>.
+     */
+    private Statement parseStatement() {
+        Statement statement;
+        Expression expression;
+        String keyword, variableName;
+
+        if (kind() != IDENTIFIER)
+            throw error("Expected a statement but found '" + text() + "'.");
+
+        keyword = text();
+        if (isNext("=")) {
+            advance();
+            advance();
+            expression = parseComparison();
+            terminate();
+
+            return new AssignmentStatement(keyword, expression);
+        }
+
+        advance();
+        switch (keyword) {
+            case "if":
+                expect("(");
+                expression = parseComparison();
+                expect(")");
+                expectKeyword("then");
+                statement = parseBlock();
+                if (is("else")) {
+                    advance();
+                    return new ConditionalStatement(expression, statement, parseBlock());
+                }
+                return new ConditionalStatement(expression, statement, null);
+
+            case "while":
+                expect("(");
+                expression = parseComparison();
+                expect(")");
+                return new WhileLoopStatement(expression, parseBlock());
+
+            case "do":
+                statement = parseBlock();
+                expectKeyword("until");
+                expect("(");
+                expression = parseComparison();
+                expect(")");
+                terminate();
+                return new DoUntilStatement(statement, expression);
+
+            case "fork":
+                expect("(");
+                statement = parseSequence();
+                expect(")");
+                terminate();
+                return new ForkStatement(statement);
+
+            case "print":
+                expect("(");
+                expression = parseComparison();
+                expect(")");
+                terminate();
+                return new PrintStatement(expression);
+
+            case "new":
+            case "writeHeap":
+            case "newLatch":
+                expect("(");
+                variableName = identifier();
+                expect(",");
+                expression = parseComparison();
+                expect(")");
+                terminate();
+
+                if (keyword.equals("new"))
+                    return new HeapAllocationStatement(variableName, expression);
+                if (keyword.equals("writeHeap"))
+                    return new HeapWritingStatement(variableName, expression);
+                return new LatchAllocationStatement(variableName, expression);
+
+            case "await":
+            case "countDown":
+                expect("(");
+                variableName = identifier();
+                expect(")");
+                terminate();
+
+                if (keyword.equals("await"))
+                    return new LatchAwaitStatement(variableName);
+                return new LatchCountDownStatement(variableName);
+
+            case "openReadFile":
+                expect("(");
+                variableName = identifier();
+                expect(",");
+                if (kind() != STRING)
+                    throw error("Expected a file path but found '" + text() + "'.");
+                statement = new OpenReadFileStatement(variableName, text());
+                advance();
+                expect(")");
+                terminate();
+                return statement;
+
+            case "readFile":
+                expect("(");
+                expression = parseComparison();
+                expect(",");
+                variableName = identifier();
+                expect(")");
+                terminate();
+                return new ReadFileStatement(expression, variableName);
+
+            case "closeReadFile":
+                expect("(");
+                expression = parseComparison();
+                expect(")");
+                terminate();
+                return new CloseReadFileStatement(expression);
+
+            default:
+                position--;
+                throw error("Unknown statement '" + keyword + "'.");
+        }
+    }
+
+    /**
+     * Parses a sequence of statements between braces.
+     * @return The <code>Statement</code> of the block.
+     */
+    private Statement parseBlock() {
+        Statement statement;
+
+        expect("{");
+        statement = parseSequence();
+        expect("}");
+
+        return statement;
+    }
+
+    /**
+     * Parses a relational expression.
+     * @return The <code>Expression</code>.
+     */
+    private Expression parseComparison() {
+        Expression expression = parseSum();
+        RelationalOperator relationalOperator;
+
+        while ((relationalOperator = relationalOperator()) != null) {
+            advance();
+            expression = new BooleanExpression(expression, relationalOperator, parseSum());
+        }
+
+        return expression;
+    }
+
+    /**
+     * Parses an additive expression.
+     * @return The <code>Expression</code>.
+     */
+    private Expression parseSum() {
+        Expression expression = parseProduct();
+
+        while (is("+") || is("-")) {
+            ArithmeticOperator arithmeticOperator = is("+") ? ArithmeticOperator.Addition : ArithmeticOperator.Substraction;
+
+            advance();
+            expression = new ArithmeticExpression(expression, arithmeticOperator, parseProduct());
+        }
+
+        return expression;
+    }
+
+    /**
+     * Parses a multiplicative expression.
+     * @return The <code>Expression</code>.
+     */
+    private Expression parseProduct() {
+        Expression expression = parseUnary();
+
+        while (is("*") || is("/")) {
+            ArithmeticOperator arithmeticOperator = is("*") ? ArithmeticOperator.Multiplication : ArithmeticOperator.Division;
+
+            advance();
+            expression = new ArithmeticExpression(expression, arithmeticOperator, parseUnary());
+        }
+
+        return expression;
+    }
+
+    /**
+     * Parses a negation, a negative constant or a primary expression.
+     * @return The <code>Expression</code>.
+     */
+    private Expression parseUnary() {
+        if (is("!")) {
+            advance();
+            return new NegationExpression(parseUnary());
+        }
+
+        if (is("-")) {
+            advance();
+            if (kind() == NUMBER)
+                return number(true);
+            return new ArithmeticExpression(new ConstantExpression(0), ArithmeticOperator.Substraction, parseUnary());
+        }
+
+        return parsePrimary();
+    }
+
+    /**
+     * Parses a constant, a variable, a heap reading or an expression between parentheses.
+     * @return The <code>Expression</code>.
+     */
+    private Expression parsePrimary() {
+        Expression expression;
+        String variableName;
+
+        if (kind() == NUMBER)
+            return number(false);
+
+        if (is("(")) {
+            advance();
+            expression = parseComparison();
+            expect(")");
+            return expression;
+        }
+
+        if (kind() != IDENTIFIER)
+            throw error("Expected an expression but found '" + text() + "'.");
+
+        variableName = text();
+        if (variableName.equals("readHeap") && isNext("(")) {
+            advance();
+            advance();
+            expression = new HeapReadingExpression(identifier());
+            expect(")");
+
+            // Heap readings print with a semicolon, which is part of the expression; see terminate.
+            if (is(";"))
+                advance();
+            return expression;
+        }
+
+        advance();
+        return new VariableExpression(variableName);
+    }
+
+    /**
+     * Reads a number token as a <code>ConstantExpression</code>.
+     * @param negative <code>true</code> if the number is preceded by a minus sign.
+     * @return The <code>ConstantExpression</code>.
+     */
+    private Expression number(boolean negative) {
+        String digits = text();
+        long value = 0;
+
+        for (int i = 0; i < digits.length(); i++) {
+            value = value * 10 + (digits.charAt(i) - '0');
+            if (value > (long)Integer.MAX_VALUE + 1)
+                throw error("Number '" + (negative ? "-" : "") + digits + "' is out of range.");
+        }
+
+        if (negative)
+            value = -value;
+        if (value > Integer.MAX_VALUE)
+            throw error("Number '" + digits + "' is out of range.");
+
+        advance();
+        return new ConstantExpression((int)value);
+    }
+
+    /**
+     * Gets the relational operator of the current token.
+     * @return The relational operator, or <code>null</code> if the current token is not a relational operator.
+     */
+    private RelationalOperator relationalOperator() {
+        if (kind() != SYMBOL)
+            return null;
+
+        for (RelationalOperator relationalOperator : RELATIONAL_OPERATORS)
+            if (relationalOperator.getOperator().equals(text()))
+                return relationalOperator;
+
+        return null;
+    }
+
+    /**
+     * Reads the terminating semicolon of a statement.
+     * A heap reading that ends the statement has already read it, since heap readings print with their own semicolon.
+     */
+    private void terminate() {
+        if (is(";"))
+            advance();
+        else if (position == 0 || !texts.get(position - 1).equals(";") || kinds[position - 1] != SYMBOL)
+            throw error("Expected ';' but found '" + text() + "'.");
+    }
+
+    /**
+     * Reads a symbol token.
+     * @param symbol The expected symbol.
+     */
+    private void expect(String symbol) {
+        if (!is(symbol) || kind() != SYMBOL)
+            throw error("Expected '" + symbol + "' but found '" + text() + "'.");
+
+        advance();
+    }
+
+    /**
+     * Reads a keyword token.
+     * @param keyword The expected keyword.
+     */
+    private void expectKeyword(String keyword) {
+        if (!is(keyword) || kind() != IDENTIFIER)
+            throw error("Expected '" + keyword + "' but found '" + text() + "'.");
+
+        advance();
+    }
+
+    /**
+     * Reads an identifier token.
+     * @return The identifier.
+     */
+    private String identifier() {
+        String identifier = text();
+
+        if (kind() != IDENTIFIER)
+            throw error("Expected a variable name but found '" + identifier + "'.");
+
+        advance();
+        return identifier;
+    }
+
+    /**
+     * Gets the kind of the current token.
+     * @return The kind of the current token.
+     */
+    private int kind() {
+        return kinds[position];
+    }
+
+    /**
+     * Gets the text of the current token.
+     * @return The text of the current token.
+     */
+    private String text() {
+        return texts.get(position);
+    }
+
+    /**
+     * Gets a value that indicates whether the current token has the specified text.
+     * @param text The text.
+     * @return <code>true</code> if the current token has the text; otherwise, <code>false</code>.
+     */
+    private boolean is(String text) {
+        return kinds[position] != STRING && texts.get(position).equals(text);
+    }
+
+    /**
+     * Gets a value that indicates whether the token after the current one is the specified symbol.
+     * @param symbol The symbol.
+     * @return <code>true</code> if the next token is the symbol; otherwise, <code>false</code>.
+     */
+    private boolean isNext(String symbol) {
+        return position + 1 < texts.size() && kinds[position + 1] == SYMBOL && texts.get(position + 1).equals(symbol);
+    }
+
+    /**
+     * Moves to the next token. The end token is never passed.
+     */
+    private void advance() {
+        if (kinds[position] != END)
+            position++;
+    }
+
+    /**
+     * Splits the source into tokens, ending with an end token.
+     */
+    private void tokenize() {
+        int length = source.length();
+        int index = 0;
+
+        while (true) {
+            int start;
+            char character;
+
+            while (index < length && Character.isWhitespace(source.charAt(index)))
+                index++;
+
+            if (index + 1 < length && source.charAt(index) == '/' && source.charAt(index + 1) == '/') {
+                while (index < length && source.charAt(index) != '\n')
+                    index++;
+                continue;
+            }
+
+            if (index == length) {
+                addToken(END, "end of source", index);
+                return;
+            }
+
+            start = index;
+            character = source.charAt(index);
+
+            if (Character.isLetter(character) || character == '_') {
+                while (index < length && (Character.isLetterOrDigit(source.charAt(index)) || source.charAt(index) == '_'))
+                    index++;
+                addToken(IDENTIFIER, source.substring(start, index), start);
+            }
+            else if (character >= '0' && character <= '9') {
+                while (index < length && source.charAt(index) >= '0' && source.charAt(index) <= '9')
+                    index++;
+                addToken(NUMBER, source.substring(start, index), start);
+            }
+            else if (character == '"') {
+                index = source.indexOf('"', start + 1);
+                if (index < 0)
+                    throw error("Unterminated string.", start);
+                addToken(STRING, source.substring(start + 1, index), start);
+                index++;
+            }
+            else if ((character == '=' || character == '!' || character == '<' || character == '>') && index + 1 < length && source.charAt(index + 1) == '=') {
+                addToken(SYMBOL, source.substring(start, start + 2), start);
+                index += 2;
+            }
+            else if (SYMBOL_CHARACTERS.indexOf(character) >= 0) {
+                // Single character symbols share their strings.
+                addToken(SYMBOL, SYMBOLS[SYMBOL_CHARACTERS.indexOf(character)], start);
+                index++;
+            }
+            else
+                throw error("Unexpected character '" + character + "'.", start);
+        }
+    }
+
+    /**
+     * Adds a token.
+     * @param kind The kind of the token.
+     * @param text The text of the token.
+     * @param offset The offset of the token inside the source.
+     */
+    private void addToken(int kind, String text, int offset) {
+        int count = texts.size();
+
+        if (count == kinds.length) {
+            kinds = Arrays.copyOf(kinds, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+
+        kinds[count] = kind;
+        offsets[count] = offset;
+        texts.add(text);
+    }
+
+    /**
+     * Creates a <code>SyntaxErrorException</code> at the current token.
+     * @param message A message that describes the error.
+     * @return The <code>SyntaxErrorException</code>.
+     */
+    private SyntaxErrorException error(String message) {
+        return error(message, offsets[position]);
+    }
+
+    /**
+     * Creates a <code>SyntaxErrorException</code> at an offset of the source.
+     * @param message A message that describes the error.
+     * @param offset The offset of the error inside the source.
+     * @return The <code>SyntaxErrorException</code>.
+     */
+    private SyntaxErrorException error(String message, int offset) {
+        int line = 1, lineStart = 0;
+
+        for (int i = 0; i < offset; i++)
+            if (source.charAt(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+
+        return new SyntaxErrorException(message, line, offset - lineStart + 1);
+    }
+}
@@ -0,0 +1,256 @@
+package edu.interpreter.model.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.interpreter.model.Optimizer;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+
+/**
+ * Caches the programs parsed from sources, keyed by the SHA-256 hash of the source, so that running the same source again skips parsing.
+ * The most recently used programs are kept in memory and, if the cache has a directory, every program is also stored there
+ * in the binary form of the <code>ProgramCodec</code>, one file per key. Files that cannot be read are parsed again and replaced.
+ * The cached statements are shared by every caller, which is safe since statements are never modified once built.
+ * @author David Perisanu
+ */
+public class ProgramCache {
+    private static final int MAGIC = 0x54494153;
+    private static final int FORMAT_VERSION = 1;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String directoryPath;
+    private final boolean optimization;
+    private final LinkedHashMap<String, Statement> programs;
+    private long memoryHits;
+    private long diskHits;
+    private long parses;
+
+    /**
+     * Initializes a new instance of the <code>ProgramCache</code> class that keeps up to 256 programs in memory only and does not optimize them.
+     */
+    public ProgramCache() {
+        this("", false, 256);
+    }
+
+    /**
+     * Initializes a new instance of the <code>ProgramCache</code> class with the specified values.
+     * @param directoryPath The directory the programs are stored in, or an empty string to keep them in memory only.
+     * @param optimization <code>true</code> to simplify the parsed programs with the <code>Optimizer</code> before caching them.
+     * @param capacity The maximum number of programs kept in memory.
+     */
+    public ProgramCache(String directoryPath, boolean optimization, int capacity) {
+        this.directoryPath = directoryPath;
+        this.optimization = optimization;
+        programs = new LinkedHashMap<String, Statement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            /**
+             * Evicts the least recently used program once the capacity is exceeded.
+             * @param eldest The least recently used program.
+             * @return <code>true</code> if the program has to be evicted; otherwise, <code>false</code>.
+             */
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Statement> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the directory the programs are stored in.
+     * @return The directory of the <code>ProgramCache</code>, or an empty string if the programs are kept in memory only.
+     */
+    public String directoryPath() {
+        return directoryPath;
+    }
+
+    /**
+     * Gets a value that indicates whether the parsed programs are simplified with the <code>Optimizer</code>.
+     * @return <code>true</code> if the programs are simplified; otherwise, <code>false</code>.
+     */
+    public boolean optimization() {
+        return optimization;
+    }
+
+    /**
+     * Gets the number of programs found in memory.
+     * @return The number of memory hits.
+     */
+    public synchronized long memoryHits() {
+        return memoryHits;
+    }
+
+    /**
+     * Gets the number of programs read from the directory.
+     * @return The number of disk hits.
+     */
+    public synchronized long diskHits() {
+        return diskHits;
+    }
+
+    /**
+     * Gets the number of programs parsed because they were not cached.
+     * @return The number of parsed programs.
+     */
+    public synchronized long parses() {
+        return parses;
+    }
+
+    /**
+     * Gets the program of a source, parsing it only if it is not cached.
+     * @param source The source of the program.
+     * @return The <code>Statement</code> of the program.
+     * @throws IOException if the program could not be stored in the directory.
+     * @throws edu.interpreter.model.utilities.exceptions.SyntaxErrorException if the source does not follow the syntax of the language.
+     */
+    public Statement program(String source) throws IOException {
+        String key = key(source);
+        Path path = directoryPath.length() > 0 ? Paths.get(directoryPath, key + ".ast") : null;
+        Statement program;
+
+        synchronized (this) {
+            program = programs.get(key);
+            if (program != null) {
+                memoryHits++;
+                return program;
+            }
+        }
+
+        program = path != null ? read(path) : null;
+        if (program != null)
+            synchronized (this) {
+                diskHits++;
+            }
+        else {
+            program = Parser.parse(source);
+            if (optimization)
+                program = Optimizer.optimize(program);
+            if (path != null)
+                write(path, program);
+
+            synchronized (this) {
+                parses++;
+            }
+        }
+
+        synchronized (this) {
+            programs.put(key, program);
+        }
+
+        return program;
+    }
+
+    /**
+     * Gets the program of a source file, parsing it only if it is not cached.
+     * @param filePath The path of the source file, read as UTF-8.
+     * @return The <code>Statement</code> of the program.
+     * @throws IOException if the source file could not be read or the program could not be stored in the directory.
+     */
+    public Statement programFromFile(String filePath) throws IOException {
+        return program(new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Removes every program from memory. The stored files are kept.
+     */
+    public synchronized void clear() {
+        programs.clear();
+    }
+
+    /**
+     * Gets the key of a source: the SHA-256 hash of the source, of the format version and of the optimization flag, in hexadecimal.
+     * @param source The source of the program.
+     * @return The key of the source.
+     */
+    public String key(String source) {
+        MessageDigest digest;
+        byte[] hash;
+        char[] key;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new InvalidOperationException("SHA-256 is not available.");
+        }
+
+        digest.update((byte)FORMAT_VERSION);
+        digest.update((byte)(optimization ? 1 : 0));
+        hash = digest.digest(source.getBytes(StandardCharsets.UTF_8));
+
+        key = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            key[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+            key[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+
+        return new String(key);
+    }
+
+    /**
+     * Reads a stored program.
+     * @param path The path of the file.
+     * @return The <code>Statement</code> of the program, or <code>null</code> if the file does not exist or cannot be read.
+     */
+    private static Statement read(Path path) {
+        if (!Files.isRegularFile(path))
+            return null;
+
+        try (InputStream stream = Files.newInputStream(path); DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION)
+                return null;
+
+            return ProgramCodec.readStatement(input);
+        }
+        catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a program. The file is written under a temporary name and then moved, so that readers never see a partial file.
+     * @param path The path of the file.
+     * @param program The <code>Statement</code> of the program.
+     * @throws IOException if the file could not be written.
+     */
+    private static void write(Path path, Statement program) throws IOException {
+        Path temporaryPath;
+
+        Files.createDirectories(path.getParent());
+        temporaryPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream stream = Files.newOutputStream(temporaryPath); DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                ProgramCodec.writeStatement(output, program);
+            }
+
+            try {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package edu.interpreter.model.parser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.interpreter.model.expressions.ArithmeticExpression;
+import edu.interpreter.model.expressions.ArithmeticExpression.ArithmeticOperator;
+import edu.interpreter.model.expressions.BooleanExpression;
+import edu.interpreter.model.expressions.BooleanExpression.RelationalOperator;
+import edu.interpreter.model.expressions.ConstantExpression;
+import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.HeapReadingExpression;
+import edu.interpreter.model.expressions.NegationExpression;
+import edu.interpreter.model.expressions.VariableExpression;
+import edu.interpreter.model.statements.AssignmentStatement;
+import edu.interpreter.model.statements.CloseReadFileStatement;
+import edu.interpreter.model.statements.CompoundStatement;
+import edu.interpreter.model.statements.ConditionalStatement;
+import edu.interpreter.model.statements.DoUntilStatement;
+import edu.interpreter.model.statements.ForkStatement;
+import edu.interpreter.model.statements.HeapAllocationStatement;
+import edu.interpreter.model.statements.HeapWritingStatement;
+import edu.interpreter.model.statements.LatchAllocationStatement;
+import edu.interpreter.model.statements.LatchAwaitStatement;
+import edu.interpreter.model.statements.LatchCountDownStatement;
+import edu.interpreter.model.statements.OpenReadFileStatement;
+import edu.interpreter.model.statements.PrintStatement;
+import edu.interpreter.model.statements.ReadFileStatement;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.statements.WhileLoopStatement;
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+
+/**
+ * Writes <code>Statement</code> and <code>Expression</code> trees to a compact binary form and reads them back.
+ * Every node is a tag byte followed by its operands, and every distinct name is written once. Chains of compound statements are written as one sequence,
+ * so that long programs are neither written nor read with one level of recursion per statement.
+ * @author David Perisanu
+ */
+public final class ProgramCodec {
+    private static final byte SEQUENCE = 1;
+    private static final byte ASSIGNMENT = 2;
+    private static final byte PRINT = 3;
+    private static final byte CONDITIONAL = 4;
+    private static final byte WHILE_LOOP = 5;
+    private static final byte DO_UNTIL = 6;
+    private static final byte FORK = 7;
+    private static final byte HEAP_ALLOCATION = 8;
+    private static final byte HEAP_WRITING = 9;
+    private static final byte LATCH_ALLOCATION = 10;
+    private static final byte LATCH_AWAIT = 11;
+    private static final byte LATCH_COUNT_DOWN = 12;
+    private static final byte OPEN_READ_FILE = 13;
+    private static final byte READ_FILE = 14;
+    private static final byte CLOSE_READ_FILE = 15;
+    private static final byte NONE = 16;
+
+    private static final byte CONSTANT = 32;
+    private static final byte VARIABLE = 33;
+    private static final byte ARITHMETIC = 34;
+    private static final byte BOOLEAN = 35;
+    private static final byte NEGATION = 36;
+    private static final byte HEAP_READING = 37;
+
+    private final DataOutputStream output;
+    private final DataInputStream input;
+    private final HashMap<String, Integer> nameIndexes;
+    private final ArrayList<String> names;
+
+    /**
+     * Initializes a new instance of the <code>ProgramCodec</code> class for one tree.
+     * @param output The stream to write to, or <code>null</code> when reading.
+     * @param input The stream to read from, or <code>null</code> when writing.
+     */
+    private ProgramCodec(DataOutputStream output, DataInputStream input) {
+        this.output = output;
+        this.input = input;
+        nameIndexes = new HashMap<>();
+        names = new ArrayList<>();
+    }
+
+    /**
+     * Writes a <code>Statement</code> tree.
+     * @param output The stream to write to.
+     * @param statement The <code>Statement</code>, or <code>null</code>.
+     * @throws IOException if the stream could not be written.
+     * @throws InvalidArgumentException if the tree contains a node that cannot be written.
+     */
+    public static void writeStatement(DataOutputStream output, Statement statement) throws IOException {
+        new ProgramCodec(output, null).write(statement);
+    }
+
+    /**
+     * Reads a <code>Statement</code> tree written by <code>writeStatement</code>.
+     * @param input The stream to read from.
+     * @return The <code>Statement</code>, or <code>null</code>.
+     * @throws IOException if the stream could not be read or does not hold a <code>Statement</code> tree.
+     */
+    public static Statement readStatement(DataInputStream input) throws IOException {
+        return new ProgramCodec(null, input).readStatement();
+    }
+
+    /**
+     * Writes a <code>Statement</code> tree.
+     * @param statement The <code>Statement</code>, or <code>null</code>.
+     * @throws IOException if the stream could not be written.
+     * @throws InvalidArgumentException if the tree contains a node that cannot be written.
+     */
+    private void write(Statement statement) throws IOException {
+        ArrayList<Statement> sequence;
+
+        if (statement == null) {
+            output.writeByte(NONE);
+            return;
+        }
+
+        if (statement instanceof CompoundStatement) {
+            sequence = new ArrayList<>();
+            while (statement instanceof CompoundStatement) {
+                sequence.add(((CompoundStatement)statement).firstStatement());
+                statement = ((CompoundStatement)statement).secondStatement();
+            }
+            sequence.add(statement);
+
+            output.writeByte(SEQUENCE);
+            output.writeInt(sequence.size());
+            for (Statement item : sequence)
+                write(item);
+        }
+        else if (statement instanceof AssignmentStatement) {
+            output.writeByte(ASSIGNMENT);
+            writeName(((AssignmentStatement)statement).variableName());
+            write(((AssignmentStatement)statement).expression());
+        }
+        else if (statement instanceof PrintStatement) {
+            output.writeByte(PRINT);
+            write(((PrintStatement)statement).expression());
+        }
+        else if (statement instanceof ConditionalStatement) {
+            output.writeByte(CONDITIONAL);
+            write(((ConditionalStatement)statement).expression());
+            write(((ConditionalStatement)statement).ifStatement());
+            write(((ConditionalStatement)statement).elseStatement());
+        }
+        else if (statement instanceof WhileLoopStatement) {
+            output.writeByte(WHILE_LOOP);
+            write(((WhileLoopStatement)statement).expression());
+            write(((WhileLoopStatement)statement).statement());
+        }
+        else if (statement instanceof DoUntilStatement) {
+            output.writeByte(DO_UNTIL);
+            write(((DoUntilStatement)statement).statement());
+            write(((DoUntilStatement)statement).expression());
+        }
+        else if (statement instanceof ForkStatement) {
+            output.writeByte(FORK);
+            write(((ForkStatement)statement).statement());
+        }
+        else if (statement instanceof HeapAllocationStatement) {
+            output.writeByte(HEAP_ALLOCATION);
+            writeName(((HeapAllocationStatement)statement).variableName());
+            write(((HeapAllocationStatement)statement).expression());
+        }
+        else if (statement instanceof HeapWritingStatement) {
+            output.writeByte(HEAP_WRITING);
+            writeName(((HeapWritingStatement)statement).variableName());
+            write(((HeapWritingStatement)statement).expression());
+        }
+        else if (statement instanceof LatchAllocationStatement) {
+            output.writeByte(LATCH_ALLOCATION);
+            writeName(((LatchAllocationStatement)statement).variableName());
+            write(((LatchAllocationStatement)statement).expression());
+        }
+        else if (statement instanceof LatchAwaitStatement) {
+            output.writeByte(LATCH_AWAIT);
+            writeName(((LatchAwaitStatement)statement).variableName());
+        }
+        else if (statement instanceof LatchCountDownStatement) {
+            output.writeByte(LATCH_COUNT_DOWN);
+            writeName(((LatchCountDownStatement)statement).variableName());
+        }
+        else if (statement instanceof OpenReadFileStatement) {
+            output.writeByte(OPEN_READ_FILE);
+            writeName(((OpenReadFileStatement)statement).variableName());
+            writeName(((OpenReadFileStatement)statement).filePath());
+        }
+        else if (statement instanceof ReadFileStatement) {
+            output.writeByte(READ_FILE);
+            write(((ReadFileStatement)statement).expression());
+            writeName(((ReadFileStatement)statement).variableName());
+        }
+        else if (statement instanceof CloseReadFileStatement) {
+            output.writeByte(CLOSE_READ_FILE);
+            write(((CloseReadFileStatement)statement).expression());
+        }
+        else
+            throw new InvalidArgumentException("Statement '" + statement.getClass().getSimpleName() + "' cannot be encoded.");
+    }
+
+    /**
+     * Writes an <code>Expression</code> tree.
+     * @param expression The <code>Expression</code>.
+     * @throws IOException if the stream could not be written.
+     * @throws InvalidArgumentException if the tree contains a node that cannot be written.
+     */
+    private void write(Expression expression) throws IOException {
+        if (expression instanceof ConstantExpression) {
+            output.writeByte(CONSTANT);
+            output.writeInt(((ConstantExpression)expression).value());
+        }
+        else if (expression instanceof VariableExpression) {
+            output.writeByte(VARIABLE);
+            writeName(((VariableExpression)expression).variableName());
+        }
+        else if (expression instanceof ArithmeticExpression) {
+            output.writeByte(ARITHMETIC);
+            output.writeByte(((ArithmeticExpression)expression).arithmeticOperator().ordinal());
+            write(((ArithmeticExpression)expression).leftExpression());
+            write(((ArithmeticExpression)expression).rightExpression());
+        }
+        else if (expression instanceof BooleanExpression) {
+            output.writeByte(BOOLEAN);
+            output.writeByte(((BooleanExpression)expression).relationalOperator().ordinal());
+            write(((BooleanExpression)expression).leftExpression());
+            write(((BooleanExpression)expression).rightExpression());
+        }
+        else if (expression instanceof NegationExpression) {
+            output.writeByte(NEGATION);
+            write(((NegationExpression)expression).expression());
+        }
+        else if (expression instanceof HeapReadingExpression) {
+            output.writeByte(HEAP_READING);
+            writeName(((HeapReadingExpression)expression).variableName());
+        }
+        else
+            throw new InvalidArgumentException("Expression '" + (expression == null ? "null" : expression.getClass().getSimpleName()) + "' cannot be encoded.");
+    }
+
+    /**
+     * Reads a <code>Statement</code> tree written by <code>writeStatement</code>.
+     * @return The <code>Statement</code>, or <code>null</code>.
+     * @throws IOException if the stream could not be read or does not hold a <code>Statement</code> tree.
+     */
+    private Statement readStatement() throws IOException {
+        byte tag = input.readByte();
+        Statement statement;
+        Expression expression;
+        String variableName;
+        Statement[] sequence;
+
+        switch (tag) {
+            case NONE:
+                return null;
+
+            case SEQUENCE:
+                sequence = new Statement[input.readInt()];
+                if (sequence.length < 2)
+                    throw new IOException("Invalid statement sequence.");
+                for (int i = 0; i < sequence.length; i++)
+                    sequence[i] = readStatement();
+
+                statement = sequence[sequence.length - 1];
+                for (int i = sequence.length - 2; i >= 0; i--)
+                    statement = new CompoundStatement(sequence[i], statement);
+                return statement;
+
+            case ASSIGNMENT:
+                variableName = readName();
+                return new AssignmentStatement(variableName, readExpression());
+
+            case PRINT:
+                return new PrintStatement(readExpression());
+
+            case CONDITIONAL:
+                expression = readExpression();
+                statement = readStatement();
+                return new ConditionalStatement(expression, statement, readStatement());
+
+            case WHILE_LOOP:
+                expression = readExpression();
+                return new WhileLoopStatement(expression, readStatement());
+
+            case DO_UNTIL:
+                statement = readStatement();
+                return new DoUntilStatement(statement, readExpression());
+
+            case FORK:
+                return new ForkStatement(readStatement());
+
+            case HEAP_ALLOCATION:
+                variableName = readName();
+                return new HeapAllocationStatement(variableName, readExpression());
+
+            case HEAP_WRITING:
+                variableName = readName();
+                return new HeapWritingStatement(variableName, readExpression());
+
+            case LATCH_ALLOCATION:
+                variableName = readName();
+                return new LatchAllocationStatement(variableName, readExpression());
+
+            case LATCH_AWAIT:
+                return new LatchAwaitStatement(readName());
+
+            case LATCH_COUNT_DOWN:
+                return new LatchCountDownStatement(readName());
+
+            case OPEN_READ_FILE:
+                variableName = readName();
+                return new OpenReadFileStatement(variableName, readName());
+
+            case READ_FILE:
+                expression = readExpression();
+                return new ReadFileStatement(expression, readName());
+
+            case CLOSE_READ_FILE:
+                return new CloseReadFileStatement(readExpression());
+
+            default:
+                throw new IOException("Unknown statement tag " + tag + ".");
+        }
+    }
+
+    /**
+     * Reads an <code>Expression</code> tree written by <code>writeExpression</code>.
+     * @return The <code>Expression</code>.
+     * @throws IOException if the stream could not be read or does not hold an <code>Expression</code> tree.
+     */
+    private Expression readExpression() throws IOException {
+        byte tag = input.readByte();
+        Expression leftExpression;
+        int operator;
+
+        switch (tag) {
+            case CONSTANT:
+                return new ConstantExpression(input.readInt());
+
+            case VARIABLE:
+                return new VariableExpression(readName());
+
+            case ARITHMETIC:
+                operator = input.readByte();
+                if (operator < 0 || operator >= ArithmeticOperator.values().length)
+                    throw new IOException("Unknown arithmetic operator " + operator + ".");
+                leftExpression = readExpression();
+                return new ArithmeticExpression(leftExpression, ArithmeticOperator.values()[operator], readExpression());
+
+            case BOOLEAN:
+                operator = input.readByte();
+                if (operator < 0 || operator >= RelationalOperator.values().length)
+                    throw new IOException("Unknown relational operator " + operator + ".");
+                leftExpression = readExpression();
+                return new BooleanExpression(leftExpression, RelationalOperator.values()[operator], readExpression());
+
+            case NEGATION:
+                return new NegationExpression(readExpression());
+
+            case HEAP_READING:
+                return new HeapReadingExpression(readName());
+
+            default:
+                throw new IOException("Unknown expression tag " + tag + ".");
+        }
+    }
+
+    /**
+     * Writes a variable name or a file path. Every distinct string is written once and then referred to by its index,
+     * so that the decoded tree shares its strings the way the parsed one does.
+     * @param name The string.
+     * @throws IOException if the stream could not be written.
+     */
+    private void writeName(String name) throws IOException {
+        Integer index = nameIndexes.get(name);
+
+        if (index != null) {
+            output.writeInt(index);
+            return;
+        }
+
+        nameIndexes.put(name, nameIndexes.size());
+        output.writeInt(-1);
+        output.writeUTF(name);
+    }
+
+    /**
+     * Reads a string written by <code>writeName</code>.
+     * @return The string.
+     * @throws IOException if the stream could not be read or refers to an unknown string.
+     */
+    private String readName() throws IOException {
+        int index = input.readInt();
+        String name;
+
+        if (index == -1) {
+            name = input.readUTF();
+            names.add(name);
+            return name;
+        }
+
+        if (index < 0 || index >= names.size())
+            throw new IOException("Unknown name index " + index + ".");
+
+        return names.get(index);
+    }
+}
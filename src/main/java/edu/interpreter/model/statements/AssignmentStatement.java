@@ -3,7 +3,9 @@ package edu.interpreter.model.statements;
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.expressions.ArithmeticExpression;
 import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.utilities.SlotResolver;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
 
 /**
  * Represents an assignment statement.
@@ -11,6 +13,7 @@ import edu.interpreter.model.utilities.interfaces.IDictionary;
  */
 public final class AssignmentStatement extends Statement {
     private String variableName;
+    private final int slot;
     private Expression expression;
 
     /**
@@ -21,6 +24,31 @@ public final class AssignmentStatement extends Statement {
     public AssignmentStatement(String variableName, Expression expression) {
         this.variableName = variableName;
         this.expression = expression;
+        slot = SlotResolver.resolve(variableName);
+    }
+
+    /**
+     * Gets the variable name of the <code>AssignmentStatement</code>.
+     * @return The variable name of the <code>AssignmentStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the <code>Expression</code> of the <code>AssignmentStatement</code>.
+     * @return The <code>Expression</code> of the <code>AssignmentStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the symbol table slot of the variable of the <code>AssignmentStatement</code>.
+     * @return The symbol table slot of the variable of the <code>AssignmentStatement</code>.
+     */
+    public int slot() {
+        return slot;
     }
 
     /**
@@ -32,7 +60,12 @@ public final class AssignmentStatement extends Statement {
     public ProgramState execute(ProgramState programState) {
         IDictionary<String, Integer> symbolTable = programState.symbolTable();
         
-        symbolTable.add(variableName, expression.evaluate(symbolTable, programState.heap()));
+        int value = expression.evaluate(symbolTable, programState.heap());
+
+        if (symbolTable instanceof ISymbolTable)
+            ((ISymbolTable)symbolTable).add(slot, value);
+        else
+            symbolTable.add(variableName, value);
 
         return null;
     }
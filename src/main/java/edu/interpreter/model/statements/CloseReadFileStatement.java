@@ -21,6 +21,14 @@ public class CloseReadFileStatement extends Statement {
         this.expression = expression;
     }
 
+    /**
+     * Gets the file descriptor <code>Expression</code> of the <code>CloseReadFileStatement</code>.
+     * @return The file descriptor <code>Expression</code> of the <code>CloseReadFileStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
     /**
      * Executes the <code>CloseReadFileStatement</code>.
      * @param programState The program state before the execution of the <code>CloseReadFileStatement</code>.
@@ -21,6 +21,22 @@ public final class CompoundStatement extends Statement {
         this.secondStatement = secondStatement;
     }
 
+    /**
+     * Gets the first <code>Statement</code> of the <code>CompoundStatement</code>.
+     * @return The first <code>Statement</code> of the <code>CompoundStatement</code>.
+     */
+    public Statement firstStatement() {
+        return firStatement;
+    }
+
+    /**
+     * Gets the second <code>Statement</code> of the <code>CompoundStatement</code>.
+     * @return The second <code>Statement</code> of the <code>CompoundStatement</code>.
+     */
+    public Statement secondStatement() {
+        return secondStatement;
+    }
+
     /**
      * Executes the <code>CompoundStatement</code>.
      * @param programState The program state before the execution of the <code>CompoundStatement</code>.
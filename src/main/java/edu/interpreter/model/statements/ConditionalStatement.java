@@ -25,6 +25,30 @@ public final class ConditionalStatement extends Statement {
         this.elseStatement = elseStatement;
     }
 
+    /**
+     * Gets the condition <code>Expression</code> of the <code>ConditionalStatement</code>.
+     * @return The condition <code>Expression</code> of the <code>ConditionalStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the <code>Statement</code> executed if the condition is true of the <code>ConditionalStatement</code>.
+     * @return The <code>Statement</code> executed if the condition is true of the <code>ConditionalStatement</code>.
+     */
+    public Statement ifStatement() {
+        return ifStatement;
+    }
+
+    /**
+     * Gets the <code>Statement</code> executed if the condition is false of the <code>ConditionalStatement</code>.
+     * @return The <code>Statement</code> executed if the condition is false of the <code>ConditionalStatement</code>.
+     */
+    public Statement elseStatement() {
+        return elseStatement;
+    }
+
     /**
      * Executes the <code>ConditionalStatement</code>.
      * @param programState The program state before the execution of the <code>ConditionalStatement</code>.
@@ -1,10 +1,8 @@
 package edu.interpreter.model.statements;
 
 import edu.interpreter.model.ProgramState;
-import edu.interpreter.model.expressions.BooleanExpression;
-import edu.interpreter.model.expressions.BooleanExpression.RelationalOperator;
-import edu.interpreter.model.expressions.ConstantExpression;
 import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.expressions.NegationExpression;
 
 /**
  * Represents a do until statement.
@@ -13,6 +11,7 @@ import edu.interpreter.model.expressions.Expression;
 public class DoUntilStatement extends Statement {
     private Statement statement;
     private Expression expression;
+    private Statement loopStatement;
 
     /**
      * Initializes a new instance of the <code>DoUntilStatement</code> class with the specified values.
@@ -22,6 +21,25 @@ public class DoUntilStatement extends Statement {
     public DoUntilStatement(Statement statement, Expression expression) {
         this.statement = statement;
         this.expression = expression;
+
+        // The loop is the same on every execution, so it is built once.
+        loopStatement = new CompoundStatement(statement, new WhileLoopStatement(new NegationExpression(expression), statement));
+    }
+
+    /**
+     * Gets the loop body <code>Statement</code> of the <code>DoUntilStatement</code>.
+     * @return The loop body <code>Statement</code> of the <code>DoUntilStatement</code>.
+     */
+    public Statement statement() {
+        return statement;
+    }
+
+    /**
+     * Gets the loop <code>Expression</code> of the <code>DoUntilStatement</code>.
+     * @return The loop <code>Expression</code> of the <code>DoUntilStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
     }
 
     /**
@@ -31,7 +49,7 @@ public class DoUntilStatement extends Statement {
      */
     @Override
     public ProgramState execute(ProgramState programState) {
-        programState.executionStack().pushBack(new CompoundStatement(statement, new WhileLoopStatement(new BooleanExpression(expression, RelationalOperator.Equal, new ConstantExpression(0)), statement)));
+        programState.executionStack().pushBack(loopStatement);
 
         return null;
     }
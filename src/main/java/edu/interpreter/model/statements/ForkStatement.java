@@ -1,12 +1,7 @@
 package edu.interpreter.model.statements;
 
-import java.io.IOException;
-
 import edu.interpreter.model.ProgramState;
-import edu.interpreter.model.utilities.DeepCopy;
 import edu.interpreter.model.utilities.Deque;
-import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
-import edu.interpreter.model.utilities.interfaces.IDictionary;
 
 /**
  * Represents a fork statement.
@@ -23,30 +18,27 @@ public class ForkStatement extends Statement {
         this.statement = statement;
     }
 
+    /**
+     * Gets the <code>Statement</code> executed by the process of the <code>ForkStatement</code>.
+     * @return The <code>Statement</code> executed by the process of the <code>ForkStatement</code>.
+     */
+    public Statement statement() {
+        return statement;
+    }
+
     /**
      * Executes the <code>ForkStatement</code>.
      * @param programState The program state before the execution of the <code>ForkStatement</code>.
      * @return The program state after the execution of the <code>ForkStatement</code>.
      */
-    @SuppressWarnings("unchecked")
     @Override
     public ProgramState execute(ProgramState programState) {
-        ProgramState forkProgramState;
         Deque<Statement> forkExecutionStack;
 
         forkExecutionStack = new Deque<>();
         forkExecutionStack.pushFront(statement);
-        try {
-            forkProgramState = new ProgramState(forkExecutionStack, (IDictionary<String, Integer>)DeepCopy.copy(programState.symbolTable()), programState.outputMessages(), programState.fileTable(), programState.heap(), programState.latchTable());
-        }
-        catch (IOException e) {
-            throw new InvalidOperationException("I/O exception. Object could not be serialized.");
-        }
-        catch (ClassNotFoundException e) {
-            throw new InvalidOperationException("Class not found. Object could not be serialized.");
-        }
-
-        return forkProgramState;
+
+        return programState.fork(forkExecutionStack);
     }
 
     /**
@@ -1,10 +1,13 @@
 package edu.interpreter.model.statements;
 
+import edu.interpreter.metrics.ExecutionMetrics;
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.expressions.Expression;
-import edu.interpreter.model.utilities.IdGenerator;
+import edu.interpreter.model.utilities.HeapAllocator;
+import edu.interpreter.model.utilities.SlotResolver;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
 
 /**
  * Represents a heap allocation statement.
@@ -12,6 +15,7 @@ import edu.interpreter.model.utilities.interfaces.IHeap;
  */
 public class HeapAllocationStatement extends Statement {
     private String variableName;
+    private final int slot;
     private Expression expression;
 
     /**
@@ -22,6 +26,31 @@ public class HeapAllocationStatement extends Statement {
     public HeapAllocationStatement(String variableName, Expression expression) {
         this.variableName = variableName;
         this.expression = expression;
+        slot = SlotResolver.resolve(variableName);
+    }
+
+    /**
+     * Gets the variable name of the <code>HeapAllocationStatement</code>.
+     * @return The variable name of the <code>HeapAllocationStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the <code>Expression</code> of the <code>HeapAllocationStatement</code>.
+     * @return The <code>Expression</code> of the <code>HeapAllocationStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the symbol table slot of the variable of the <code>HeapAllocationStatement</code>.
+     * @return The symbol table slot of the variable of the <code>HeapAllocationStatement</code>.
+     */
+    public int slot() {
+        return slot;
     }
 
     /**
@@ -33,14 +62,21 @@ public class HeapAllocationStatement extends Statement {
     public ProgramState execute(ProgramState programState) {
         IDictionary<String, Integer> symbolTable;
         IHeap<Integer, Integer> heap;
+        ExecutionMetrics metrics;
         int memoryAddress;
 
-        memoryAddress = IdGenerator.generateId();
         symbolTable = programState.symbolTable();
         heap = programState.heap();
 
-        heap.add(memoryAddress, expression.evaluate(symbolTable, heap));
-        symbolTable.add(variableName, memoryAddress);
+        memoryAddress = HeapAllocator.allocate(programState, expression.evaluate(symbolTable, heap));
+        if (symbolTable instanceof ISymbolTable)
+            ((ISymbolTable)symbolTable).add(slot, memoryAddress);
+        else
+            symbolTable.add(variableName, memoryAddress);
+
+        metrics = programState.metrics();
+        if (metrics != null)
+            metrics.heapAllocated();
 
         return null;
     }
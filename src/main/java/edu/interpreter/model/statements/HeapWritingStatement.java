@@ -2,9 +2,11 @@ package edu.interpreter.model.statements;
 
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.expressions.Expression;
-import edu.interpreter.model.utilities.IdGenerator;
+import edu.interpreter.model.utilities.HeapAllocator;
+import edu.interpreter.model.utilities.SlotResolver;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
 
 /**
  * Represents a heap writing statement.
@@ -12,6 +14,7 @@ import edu.interpreter.model.utilities.interfaces.IHeap;
  */
 public class HeapWritingStatement extends Statement {
     private String variableName;
+    private final int slot;
     private Expression expression;
 
     /**
@@ -22,6 +25,31 @@ public class HeapWritingStatement extends Statement {
     public HeapWritingStatement(String variableName, Expression expression) {
         this.variableName = variableName;
         this.expression = expression;
+        slot = SlotResolver.resolve(variableName);
+    }
+
+    /**
+     * Gets the variable name of the <code>HeapWritingStatement</code>.
+     * @return The variable name of the <code>HeapWritingStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the <code>Expression</code> of the <code>HeapWritingStatement</code>.
+     * @return The <code>Expression</code> of the <code>HeapWritingStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the symbol table slot of the variable of the <code>HeapWritingStatement</code>.
+     * @return The symbol table slot of the variable of the <code>HeapWritingStatement</code>.
+     */
+    public int slot() {
+        return slot;
     }
 
     /**
@@ -37,10 +65,20 @@ public class HeapWritingStatement extends Statement {
         symbolTable  = programState.symbolTable();
         heap = programState.heap();
 
-        if (!symbolTable.contains(variableName))
-            symbolTable.add(variableName, IdGenerator.generateId());
+        if (symbolTable instanceof ISymbolTable) {
+            ISymbolTable slots = (ISymbolTable)symbolTable;
 
-        heap.add(symbolTable.get(variableName), expression.evaluate(symbolTable, heap));
+            if (!slots.contains(slot))
+                slots.add(slot, HeapAllocator.allocate(programState, expression.evaluate(symbolTable, heap)));
+            else
+                heap.add(slots.get(slot), expression.evaluate(symbolTable, heap));
+        }
+        else {
+            if (!symbolTable.contains(variableName))
+                symbolTable.add(variableName, HeapAllocator.allocate(programState, expression.evaluate(symbolTable, heap)));
+            else
+                heap.add(symbolTable.get(variableName), expression.evaluate(symbolTable, heap));
+        }
         
         return null;
     }
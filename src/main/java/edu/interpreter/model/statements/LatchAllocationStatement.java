@@ -3,6 +3,7 @@ package edu.interpreter.model.statements;
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.expressions.Expression;
 import edu.interpreter.model.utilities.IdGenerator;
+import edu.interpreter.model.utilities.IdGenerator.Namespace;
 
 /**
  * Represents a latch allocation statement.
@@ -22,6 +23,22 @@ public class LatchAllocationStatement extends Statement {
         this.expression = expression;
     }
 
+    /**
+     * Gets the variable name of the <code>LatchAllocationStatement</code>.
+     * @return The variable name of the <code>LatchAllocationStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the <code>Expression</code> of the <code>LatchAllocationStatement</code>.
+     * @return The <code>Expression</code> of the <code>LatchAllocationStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
     /**
      * Executes the <code>LatchAllocationStatement</code>.
      * @param programState The program state before the execution of the <code>LatchAllocationStatement</code>.
@@ -32,7 +49,7 @@ public class LatchAllocationStatement extends Statement {
         int result = expression.evaluate(programState.symbolTable(), programState.heap());
 
         synchronized (programState.latchTable()) {
-            int location = IdGenerator.generateId();
+            int location = IdGenerator.generateId(Namespace.Latch);
 
             programState.latchTable().add(location, result);
 
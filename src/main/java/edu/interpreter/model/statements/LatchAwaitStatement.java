@@ -1,6 +1,7 @@
 package edu.interpreter.model.statements;
 
 import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.interfaces.ILatchTable;
 
 public class LatchAwaitStatement extends Statement {
     private String variableName;
@@ -13,6 +14,14 @@ public class LatchAwaitStatement extends Statement {
         this.variableName = variableName;
     }
 
+    /**
+     * Gets the variable name of the <code>LatchAwaitStatement</code>.
+     * @return The variable name of the <code>LatchAwaitStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
     /**
      * Executes the <code>LatchAwaitStatement</code>.
      * @param programState The program state before the execution of the <code>LatchAwaitStatement</code>.
@@ -20,14 +29,33 @@ public class LatchAwaitStatement extends Statement {
      */
     @Override
     public ProgramState execute(ProgramState programState) {
-        int foundIndex = programState.symbolTable().get(variableName);
-
-        if (programState.latchTable().get(foundIndex) != 0)
+        if (await(programState))
             programState.executionStack().pushBack(this);
 
         return null;
     }
 
+    /**
+     * Parks the program state on the latch referred by the <code>LatchAwaitStatement</code> if it has not reached zero yet.
+     * The program state is unparked by the count down that brings the latch to zero.
+     * @param programState The program state that waits for the latch.
+     * @return True if the program state has been parked and has to execute the await again, false otherwise.
+     */
+    public boolean await(ProgramState programState) {
+        ILatchTable<Integer, Integer> latchTable = programState.latchTable();
+        int foundIndex = programState.symbolTable().get(variableName);
+
+        synchronized (latchTable) {
+            if (latchTable.get(foundIndex) == 0)
+                return false;
+
+            programState.park();
+            latchTable.addWaiter(foundIndex, programState::unpark);
+
+            return true;
+        }
+    }
+
     /**
      * Gets a string representation of the <code>LatchAwaitStatement</code>.
      * @return The string representation of the <code>LatchAwaitStatement</code>.
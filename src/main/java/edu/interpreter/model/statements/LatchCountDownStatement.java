@@ -1,6 +1,8 @@
 package edu.interpreter.model.statements;
 
 import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.OutputSink;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
 import edu.interpreter.model.utilities.interfaces.ILatchTable;
 
 public class LatchCountDownStatement extends Statement {
@@ -14,6 +16,14 @@ public class LatchCountDownStatement extends Statement {
         this.variableName = variableName;
     }
 
+    /**
+     * Gets the variable name of the <code>LatchCountDownStatement</code>.
+     * @return The variable name of the <code>LatchCountDownStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
     /**
      * Executes the <code>LatchCountDownStatement</code>.
      * @param programState The program state before the execution of the <code>LatchCountDownStatement</code>.
@@ -23,14 +33,22 @@ public class LatchCountDownStatement extends Statement {
     public ProgramState execute(ProgramState programState) {
         int foundIndex;
         ILatchTable<Integer, Integer> latchTable;
+        IExecutionListener listener;
 
         foundIndex = programState.symbolTable().get(variableName);
         latchTable = programState.latchTable();
+        listener = programState.executionListener();
 
         synchronized (latchTable) {
             if (latchTable.get(foundIndex) > 0) {
                 latchTable.add(foundIndex, latchTable.get(foundIndex) - 1);
-                programState.outputMessages().add(programState.id() + "");
+                OutputSink.print(programState.outputMessages(), programState.id());
+
+                if (listener != null)
+                    listener.latchCountedDown(programState, foundIndex, latchTable.get(foundIndex));
+
+                if (latchTable.get(foundIndex) == 0)
+                    latchTable.signal(foundIndex);
             }
         }
 
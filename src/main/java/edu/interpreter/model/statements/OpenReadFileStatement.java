@@ -2,10 +2,11 @@ package edu.interpreter.model.statements;
 
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.utilities.IdGenerator;
+import edu.interpreter.model.utilities.IdGenerator.Namespace;
+import edu.interpreter.model.utilities.MappedIntegerReader;
 import edu.interpreter.model.utilities.Pair;
 import edu.interpreter.model.utilities.exceptions.FileOpenedException;
 import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
@@ -31,6 +32,22 @@ public class OpenReadFileStatement extends Statement {
         this.filePath = filePath;
     }
 
+    /**
+     * Gets the variable name of the <code>OpenReadFileStatement</code>.
+     * @return The variable name of the <code>OpenReadFileStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
+    /**
+     * Gets the file path of the <code>OpenReadFileStatement</code>.
+     * @return The file path of the <code>OpenReadFileStatement</code>.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
     /**
      * Executes the <code>OpenReadFileStatement</code>.
      * @param programState The program state before the execution of the <code>OpenReadFileStatement</code>.
@@ -55,12 +72,12 @@ public class OpenReadFileStatement extends Statement {
         //     throw new InvalidOperationException("There already exists a variable with the same name.");
 
         try {
-            bufferedReader = new BufferedReader(new FileReader(filePath));
+            bufferedReader = new MappedIntegerReader(filePath);
         }
         catch (FileNotFoundException e) {
             throw new NotFoundException("File path is invalid.");
         }
-        id = IdGenerator.generateId();
+        id = IdGenerator.generateId(Namespace.File);
         
         fileTable.add(id, new Pair<String, BufferedReader>(filePath, bufferedReader));
         symbolTable.add(variableName, id);
@@ -2,6 +2,7 @@ package edu.interpreter.model.statements;
 
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.utilities.OutputSink;
 import edu.interpreter.model.utilities.interfaces.IDictionary;
 import edu.interpreter.model.utilities.interfaces.IList;
 
@@ -20,6 +21,14 @@ public final class PrintStatement extends Statement {
         this.expression = expression;
     }
 
+    /**
+     * Gets the <code>Expression</code> of the <code>PrintStatement</code>.
+     * @return The <code>Expression</code> of the <code>PrintStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
     /**
      * Executes the <code>PrintStatement</code>.
      * @param programState The program state before the execution of the <code>PrintStatement</code>.
@@ -33,7 +42,7 @@ public final class PrintStatement extends Statement {
         symbolTable = programState.symbolTable();
         outputMessages = programState.outputMessages();
 
-        outputMessages.add(Integer.toString(expression.evaluate(symbolTable, programState.heap())));
+        OutputSink.print(outputMessages, expression.evaluate(symbolTable, programState.heap()));
 
         return null;
     }
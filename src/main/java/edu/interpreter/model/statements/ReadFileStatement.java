@@ -5,6 +5,7 @@ import java.io.IOException;
 
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.expressions.Expression;
+import edu.interpreter.model.utilities.MappedIntegerReader;
 import edu.interpreter.model.utilities.Pair;
 import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
 import edu.interpreter.model.utilities.exceptions.NotFoundException;
@@ -29,6 +30,22 @@ public class ReadFileStatement extends Statement {
         this.variableName = variableName;
     }
 
+    /**
+     * Gets the file descriptor <code>Expression</code> of the <code>ReadFileStatement</code>.
+     * @return The file descriptor <code>Expression</code> of the <code>ReadFileStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the variable name of the <code>ReadFileStatement</code>.
+     * @return The variable name of the <code>ReadFileStatement</code>.
+     */
+    public String variableName() {
+        return variableName;
+    }
+
     /**
      * Executes the <code>ReadFileStatement</code>.
      * @param programState The program state before the execution of the <code>ReadFileStatement</code>.
@@ -40,6 +57,7 @@ public class ReadFileStatement extends Statement {
     public ProgramState execute(ProgramState programState) throws NotFoundException, InvalidOperationException {
         IDictionary<String, Integer> symbolTable;
         IFileTable<Integer, Pair<String, BufferedReader>> fileTable;
+        BufferedReader bufferedReader;
         int fileDescriptor;
         String line;
         int readInt;
@@ -53,16 +71,23 @@ public class ReadFileStatement extends Statement {
         if (!fileTable.contains(fileDescriptor))
             throw new NotFoundException("File not opened.");
 
+        bufferedReader = fileTable.get(fileDescriptor).right();
+
         try {
-            line = fileTable.get(fileDescriptor).right().readLine();
+            // Mapped files are parsed in place; other readers go through a line string.
+            if (bufferedReader instanceof MappedIntegerReader)
+                readInt = ((MappedIntegerReader)bufferedReader).readInt();
+            else {
+                line = bufferedReader.readLine();
+
+                if (line != null)
+                    readInt = Integer.parseInt(line);
+            }
         }
         catch (IOException e) {
             throw new InvalidOperationException(e.getMessage());
         }
 
-        if (line != null)
-            readInt = Integer.parseInt(line);
-
         symbolTable.add(variableName, readInt);
 
         return null;
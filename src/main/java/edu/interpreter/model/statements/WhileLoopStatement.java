@@ -21,6 +21,22 @@ public class WhileLoopStatement extends Statement {
         this.statement = statement;
     }
 
+    /**
+     * Gets the loop <code>Expression</code> of the <code>WhileLoopStatement</code>.
+     * @return The loop <code>Expression</code> of the <code>WhileLoopStatement</code>.
+     */
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * Gets the loop body <code>Statement</code> of the <code>WhileLoopStatement</code>.
+     * @return The loop body <code>Statement</code> of the <code>WhileLoopStatement</code>.
+     */
+    public Statement statement() {
+        return statement;
+    }
+
     /**
      * Executes the <code>WhileLoopStatement</code>.
      * @param programState The program state before the execution of the <code>WhileLoopStatement</code>.
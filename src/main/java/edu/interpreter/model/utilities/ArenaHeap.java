@@ -0,0 +1,421 @@
+package edu.interpreter.model.utilities;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.ListIterator;
+import java.util.Set;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IAllocatingHeap;
+
+/**
+ * Represents a heap that allocates its own dense addresses inside a growable arena of primitive integrals, so that the address of a cell is its index.
+ * The addresses start at 1 and are handed out in order; the addresses removed by the garbage collector are kept in a free list and handed out again
+ * before the arena grows, and the arena shrinks when its last cells are removed, so the memory of the heap stays proportional to its live cells.
+ * Addresses that were not allocated can still be written, up to the maximum address of the <code>ArenaHeap</code>.
+ * The <code>ArenaHeap</code> can be shared by program states running on different threads: every operation locks the whole arena,
+ * so two allocations never hand out the same address. Compound operations such as reading and then writing an address are not atomic.
+ * @author David Perisanu
+ */
+public class ArenaHeap implements IAllocatingHeap {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private static final int DEFAULT_CAPACITY = 64;
+    /**
+     * The default maximum address of an <code>ArenaHeap</code>.
+     */
+    public static final int DEFAULT_MAX_ADDRESS = 1 << 24;
+
+    private transient int[] values;
+    private transient long[] live;
+    private transient int[] free;
+    private transient int freeCount;
+    private transient int top;
+    private transient int size;
+    private final int maxAddress;
+
+    /**
+     * Initializes a new instance of the <code>ArenaHeap</code> class that is empty and has the default maximum address.
+     */
+    public ArenaHeap() {
+        this(DEFAULT_MAX_ADDRESS);
+    }
+
+    /**
+     * Initializes a new instance of the <code>ArenaHeap</code> class that is empty and has the specified maximum address.
+     * @param maxAddress The highest address that the <code>ArenaHeap</code> can contain.
+     * @throws InvalidArgumentException if the maximum address is not positive or the arena could not hold it.
+     */
+    public ArenaHeap(int maxAddress) {
+        if (maxAddress <= 0 || maxAddress > Integer.MAX_VALUE - 8)
+            throw new InvalidArgumentException("The maximum address of the arena is not valid.");
+
+        this.maxAddress = maxAddress;
+        reset(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Gets the highest address that the <code>ArenaHeap</code> can contain.
+     * @return The maximum address.
+     */
+    public int maxAddress() {
+        return maxAddress;
+    }
+
+    /**
+     * Gets the number of cells of the arena, live or free.
+     * @return The number of cells of the arena.
+     */
+    public synchronized int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Allocates a cell of the <code>ArenaHeap</code> that holds the provided value, reusing a removed address if any.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     * @throws InvalidOperationException if every address of the <code>ArenaHeap</code> is live.
+     */
+    @Override
+    public synchronized int allocate(int value) {
+        int address;
+
+        // The free list may hold addresses written since they were removed, or cut off by a shrink, so they are checked when they are taken.
+        while (freeCount > 0) {
+            address = free[--freeCount];
+
+            if (address <= top && !isLive(address)) {
+                store(address, value);
+                return address;
+            }
+        }
+
+        if (top == maxAddress)
+            throw new InvalidOperationException("The addresses of the arena have been exhausted.");
+
+        address = top + 1;
+        ensureCapacity(address);
+        top = address;
+        store(address, value);
+
+        return address;
+    }
+
+    /**
+     * Adds an element with the provided address and value to the <code>ArenaHeap</code>.
+     * If an element with the provided address exists, its value will be updated.
+     * @param key The address of the element to add.
+     * @param value The value of the element to add.
+     * @throws InvalidArgumentException if the address is outside the arena.
+     */
+    @Override
+    public synchronized void add(Integer key, Integer value) {
+        int address = key;
+
+        if (address <= 0 || address > maxAddress)
+            throw new InvalidArgumentException("The address " + address + " is outside the arena.");
+
+        if (address > top) {
+            int oldTop = top;
+
+            ensureCapacity(address);
+            top = address;
+
+            // The skipped addresses are free, the lowest one on top of the free list.
+            for (int skipped = address - 1; skipped > oldTop; skipped--)
+                pushFree(skipped);
+        }
+
+        store(address, value);
+    }
+
+    /**
+     * Determines whether the <code>ArenaHeap</code> contains the specified address.
+     * @param key The address to locate in the <code>ArenaHeap</code>.
+     * @return A boolean value which indicates whether the specified address exists or not.
+     */
+    @Override
+    public synchronized boolean contains(Integer key) {
+        int address = key;
+
+        return address > 0 && address <= top && isLive(address);
+    }
+
+    /**
+     * Gets the value stored at the specified address of the <code>ArenaHeap</code>.
+     * @param key The address of the value to get.
+     * @return The value stored at the provided address.
+     * @throws InvalidArgumentException if the address could not be found inside the <code>ArenaHeap</code>.
+     */
+    @Override
+    public synchronized Integer get(Integer key) throws InvalidArgumentException {
+        int address = key;
+
+        if (address <= 0 || address > top || !isLive(address))
+            throw new InvalidArgumentException("No key was found inside the heap.");
+
+        return values[address];
+    }
+
+    /**
+     * Removes the value stored at the specified address of the <code>ArenaHeap</code> and frees the address.
+     * @param key The address of the element to remove.
+     * @throws InvalidArgumentException if the address could not be found inside the <code>ArenaHeap</code>.
+     */
+    @Override
+    public synchronized void remove(Integer key) throws InvalidArgumentException {
+        int address = key;
+
+        if (address <= 0 || address > top || !isLive(address))
+            throw new InvalidArgumentException("No key was found inside the heap.");
+
+        live[address >>> 6] &= ~(1L << address);
+        size--;
+
+        if (address < top) {
+            pushFree(address);
+            return;
+        }
+
+        // The last cell has been removed, so the arena ends at the last live cell.
+        while (top > 0 && !isLive(top))
+            top--;
+
+        if (top < values.length / 4 && values.length > DEFAULT_CAPACITY)
+            shrink();
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing addresses, in ascending order.
+     * @return An iterable <code>ArrayList<></code> of all the existing addresses.
+     */
+    @Override
+    public synchronized ArrayList<Integer> allKeys() {
+        ArrayList<Integer> array = new ArrayList<>(size);
+
+        for (int address = 1; address <= top; address++)
+            if (isLive(address))
+                array.add(address);
+
+        return array;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values, in the ascending order of their addresses.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public synchronized ArrayList<Integer> allValues() {
+        ArrayList<Integer> array = new ArrayList<>(size);
+
+        for (int address = 1; address <= top; address++)
+            if (isLive(address))
+                array.add(values[address]);
+
+        return array;
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the addresses.
+     * @return A <code>ListIterator<></code> for the addresses.
+     */
+    @Override
+    public ListIterator<Integer> keysIterator() {
+        return allKeys().listIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return allValues().listIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ArenaHeap</code>.
+     * @return The number of elements inside the <code>ArenaHeap</code>.
+     */
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets a set containing all address/value pairs of the <code>ArenaHeap</code>.
+     * @return A set containing all address/value pairs of the <code>ArenaHeap</code>.
+     */
+    @Override
+    public synchronized Set<Pair<Integer, Integer>> entries() {
+        Set<Pair<Integer, Integer>> entries = new HashSet<>();
+
+        for (int address = 1; address <= top; address++)
+            if (isLive(address))
+                entries.add(new Pair<Integer, Integer>(address, values[address]));
+
+        return entries;
+    }
+
+    /**
+     * Gets a string representation of the <code>ArenaHeap</code>.
+     * @return The string representation of the <code>ArenaHeap</code>.
+     */
+    @Override
+    public synchronized String toString() {
+        if (size == 0)
+            return "{ }";
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int address = 1; address <= top; address++)
+            if (isLive(address))
+                stringBuilder.append(address).append(" -> ").append(values[address]).append(", ");
+
+        return "{ " + stringBuilder.substring(0, stringBuilder.length() - 2) + " }";
+    }
+
+    /**
+     * Determines whether an address of the arena holds a cell.
+     * @param address The address, inside the arena.
+     * @return <code>true</code> if the address holds a cell; otherwise, <code>false</code>.
+     */
+    private boolean isLive(int address) {
+        return (live[address >>> 6] & (1L << address)) != 0;
+    }
+
+    /**
+     * Writes a cell of the arena.
+     * @param address The address, inside the arena.
+     * @param value The value of the cell.
+     */
+    private void store(int address, int value) {
+        long bit = 1L << address;
+
+        if ((live[address >>> 6] & bit) == 0) {
+            live[address >>> 6] |= bit;
+            size++;
+        }
+
+        values[address] = value;
+    }
+
+    /**
+     * Adds an address to the free list, rebuilding the list instead of growing it past the free cells of the arena.
+     * @param address The free address.
+     */
+    private void pushFree(int address) {
+        if (freeCount == free.length) {
+            if (freeCount >= top - size) {
+                rebuildFreeList();
+                if (freeCount < free.length)
+                    return;
+            }
+
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+
+        free[freeCount++] = address;
+    }
+
+    /**
+     * Rebuilds the free list from the free cells of the arena, so that it holds every free address once, the lowest one on top.
+     */
+    private void rebuildFreeList() {
+        int count = top - size;
+
+        if (free.length < count)
+            free = new int[Math.max(count, DEFAULT_CAPACITY)];
+
+        freeCount = 0;
+        for (int address = top; address > 0; address--)
+            if (!isLive(address))
+                free[freeCount++] = address;
+    }
+
+    /**
+     * Grows the arena so that it can hold an address.
+     * @param address The address.
+     */
+    private void ensureCapacity(int address) {
+        if (address < values.length)
+            return;
+
+        resize((int)Math.min(Math.max((long)values.length * 2, (long)address + 1), (long)maxAddress + 1));
+    }
+
+    /**
+     * Halves the arena while it is mostly empty, and rebuilds the free list for the remaining cells.
+     */
+    private void shrink() {
+        int capacity = values.length;
+
+        while (top < capacity / 4 && capacity > DEFAULT_CAPACITY)
+            capacity /= 2;
+
+        resize(capacity);
+        free = new int[DEFAULT_CAPACITY];
+        rebuildFreeList();
+    }
+
+    /**
+     * Moves the cells of the arena into arrays with a new capacity.
+     * @param capacity The number of cells of the new arena, greater than the highest address in use.
+     */
+    private void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+        live = Arrays.copyOf(live, (capacity + 63) >>> 6);
+    }
+
+    /**
+     * Empties the <code>ArenaHeap</code> and allocates a new arena.
+     * @param capacity The number of cells of the arena.
+     */
+    private void reset(int capacity) {
+        values = new int[capacity];
+        live = new long[(capacity + 63) >>> 6];
+        free = new int[DEFAULT_CAPACITY];
+        freeCount = 0;
+        top = 0;
+        size = 0;
+    }
+
+    /**
+     * Writes the <code>ArenaHeap</code> as its size followed by its address/value pairs.
+     * @param stream The output stream.
+     * @throws IOException if an I/O error occurs.
+     */
+    private synchronized void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        stream.writeInt(size);
+
+        for (int address = 1; address <= top; address++)
+            if (isLive(address)) {
+                stream.writeInt(address);
+                stream.writeInt(values[address]);
+            }
+    }
+
+    /**
+     * Reads an <code>ArenaHeap</code> written by <code>writeObject</code>.
+     * @param stream The input stream.
+     * @throws IOException if an I/O error occurs.
+     * @throws ClassNotFoundException if the class of a serialized object could not be found.
+     */
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        int count = stream.readInt();
+
+        reset(DEFAULT_CAPACITY);
+        for (int i = 0; i < count; i++) {
+            int key = stream.readInt();
+
+            add(key, stream.readInt());
+        }
+    }
+}
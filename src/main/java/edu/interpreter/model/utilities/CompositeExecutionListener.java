@@ -0,0 +1,169 @@
+package edu.interpreter.model.utilities;
+
+import java.util.Arrays;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+
+/**
+ * Represents an immutable group of execution listeners that are notified of the same steps, so that tracing, profiling, recording,
+ * replaying and the view can observe a <code>ProgramState</code> together.
+ * The listeners are notified in the order they were added, both when a step starts and when it completes, so that they add themselves
+ * to a forked <code>ProgramState</code> in the same order.
+ * @author David Perisanu
+ */
+public final class CompositeExecutionListener implements IExecutionListener {
+    private final IExecutionListener[] listeners;
+
+    /**
+     * Initializes a new instance of the <code>CompositeExecutionListener</code> class with the specified listeners.
+     * @param listeners The listeners, in the order they are notified.
+     */
+    private CompositeExecutionListener(IExecutionListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Gets the listener that notifies a listener and then another one.
+     * @param listener The listener, or <code>null</code>.
+     * @param addedListener The listener to add.
+     * @return The added listener if there is no listener, the listener if it already notifies the added one, or a
+     * <code>CompositeExecutionListener</code> that notifies both.
+     */
+    public static IExecutionListener add(IExecutionListener listener, IExecutionListener addedListener) {
+        IExecutionListener[] listeners;
+
+        if (listener == null)
+            return addedListener;
+        if (contains(listener, addedListener))
+            return listener;
+
+        if (listener instanceof CompositeExecutionListener) {
+            listeners = ((CompositeExecutionListener)listener).listeners;
+            listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        }
+        else
+            listeners = new IExecutionListener[] { listener, null };
+
+        listeners[listeners.length - 1] = addedListener;
+        return new CompositeExecutionListener(listeners);
+    }
+
+    /**
+     * Gets the listener that notifies what a listener notifies, except a removed listener.
+     * @param listener The listener, or <code>null</code>.
+     * @param removedListener The listener to remove.
+     * @return The remaining listener, a <code>CompositeExecutionListener</code> of the remaining listeners, or <code>null</code> if none remains.
+     */
+    public static IExecutionListener remove(IExecutionListener listener, IExecutionListener removedListener) {
+        IExecutionListener[] listeners;
+        int count = 0;
+
+        if (listener == removedListener)
+            return null;
+        if (!(listener instanceof CompositeExecutionListener) || !contains(listener, removedListener))
+            return listener;
+
+        listeners = new IExecutionListener[((CompositeExecutionListener)listener).listeners.length - 1];
+        for (IExecutionListener current : ((CompositeExecutionListener)listener).listeners)
+            if (current != removedListener)
+                listeners[count++] = current;
+
+        return listeners.length == 1 ? listeners[0] : new CompositeExecutionListener(listeners);
+    }
+
+    /**
+     * Determines whether a listener is or notifies another listener.
+     * @param listener The listener, or <code>null</code>.
+     * @param containedListener The listener to look for.
+     * @return <code>true</code> if the listener is or notifies the other listener, <code>false</code> otherwise.
+     */
+    public static boolean contains(IExecutionListener listener, IExecutionListener containedListener) {
+        if (listener == containedListener)
+            return true;
+
+        if (listener instanceof CompositeExecutionListener)
+            for (IExecutionListener current : ((CompositeExecutionListener)listener).listeners)
+                if (current == containedListener)
+                    return true;
+
+        return false;
+    }
+
+    /**
+     * Notifies the listeners, in order, that a step starts. If a listener fails, the listeners already notified are told that the step has completed.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    @Override
+    public void stepStarting(ProgramState programState) {
+        int started = 0;
+
+        try {
+            for (; started < listeners.length; started++)
+                listeners[started].stepStarting(programState);
+        }
+        catch (RuntimeException e) {
+            complete(started, programState, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Notifies the listeners that a step has completed. Every listener is notified, even if one fails.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    @Override
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState) {
+        RuntimeException failure = complete(listeners.length, programState, forkProgramState, null);
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Notifies the listeners of a latch decrement.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    @Override
+    public void latchCountedDown(ProgramState programState, int latch, int count) {
+        for (IExecutionListener listener : listeners)
+            listener.latchCountedDown(programState, latch, count);
+    }
+
+    /**
+     * Notifies the listeners of a heap allocation.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    @Override
+    public void heapAllocated(ProgramState programState, int address) {
+        for (IExecutionListener listener : listeners)
+            listener.heapAllocated(programState, address);
+    }
+
+    /**
+     * Notifies the first listeners that a step has completed.
+     * @param count The number of listeners to notify.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     * @param failure The failure that has already happened, or <code>null</code>.
+     * @return The first failure, or <code>null</code> if no listener has failed.
+     */
+    private RuntimeException complete(int count, ProgramState programState, ProgramState forkProgramState, RuntimeException failure) {
+        for (int index = 0; index < count; index++)
+            try {
+                listeners[index].stepCompleted(programState, forkProgramState);
+            }
+            catch (RuntimeException e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+
+        return failure;
+    }
+}
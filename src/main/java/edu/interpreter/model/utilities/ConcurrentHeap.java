@@ -0,0 +1,258 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IAllocatingHeap;
+
+/**
+ * Represents a heap of integral addresses and values that can be shared by program states running on different threads.
+ * The addresses are spread over lock-striped <code>IntHeap</code> segments, so that threads working on different
+ * addresses rarely contend. Every read and write of an address synchronizes on the segment of the address,
+ * so a <code>readHeap</code> observes the last <code>writeHeap</code> of the same address that completed before it.
+ * Compound operations such as reading and then writing an address are not atomic.
+ * The addresses are allocated from a counter of the heap, so they depend only on the order of the allocations, not on the threads that make them.
+ * @author David Perisanu
+ */
+public class ConcurrentHeap implements IAllocatingHeap {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final IntHeap[] stripes;
+    private final int shift;
+    private final AtomicLong nextAddress;
+
+    /**
+     * Initializes a new instance of the <code>ConcurrentHeap</code> class that is empty and has the default number of stripes.
+     */
+    public ConcurrentHeap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Initializes a new instance of the <code>ConcurrentHeap</code> class that is empty and has the specified number of stripes.
+     * @param stripes The number of independently locked segments, rounded up to a power of two.
+     */
+    public ConcurrentHeap(int stripes) {
+        int count = 1;
+
+        while (count < stripes)
+            count <<= 1;
+
+        this.stripes = new IntHeap[count];
+        shift = 32 - Integer.numberOfTrailingZeros(count);
+        nextAddress = new AtomicLong(1);
+
+        for (int i = 0; i < count; i++)
+            this.stripes[i] = new IntHeap();
+    }
+
+    /**
+     * Adds an element with the provided address and value to the <code>ConcurrentHeap</code>.
+     * If an element with the provided address exists, its value will be updated.
+     * @param key The address of the element to add.
+     * @param value The value of the element to add.
+     */
+    @Override
+    public void add(Integer key, Integer value) {
+        IntHeap stripe = stripe(key);
+
+        synchronized (stripe) {
+            stripe.add(key, value);
+        }
+
+        // Addresses written without being allocated, such as restored ones, are never allocated again.
+        if (key >= nextAddress.get())
+            nextAddress.accumulateAndGet(key + 1L, Math::max);
+    }
+
+    /**
+     * Allocates a cell of the <code>ConcurrentHeap</code> that holds the provided value, at the next address of its counter.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     * @throws InvalidOperationException if the addresses of the <code>ConcurrentHeap</code> have been exhausted.
+     */
+    @Override
+    public int allocate(int value) {
+        long address = nextAddress.getAndIncrement();
+        IntHeap stripe;
+
+        if (address > Integer.MAX_VALUE)
+            throw new InvalidOperationException("The addresses of the heap have been exhausted.");
+
+        stripe = stripe((int)address);
+        synchronized (stripe) {
+            stripe.add((int)address, value);
+        }
+
+        return (int)address;
+    }
+
+    /**
+     * Determines whether the <code>ConcurrentHeap</code> contains the specified address.
+     * @param key The address to locate in the <code>ConcurrentHeap</code>.
+     * @return A boolean value which indicates whether the specified address exists or not.
+     */
+    @Override
+    public boolean contains(Integer key) {
+        IntHeap stripe = stripe(key);
+
+        synchronized (stripe) {
+            return stripe.contains(key);
+        }
+    }
+
+    /**
+     * Gets the value stored at the specified address of the <code>ConcurrentHeap</code>.
+     * @param key The address of the value to get.
+     * @return The value stored at the provided address.
+     * @throws InvalidArgumentException if the address could not be found inside the <code>ConcurrentHeap</code>.
+     */
+    @Override
+    public Integer get(Integer key) throws InvalidArgumentException {
+        IntHeap stripe = stripe(key);
+
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Removes the value stored at the specified address of the <code>ConcurrentHeap</code>.
+     * @param key The address of the element to remove.
+     * @throws InvalidArgumentException if the address could not be found inside the <code>ConcurrentHeap</code>.
+     */
+    @Override
+    public void remove(Integer key) throws InvalidArgumentException {
+        IntHeap stripe = stripe(key);
+
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing addresses.
+     * Every stripe is read atomically, but the stripes are read one after the other.
+     * @return An iterable <code>ArrayList<></code> of all the existing addresses.
+     */
+    @Override
+    public ArrayList<Integer> allKeys() {
+        ArrayList<Integer> array = new ArrayList<>();
+
+        for (IntHeap stripe : stripes)
+            synchronized (stripe) {
+                array.addAll(stripe.allKeys());
+            }
+
+        return array;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * Every stripe is read atomically, but the stripes are read one after the other.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Integer> allValues() {
+        ArrayList<Integer> array = new ArrayList<>();
+
+        for (IntHeap stripe : stripes)
+            synchronized (stripe) {
+                array.addAll(stripe.allValues());
+            }
+
+        return array;
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the addresses.
+     * @return A <code>ListIterator<></code> for the addresses.
+     */
+    @Override
+    public ListIterator<Integer> keysIterator() {
+        return allKeys().listIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return allValues().listIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ConcurrentHeap</code>.
+     * @return The number of elements inside the <code>ConcurrentHeap</code>.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (IntHeap stripe : stripes)
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+
+        return size;
+    }
+
+    /**
+     * Gets a set containing all address/value pairs of the <code>ConcurrentHeap</code>.
+     * Every stripe is read atomically, but the stripes are read one after the other.
+     * @return A set containing all address/value pairs of the <code>ConcurrentHeap</code>.
+     */
+    @Override
+    public Set<Pair<Integer, Integer>> entries() {
+        Set<Pair<Integer, Integer>> entries = new HashSet<>();
+
+        for (IntHeap stripe : stripes)
+            synchronized (stripe) {
+                entries.addAll(stripe.entries());
+            }
+
+        return entries;
+    }
+
+    /**
+     * Gets a string representation of the <code>ConcurrentHeap</code>.
+     * @return The string representation of the <code>ConcurrentHeap</code>.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (IntHeap stripe : stripes)
+            synchronized (stripe) {
+                if (stripe.size() > 0) {
+                    String pairs = stripe.toString();
+
+                    stringBuilder.append(pairs, 2, pairs.length() - 2).append(", ");
+                }
+            }
+
+        if (stringBuilder.length() == 0)
+            return "{ }";
+
+        return "{ " + stringBuilder.substring(0, stringBuilder.length() - 2) + " }";
+    }
+
+    /**
+     * Gets the stripe that holds an address.
+     * @param key The address.
+     * @return The stripe that holds the address.
+     */
+    private IntHeap stripe(int key) {
+        int h = key * 0x9E3779B9;
+
+        // The high bits of the product are the best mixed ones, while the stripes hash on the low bits.
+        return shift == 32 ? stripes[0] : stripes[h >>> shift];
+    }
+}
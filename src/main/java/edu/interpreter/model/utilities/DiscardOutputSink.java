@@ -0,0 +1,50 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+
+/**
+ * Represents an output sink that only counts the messages appended to it, for programs whose output is not needed.
+ * @author David Perisanu
+ */
+public class DiscardOutputSink extends OutputSink {
+    /**
+     * Initializes a new instance of the <code>DiscardOutputSink</code> class that has dropped no message yet.
+     */
+    public DiscardOutputSink() {
+    }
+
+    /**
+     * Initializes a new instance of the <code>DiscardOutputSink</code> class that resumes a sink which has dropped the provided number of messages.
+     * @param written The number of dropped messages.
+     */
+    public DiscardOutputSink(long written) {
+        written(written);
+    }
+
+    /**
+     * Gets an empty <code>ArrayList<></code>, since no message is kept.
+     * @return An empty <code>ArrayList<></code>.
+     */
+    @Override
+    public ArrayList<String> all() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Gets the number of kept messages, which is always 0.
+     * @return 0.
+     */
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    /**
+     * Drops a message.
+     * @param bytes The array that holds the bytes of the message.
+     * @param length The number of bytes of the message.
+     */
+    @Override
+    protected void append(byte[] bytes, int length) {
+    }
+}
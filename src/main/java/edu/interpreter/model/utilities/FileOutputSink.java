@@ -0,0 +1,239 @@
+package edu.interpreter.model.utilities;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.ListIterator;
+
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+
+/**
+ * Represents an output sink that writes every message as a line of a file, so that the messages do not stay in memory.
+ * A failed write does not stop the program states; it is kept and thrown by the next <code>flush</code> or <code>close</code>.
+ * Iterating or printing the <code>FileOutputSink</code> reads back only the end of the file, so that logging a program state does not read its whole output.
+ * @author David Perisanu
+ */
+public class FileOutputSink extends OutputSink {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final int TAIL_SIZE = 4096;
+
+    private final String filePath;
+    private final FileOutputStream output;
+    private final byte[] buffer;
+    private int length;
+    private long fileLength;
+    private IOException failure;
+
+    /**
+     * Initializes a new instance of the <code>FileOutputSink</code> class that writes to a new file.
+     * @param filePath The path of the file.
+     * @throws FileNotFoundException if the file path is not valid.
+     */
+    public FileOutputSink(String filePath) throws FileNotFoundException {
+        this.filePath = filePath;
+        output = new FileOutputStream(filePath);
+        buffer = new byte[1 << 16];
+    }
+
+    /**
+     * Initializes a new instance of the <code>FileOutputSink</code> class that reopens the file of a sink to resume it,
+     * dropping what was written to the file after the resumed sink, and appends to it.
+     * @param filePath The path of the file.
+     * @param fileLength The number of bytes written to the file by the resumed sink.
+     * @param written The number of messages appended to the resumed sink.
+     * @throws IOException if the file could not be opened or is shorter than the provided length.
+     */
+    public FileOutputSink(String filePath, long fileLength, long written) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE)) {
+            if (channel.size() < fileLength)
+                throw new IOException("The output file " + filePath + " is shorter than the output it should hold.");
+
+            channel.truncate(fileLength);
+        }
+
+        this.filePath = filePath;
+        this.fileLength = fileLength;
+        output = new FileOutputStream(filePath, true);
+        buffer = new byte[1 << 16];
+        written(written);
+    }
+
+    /**
+     * Gets the path of the file of the <code>FileOutputSink</code>.
+     * @return The path of the file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the number of bytes written to the file, including the buffered ones.
+     * @return The number of bytes written to the file.
+     */
+    public synchronized long fileLength() {
+        return fileLength;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the messages, read back from the file.
+     * @return An iterable <code>ArrayList<></code> of all the messages.
+     * @throws InvalidOperationException if the file could not be written or read.
+     */
+    @Override
+    public synchronized ArrayList<String> all() {
+        try {
+            flush();
+            return new ArrayList<>(Files.readAllLines(Paths.get(filePath), StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw new InvalidOperationException("The output file could not be read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> of the latest messages, read back from the end of the file.
+     * @return A <code>ListIterator<></code> of the latest messages.
+     * @throws InvalidOperationException if the file could not be written or read.
+     */
+    @Override
+    public ListIterator<String> iterator() {
+        return tail().listIterator();
+    }
+
+    /**
+     * Gets the number of messages written to the file.
+     * @return The number of messages written to the file.
+     */
+    @Override
+    public int size() {
+        return (int)Math.min(written(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes the buffered messages to the file.
+     * @throws IOException if the file could not be written.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (failure == null)
+            try {
+                output.write(buffer, 0, length);
+                output.flush();
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        length = 0;
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Writes the buffered messages and closes the file.
+     * @throws IOException if the file could not be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Gets a string representation of the latest messages and of the number of messages before them.
+     * @return The string representation of the latest messages.
+     * @throws InvalidOperationException if the file could not be written or read.
+     */
+    @Override
+    public synchronized String toString() {
+        ArrayList<String> messages = tail();
+        StringBuilder stringBuilder = new StringBuilder();
+
+        if (written() > messages.size())
+            stringBuilder.append(written() - messages.size()).append(" earlier messages in ").append(filePath).append(", ");
+        for (String message : messages)
+            stringBuilder.append(message).append(", ");
+
+        if (stringBuilder.length() == 0)
+            return "{ }";
+
+        return "{ " + stringBuilder.substring(0, stringBuilder.length() - 2) + " }";
+    }
+
+    /**
+     * Buffers a message followed by a line separator, writing the buffer to the file once it is full.
+     * @param bytes The array that holds the bytes of the message.
+     * @param messageLength The number of bytes of the message.
+     */
+    @Override
+    protected void append(byte[] bytes, int messageLength) {
+        if (failure != null)
+            return;
+
+        try {
+            if (length + messageLength + LINE_SEPARATOR.length > buffer.length) {
+                output.write(buffer, 0, length);
+                length = 0;
+            }
+
+            if (messageLength + LINE_SEPARATOR.length > buffer.length)
+                output.write(bytes, 0, messageLength);
+            else {
+                System.arraycopy(bytes, 0, buffer, length, messageLength);
+                length += messageLength;
+            }
+
+            System.arraycopy(LINE_SEPARATOR, 0, buffer, length, LINE_SEPARATOR.length);
+            length += LINE_SEPARATOR.length;
+            fileLength += messageLength + LINE_SEPARATOR.length;
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Reads back the messages of the last bytes of the file; the message cut by the first byte is dropped.
+     * @return An <code>ArrayList<></code> of the latest messages, the oldest first.
+     * @throws InvalidOperationException if the file could not be written or read.
+     */
+    private synchronized ArrayList<String> tail() {
+        ArrayList<String> messages = new ArrayList<>();
+        byte[] bytes;
+        long totalLength;
+        int start = 0;
+
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            flush();
+            totalLength = file.length();
+            bytes = new byte[(int)Math.min(totalLength, TAIL_SIZE)];
+            file.seek(totalLength - bytes.length);
+            file.readFully(bytes);
+        }
+        catch (IOException e) {
+            throw new InvalidOperationException("The output file could not be read: " + e.getMessage());
+        }
+
+        if (bytes.length < totalLength)
+            while (start < bytes.length && bytes[start++] != '\n');
+
+        for (int end = start; end < bytes.length; end++)
+            if (bytes[end] == '\n') {
+                messages.add(new String(bytes, start, end > start && bytes[end - 1] == '\r' ? end - start - 1 : end - start, StandardCharsets.UTF_8));
+                start = end + 1;
+            }
+
+        return messages;
+    }
+}
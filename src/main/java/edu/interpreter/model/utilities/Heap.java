@@ -5,15 +5,18 @@ import java.util.ListIterator;
 import java.util.Set;
 
 import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
 import edu.interpreter.model.utilities.interfaces.IHeap;
 
 /**
  * Represents a heap of keys and values.
+ * A heap of integral keys counts the addresses it has held, so that <code>HeapAllocator</code> allocates its cells in order.
  * @author David Perisanu
  */
 public class Heap<Key, Value> extends Dictionary<Key, Value> implements IHeap<Key, Value> {
     private static final long serialVersionUID = IdGenerator.generateLongId();
-    
+    private long nextAddress = 1;
+
     /**
      * Initializes a new instance of the <code>Heap<></code> class that is empty and has the default initial capacity.
      */
@@ -39,6 +42,21 @@ public class Heap<Key, Value> extends Dictionary<Key, Value> implements IHeap<Ke
     public void add(Key key, Value value) {
         //container.put(key, value);
         super.add(key, value);
+
+        if (key instanceof Integer && (Integer)key >= nextAddress)
+            nextAddress = (Integer)key + 1L;
+    }
+
+    /**
+     * Takes the integral address that follows the highest one the <code>Heap<></code> has held.
+     * @return The next address of the <code>Heap<></code>.
+     * @throws InvalidOperationException if the addresses of the <code>Heap<></code> have been exhausted.
+     */
+    int nextAddress() {
+        if (nextAddress > Integer.MAX_VALUE)
+            throw new InvalidOperationException("The addresses of the heap have been exhausted.");
+
+        return (int)nextAddress++;
     }
 
     /**
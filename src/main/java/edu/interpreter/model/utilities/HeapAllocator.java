@@ -0,0 +1,60 @@
+package edu.interpreter.model.utilities;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.IdGenerator.Namespace;
+import edu.interpreter.model.utilities.interfaces.IAllocatingHeap;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+
+/**
+ * Allocates heap cells: a heap that chooses its addresses allocates the cell itself, a <code>Heap<></code> gets the address that follows
+ * the highest one it has held, and any other heap gets an address of the heap namespace.
+ * The heaps of the interpreter thus hand out addresses in the order of the allocations, whichever threads make them.
+ * @author David Perisanu
+ */
+public final class HeapAllocator {
+    private HeapAllocator() { }     // Simulate static class.
+
+    /**
+     * Allocates a cell of the heap of a <code>ProgramState</code> that holds the provided value, and reports it to the execution listener.
+     * @param programState The <code>ProgramState</code> executing the allocation.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     */
+    public static int allocate(ProgramState programState, int value) {
+        IExecutionListener listener;
+        int memoryAddress;
+
+        memoryAddress = allocate(programState.heap(), value);
+
+        listener = programState.executionListener();
+        if (listener != null)
+            listener.heapAllocated(programState, memoryAddress);
+
+        return memoryAddress;
+    }
+
+    /**
+     * Allocates a cell of a heap that holds the provided value.
+     * @param heap The heap.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     */
+    public static int allocate(IHeap<Integer, Integer> heap, int value) {
+        int memoryAddress;
+
+        if (heap instanceof IAllocatingHeap)
+            return ((IAllocatingHeap)heap).allocate(value);
+
+        if (heap instanceof Heap) {
+            memoryAddress = ((Heap<?, ?>)heap).nextAddress();
+            heap.add(memoryAddress, value);
+            return memoryAddress;
+        }
+
+        memoryAddress = IdGenerator.generateId(Namespace.Heap);
+        heap.add(memoryAddress, value);
+
+        return memoryAddress;
+    }
+}
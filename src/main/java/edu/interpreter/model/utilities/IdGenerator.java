@@ -1,12 +1,109 @@
 package edu.interpreter.model.utilities;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+
 /**
  * Generator of unique identifiers.
  * @author David Perisanu
  */
 public final class IdGenerator {
-    private static int id = 0;
-    private static long longId = 0L;
+    /**
+     * Represents an independent sequence of integral identifiers.
+     * Namespaces with a block size greater than 1 hand out ranges of identifiers to every thread,
+     * so that the threads generate identifiers without touching shared state. A reservation raises the floor of the namespace,
+     * and a thread drops the rest of its block once the block falls below the floor.
+     */
+    public enum Namespace {
+        /**
+         * Heap addresses.
+         */
+        Heap(1024),
+        /**
+         * Latch table locations.
+         */
+        Latch(1),
+        /**
+         * File table descriptors.
+         */
+        File(1),
+        /**
+         * Program state identifiers.
+         */
+        State(1);
+
+        private final int blockSize;
+        private final AtomicLong next;
+        private final AtomicLong floor;
+        private final ThreadLocal<long[]> block;
+
+        /**
+         * Initializes a new instance of the <code>Namespace</code> enum with the specified value.
+         * @param blockSize The number of identifiers handed out to a thread at once.
+         */
+        Namespace(int blockSize) {
+            this.blockSize = blockSize;
+            next = new AtomicLong(1);
+            floor = new AtomicLong(1);
+            block = ThreadLocal.withInitial(() -> new long[] { 0, 0 });
+        }
+
+        /**
+         * Gets the number of identifiers handed out to a thread at once by the <code>Namespace</code>.
+         * @return The number of identifiers handed out to a thread at once.
+         */
+        public int blockSize() {
+            return blockSize;
+        }
+
+        /**
+         * Generates an identifier of the <code>Namespace</code>.
+         * @return The generated identifier.
+         */
+        private int generate() {
+            if (blockSize == 1)
+                return check(next.getAndIncrement());
+
+            long[] range = block.get();
+
+            // Blocks handed out before a reservation may overlap the reserved identifiers.
+            if (range[0] == range[1] || range[0] < floor.get()) {
+                range[0] = next.getAndAdd(blockSize);
+                range[1] = range[0] + blockSize;
+            }
+
+            return check(range[0]++);
+        }
+
+        /**
+         * Makes sure that identifiers lower than the provided one are never generated again, even from blocks already handed out to threads.
+         * @param id The lowest identifier that can still be generated.
+         */
+        private void reserve(long id) {
+            long current;
+
+            while ((current = next.get()) < id && !next.compareAndSet(current, id));
+            while ((current = floor.get()) < id && !floor.compareAndSet(current, id));
+        }
+
+        /**
+         * Ensures that an identifier fits inside an integral.
+         * @param id The identifier.
+         * @return The identifier as an integral.
+         * @throws InvalidOperationException if the identifiers of the <code>Namespace</code> have been exhausted.
+         */
+        private int check(long id) {
+            if (id > Integer.MAX_VALUE)
+                throw new InvalidOperationException("The identifiers of the " + name() + " namespace have been exhausted.");
+
+            return (int)id;
+        }
+    }
+
+    private static final AtomicInteger id = new AtomicInteger();
+    private static final AtomicLong longId = new AtomicLong();
 
     private IdGenerator() { }   // Simulate static class.
 
@@ -15,7 +112,27 @@ public final class IdGenerator {
      * @return An integral that represents a unique identifier.
      */
     public static int generateId() {
-        return id++;
+        return id.getAndIncrement();
+    }
+
+    /**
+     * Generates a unique integral identifier inside a namespace.
+     * Identifiers of different namespaces may be equal, and 0 is never generated.
+     * @param namespace The namespace of the identifier.
+     * @return An integral that represents a unique identifier inside the namespace.
+     * @throws InvalidOperationException if the identifiers of the namespace have been exhausted.
+     */
+    public static int generateId(Namespace namespace) {
+        return namespace.generate();
+    }
+
+    /**
+     * Makes sure that a namespace never generates identifiers lower than the provided one.
+     * @param namespace The namespace.
+     * @param id The lowest identifier that can still be generated.
+     */
+    public static void reserve(Namespace namespace, long id) {
+        namespace.reserve(id);
     }
 
     /**
@@ -23,6 +140,6 @@ public final class IdGenerator {
      * @return A long integral that represents a unique identifier.
      */
     public static long generateLongId() {
-        return longId++;
+        return longId.getAndIncrement();
     }
 }
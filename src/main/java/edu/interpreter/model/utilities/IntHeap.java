@@ -0,0 +1,437 @@
+package edu.interpreter.model.utilities;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.ListIterator;
+import java.util.Set;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IAllocatingHeap;
+
+/**
+ * Represents a heap of integral addresses and values stored in an open addressing table of primitive integrals.
+ * The table is an <code>IntBuffer</code> of interleaved address/value pairs that can live inside or outside the Java heap.
+ * The allocated addresses follow the highest address the <code>IntHeap</code> has held, so they depend only on the order of the allocations.
+ * @author David Perisanu
+ */
+public class IntHeap implements IAllocatingHeap {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private transient IntBuffer table;
+    private transient int mask;
+    private transient int size;
+    private transient boolean hasEmptyKey;
+    private transient int emptyKeyValue;
+    private final boolean direct;
+    private long nextAddress;
+
+    /**
+     * Initializes a new instance of the <code>IntHeap</code> class that is empty, has the default initial capacity and is stored inside the Java heap.
+     */
+    public IntHeap() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Initializes a new instance of the <code>IntHeap</code> class that is empty and has the default initial capacity.
+     * @param direct Whether the table is stored in a direct buffer outside the Java heap.
+     */
+    public IntHeap(boolean direct) {
+        this(DEFAULT_CAPACITY, direct);
+    }
+
+    /**
+     * Initializes a new instance of the <code>IntHeap</code> class that is empty and has the specified initial capacity.
+     * @param capacity The initial number of addresses that the <code>IntHeap</code> can contain.
+     * @param direct Whether the table is stored in a direct buffer outside the Java heap.
+     */
+    public IntHeap(int capacity, boolean direct) {
+        this.direct = direct;
+        nextAddress = 1;
+        reset(tableCapacity(capacity));
+    }
+
+    /**
+     * Gets a value that indicates whether the <code>IntHeap</code> is stored outside the Java heap.
+     * @return <code>true</code> if the table is stored in a direct buffer; otherwise, <code>false</code>.
+     */
+    public boolean direct() {
+        return direct;
+    }
+
+    /**
+     * Adds an element with the provided address and value to the <code>IntHeap</code>.
+     * If an element with the provided address exists, its value will be updated.
+     * @param key The address of the element to add.
+     * @param value The value of the element to add.
+     */
+    @Override
+    public void add(Integer key, Integer value) {
+        put(key, value);
+
+        if (key >= nextAddress)
+            nextAddress = key + 1L;
+    }
+
+    /**
+     * Allocates a cell of the <code>IntHeap</code> that holds the provided value, at the address that follows the highest one it has held.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     * @throws InvalidOperationException if the addresses of the <code>IntHeap</code> have been exhausted.
+     */
+    @Override
+    public int allocate(int value) {
+        int address;
+
+        if (nextAddress > Integer.MAX_VALUE)
+            throw new InvalidOperationException("The addresses of the heap have been exhausted.");
+
+        address = (int)nextAddress++;
+        put(address, value);
+
+        return address;
+    }
+
+    /**
+     * Determines whether the <code>IntHeap</code> contains the specified address.
+     * @param key The address to locate in the <code>IntHeap</code>.
+     * @return A boolean value which indicates whether the specified address exists or not.
+     */
+    @Override
+    public boolean contains(Integer key) {
+        return key == EMPTY ? hasEmptyKey : find(key) >= 0;
+    }
+
+    /**
+     * Gets the value stored at the specified address of the <code>IntHeap</code>.
+     * @param key The address of the value to get.
+     * @return The value stored at the provided address.
+     * @throws InvalidArgumentException if the address could not be found inside the <code>IntHeap</code>.
+     */
+    @Override
+    public Integer get(Integer key) throws InvalidArgumentException {
+        if (key == EMPTY) {
+            if (!hasEmptyKey)
+                throw new InvalidArgumentException("No key was found inside the heap.");
+
+            return emptyKeyValue;
+        }
+
+        int index = find(key);
+
+        if (index < 0)
+            throw new InvalidArgumentException("No key was found inside the heap.");
+
+        return table.get(2 * index + 1);
+    }
+
+    /**
+     * Removes the value stored at the specified address of the <code>IntHeap</code>.
+     * @param key The address of the element to remove.
+     * @throws InvalidArgumentException if the address could not be found inside the <code>IntHeap</code>.
+     */
+    @Override
+    public void remove(Integer key) throws InvalidArgumentException {
+        if (key == EMPTY) {
+            if (!hasEmptyKey)
+                throw new InvalidArgumentException("No key was found inside the heap.");
+
+            hasEmptyKey = false;
+            size--;
+            return;
+        }
+
+        int index = find(key);
+
+        if (index < 0)
+            throw new InvalidArgumentException("No key was found inside the heap.");
+
+        delete(index);
+        size--;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing addresses.
+     * @return An iterable <code>ArrayList<></code> of all the existing addresses.
+     */
+    @Override
+    public ArrayList<Integer> allKeys() {
+        ArrayList<Integer> array = new ArrayList<>(size);
+
+        if (hasEmptyKey)
+            array.add(EMPTY);
+        for (int i = 0; i <= mask; i++)
+            if (table.get(2 * i) != EMPTY)
+                array.add(table.get(2 * i));
+
+        return array;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Integer> allValues() {
+        ArrayList<Integer> array = new ArrayList<>(size);
+
+        if (hasEmptyKey)
+            array.add(emptyKeyValue);
+        for (int i = 0; i <= mask; i++)
+            if (table.get(2 * i) != EMPTY)
+                array.add(table.get(2 * i + 1));
+
+        return array;
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the addresses.
+     * @return A <code>ListIterator<></code> for the addresses.
+     */
+    @Override
+    public ListIterator<Integer> keysIterator() {
+        return allKeys().listIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return allValues().listIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>IntHeap</code>.
+     * @return The number of elements inside the <code>IntHeap</code>.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a set containing all address/value pairs of the <code>IntHeap</code>.
+     * @return A set containing all address/value pairs of the <code>IntHeap</code>.
+     */
+    @Override
+    public Set<Pair<Integer, Integer>> entries() {
+        Set<Pair<Integer, Integer>> entries = new HashSet<>();
+
+        if (hasEmptyKey)
+            entries.add(new Pair<Integer, Integer>(EMPTY, emptyKeyValue));
+        for (int i = 0; i <= mask; i++)
+            if (table.get(2 * i) != EMPTY)
+                entries.add(new Pair<Integer, Integer>(table.get(2 * i), table.get(2 * i + 1)));
+
+        return entries;
+    }
+
+    /**
+     * Gets a string representation of the <code>IntHeap</code>.
+     * @return The string representation of the <code>IntHeap</code>.
+     */
+    @Override
+    public String toString() {
+        if (size == 0)
+            return "{ }";
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        if (hasEmptyKey)
+            stringBuilder.append(EMPTY).append(" -> ").append(emptyKeyValue).append(", ");
+        for (int i = 0; i <= mask; i++)
+            if (table.get(2 * i) != EMPTY)
+                stringBuilder.append(table.get(2 * i)).append(" -> ").append(table.get(2 * i + 1)).append(", ");
+
+        return "{ " + stringBuilder.substring(0, stringBuilder.length() - 2) + " }";
+    }
+
+    /**
+     * Stores a value at an address of the <code>IntHeap</code>.
+     * @param key The address.
+     * @param value The value.
+     */
+    private void put(int key, int value) {
+        if (key == EMPTY) {
+            if (!hasEmptyKey)
+                size++;
+
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            return;
+        }
+
+        int index = hash(key);
+        int current;
+
+        while ((current = table.get(2 * index)) != EMPTY) {
+            if (current == key) {
+                table.put(2 * index + 1, value);
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        table.put(2 * index, key);
+        table.put(2 * index + 1, value);
+
+        // Keep the load factor under one half so that the probe sequences stay short.
+        if (++size * 2 > mask + 1)
+            rehash((mask + 1) * 2);
+    }
+
+    /**
+     * Finds the table index of an address.
+     * @param key The address to find.
+     * @return The table index of the address, or -1 if the address is not stored.
+     */
+    private int find(int key) {
+        int index = hash(key);
+        int current;
+
+        while ((current = table.get(2 * index)) != EMPTY) {
+            if (current == key)
+                return index;
+
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Empties a table index and shifts back the following entries of its probe sequence, so that no tombstones are needed.
+     * @param index The table index to empty.
+     */
+    private void delete(int index) {
+        int next = (index + 1) & mask;
+        int key;
+
+        while ((key = table.get(2 * next)) != EMPTY) {
+            int home = hash(key);
+
+            // Move the entry into the hole if the hole lies on its probe sequence.
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                table.put(2 * index, key);
+                table.put(2 * index + 1, table.get(2 * next + 1));
+                index = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        table.put(2 * index, EMPTY);
+    }
+
+    /**
+     * Gets the home table index of an address.
+     * @param key The address.
+     * @return The home table index of the address.
+     */
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Allocates an empty table.
+     * @param capacity The number of entries of the table, a power of two.
+     */
+    private void reset(int capacity) {
+        table = direct ? ByteBuffer.allocateDirect(capacity * 8).order(ByteOrder.nativeOrder()).asIntBuffer() : IntBuffer.allocate(capacity * 2);
+        mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++)
+            table.put(2 * i, EMPTY);
+    }
+
+    /**
+     * Moves all entries into a table with a new capacity.
+     * @param capacity The number of entries of the new table, a power of two.
+     */
+    private void rehash(int capacity) {
+        IntBuffer oldTable = table;
+        int oldCapacity = mask + 1;
+
+        reset(capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int key = oldTable.get(2 * i);
+
+            if (key != EMPTY) {
+                int index = hash(key);
+
+                while (table.get(2 * index) != EMPTY)
+                    index = (index + 1) & mask;
+
+                table.put(2 * index, key);
+                table.put(2 * index + 1, oldTable.get(2 * i + 1));
+            }
+        }
+    }
+
+    /**
+     * Gets the table capacity that holds a number of entries.
+     * @param capacity The number of entries.
+     * @return The smallest power of two that holds the entries under the load factor.
+     */
+    private static int tableCapacity(int capacity) {
+        int tableCapacity = DEFAULT_CAPACITY;
+
+        while (tableCapacity < capacity * 2)
+            tableCapacity <<= 1;
+
+        return tableCapacity;
+    }
+
+    /**
+     * Writes the <code>IntHeap</code> as its size followed by its address/value pairs.
+     * @param stream The output stream.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        stream.writeInt(size);
+
+        if (hasEmptyKey) {
+            stream.writeInt(EMPTY);
+            stream.writeInt(emptyKeyValue);
+        }
+        for (int i = 0; i <= mask; i++)
+            if (table.get(2 * i) != EMPTY) {
+                stream.writeInt(table.get(2 * i));
+                stream.writeInt(table.get(2 * i + 1));
+            }
+    }
+
+    /**
+     * Reads an <code>IntHeap</code> written by <code>writeObject</code>.
+     * @param stream The input stream.
+     * @throws IOException if an I/O error occurs.
+     * @throws ClassNotFoundException if the class of a serialized object could not be found.
+     */
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        int count = stream.readInt();
+
+        reset(tableCapacity(count));
+        for (int i = 0; i < count; i++) {
+            int key = stream.readInt();
+
+            put(key, stream.readInt());
+        }
+    }
+}
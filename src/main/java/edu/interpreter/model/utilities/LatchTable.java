@@ -1,6 +1,7 @@
 package edu.interpreter.model.utilities;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.ListIterator;
 import java.util.Set;
 
@@ -13,6 +14,7 @@ import edu.interpreter.model.utilities.interfaces.ILatchTable;
  */
 public class LatchTable<Key, Value> extends Dictionary<Key, Value> implements ILatchTable<Key, Value> {
     private static final long serialVersionUID = IdGenerator.generateLongId();
+    private transient HashMap<Key, ArrayList<Runnable>> waiters;
     
     /**
      * Initializes a new instance of the <code>LatchTable<></code> class that is empty and has the default initial capacity.
@@ -135,6 +137,39 @@ public class LatchTable<Key, Value> extends Dictionary<Key, Value> implements IL
         return super.entries();
     }
 
+    /**
+     * Registers a waiter that is notified when the latch with the specified key is signaled.
+     * Callers must synchronize on the <code>LatchTable<></code>.
+     * @param key The key of the latch.
+     * @param waiter The waiter to notify.
+     */
+    @Override
+    public void addWaiter(Key key, Runnable waiter) {
+        if (waiters == null)
+            waiters = new HashMap<>();
+
+        waiters.computeIfAbsent(key, latch -> new ArrayList<>()).add(waiter);
+    }
+
+    /**
+     * Notifies and removes every waiter of the latch with the specified key.
+     * Callers must synchronize on the <code>LatchTable<></code>.
+     * @param key The key of the latch.
+     * @return The number of notified waiters.
+     */
+    @Override
+    public int signal(Key key) {
+        ArrayList<Runnable> latchWaiters = waiters == null ? null : waiters.remove(key);
+
+        if (latchWaiters == null)
+            return 0;
+
+        for (Runnable waiter : latchWaiters)
+            waiter.run();
+
+        return latchWaiters.size();
+    }
+
     /**
      * Gets a string representation of the <code>LatchTable<></code>.
      * @return The string representation of the <code>LatchTable<></code>.
@@ -0,0 +1,263 @@
+package edu.interpreter.model.utilities;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file of integers, one per line, through memory-mapped regions of the file.
+ * Integers are parsed straight from the mapped bytes, so reading one allocates nothing.
+ * The reader extends <code>BufferedReader</code> so that it fits the file table; its line-oriented methods keep working
+ * for ASCII files, but only <code>readInt</code> avoids allocations.
+ * @author David Perisanu
+ */
+public class MappedIntegerReader extends BufferedReader {
+    /**
+     * Number of bytes of the file mapped at once.
+     */
+    public static final int REGION_SIZE = 1 << 26;
+
+    private final String filePath;
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer buffer;
+    private long position;
+    private boolean skipLineFeed;
+
+    /**
+     * Initializes a new instance of the <code>MappedIntegerReader</code> class that reads the specified file.
+     * @param filePath The path of the file.
+     * @throws FileNotFoundException if the file does not exist or cannot be opened.
+     */
+    public MappedIntegerReader(String filePath) throws FileNotFoundException {
+        super(new StringReader(""), 1);
+        this.filePath = filePath;
+
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            size = channel.size();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(REGION_SIZE, size));
+        }
+        catch (IOException | RuntimeException e) {
+            throw new FileNotFoundException(filePath + " could not be opened.");
+        }
+        position = 0;
+        skipLineFeed = false;
+    }
+
+    /**
+     * Gets the path of the file of the <code>MappedIntegerReader</code>.
+     * @return The path of the file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the offset of the next byte to read.
+     * @return The offset of the next byte inside the file.
+     */
+    public synchronized long position() {
+        return position;
+    }
+
+    /**
+     * Gets a value that indicates whether the last line ended with a carriage return, so that a line feed at the position is skipped by the next line.
+     * @return <code>true</code> if a line feed at the position is skipped; otherwise, <code>false</code>.
+     */
+    public synchronized boolean skipsLineFeed() {
+        return skipLineFeed;
+    }
+
+    /**
+     * Moves the <code>MappedIntegerReader</code> to an offset of the file, as returned by <code>position</code>.
+     * @param position The offset of the next byte to read.
+     * @param skipLineFeed <code>true</code> to skip a line feed at the offset before the next line, as returned by <code>skipsLineFeed</code>.
+     * @throws IOException if the offset is outside the file or the file could not be mapped.
+     */
+    public synchronized void seek(long position, boolean skipLineFeed) throws IOException {
+        if (position < 0 || position > size)
+            throw new IOException("Position " + position + " is outside " + filePath + ".");
+
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+        this.position = position;
+        this.skipLineFeed = skipLineFeed;
+    }
+
+    /**
+     * Reads the integer on the next line of the file.
+     * @return The integer on the next line, or 0 if the end of the file has been reached.
+     * @throws IOException if the file could not be read.
+     * @throws NumberFormatException if the next line does not hold an integer.
+     */
+    public synchronized int readInt() throws IOException {
+        long start, value;
+        boolean negative, valid;
+        int digits, character;
+
+        character = lineStart();
+        if (character == -1)
+            return 0;
+
+        start = position - 1;
+        value = 0;
+        digits = 0;
+        negative = character == '-';
+        valid = true;
+
+        if (character == '-' || character == '+')
+            character = next();
+
+        while (character != -1 && character != '\n' && character != '\r') {
+            if (character < '0' || character > '9')
+                valid = false;
+            else
+                // Saturate just above the magnitude of Integer.MIN_VALUE, so any overflow is still detected.
+                value = Math.min(value * 10 + (character - '0'), -(long)Integer.MIN_VALUE + 1);
+
+            digits++;
+            character = next();
+        }
+
+        skipLineFeed = character == '\r';
+
+        if (!valid || digits == 0 || value > (negative ? -(long)Integer.MIN_VALUE : Integer.MAX_VALUE))
+            throw new NumberFormatException("For input string: \"" + text(start, position - (character == -1 ? 0 : 1)) + "\"");
+
+        return (int)(negative ? -value : value);
+    }
+
+    /**
+     * Reads the next line of the file.
+     * @return The next line, or <code>null</code> if the end of the file has been reached.
+     * @throws IOException if the file could not be read.
+     */
+    @Override
+    public synchronized String readLine() throws IOException {
+        StringBuilder stringBuilder;
+        int character;
+
+        character = lineStart();
+        if (character == -1)
+            return null;
+
+        stringBuilder = new StringBuilder();
+        while (character != -1 && character != '\n' && character != '\r') {
+            stringBuilder.append((char)character);
+            character = next();
+        }
+
+        skipLineFeed = character == '\r';
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Reads a single character of the file.
+     * @return The character, or -1 if the end of the file has been reached.
+     * @throws IOException if the file could not be read.
+     */
+    @Override
+    public synchronized int read() throws IOException {
+        skipLineFeed = false;
+
+        return next();
+    }
+
+    /**
+     * Reads characters of the file into a portion of an array.
+     * @param characters The destination array.
+     * @param offset The offset at which to start storing characters.
+     * @param length The maximum number of characters to read.
+     * @return The number of characters read, or -1 if the end of the file has been reached.
+     * @throws IOException if the file could not be read.
+     */
+    @Override
+    public synchronized int read(char[] characters, int offset, int length) throws IOException {
+        int count = 0, character;
+
+        skipLineFeed = false;
+        if (length == 0)
+            return 0;
+
+        while (count < length && (character = next()) != -1)
+            characters[offset + count++] = (char)character;
+
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * Tells whether the file has characters left to read.
+     * @return <code>true</code> if the end of the file has not been reached; otherwise, <code>false</code>.
+     */
+    @Override
+    public synchronized boolean ready() {
+        return position < size;
+    }
+
+    /**
+     * Closes the file. The mapped region is released once it is no longer reachable.
+     * @throws IOException if the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        super.close();
+    }
+
+    /**
+     * Reads the first byte of a line, skipping the line feed that follows a carriage return.
+     * @return The first byte of the line, or -1 if the end of the file has been reached.
+     * @throws IOException if the file could not be read.
+     */
+    private int lineStart() throws IOException {
+        int character = next();
+
+        if (skipLineFeed && character == '\n')
+            character = next();
+        skipLineFeed = false;
+
+        return character;
+    }
+
+    /**
+     * Reads the next byte of the file, mapping the next region once the current one has been read.
+     * @return The next byte, or -1 if the end of the file has been reached.
+     * @throws IOException if the next region could not be mapped.
+     */
+    private int next() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (position >= size)
+                return -1;
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+        }
+
+        position++;
+
+        return buffer.get() & 0xff;
+    }
+
+    /**
+     * Gets the text between two positions of the file.
+     * @param start The position of the first byte.
+     * @param end The position after the last byte.
+     * @return The text between the positions.
+     * @throws IOException if the file could not be read.
+     */
+    private String text(long start, long end) throws IOException {
+        ByteBuffer text = ByteBuffer.allocate((int)Math.min(end - start, 64));
+
+        while (text.hasRemaining() && channel.read(text, start + text.position()) > 0);
+        text.flip();
+
+        return StandardCharsets.US_ASCII.decode(text).toString();
+    }
+}
@@ -0,0 +1,150 @@
+package edu.interpreter.model.utilities;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+
+/**
+ * Represents an output sink that writes the messages as lines of a ring buffer mapped to a file, so that it keeps only the latest messages
+ * and another process can follow them. The first 8 bytes of the file hold the number of bytes written so far, the ring follows them;
+ * once the ring has wrapped, the line cut by the oldest byte is dropped.
+ * @author David Perisanu
+ */
+public class MappedOutputSink extends OutputSink {
+    private static final int HEADER_SIZE = 8;
+
+    private final String filePath;
+    private final int capacity;
+    private final MappedByteBuffer ring;
+    private long position;
+
+    /**
+     * Initializes a new instance of the <code>MappedOutputSink</code> class that maps a new ring buffer to a file.
+     * @param filePath The path of the file, which is overwritten.
+     * @param capacity The number of bytes of the ring buffer.
+     * @throws InvalidArgumentException if the capacity is not positive.
+     * @throws IOException if the file could not be created or mapped.
+     */
+    public MappedOutputSink(String filePath, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE - HEADER_SIZE)
+            throw new InvalidArgumentException("The capacity of the ring buffer is not valid.");
+
+        this.filePath = filePath;
+        this.capacity = capacity;
+
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw")) {
+            file.setLength(0);
+            file.setLength(HEADER_SIZE + capacity);
+            ring = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+        }
+
+        ring.putLong(0, 0);
+    }
+
+    /**
+     * Initializes a new instance of the <code>MappedOutputSink</code> class that maps a new ring buffer holding the provided messages,
+     * to resume a sink that has appended the provided number of messages.
+     * @param filePath The path of the file, which is overwritten.
+     * @param capacity The number of bytes of the ring buffer.
+     * @param messages The messages kept by the resumed sink, the oldest first.
+     * @param written The number of messages appended to the resumed sink.
+     * @throws InvalidArgumentException if the capacity is not positive.
+     * @throws IOException if the file could not be created or mapped.
+     */
+    public MappedOutputSink(String filePath, int capacity, Iterable<String> messages, long written) throws IOException {
+        this(filePath, capacity);
+
+        for (String message : messages)
+            add(message);
+        written(written);
+    }
+
+    /**
+     * Gets the path of the file of the <code>MappedOutputSink</code>.
+     * @return The path of the file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the number of bytes of the ring buffer of the <code>MappedOutputSink</code>.
+     * @return The number of bytes of the ring buffer.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of the messages still inside the ring buffer, the oldest first.
+     * @return An iterable <code>ArrayList<></code> of the kept messages.
+     */
+    @Override
+    public synchronized ArrayList<String> all() {
+        ArrayList<String> messages = new ArrayList<>();
+        int length = (int)Math.min(position, capacity);
+        byte[] bytes = new byte[length];
+        int start = 0, end;
+
+        for (int index = 0; index < length; index++)
+            bytes[index] = ring.get(HEADER_SIZE + (int)((position - length + index) % capacity));
+
+        if (position > capacity)
+            while (start < length && bytes[start++] != '\n');
+
+        for (end = start; end < length; end++)
+            if (bytes[end] == '\n') {
+                messages.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+                start = end + 1;
+            }
+
+        return messages;
+    }
+
+    /**
+     * Writes the ring buffer to the file.
+     * @throws IOException if the file could not be written.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        ring.force();
+    }
+
+    /**
+     * Writes the ring buffer to the file. The mapping is released once the <code>MappedOutputSink</code> is no longer referenced.
+     * @throws IOException if the file could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Writes a message followed by a line feed at the end of the ring buffer, overwriting the oldest bytes.
+     * @param bytes The array that holds the bytes of the message.
+     * @param length The number of bytes of the message.
+     */
+    @Override
+    protected void append(byte[] bytes, int length) {
+        int offset = 0, chunk;
+
+        while (offset < length) {
+            int index = (int)(position % capacity);
+
+            chunk = Math.min(length - offset, capacity - index);
+            ring.position(HEADER_SIZE + index);
+            ring.put(bytes, offset, chunk);
+            offset += chunk;
+            position += chunk;
+        }
+
+        ring.put(HEADER_SIZE + (int)(position % capacity), (byte)'\n');
+        position++;
+        ring.putLong(0, position);
+    }
+}
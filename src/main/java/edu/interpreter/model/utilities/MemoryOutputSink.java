@@ -0,0 +1,92 @@
+package edu.interpreter.model.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.interpreter.model.utilities.exceptions.IndexOutOfRangeException;
+
+/**
+ * Represents an output sink that keeps every message in memory as UTF-8 bytes packed into a single growable array,
+ * so that a message costs its bytes and an offset instead of a string and a reference.
+ * @author David Perisanu
+ */
+public class MemoryOutputSink extends OutputSink {
+    private byte[] bytes;
+    private int length;
+    private int[] ends;
+    private int count;
+
+    /**
+     * Initializes a new instance of the <code>MemoryOutputSink</code> class that has no messages.
+     */
+    public MemoryOutputSink() {
+        bytes = new byte[256];
+        ends = new int[64];
+    }
+
+    /**
+     * Gets the message at the specified index.
+     * @param index The zero-based index of the message to get.
+     * @return The message at the specified index.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the <code>MemoryOutputSink</code>.
+     */
+    @Override
+    public synchronized String get(int index) throws IndexOutOfRangeException {
+        if (index < 0 || index > count - 1)
+            throw new IndexOutOfRangeException("Index was out of range. Must be non-negative and less than the size of the collection.");
+
+        return message(index);
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the messages.
+     * @return An iterable <code>ArrayList<></code> of all the messages.
+     */
+    @Override
+    public synchronized ArrayList<String> all() {
+        ArrayList<String> messages = new ArrayList<>(count);
+
+        for (int index = 0; index < count; index++)
+            messages.add(message(index));
+
+        return messages;
+    }
+
+    /**
+     * Gets the number of messages inside the <code>MemoryOutputSink</code>.
+     * @return The number of messages inside the <code>MemoryOutputSink</code>.
+     */
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Appends the UTF-8 bytes of a message.
+     * @param message The array that holds the bytes of the message.
+     * @param messageLength The number of bytes of the message.
+     */
+    @Override
+    protected void append(byte[] message, int messageLength) {
+        if (length + messageLength > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + messageLength));
+        if (count == ends.length)
+            ends = Arrays.copyOf(ends, ends.length * 2);
+
+        System.arraycopy(message, 0, bytes, length, messageLength);
+        length += messageLength;
+        ends[count++] = length;
+    }
+
+    /**
+     * Decodes a message.
+     * @param index The zero-based index of the message.
+     * @return The message.
+     */
+    private String message(int index) {
+        int start = index == 0 ? 0 : ends[index - 1];
+
+        return new String(bytes, start, ends[index] - start, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+import java.util.ListIterator;
+
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IDeque;
+
+/**
+ * Represents an execution stack that reports every push and pop to an <code>IChangeListener</code>.
+ * @author David Perisanu
+ */
+public class ObservedDeque implements IDeque<Statement> {
+    private final IDeque<Statement> inner;
+    private final int owner;
+    private final IChangeListener listener;
+
+    /**
+     * Initializes a new instance of the <code>ObservedDeque</code> class with the specified values.
+     * @param inner The execution stack that holds the statements.
+     * @param owner The owner reported with every change.
+     * @param listener The listener notified of every change.
+     */
+    public ObservedDeque(IDeque<Statement> inner, int owner, IChangeListener listener) {
+        this.inner = inner;
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the execution stack observed by the <code>ObservedDeque</code>.
+     * @return The observed execution stack.
+     */
+    public IDeque<Statement> inner() {
+        return inner;
+    }
+
+    /**
+     * Gets the owner reported by the <code>ObservedDeque</code>.
+     * @return The owner reported with every change.
+     */
+    public int owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the listener of the <code>ObservedDeque</code>.
+     * @return The listener notified of every change.
+     */
+    public IChangeListener listener() {
+        return listener;
+    }
+
+    /**
+     * Inserts a <code>Statement</code> at the beginning of the <code>ObservedDeque</code> and reports it.
+     * @param item The <code>Statement</code> to push.
+     */
+    @Override
+    public void pushFront(Statement item) {
+        inner.pushFront(item);
+        listener.statementPushed(owner, item, true);
+    }
+
+    /**
+     * Inserts a <code>Statement</code> at the end of the <code>ObservedDeque</code> and reports it.
+     * @param item The <code>Statement</code> to push.
+     */
+    @Override
+    public void pushBack(Statement item) {
+        inner.pushBack(item);
+        listener.statementPushed(owner, item, false);
+    }
+
+    /**
+     * Removes the <code>Statement</code> at the beginning of the <code>ObservedDeque</code> and reports it.
+     * @return The <code>Statement</code> that has just been removed.
+     * @throws InvalidOperationException if the <code>ObservedDeque</code> is empty.
+     */
+    @Override
+    public Statement popFront() throws InvalidOperationException {
+        Statement item = inner.popFront();
+
+        listener.statementPopped(owner, true);
+        return item;
+    }
+
+    /**
+     * Removes the <code>Statement</code> at the end of the <code>ObservedDeque</code> and reports it.
+     * @return The <code>Statement</code> that has just been removed.
+     * @throws InvalidOperationException if the <code>ObservedDeque</code> is empty.
+     */
+    @Override
+    public Statement popBack() throws InvalidOperationException {
+        Statement item = inner.popBack();
+
+        listener.statementPopped(owner, false);
+        return item;
+    }
+
+    /**
+     * Determines whether the <code>ObservedDeque</code> is empty.
+     * @return A boolean value which indicates whether the <code>ObservedDeque</code> is empty or not.
+     */
+    @Override
+    public boolean isEmpty() {
+        return inner.isEmpty();
+    }
+
+    /**
+     * Gets the <code>Statement</code> at the beginning of the <code>ObservedDeque</code>.
+     * @return The <code>Statement</code> at the beginning of the <code>ObservedDeque</code>.
+     * @throws InvalidOperationException if the <code>ObservedDeque</code> is empty.
+     */
+    @Override
+    public Statement front() throws InvalidOperationException {
+        return inner.front();
+    }
+
+    /**
+     * Gets the <code>Statement</code> at the end of the <code>ObservedDeque</code>.
+     * @return The <code>Statement</code> at the end of the <code>ObservedDeque</code>.
+     * @throws InvalidOperationException if the <code>ObservedDeque</code> is empty.
+     */
+    @Override
+    public Statement back() throws InvalidOperationException {
+        return inner.back();
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing elements.
+     * @return An iterable <code>ArrayList<></code> of all the existing elements.
+     */
+    @Override
+    public ArrayList<Statement> all() {
+        return inner.all();
+    }
+
+    /**
+     * Gets a front-to-back <code>ListIterator<></code>.
+     * @return A front-to-back <code>ListIterator<></code>.
+     */
+    @Override
+    public ListIterator<Statement> iteratorFront() {
+        return inner.iteratorFront();
+    }
+
+    /**
+     * Gets a back-to-front <code>ListIterator<></code>.
+     * @return A back-to-front <code>ListIterator<></code>.
+     */
+    @Override
+    public ListIterator<Statement> iteratorBack() {
+        return inner.iteratorBack();
+    }
+
+    /**
+     * Gets a string representation of the <code>ObservedDeque</code>.
+     * @return The string representation of the <code>ObservedDeque</code>.
+     */
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
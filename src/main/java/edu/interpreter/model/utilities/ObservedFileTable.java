@@ -0,0 +1,163 @@
+package edu.interpreter.model.utilities;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.ListIterator;
+import java.util.Set;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IFileTable;
+
+/**
+ * Represents a file table that reports every opened and closed file to an <code>IChangeListener</code>.
+ * @author David Perisanu
+ */
+public class ObservedFileTable implements IFileTable<Integer, Pair<String, BufferedReader>> {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private final IFileTable<Integer, Pair<String, BufferedReader>> inner;
+    private final int owner;
+    private final transient IChangeListener listener;
+
+    /**
+     * Initializes a new instance of the <code>ObservedFileTable</code> class with the specified values.
+     * @param inner The file table that holds the files.
+     * @param owner The owner reported with every change.
+     * @param listener The listener notified of every change.
+     */
+    public ObservedFileTable(IFileTable<Integer, Pair<String, BufferedReader>> inner, int owner, IChangeListener listener) {
+        this.inner = inner;
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the file table observed by the <code>ObservedFileTable</code>.
+     * @return The observed file table.
+     */
+    public IFileTable<Integer, Pair<String, BufferedReader>> inner() {
+        return inner;
+    }
+
+    /**
+     * Gets the owner reported by the <code>ObservedFileTable</code>.
+     * @return The owner reported with every change.
+     */
+    public int owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the listener of the <code>ObservedFileTable</code>.
+     * @return The listener notified of every change.
+     */
+    public IChangeListener listener() {
+        return listener;
+    }
+
+    /**
+     * Adds an element with the provided key and value to the <code>ObservedFileTable</code> and reports it.
+     * @param key The key of the element to add.
+     * @param value The value of the element to add.
+     */
+    @Override
+    public void add(Integer key, Pair<String, BufferedReader> value) {
+        inner.add(key, value);
+        listener.fileOpened(owner, key, value.left());
+    }
+
+    /**
+     * Determines whether the <code>ObservedFileTable</code> contains the specified key.
+     * @param key The key to locate in the <code>ObservedFileTable</code>.
+     * @return A boolean value which indicates whether the specified key exists or not.
+     */
+    @Override
+    public boolean contains(Integer key) {
+        return inner.contains(key);
+    }
+
+    /**
+     * Gets the value associated with the specified key.
+     * @param key The key of the value to get.
+     * @return The value associated with the specified key.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedFileTable</code>.
+     */
+    @Override
+    public Pair<String, BufferedReader> get(Integer key) throws InvalidArgumentException {
+        return inner.get(key);
+    }
+
+    /**
+     * Removes the element with the specified key from the <code>ObservedFileTable</code> and reports it.
+     * @param key The key of the element to remove.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedFileTable</code>.
+     */
+    @Override
+    public void remove(Integer key) throws InvalidArgumentException {
+        inner.remove(key);
+        listener.fileClosed(owner, key);
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing keys.
+     * @return An iterable <code>ArrayList<></code> of all the existing keys.
+     */
+    @Override
+    public ArrayList<Integer> allKeys() {
+        return inner.allKeys();
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Pair<String, BufferedReader>> allValues() {
+        return inner.allValues();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the keys.
+     * @return A <code>ListIterator<></code> for the keys.
+     */
+    @Override
+    public ListIterator<Integer> keysIterator() {
+        return inner.keysIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Pair<String, BufferedReader>> valuesIterator() {
+        return inner.valuesIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ObservedFileTable</code>.
+     * @return The number of elements inside the <code>ObservedFileTable</code>.
+     */
+    @Override
+    public int size() {
+        return inner.size();
+    }
+
+    /**
+     * Gets a set containing all key/value pairs of the <code>ObservedFileTable</code>.
+     * @return A set containing all key/value pairs of the <code>ObservedFileTable</code>.
+     */
+    @Override
+    public Set<Pair<Integer, Pair<String, BufferedReader>>> entries() {
+        return inner.entries();
+    }
+
+    /**
+     * Gets a string representation of the <code>ObservedFileTable</code>.
+     * @return The string representation of the <code>ObservedFileTable</code>.
+     */
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
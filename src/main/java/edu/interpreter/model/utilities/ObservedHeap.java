@@ -0,0 +1,177 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+import java.util.ListIterator;
+import java.util.Set;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.interfaces.IAllocatingHeap;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+
+/**
+ * Represents a heap that reports every write and removal to an <code>IChangeListener</code>.
+ * Cells are allocated by the observed heap when it chooses its addresses, so that wrapping a heap does not change the addresses it hands out.
+ * @author David Perisanu
+ */
+public class ObservedHeap implements IAllocatingHeap {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private final IHeap<Integer, Integer> inner;
+    private final int owner;
+    private final transient IChangeListener listener;
+
+    /**
+     * Initializes a new instance of the <code>ObservedHeap</code> class with the specified values.
+     * @param inner The heap that holds the values.
+     * @param owner The owner reported with every change.
+     * @param listener The listener notified of every change.
+     */
+    public ObservedHeap(IHeap<Integer, Integer> inner, int owner, IChangeListener listener) {
+        this.inner = inner;
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the heap observed by the <code>ObservedHeap</code>.
+     * @return The observed heap.
+     */
+    public IHeap<Integer, Integer> inner() {
+        return inner;
+    }
+
+    /**
+     * Gets the owner reported by the <code>ObservedHeap</code>.
+     * @return The owner reported with every change.
+     */
+    public int owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the listener of the <code>ObservedHeap</code>.
+     * @return The listener notified of every change.
+     */
+    public IChangeListener listener() {
+        return listener;
+    }
+
+    /**
+     * Adds an element with the provided key and value to the <code>ObservedHeap</code> and reports it.
+     * @param key The key of the element to add.
+     * @param value The value of the element to add.
+     */
+    @Override
+    public void add(Integer key, Integer value) {
+        inner.add(key, value);
+        listener.heapWritten(owner, key, value);
+    }
+
+    /**
+     * Allocates a cell of the observed heap that holds the provided value and reports it.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     */
+    @Override
+    public int allocate(int value) {
+        int memoryAddress = HeapAllocator.allocate(inner, value);
+
+        listener.heapWritten(owner, memoryAddress, value);
+        return memoryAddress;
+    }
+
+    /**
+     * Determines whether the <code>ObservedHeap</code> contains the specified key.
+     * @param key The key to locate in the <code>ObservedHeap</code>.
+     * @return A boolean value which indicates whether the specified key exists or not.
+     */
+    @Override
+    public boolean contains(Integer key) {
+        return inner.contains(key);
+    }
+
+    /**
+     * Gets the value associated with the specified key.
+     * @param key The key of the value to get.
+     * @return The value associated with the specified key.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedHeap</code>.
+     */
+    @Override
+    public Integer get(Integer key) throws InvalidArgumentException {
+        return inner.get(key);
+    }
+
+    /**
+     * Removes the element with the specified key from the <code>ObservedHeap</code> and reports it.
+     * @param key The key of the element to remove.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedHeap</code>.
+     */
+    @Override
+    public void remove(Integer key) throws InvalidArgumentException {
+        inner.remove(key);
+        listener.heapRemoved(owner, key);
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing keys.
+     * @return An iterable <code>ArrayList<></code> of all the existing keys.
+     */
+    @Override
+    public ArrayList<Integer> allKeys() {
+        return inner.allKeys();
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Integer> allValues() {
+        return inner.allValues();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the keys.
+     * @return A <code>ListIterator<></code> for the keys.
+     */
+    @Override
+    public ListIterator<Integer> keysIterator() {
+        return inner.keysIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return inner.valuesIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ObservedHeap</code>.
+     * @return The number of elements inside the <code>ObservedHeap</code>.
+     */
+    @Override
+    public int size() {
+        return inner.size();
+    }
+
+    /**
+     * Gets a set containing all key/value pairs of the <code>ObservedHeap</code>.
+     * @return A set containing all key/value pairs of the <code>ObservedHeap</code>.
+     */
+    @Override
+    public Set<Pair<Integer, Integer>> entries() {
+        return inner.entries();
+    }
+
+    /**
+     * Gets a string representation of the <code>ObservedHeap</code>.
+     * @return The string representation of the <code>ObservedHeap</code>.
+     */
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
@@ -0,0 +1,185 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+import java.util.ListIterator;
+import java.util.Set;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.ILatchTable;
+
+/**
+ * Represents a latch table that reports every write and removal to an <code>IChangeListener</code>.
+ * The program states that share a latch table must share the same <code>ObservedLatchTable</code>, since they synchronize on it.
+ * @author David Perisanu
+ */
+public class ObservedLatchTable implements ILatchTable<Integer, Integer> {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private final ILatchTable<Integer, Integer> inner;
+    private final int owner;
+    private final transient IChangeListener listener;
+
+    /**
+     * Initializes a new instance of the <code>ObservedLatchTable</code> class with the specified values.
+     * @param inner The latch table that holds the counts.
+     * @param owner The owner reported with every change.
+     * @param listener The listener notified of every change.
+     */
+    public ObservedLatchTable(ILatchTable<Integer, Integer> inner, int owner, IChangeListener listener) {
+        this.inner = inner;
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the latch table observed by the <code>ObservedLatchTable</code>.
+     * @return The observed latch table.
+     */
+    public ILatchTable<Integer, Integer> inner() {
+        return inner;
+    }
+
+    /**
+     * Gets the owner reported by the <code>ObservedLatchTable</code>.
+     * @return The owner reported with every change.
+     */
+    public int owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the listener of the <code>ObservedLatchTable</code>.
+     * @return The listener notified of every change.
+     */
+    public IChangeListener listener() {
+        return listener;
+    }
+
+    /**
+     * Adds an element with the provided key and value to the <code>ObservedLatchTable</code> and reports it.
+     * @param key The key of the element to add.
+     * @param value The value of the element to add.
+     */
+    @Override
+    public void add(Integer key, Integer value) {
+        inner.add(key, value);
+        listener.latchWritten(owner, key, value);
+    }
+
+    /**
+     * Determines whether the <code>ObservedLatchTable</code> contains the specified key.
+     * @param key The key to locate in the <code>ObservedLatchTable</code>.
+     * @return A boolean value which indicates whether the specified key exists or not.
+     */
+    @Override
+    public boolean contains(Integer key) {
+        return inner.contains(key);
+    }
+
+    /**
+     * Gets the value associated with the specified key.
+     * @param key The key of the value to get.
+     * @return The value associated with the specified key.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedLatchTable</code>.
+     */
+    @Override
+    public Integer get(Integer key) throws InvalidArgumentException {
+        return inner.get(key);
+    }
+
+    /**
+     * Removes the element with the specified key from the <code>ObservedLatchTable</code> and reports it.
+     * @param key The key of the element to remove.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedLatchTable</code>.
+     */
+    @Override
+    public void remove(Integer key) throws InvalidArgumentException {
+        inner.remove(key);
+        listener.latchRemoved(owner, key);
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing keys.
+     * @return An iterable <code>ArrayList<></code> of all the existing keys.
+     */
+    @Override
+    public ArrayList<Integer> allKeys() {
+        return inner.allKeys();
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Integer> allValues() {
+        return inner.allValues();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the keys.
+     * @return A <code>ListIterator<></code> for the keys.
+     */
+    @Override
+    public ListIterator<Integer> keysIterator() {
+        return inner.keysIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return inner.valuesIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ObservedLatchTable</code>.
+     * @return The number of elements inside the <code>ObservedLatchTable</code>.
+     */
+    @Override
+    public int size() {
+        return inner.size();
+    }
+
+    /**
+     * Gets a set containing all key/value pairs of the <code>ObservedLatchTable</code>.
+     * @return A set containing all key/value pairs of the <code>ObservedLatchTable</code>.
+     */
+    @Override
+    public Set<Pair<Integer, Integer>> entries() {
+        return inner.entries();
+    }
+
+    /**
+     * Registers a waiter that is notified when the latch with the specified key is signaled.
+     * Callers must synchronize on the <code>ObservedLatchTable</code>.
+     * @param key The key of the latch.
+     * @param waiter The waiter to notify.
+     */
+    @Override
+    public void addWaiter(Integer key, Runnable waiter) {
+        inner.addWaiter(key, waiter);
+    }
+
+    /**
+     * Notifies and removes every waiter of the latch with the specified key.
+     * Callers must synchronize on the <code>ObservedLatchTable</code>.
+     * @param key The key of the latch.
+     * @return The number of notified waiters.
+     */
+    @Override
+    public int signal(Integer key) {
+        return inner.signal(key);
+    }
+
+    /**
+     * Gets a string representation of the <code>ObservedLatchTable</code>.
+     * @return The string representation of the <code>ObservedLatchTable</code>.
+     */
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+import java.util.ListIterator;
+
+import edu.interpreter.model.utilities.exceptions.IndexOutOfRangeException;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IList;
+
+/**
+ * Represents a list of output messages that reports every change to an <code>IChangeListener</code>.
+ * Appends are reported one message at a time, any other change is reported with the whole list.
+ * @author David Perisanu
+ */
+public class ObservedList implements IList<String> {
+    private final IList<String> inner;
+    private final int owner;
+    private final IChangeListener listener;
+
+    /**
+     * Initializes a new instance of the <code>ObservedList</code> class with the specified values.
+     * @param inner The list that holds the messages.
+     * @param owner The owner reported with every change.
+     * @param listener The listener notified of every change.
+     */
+    public ObservedList(IList<String> inner, int owner, IChangeListener listener) {
+        this.inner = inner;
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the list observed by the <code>ObservedList</code>.
+     * @return The observed list.
+     */
+    public IList<String> inner() {
+        return inner;
+    }
+
+    /**
+     * Gets the owner reported by the <code>ObservedList</code>.
+     * @return The owner reported with every change.
+     */
+    public int owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the listener of the <code>ObservedList</code>.
+     * @return The listener notified of every change.
+     */
+    public IChangeListener listener() {
+        return listener;
+    }
+
+    /**
+     * Appends a message to the <code>ObservedList</code> and reports it.
+     * @param item The message to append.
+     */
+    @Override
+    public void add(String item) {
+        inner.add(item);
+        listener.messageAdded(owner, item);
+    }
+
+    /**
+     * Inserts a message at the specified index and reports the whole list.
+     * @param index The zero-based index at which the message should be inserted.
+     * @param item The message to insert.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the <code>ObservedList</code>.
+     */
+    @Override
+    public void insert(int index, String item) throws IndexOutOfRangeException {
+        inner.insert(index, item);
+        listener.messagesReplaced(owner, inner.all());
+    }
+
+    /**
+     * Gets the message at the specified index.
+     * @param index The zero-based index of the message to get.
+     * @return The message at the specified index.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the <code>ObservedList</code>.
+     */
+    @Override
+    public String get(int index) throws IndexOutOfRangeException {
+        return inner.get(index);
+    }
+
+    /**
+     * Sets the message at the specified index and reports the whole list.
+     * @param index The zero-based index of the message to set.
+     * @param item The new message.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the <code>ObservedList</code>.
+     */
+    @Override
+    public void set(int index, String item) throws IndexOutOfRangeException {
+        inner.set(index, item);
+        listener.messagesReplaced(owner, inner.all());
+    }
+
+    /**
+     * Removes the first occurrence of a message and reports the whole list.
+     * @param item The message to remove.
+     */
+    @Override
+    public void remove(String item) {
+        inner.remove(item);
+        listener.messagesReplaced(owner, inner.all());
+    }
+
+    /**
+     * Removes the message at the specified index and reports the whole list.
+     * @param index The zero-based index of the message to remove.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the <code>ObservedList</code>.
+     */
+    @Override
+    public void removeAt(int index) throws IndexOutOfRangeException {
+        inner.removeAt(index);
+        listener.messagesReplaced(owner, inner.all());
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing elements.
+     * @return An iterable <code>ArrayList<></code> of all the existing elements.
+     */
+    @Override
+    public ArrayList<String> all() {
+        return inner.all();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the messages.
+     * @return A <code>ListIterator<></code> for the messages.
+     */
+    @Override
+    public ListIterator<String> iterator() {
+        return inner.iterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> that starts at the specified index.
+     * @param index The zero-based index of the first message returned.
+     * @return A <code>ListIterator<></code> that starts at the specified index.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the <code>ObservedList</code>.
+     */
+    @Override
+    public ListIterator<String> iterator(int index) throws IndexOutOfRangeException {
+        return inner.iterator(index);
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ObservedList</code>.
+     * @return The number of elements inside the <code>ObservedList</code>.
+     */
+    @Override
+    public int size() {
+        return inner.size();
+    }
+
+    /**
+     * Gets a string representation of the <code>ObservedList</code>.
+     * @return The string representation of the <code>ObservedList</code>.
+     */
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
@@ -0,0 +1,227 @@
+package edu.interpreter.model.utilities;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ListIterator;
+import java.util.Set;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
+
+/**
+ * Represents a symbol table that reports every write and removal to an <code>IChangeListener</code>.
+ * Slot accesses are forwarded to the observed symbol table if it supports them, so that they keep their fast path.
+ * @author David Perisanu
+ */
+public class ObservedSymbolTable implements ISymbolTable {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private final IDictionary<String, Integer> inner;
+    private final int owner;
+    private final transient IChangeListener listener;
+
+    /**
+     * Initializes a new instance of the <code>ObservedSymbolTable</code> class with the specified values.
+     * @param inner The symbol table that holds the variables.
+     * @param owner The owner reported with every change.
+     * @param listener The listener notified of every change.
+     */
+    public ObservedSymbolTable(IDictionary<String, Integer> inner, int owner, IChangeListener listener) {
+        this.inner = inner;
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the symbol table observed by the <code>ObservedSymbolTable</code>.
+     * @return The observed symbol table.
+     */
+    public IDictionary<String, Integer> inner() {
+        return inner;
+    }
+
+    /**
+     * Gets the owner reported by the <code>ObservedSymbolTable</code>.
+     * @return The owner reported with every change.
+     */
+    public int owner() {
+        return owner;
+    }
+
+    /**
+     * Gets the listener of the <code>ObservedSymbolTable</code>.
+     * @return The listener notified of every change.
+     */
+    public IChangeListener listener() {
+        return listener;
+    }
+
+    /**
+     * Adds a value to the variable with the specified slot and reports it.
+     * @param slot The slot of the variable.
+     * @param value The value of the variable.
+     */
+    @Override
+    public void add(int slot, int value) {
+        if (inner instanceof ISymbolTable)
+            ((ISymbolTable)inner).add(slot, value);
+        else
+            inner.add(SlotResolver.name(slot), value);
+
+        listener.symbolWritten(owner, SlotResolver.name(slot), value);
+    }
+
+    /**
+     * Determines whether the <code>ObservedSymbolTable</code> contains the variable with the specified slot.
+     * @param slot The slot of the variable.
+     * @return A boolean value which indicates whether the variable exists or not.
+     */
+    @Override
+    public boolean contains(int slot) {
+        if (inner instanceof ISymbolTable)
+            return ((ISymbolTable)inner).contains(slot);
+
+        return inner.contains(SlotResolver.name(slot));
+    }
+
+    /**
+     * Gets the value of the variable with the specified slot.
+     * @param slot The slot of the variable.
+     * @return The value of the variable.
+     * @throws InvalidArgumentException if the variable could not be found inside the <code>ObservedSymbolTable</code>.
+     */
+    @Override
+    public int get(int slot) throws InvalidArgumentException {
+        if (inner instanceof ISymbolTable)
+            return ((ISymbolTable)inner).get(slot);
+
+        return inner.get(SlotResolver.name(slot));
+    }
+
+    /**
+     * Creates an unobserved copy of the observed symbol table.
+     * @return The copy of the observed symbol table, wrapped with the same owner and listener.
+     * @throws InvalidOperationException if the observed symbol table could not be copied.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ObservedSymbolTable copy() throws InvalidOperationException {
+        if (inner instanceof ISymbolTable)
+            return new ObservedSymbolTable(((ISymbolTable)inner).copy(), owner, listener);
+
+        try {
+            return new ObservedSymbolTable((IDictionary<String, Integer>)DeepCopy.copy(inner), owner, listener);
+        }
+        catch (IOException | ClassNotFoundException e) {
+            throw new InvalidOperationException("Symbol table could not be copied.");
+        }
+    }
+
+    /**
+     * Adds an element with the provided key and value to the <code>ObservedSymbolTable</code> and reports it.
+     * @param key The key of the element to add.
+     * @param value The value of the element to add.
+     */
+    @Override
+    public void add(String key, Integer value) {
+        inner.add(key, value);
+        listener.symbolWritten(owner, key, value);
+    }
+
+    /**
+     * Determines whether the <code>ObservedSymbolTable</code> contains the specified key.
+     * @param key The key to locate in the <code>ObservedSymbolTable</code>.
+     * @return A boolean value which indicates whether the specified key exists or not.
+     */
+    @Override
+    public boolean contains(String key) {
+        return inner.contains(key);
+    }
+
+    /**
+     * Gets the value associated with the specified key.
+     * @param key The key of the value to get.
+     * @return The value associated with the specified key.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedSymbolTable</code>.
+     */
+    @Override
+    public Integer get(String key) throws InvalidArgumentException {
+        return inner.get(key);
+    }
+
+    /**
+     * Removes the element with the specified key from the <code>ObservedSymbolTable</code> and reports it.
+     * @param key The key of the element to remove.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>ObservedSymbolTable</code>.
+     */
+    @Override
+    public void remove(String key) throws InvalidArgumentException {
+        inner.remove(key);
+        listener.symbolRemoved(owner, key);
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing keys.
+     * @return An iterable <code>ArrayList<></code> of all the existing keys.
+     */
+    @Override
+    public ArrayList<String> allKeys() {
+        return inner.allKeys();
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Integer> allValues() {
+        return inner.allValues();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the keys.
+     * @return A <code>ListIterator<></code> for the keys.
+     */
+    @Override
+    public ListIterator<String> keysIterator() {
+        return inner.keysIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return inner.valuesIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>ObservedSymbolTable</code>.
+     * @return The number of elements inside the <code>ObservedSymbolTable</code>.
+     */
+    @Override
+    public int size() {
+        return inner.size();
+    }
+
+    /**
+     * Gets a set containing all key/value pairs of the <code>ObservedSymbolTable</code>.
+     * @return A set containing all key/value pairs of the <code>ObservedSymbolTable</code>.
+     */
+    @Override
+    public Set<Pair<String, Integer>> entries() {
+        return inner.entries();
+    }
+
+    /**
+     * Gets a string representation of the <code>ObservedSymbolTable</code>.
+     * @return The string representation of the <code>ObservedSymbolTable</code>.
+     */
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
@@ -0,0 +1,249 @@
+package edu.interpreter.model.utilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.ListIterator;
+
+import edu.interpreter.model.utilities.exceptions.IndexOutOfRangeException;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IList;
+import edu.interpreter.model.utilities.interfaces.IOutputSink;
+
+/**
+ * Represents an output sink that encodes every message as UTF-8 bytes, integrals being formatted straight into a byte array.
+ * The messages of program states running on different threads are appended one at a time.
+ * @author David Perisanu
+ */
+public abstract class OutputSink implements IOutputSink {
+    private final byte[] digits;
+    private long written;
+
+    /**
+     * Initializes a new instance of the <code>OutputSink</code> class that has no messages.
+     */
+    protected OutputSink() {
+        digits = new byte[11];
+    }
+
+    /**
+     * Appends an integral as a message to an output list, without formatting it as a string if the list is an <code>IOutputSink</code>.
+     * @param outputMessages The output list.
+     * @param value The integral to append.
+     */
+    public static void print(IList<String> outputMessages, int value) {
+        if (outputMessages instanceof IOutputSink)
+            ((IOutputSink)outputMessages).add(value);
+        else
+            outputMessages.add(Integer.toString(value));
+    }
+
+    /**
+     * Appends an integral as a message to the <code>OutputSink</code>.
+     * @param value The integral to append.
+     */
+    @Override
+    public synchronized void add(int value) {
+        append(digits, format(value, digits));
+        written++;
+    }
+
+    /**
+     * Appends a message to the <code>OutputSink</code>.
+     * @param item The message to append.
+     */
+    @Override
+    public synchronized void add(String item) {
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+
+        append(bytes, bytes.length);
+        written++;
+    }
+
+    /**
+     * Gets the number of messages appended to the <code>OutputSink</code>, kept or not.
+     * @return The number of appended messages.
+     */
+    @Override
+    public synchronized long written() {
+        return written;
+    }
+
+    /**
+     * Sets the number of messages appended to the <code>OutputSink</code>, when it resumes the messages of another one.
+     * @param written The number of appended messages.
+     */
+    protected synchronized void written(long written) {
+        this.written = written;
+    }
+
+    /**
+     * Is not supported, since the messages of an <code>OutputSink</code> can only be appended.
+     * @param index The zero-based index at which item should be inserted.
+     * @param item The object to insert.
+     * @throws InvalidOperationException always.
+     */
+    @Override
+    public void insert(int index, String item) {
+        throw unsupported();
+    }
+
+    /**
+     * Gets the kept message at the specified index.
+     * @param index The zero-based index of the message to get.
+     * @return The message at the specified index.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the kept messages.
+     */
+    @Override
+    public String get(int index) throws IndexOutOfRangeException {
+        ArrayList<String> messages = all();
+
+        if (index < 0 || index > messages.size() - 1)
+            throw new IndexOutOfRangeException("Index was out of range. Must be non-negative and less than the size of the collection.");
+
+        return messages.get(index);
+    }
+
+    /**
+     * Is not supported, since the messages of an <code>OutputSink</code> can only be appended.
+     * @param index The zero-based index of the element to set.
+     * @param item The new message.
+     * @throws InvalidOperationException always.
+     */
+    @Override
+    public void set(int index, String item) {
+        throw unsupported();
+    }
+
+    /**
+     * Is not supported, since the messages of an <code>OutputSink</code> can only be appended.
+     * @param item The message to remove.
+     * @throws InvalidOperationException always.
+     */
+    @Override
+    public void remove(String item) {
+        throw unsupported();
+    }
+
+    /**
+     * Is not supported, since the messages of an <code>OutputSink</code> can only be appended.
+     * @param index The zero-based index of the message to remove.
+     * @throws InvalidOperationException always.
+     */
+    @Override
+    public void removeAt(int index) {
+        throw unsupported();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> of the kept messages.
+     * @return A <code>ListIterator<></code> of the kept messages.
+     */
+    @Override
+    public ListIterator<String> iterator() {
+        return all().listIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> of the kept messages starting at the specified index.
+     * @param index Iterator starting position.
+     * @return A <code>ListIterator<></code> starting at the specified index.
+     * @throws IndexOutOfRangeException if the index is outside the bounds of the kept messages.
+     */
+    @Override
+    public ListIterator<String> iterator(int index) throws IndexOutOfRangeException {
+        ArrayList<String> messages = all();
+
+        if (index < -1 || index > messages.size())
+            throw new IndexOutOfRangeException("Index was outside the expected bounds.");
+
+        return messages.listIterator(index);
+    }
+
+    /**
+     * Gets the number of kept messages.
+     * @return The number of kept messages.
+     */
+    @Override
+    public int size() {
+        return all().size();
+    }
+
+    /**
+     * Writes the kept messages to their destination.
+     * @throws IOException if the messages could not be written.
+     */
+    @Override
+    public void flush() throws IOException {
+    }
+
+    /**
+     * Writes the kept messages to their destination and releases it.
+     * @throws IOException if the messages could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+    }
+
+    /**
+     * Gets a string representation of the kept messages.
+     * @return The string representation of the kept messages.
+     */
+    @Override
+    public String toString() {
+        ArrayList<String> messages = all();
+
+        if (messages.size() == 0)
+            return "{ }";
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (String message : messages)
+            stringBuilder.append(message).append(", ");
+
+        return "{ " + stringBuilder.substring(0, stringBuilder.length() - 2) + " }";
+    }
+
+    /**
+     * Appends the UTF-8 bytes of a message. Called while the <code>OutputSink</code> is locked.
+     * @param bytes The array that holds the bytes of the message.
+     * @param length The number of bytes of the message.
+     */
+    protected abstract void append(byte[] bytes, int length);
+
+    /**
+     * Formats an integral as decimal digits.
+     * @param value The integral.
+     * @param bytes The array the digits are written to, at least 11 bytes long.
+     * @return The number of written bytes.
+     */
+    private static int format(int value, byte[] bytes) {
+        long remaining = value;
+        int length = 0, position;
+
+        if (remaining < 0) {
+            bytes[length++] = '-';
+            remaining = -remaining;
+        }
+
+        for (long power = remaining; power >= 10; power /= 10)
+            length++;
+
+        position = ++length;
+        do {
+            bytes[--position] = (byte)('0' + remaining % 10);
+            remaining /= 10;
+        }
+        while (remaining != 0);
+
+        return length;
+    }
+
+    /**
+     * Creates the exception thrown when the kept messages would be changed.
+     * @return The exception.
+     */
+    private static InvalidOperationException unsupported() {
+        return new InvalidOperationException("The messages of an output sink can only be appended.");
+    }
+}
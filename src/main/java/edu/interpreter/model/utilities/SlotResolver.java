@@ -0,0 +1,65 @@
+package edu.interpreter.model.utilities;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolver of variable names to symbol table slots. Every name is assigned a slot index once and keeps it
+ * for the whole run, so the nodes that refer to a variable can resolve it when they are built.
+ * @author David Perisanu
+ */
+public final class SlotResolver {
+    private static final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[16];
+    private static int count = 0;
+
+    private SlotResolver() { }  // Simulate static class.
+
+    /**
+     * Gets the slot index of a variable name, assigning a new one if the name has not been resolved yet.
+     * @param name The variable name.
+     * @return The slot index of the variable name.
+     */
+    public static int resolve(String name) {
+        Integer slot = slots.get(name);
+
+        if (slot != null)
+            return slot;
+
+        synchronized (slots) {
+            slot = slots.get(name);
+
+            if (slot == null) {
+                // The grown array is filled before it is published, since name reads it without locking.
+                if (count == names.length) {
+                    String[] grown = new String[names.length * 2];
+
+                    System.arraycopy(names, 0, grown, 0, names.length);
+                    names = grown;
+                }
+
+                slot = count;
+                names[count++] = name;
+                slots.put(name, slot);
+            }
+
+            return slot;
+        }
+    }
+
+    /**
+     * Gets the variable name of a slot index.
+     * @param slot The slot index.
+     * @return The variable name of the slot index.
+     */
+    public static String name(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Gets the number of resolved variable names.
+     * @return The number of resolved variable names.
+     */
+    public static int count() {
+        return slots.size();
+    }
+}
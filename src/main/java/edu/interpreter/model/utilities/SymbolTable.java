@@ -0,0 +1,302 @@
+package edu.interpreter.model.utilities;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
+
+/**
+ * Represents a symbol table backed by an <code>int[]</code> frame indexed by the slots of the <code>SlotResolver</code>
+ * and a bitmap that marks the defined variables.
+ * Copies share the frame of the original and copy it on their first write.
+ * @author David Perisanu
+ */
+public class SymbolTable implements ISymbolTable {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+    private int[] values;
+    private long[] present;
+    private int size;
+    private AtomicInteger owners;
+    private boolean shared;
+
+    /**
+     * Initializes a new instance of the <code>SymbolTable</code> class that is empty and has the default initial capacity.
+     */
+    public SymbolTable() {
+        this(Math.max(SlotResolver.count(), 16));
+    }
+
+    /**
+     * Initializes a new instance of the <code>SymbolTable</code> class that is empty and has the specified initial capacity.
+     * @param capacity The initial number of slots that the <code>SymbolTable</code> can contain.
+     */
+    public SymbolTable(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+        present = new long[(values.length + 63) >>> 6];
+        size = 0;
+        owners = new AtomicInteger(1);
+        shared = false;
+    }
+
+    /**
+     * Initializes a new instance of the <code>SymbolTable</code> class that shares the frame of another one.
+     * @param symbolTable The <code>SymbolTable</code> whose frame is shared.
+     */
+    private SymbolTable(SymbolTable symbolTable) {
+        values = symbolTable.values;
+        present = symbolTable.present;
+        size = symbolTable.size;
+        owners = symbolTable.owners;
+        shared = true;
+    }
+
+    /**
+     * Creates a copy of the <code>SymbolTable</code> in constant time.
+     * The copy and the original share their frame until either of them is written.
+     * @return The copy of the <code>SymbolTable</code>.
+     */
+    @Override
+    public SymbolTable copy() {
+        owners.incrementAndGet();
+        shared = true;
+
+        return new SymbolTable(this);
+    }
+
+    /**
+     * Adds a value to the variable with the specified slot.
+     * If the variable exists, its value will be updated.
+     * @param slot The slot of the variable.
+     * @param value The value of the variable.
+     */
+    @Override
+    public void add(int slot, int value) {
+        if (shared)
+            unshare();
+        if (slot >= values.length)
+            grow(slot);
+
+        if ((present[slot >>> 6] & (1L << slot)) == 0) {
+            present[slot >>> 6] |= 1L << slot;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Determines whether the <code>SymbolTable</code> contains the variable with the specified slot.
+     * @param slot The slot of the variable.
+     * @return A boolean value which indicates whether the variable exists or not.
+     */
+    @Override
+    public boolean contains(int slot) {
+        return slot < values.length && (present[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Gets the value of the variable with the specified slot.
+     * @param slot The slot of the variable.
+     * @return The value of the variable.
+     * @throws InvalidArgumentException if the variable could not be found inside the <code>SymbolTable</code>.
+     */
+    @Override
+    public int get(int slot) throws InvalidArgumentException {
+        if (!contains(slot))
+            throw new InvalidArgumentException("No key was found.");
+
+        return values[slot];
+    }
+
+    /**
+     * Adds an element with the provided key and value to the <code>SymbolTable</code>.
+     * If an element with the provided key exists, its value will be updated.
+     * @param key The name of the variable.
+     * @param value The value of the variable.
+     */
+    @Override
+    public void add(String key, Integer value) {
+        add(SlotResolver.resolve(key), value.intValue());
+    }
+
+    /**
+     * Determines whether the <code>SymbolTable</code> contains the specified key.
+     * @param key The key to locate in the <code>SymbolTable</code>.
+     * @return A boolean value which indicates whether the specified key exists or not.
+     */
+    @Override
+    public boolean contains(String key) {
+        return contains(SlotResolver.resolve(key));
+    }
+
+    /**
+     * Gets the value with the specified key from the <code>SymbolTable</code>.
+     * @param key The key of the value to get.
+     * @return The value of the provided key.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>SymbolTable</code>.
+     */
+    @Override
+    public Integer get(String key) throws InvalidArgumentException {
+        return get(SlotResolver.resolve(key));
+    }
+
+    /**
+     * Removes the value with the specified key from the <code>SymbolTable</code>.
+     * @param key They of the element to remove.
+     * @throws InvalidArgumentException if the key could not be found inside the <code>SymbolTable</code>.
+     */
+    @Override
+    public void remove(String key) throws InvalidArgumentException {
+        int slot = SlotResolver.resolve(key);
+
+        if (!contains(slot))
+            throw new InvalidArgumentException("No key was found.");
+
+        if (shared)
+            unshare();
+        present[slot >>> 6] &= ~(1L << slot);
+        size--;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing keys.
+     * @return An iterable <code>ArrayList<></code> of all the existing keys.
+     */
+    @Override
+    public ArrayList<String> allKeys() {
+        ArrayList<String> array = new ArrayList<>(size);
+
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1))
+            array.add(SlotResolver.name(slot));
+
+        return array;
+    }
+
+    /**
+     * Gets an iterable <code>ArrayList<></code> of all the existing values.
+     * @return An iterable <code>ArrayList<></code> of all the existing values.
+     */
+    @Override
+    public ArrayList<Integer> allValues() {
+        ArrayList<Integer> array = new ArrayList<>(size);
+
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1))
+            array.add(values[slot]);
+
+        return array;
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the keys.
+     * @return A <code>ListIterator<></code> for the keys.
+     */
+    @Override
+    public ListIterator<String> keysIterator() {
+        return allKeys().listIterator();
+    }
+
+    /**
+     * Gets a <code>ListIterator<></code> for the values.
+     * @return A <code>ListIterator<></code> for the values.
+     */
+    @Override
+    public ListIterator<Integer> valuesIterator() {
+        return allValues().listIterator();
+    }
+
+    /**
+     * Gets the number of elements inside the <code>SymbolTable</code>.
+     * @return The number of elements inside the <code>SymbolTable</code>.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a set containing all key/value pairs of the <code>SymbolTable</code>.
+     * @return A set containing all key/value pairs of the <code>SymbolTable</code>.
+     */
+    @Override
+    public Set<Pair<String, Integer>> entries() {
+        Set<Pair<String, Integer>> entries = new HashSet<>();
+
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1))
+            entries.add(new Pair<String, Integer>(SlotResolver.name(slot), values[slot]));
+
+        return entries;
+    }
+
+    /**
+     * Gets a string representation of the <code>SymbolTable</code>.
+     * @return The string representation of the <code>SymbolTable</code>.
+     */
+    @Override
+    public String toString() {
+        if (size == 0)
+            return "{ }";
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1))
+            stringBuilder.append(SlotResolver.name(slot)).append(" -> ").append(values[slot]).append(", ");
+
+        return "{ " + stringBuilder.substring(0, stringBuilder.length() - 2) + " }";
+    }
+
+    /**
+     * Gets the first defined slot starting at the specified one.
+     * @param slot The slot to start from.
+     * @return The first defined slot, or -1 if there is none.
+     */
+    private int nextSlot(int slot) {
+        int word = slot >>> 6;
+
+        if (word >= present.length)
+            return -1;
+
+        long bits = present[word] & (-1L << slot);
+
+        while (bits == 0) {
+            if (++word == present.length)
+                return -1;
+
+            bits = present[word];
+        }
+
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Gives the <code>SymbolTable</code> a frame of its own before it is written.
+     * The frame is copied only if another <code>SymbolTable</code> still uses it.
+     */
+    private void unshare() {
+        if (owners.get() > 1) {
+            values = values.clone();
+            present = present.clone();
+            owners.decrementAndGet();
+            owners = new AtomicInteger(1);
+        }
+
+        shared = false;
+    }
+
+    /**
+     * Ensures that the frame can hold the specified slot.
+     * @param slot The slot to hold.
+     */
+    private void grow(int slot) {
+        int[] oldValues = values;
+        long[] oldPresent = present;
+
+        values = new int[Math.max(slot + 1, values.length * 2)];
+        present = new long[(values.length + 63) >>> 6];
+
+        System.arraycopy(oldValues, 0, values, 0, oldValues.length);
+        System.arraycopy(oldPresent, 0, present, 0, oldPresent.length);
+    }
+}
@@ -23,4 +23,13 @@ public final class InvalidOperationException extends RuntimeException {
     public InvalidOperationException(String message) {
         super(message);
     }
+
+    /**
+     * Initializes a new instance of the <code>InvalidOperationException</code> class with a specified error message and the exception that caused it.
+     * @param message A message that describes the error.
+     * @param cause The exception that caused the error.
+     */
+    public InvalidOperationException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,42 @@
+package edu.interpreter.model.utilities.exceptions;
+
+import edu.interpreter.model.utilities.IdGenerator;
+
+/**
+ * The exception that is thrown when the source of a program does not follow the syntax of the language.
+ * @author David Perisanu
+ */
+public final class SyntaxErrorException extends RuntimeException {
+    private static final long serialVersionUID = IdGenerator.generateLongId();
+
+    private final int line;
+    private final int column;
+
+    /**
+     * Initializes a new instance of the <code>SyntaxErrorException</code> class with a specified error message and position.
+     * @param message A message that describes the error.
+     * @param line The line of the error, starting at 1.
+     * @param column The column of the error, starting at 1.
+     */
+    public SyntaxErrorException(String message, int line, int column) {
+        super("Syntax error at line " + line + ", column " + column + ". " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Gets the line of the error.
+     * @return The line of the error, starting at 1.
+     */
+    public int line() {
+        return line;
+    }
+
+    /**
+     * Gets the column of the error.
+     * @return The column of the error, starting at 1.
+     */
+    public int column() {
+        return column;
+    }
+}
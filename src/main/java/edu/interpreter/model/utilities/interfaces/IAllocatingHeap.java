@@ -0,0 +1,14 @@
+package edu.interpreter.model.utilities.interfaces;
+
+/**
+ * Represents a heap of integral addresses and values that chooses the addresses of the cells it allocates.
+ * @author David Perisanu
+ */
+public interface IAllocatingHeap extends IHeap<Integer, Integer> {
+    /**
+     * Allocates a cell of the <code>IAllocatingHeap</code> that holds the provided value.
+     * @param value The value of the cell.
+     * @return The address of the allocated cell.
+     */
+    public int allocate(int value);
+}
@@ -0,0 +1,101 @@
+package edu.interpreter.model.utilities.interfaces;
+
+import java.util.ArrayList;
+
+import edu.interpreter.model.statements.Statement;
+
+/**
+ * Represents a listener that is notified of every change made to the observed parts of a <code>ProgramState</code>.
+ * Every notification carries the owner the observed collection was created for.
+ * @author David Perisanu
+ */
+public interface IChangeListener {
+    /**
+     * Called after a <code>Statement</code> has been pushed on an execution stack.
+     * @param owner The owner of the execution stack.
+     * @param statement The pushed <code>Statement</code>.
+     * @param front <code>true</code> if the <code>Statement</code> has been pushed at the front (bottom) of the execution stack.
+     */
+    public void statementPushed(int owner, Statement statement, boolean front);
+
+    /**
+     * Called after a <code>Statement</code> has been popped off an execution stack.
+     * @param owner The owner of the execution stack.
+     * @param front <code>true</code> if the <code>Statement</code> has been popped off the front (bottom) of the execution stack.
+     */
+    public void statementPopped(int owner, boolean front);
+
+    /**
+     * Called after a variable of a symbol table has been written.
+     * @param owner The owner of the symbol table.
+     * @param name The name of the variable.
+     * @param value The value of the variable.
+     */
+    public void symbolWritten(int owner, String name, int value);
+
+    /**
+     * Called after a variable has been removed from a symbol table.
+     * @param owner The owner of the symbol table.
+     * @param name The name of the variable.
+     */
+    public void symbolRemoved(int owner, String name);
+
+    /**
+     * Called after an address of a heap has been written.
+     * @param owner The owner of the heap.
+     * @param address The address.
+     * @param value The value stored at the address.
+     */
+    public void heapWritten(int owner, int address, int value);
+
+    /**
+     * Called after an address has been removed from a heap.
+     * @param owner The owner of the heap.
+     * @param address The address.
+     */
+    public void heapRemoved(int owner, int address);
+
+    /**
+     * Called after a message has been appended to a list of output messages.
+     * @param owner The owner of the list of output messages.
+     * @param message The message.
+     */
+    public void messageAdded(int owner, String message);
+
+    /**
+     * Called after a list of output messages has been changed other than by appending a message.
+     * @param owner The owner of the list of output messages.
+     * @param messages Every message of the list, in order.
+     */
+    public void messagesReplaced(int owner, ArrayList<String> messages);
+
+    /**
+     * Called after a file has been added to a file table.
+     * @param owner The owner of the file table.
+     * @param descriptor The descriptor of the file.
+     * @param fileName The name of the file.
+     */
+    public void fileOpened(int owner, int descriptor, String fileName);
+
+    /**
+     * Called after a file has been removed from a file table.
+     * @param owner The owner of the file table.
+     * @param descriptor The descriptor of the file.
+     */
+    public void fileClosed(int owner, int descriptor);
+
+    /**
+     * Called after a latch of a latch table has been written.
+     * @param owner The owner of the latch table.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch.
+     */
+    public void latchWritten(int owner, int latch, int count);
+
+    /**
+     * Called after a latch has been removed from a latch table.
+     * @param owner The owner of the latch table.
+     * @param latch The identificator of the latch.
+     */
+    public void latchRemoved(int owner, int latch);
+}
@@ -0,0 +1,38 @@
+package edu.interpreter.model.utilities.interfaces;
+
+import edu.interpreter.model.ProgramState;
+
+/**
+ * Represents a listener that is notified around every step of a <code>ProgramState</code>.
+ * The notifications of a step are made on the thread that executes the step.
+ * @author David Perisanu
+ */
+public interface IExecutionListener {
+    /**
+     * Called before a <code>ProgramState</code> pops its top-most <code>Statement</code>.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    public void stepStarting(ProgramState programState);
+
+    /**
+     * Called after a <code>ProgramState</code> has executed a step, even if the step has failed.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState);
+
+    /**
+     * Called when a step of a <code>ProgramState</code> counts a latch down, while the latch table is locked.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    public void latchCountedDown(ProgramState programState, int latch, int count);
+
+    /**
+     * Called when a step of a <code>ProgramState</code> allocates a heap cell.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    public void heapAllocated(ProgramState programState, int address);
+}
@@ -78,4 +78,20 @@ public interface ILatchTable<Key, Value> extends Serializable {
      * @return A set containing all key/value pairs of the <code>ILatchTable<></code>.
      */
     public Set<Pair<Key, Value>> entries();
+
+    /**
+     * Registers a waiter that is notified when the latch with the specified key is signaled.
+     * Callers must synchronize on the <code>ILatchTable<></code>.
+     * @param key The key of the latch.
+     * @param waiter The waiter to notify.
+     */
+    public void addWaiter(Key key, Runnable waiter);
+
+    /**
+     * Notifies and removes every waiter of the latch with the specified key.
+     * Callers must synchronize on the <code>ILatchTable<></code>.
+     * @param key The key of the latch.
+     * @return The number of notified waiters.
+     */
+    public int signal(Key key);
 }
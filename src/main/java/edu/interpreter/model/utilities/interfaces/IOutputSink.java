@@ -0,0 +1,23 @@
+package edu.interpreter.model.utilities.interfaces;
+
+import java.io.Closeable;
+import java.io.Flushable;
+
+/**
+ * Represents a destination of output messages that can be used as the output list of a program state.
+ * The messages can only be appended; a sink may keep all of them, some of them or none of them.
+ * @author David Perisanu
+ */
+public interface IOutputSink extends IList<String>, Flushable, Closeable {
+    /**
+     * Appends an integral as a message to the <code>IOutputSink</code>.
+     * @param value The integral to append.
+     */
+    public void add(int value);
+
+    /**
+     * Gets the number of messages appended to the <code>IOutputSink</code>, kept or not.
+     * @return The number of appended messages.
+     */
+    public long written();
+}
@@ -0,0 +1,39 @@
+package edu.interpreter.model.utilities.interfaces;
+
+import edu.interpreter.model.utilities.SlotResolver;
+import edu.interpreter.model.utilities.exceptions.InvalidArgumentException;
+
+/**
+ * Represents a symbol table that can also be accessed through the slots assigned by the <code>SlotResolver</code>.
+ * @author David Perisanu
+ */
+public interface ISymbolTable extends IDictionary<String, Integer> {
+    /**
+     * Adds a value to the variable with the specified slot.
+     * If the variable exists, its value will be updated.
+     * @param slot The slot of the variable, as given by {@link SlotResolver#resolve(String)}.
+     * @param value The value of the variable.
+     */
+    public void add(int slot, int value);
+
+    /**
+     * Determines whether the <code>ISymbolTable</code> contains the variable with the specified slot.
+     * @param slot The slot of the variable.
+     * @return A boolean value which indicates whether the variable exists or not.
+     */
+    public boolean contains(int slot);
+
+    /**
+     * Gets the value of the variable with the specified slot.
+     * @param slot The slot of the variable.
+     * @return The value of the variable.
+     * @throws InvalidArgumentException if the variable could not be found inside the <code>ISymbolTable</code>.
+     */
+    public int get(int slot) throws InvalidArgumentException;
+
+    /**
+     * Creates a copy of the <code>ISymbolTable</code> that is independent of the original.
+     * @return The copy of the <code>ISymbolTable</code>.
+     */
+    public ISymbolTable copy();
+}
@@ -0,0 +1,243 @@
+package edu.interpreter.repository;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Writes log records to a file from a background thread.
+ * Records are handed over through a bounded queue and written in batches through a single open channel.
+ * @author David Perisanu
+ */
+public class AsyncLogWriter implements AutoCloseable {
+    /**
+     * Represents what a producer does when the queue of the writer is full.
+     */
+    public enum BackpressurePolicy {
+        /**
+         * The producer waits until the writer makes room for the record (no record is lost).
+         */
+        Block,
+        /**
+         * The record is dropped and counted, so that the producer never waits.
+         */
+        Drop
+    }
+
+    /**
+     * Default number of records the queue can hold.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int BATCH_SIZE = 512;
+    private static final String CLOSE = new String("");
+
+    private final String filePath;
+    private final BackpressurePolicy policy;
+    private final ArrayBlockingQueue<String> queue;
+    private final FileChannel channel;
+    private final Thread thread;
+    private final boolean initiallyEmpty;
+    private long enqueued;
+    private long written;
+    private long dropped;
+    private volatile long bytesWritten;
+    private volatile IOException failure;
+
+    /**
+     * Initializes a new instance of the <code>AsyncLogWriter</code> class that appends to the specified file and starts its writer thread.
+     * @param filePath The path of the log file.
+     * @param capacity The number of records the queue can hold.
+     * @param policy What a producer does when the queue is full.
+     * @throws FileNotFoundException if the file path is not valid.
+     */
+    public AsyncLogWriter(String filePath, int capacity, BackpressurePolicy policy) throws FileNotFoundException {
+        this.filePath = filePath;
+        this.policy = policy;
+        queue = new ArrayBlockingQueue<>(capacity);
+
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            initiallyEmpty = channel.size() == 0;
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Logging file path is not valid.");
+        }
+
+        thread = new Thread(this::drain, "log-writer " + filePath);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the path of the log file of the <code>AsyncLogWriter</code>.
+     * @return The path of the log file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the <code>BackpressurePolicy</code> of the <code>AsyncLogWriter</code>.
+     * @return The <code>BackpressurePolicy</code> of the <code>AsyncLogWriter</code>.
+     */
+    public BackpressurePolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Gets a value that indicates whether the log file was empty when the <code>AsyncLogWriter</code> opened it.
+     * @return <code>true</code> if the log file was empty; otherwise, <code>false</code>.
+     */
+    public boolean initiallyEmpty() {
+        return initiallyEmpty;
+    }
+
+    /**
+     * Gets the number of records dropped because the queue was full.
+     * @return The number of dropped records.
+     */
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Gets the number of bytes the writer thread has written to the log file.
+     * @return The number of written bytes.
+     */
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Hands a record over to the writer thread.
+     * @param record The text to append to the log file.
+     * @return <code>true</code> if the record was queued, <code>false</code> if it was dropped.
+     * @throws IOException if the writer thread has failed to write to the log file.
+     * @throws InterruptedException if the producer is interrupted while it waits for room in the queue.
+     */
+    public boolean write(String record) throws IOException, InterruptedException {
+        checkFailure();
+
+        if (policy == BackpressurePolicy.Drop) {
+            if (!queue.offer(record)) {
+                synchronized (this) {
+                    dropped++;
+                }
+                return false;
+            }
+        }
+        else
+            queue.put(record);
+
+        synchronized (this) {
+            enqueued++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits until every queued record has been written to the log file.
+     * @throws IOException if the writer thread has failed to write to the log file.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public void flush() throws IOException, InterruptedException {
+        synchronized (this) {
+            while (written < enqueued && failure == null && thread.isAlive())
+                wait();
+        }
+
+        checkFailure();
+    }
+
+    /**
+     * Writes the queued records, stops the writer thread and closes the log file.
+     * @throws IOException if the log file could not be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        boolean interrupted = false;
+
+        while (thread.isAlive())
+            try {
+                queue.put(CLOSE);
+                thread.join();
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+
+        channel.close();
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        checkFailure();
+    }
+
+    /**
+     * Takes batches of records off the queue and writes them until the writer is closed.
+     */
+    private void drain() {
+        ArrayList<String> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder stringBuilder = new StringBuilder();
+        boolean closing = false;
+
+        while (!closing) {
+            int count = 0;
+
+            try {
+                batch.add(queue.take());
+            }
+            catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+
+            for (String record : batch)
+                if (record == CLOSE)
+                    closing = true;
+                else {
+                    stringBuilder.append(record);
+                    count++;
+                }
+
+            try {
+                if (failure == null && stringBuilder.length() > 0) {
+                    ByteBuffer buffer = StandardCharsets.UTF_8.encode(stringBuilder.toString());
+
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                    bytesWritten += buffer.limit();
+                }
+            }
+            catch (IOException e) {
+                // Keep draining so that blocked producers wake up and see the failure.
+                failure = e;
+            }
+
+            batch.clear();
+            stringBuilder.setLength(0);
+
+            synchronized (this) {
+                written += count;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Rethrows the failure of the writer thread, if any.
+     * @throws IOException if the writer thread has failed to write to the log file.
+     */
+    private void checkFailure() throws IOException {
+        if (failure != null)
+            throw new IOException("Logging file could not be written. " + failure.getMessage());
+    }
+}
@@ -53,6 +53,18 @@ public interface IRepository {
      */
     public void logProgramStateExecutionFooter(ProgramState programState) throws FileNotFoundException, IOException;
 
+    /**
+     * Waits until everything logged so far has been written to the logging file.
+     * @throws IOException if the logging file could not be written.
+     */
+    public void flush() throws IOException;
+
+    /**
+     * Writes everything logged so far and closes the logging file.
+     * @throws IOException if the logging file could not be written or closed.
+     */
+    public void close() throws IOException;
+
     /**
      * Gets a list of all the <code>ProgramState</code> instances contained.
      * @return A list of all the <code>ProgramState</code> instances contained.
@@ -1,15 +1,11 @@
 package edu.interpreter.repository;
 
-import java.io.BufferedWriter;
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.io.InterruptedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
-import java.util.Date;
 import java.util.ListIterator;
 
 import edu.interpreter.model.ProgramState;
@@ -22,16 +18,23 @@ import edu.interpreter.model.utilities.interfaces.IList;
  * @author David Perisanu
  */
 public class Repository implements IRepository {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy hh:mm:a");
+
     private IList<ProgramState> container;
     private String logFilePath;
+    private volatile AsyncLogWriter writer;
+    private volatile long closedLogBytes;
+    private boolean logFileEmpty;
+    private int logQueueCapacity;
+    private AsyncLogWriter.BackpressurePolicy backpressurePolicy;
     private static String logFileSplitter = "-----------------------------------------------";
 
     /**
      * Initializes a new instance of the <code>Repository</code> class that is empty and has the default initial capacity.
      */
     public Repository() {
-        container = new List<>();
-        logFilePath = "";
+        this(new List<>(), "");
     }
 
     /**
@@ -39,8 +42,7 @@ public class Repository implements IRepository {
      * @param logFilePath The path for the logging file.
      */
     public Repository(String logFilePath) {
-        container = new List<>();
-        this.logFilePath = logFilePath;
+        this(new List<>(), logFilePath);
     }
 
     /**
@@ -48,8 +50,19 @@ public class Repository implements IRepository {
      * @param capacity The number of elements that the new repository can initially store.
      */
     public Repository(int capacity) {
-        container = new List<>(capacity);
-        logFilePath = "";
+        this(new List<>(capacity), "");
+    }
+
+    /**
+     * Initializes a new instance of the <code>Repository</code> class with the specified values.
+     * @param container The list that stores the <code>ProgramState</code> instances.
+     * @param logFilePath The path for the logging file.
+     */
+    private Repository(IList<ProgramState> container, String logFilePath) {
+        this.container = container;
+        this.logFilePath = logFilePath;
+        logQueueCapacity = AsyncLogWriter.DEFAULT_CAPACITY;
+        backpressurePolicy = AsyncLogWriter.BackpressurePolicy.Block;
     }
 
     /**
@@ -66,10 +79,71 @@ public class Repository implements IRepository {
      * @param logFilePath The path for the logging file.
      */
     @Override
-    public void logFilePath(String logFilePath) {
+    public synchronized void logFilePath(String logFilePath) {
+        if (writer != null && !writer.filePath().equals(logFilePath))
+            try {
+                close();
+            }
+            catch (IOException e) {
+                // The old logging file is abandoned either way.
+            }
+
         this.logFilePath = logFilePath;
     }
 
+    /**
+     * Gets the number of log records that can wait to be written to the logging file.
+     * @return The number of log records that can wait to be written.
+     */
+    public int logQueueCapacity() {
+        return logQueueCapacity;
+    }
+
+    /**
+     * Sets the number of log records that can wait to be written to the logging file.
+     * The change takes effect the next time the logging file is opened.
+     * @param logQueueCapacity The number of log records that can wait to be written.
+     */
+    public void logQueueCapacity(int logQueueCapacity) {
+        this.logQueueCapacity = logQueueCapacity;
+    }
+
+    /**
+     * Gets what happens to a log record when too many records wait to be written to the logging file.
+     * @return The <code>BackpressurePolicy</code> of the logging file.
+     */
+    public AsyncLogWriter.BackpressurePolicy backpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    /**
+     * Sets what happens to a log record when too many records wait to be written to the logging file.
+     * The change takes effect the next time the logging file is opened.
+     * @param backpressurePolicy The <code>BackpressurePolicy</code> of the logging file.
+     */
+    public void backpressurePolicy(AsyncLogWriter.BackpressurePolicy backpressurePolicy) {
+        this.backpressurePolicy = backpressurePolicy;
+    }
+
+    /**
+     * Gets the number of bytes written to the logging files of the <code>Repository</code>.
+     * The value is read without locking the <code>Repository</code>, so it may lag behind the writer.
+     * @return The number of bytes written to the logging files.
+     */
+    public long loggedBytes() {
+        AsyncLogWriter writer = this.writer;
+
+        return closedLogBytes + (writer == null ? 0 : writer.bytesWritten());
+    }
+
+    /**
+     * Gets the number of log records dropped because too many records waited to be written to the logging file.
+     * @return The number of dropped log records, or 0 if the logging file is not open.
+     */
+    public synchronized long droppedLogRecords() {
+        return writer == null ? 0 : writer.dropped();
+    }
+
     /**
      * Adds a <code>ProgramState</code> to the <code>Repository</code>.
      * @param programState The <code>ProgramState</code> to add to the <code>Repository</code>.
@@ -87,145 +161,190 @@ public class Repository implements IRepository {
      */
     @Override
     public void logProgramStateExecutionHeader(ProgramState programState) throws FileNotFoundException, IOException {
-        try (PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(logFilePath, true)))) {
-            String str;
-            
-            // If the repository log file has content => add two empty lines to split program states (for the visual effect).
-            if (new File(logFilePath).length() > 0) {
-                printWriter.println();
-                printWriter.println();
-            }
+        logProgramStateExecutionHeader(programState, LocalDateTime.now());
+    }
 
-            // Add ProgramState header.
-            str = "Program state (" + programState.id() + ")";
-            printWriter.println(logFileSplitter);
-            printWriter.println(String.join("", Collections.nCopies((logFileSplitter.length() - str.length()) / 2, " ")) + str);   // Make sure 'Program state (<ID>)' will be centered.
-            printWriter.println("             [" + (new SimpleDateFormat("MM/dd/yyyy hh:mm:a")).format(new Date()) + "]");
-            printWriter.println(logFileSplitter);
-        }
-        catch (FileNotFoundException e) {
-            throw new FileNotFoundException("Logging file path is not valid.");
-        }
+    /**
+     * Logs a header for the <code>ProgramState</code> stamped with the specified time.
+     * @param programState The <code>ProgramState</code>.
+     * @param time The time the <code>ProgramState</code> has been logged at.
+     * @throws FileNotFoundException if the file path is not valid.
+     * @throws IOException if the named file exists but is a directory rather than a regular file, does not exist but cannot be created, or cannot be opened for any other reason.
+     */
+    public synchronized void logProgramStateExecutionHeader(ProgramState programState, LocalDateTime time) throws FileNotFoundException, IOException {
+        StringBuilder stringBuilder = new StringBuilder(256);
+        AsyncLogWriter writer = writer();
+        String str;
+
+        // If the repository log file has content => add two empty lines to split program states (for the visual effect).
+        if (!logFileEmpty)
+            stringBuilder.append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+        logFileEmpty = false;
+
+        // Add ProgramState header.
+        str = "Program state (" + programState.id() + ")";
+        line(stringBuilder, logFileSplitter);
+        line(stringBuilder, center(str));   // Make sure 'Program state (<ID>)' will be centered.
+        line(stringBuilder, "             [" + DATE_FORMATTER.format(time) + "]");
+        line(stringBuilder, logFileSplitter);
+
+        write(writer, stringBuilder);
     }
 
     /**
      * Logs the execution state of the current <code>ProgramState</code>.
+     * The state is rendered on the calling thread, since it keeps changing, and written to the logging file by a background thread.
      * @throws FileNotFoundException if the file path is not valid.
      * @throws IOException if the logging file exists but is a directory rather than a regular file, does not exist but cannot be created, or cannot be opened for any other reason.
      */
     @Override
-    public void logProgramStateExecution(ProgramState programState) throws FileNotFoundException, IOException {
-        try (PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(logFilePath, true)))) {
-            ListIterator<Statement> execStackIterator;
-            ListIterator<String> symTableIterator, outputMsgsIterator;
-            ListIterator<Integer> fileTableIterator, heapIterator;
-            String empty, categorySpace, categoryChildSpace;
-
-            execStackIterator = programState.executionStack().iteratorBack();
-            symTableIterator = programState.symbolTable().keysIterator();
-            outputMsgsIterator = programState.outputMessages().iterator();
-            fileTableIterator = programState.fileTable().keysIterator();
-            heapIterator = programState.heap().keysIterator();
-            empty = "= Empty =";
-            categorySpace = "  ";
-            categoryChildSpace = "    ";
-
-            // Print execution stack.
-            printWriter.println(categorySpace + "Execution stack:");
-            if (!execStackIterator.hasPrevious())
-                printWriter.println(categoryChildSpace + empty);
-            else
-                do
-                    printWriter.println(categoryChildSpace + execStackIterator.previous());
-                while (execStackIterator.hasPrevious());
-
-            // Empty line for the visual effect.
-            printWriter.println();
-
-            // Print symbol table.
-            printWriter.println(categorySpace + "Symbol table:");
-            if (!symTableIterator.hasNext())
-                printWriter.println(categoryChildSpace + empty);
-            else {
-                String key;
-
-                do {
-                    key = symTableIterator.next();
-                    printWriter.println(categoryChildSpace + key + " -> " + programState.symbolTable().get(key));
-                }
-                while (symTableIterator.hasNext());
-            }
+    public synchronized void logProgramStateExecution(ProgramState programState) throws FileNotFoundException, IOException {
+        StringBuilder stringBuilder = new StringBuilder(1024);
+        AsyncLogWriter writer = writer();
+        ListIterator<Statement> execStackIterator;
+        ListIterator<String> symTableIterator, outputMsgsIterator;
+        ListIterator<Integer> fileTableIterator, heapIterator;
+        String empty, categorySpace, categoryChildSpace;
+
+        execStackIterator = programState.executionStack().iteratorBack();
+        symTableIterator = programState.symbolTable().keysIterator();
+        outputMsgsIterator = programState.outputMessages().iterator();
+        fileTableIterator = programState.fileTable().keysIterator();
+        heapIterator = programState.heap().keysIterator();
+        empty = "= Empty =";
+        categorySpace = "  ";
+        categoryChildSpace = "    ";
+
+        // Print execution stack.
+        line(stringBuilder, categorySpace + "Execution stack:");
+        if (!execStackIterator.hasPrevious())
+            line(stringBuilder, categoryChildSpace + empty);
+        else
+            do
+                line(stringBuilder, categoryChildSpace + execStackIterator.previous());
+            while (execStackIterator.hasPrevious());
 
-            // Empty line for the visual effect.
-            printWriter.println();
-
-            // Print output messages list.
-            printWriter.println(categorySpace + "Output messages:");
-            if (!outputMsgsIterator.hasNext())
-                printWriter.println(categoryChildSpace + empty);
-            else
-                do
-                    printWriter.println(categoryChildSpace + outputMsgsIterator.next());
-                while (outputMsgsIterator.hasNext());
-
-            // Empty line for the visual effect.
-            printWriter.println();
-
-            // Print file table.
-            printWriter.println(categorySpace + "File table:");
-            if (!fileTableIterator.hasNext())
-                printWriter.println(categoryChildSpace + empty);
-            else {
-                Integer key;
-
-                do {
-                    key = fileTableIterator.next();
-                    printWriter.println(categoryChildSpace + key + " -> " + programState.fileTable().get(key).toString().replace("(", "(\"").replace(", ", "\", "));
-                }
-                while (fileTableIterator.hasNext());
+        // Empty line for the visual effect.
+        stringBuilder.append(LINE_SEPARATOR);
+
+        // Print symbol table.
+        line(stringBuilder, categorySpace + "Symbol table:");
+        if (!symTableIterator.hasNext())
+            line(stringBuilder, categoryChildSpace + empty);
+        else {
+            String key;
+
+            do {
+                key = symTableIterator.next();
+                line(stringBuilder, categoryChildSpace + key + " -> " + programState.symbolTable().get(key));
             }
+            while (symTableIterator.hasNext());
+        }
+
+        // Empty line for the visual effect.
+        stringBuilder.append(LINE_SEPARATOR);
+
+        // Print output messages list.
+        line(stringBuilder, categorySpace + "Output messages:");
+        if (!outputMsgsIterator.hasNext())
+            line(stringBuilder, categoryChildSpace + empty);
+        else
+            do
+                line(stringBuilder, categoryChildSpace + outputMsgsIterator.next());
+            while (outputMsgsIterator.hasNext());
+
+        // Empty line for the visual effect.
+        stringBuilder.append(LINE_SEPARATOR);
+
+        // Print file table.
+        line(stringBuilder, categorySpace + "File table:");
+        if (!fileTableIterator.hasNext())
+            line(stringBuilder, categoryChildSpace + empty);
+        else {
+            Integer key;
 
-            // Empty line for the visual effect.
-            printWriter.println();
-
-            // Print heap.
-            printWriter.println(categorySpace + "Heap:");
-            if (!heapIterator.hasNext())
-                printWriter.println(categoryChildSpace + empty);
-            else {
-                Integer key;
-
-                do {
-                    key = heapIterator.next();
-                    printWriter.println(categoryChildSpace + key + " -> " + programState.heap().get(key));
-                }
-                while (heapIterator.hasNext());
+            do {
+                key = fileTableIterator.next();
+                line(stringBuilder, categoryChildSpace + key + " -> " + programState.fileTable().get(key).toString().replace("(", "(\"").replace(", ", "\", "));
             }
-            
-            // Separator for the visual effect.
-            printWriter.println(logFileSplitter);
+            while (fileTableIterator.hasNext());
         }
-        catch (FileNotFoundException e) {
-            throw new FileNotFoundException("Logging file path is not valid.");
+
+        // Empty line for the visual effect.
+        stringBuilder.append(LINE_SEPARATOR);
+
+        // Print heap.
+        line(stringBuilder, categorySpace + "Heap:");
+        if (!heapIterator.hasNext())
+            line(stringBuilder, categoryChildSpace + empty);
+        else {
+            Integer key;
+
+            do {
+                key = heapIterator.next();
+                line(stringBuilder, categoryChildSpace + key + " -> " + programState.heap().get(key));
+            }
+            while (heapIterator.hasNext());
         }
+
+        // Separator for the visual effect.
+        line(stringBuilder, logFileSplitter);
+
+        write(writer, stringBuilder);
     }
 
     /**
-     * Logs a header for the <code>ProgramState</code>.
+     * Logs a footer for the <code>ProgramState</code>.
      * @param programState The <code>ProgramState</code>.
      * @throws FileNotFoundException if the file path is not valid.
      * @throws IOException if the named file exists but is a directory rather than a regular file, does not exist but cannot be created, or cannot be opened for any other reason.
      */
     @Override
-    public void logProgramStateExecutionFooter(ProgramState programState) throws FileNotFoundException, IOException {
-        try (PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(logFilePath, true)))) {
-            String str = "End of the program state (" + programState.id() + ")";
+    public synchronized void logProgramStateExecutionFooter(ProgramState programState) throws FileNotFoundException, IOException {
+        StringBuilder stringBuilder = new StringBuilder(128);
+        AsyncLogWriter writer = writer();
+        String str = "End of the program state (" + programState.id() + ")";
+
+        line(stringBuilder, center(str));    // Make sure 'End of the program state (<ID>)' is centered.
+        line(stringBuilder, logFileSplitter);
+
+        write(writer, stringBuilder);
+    }
+
+    /**
+     * Waits until everything logged so far has been written to the logging file.
+     * @throws IOException if the logging file could not be written.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (writer == null)
+            return;
+
+        try {
+            writer.flush();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing the logging file.");
+        }
+    }
+
+    /**
+     * Writes everything logged so far and closes the logging file.
+     * The logging file is opened again by the next log.
+     * @throws IOException if the logging file could not be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer == null)
+            return;
 
-            printWriter.println(String.join("", Collections.nCopies((logFileSplitter.length() - str.length()) / 2, " ")) + str);    // Make sure 'End of the program state (<ID>)' is centered.
-            printWriter.println(logFileSplitter);
+        try {
+            writer.close();
         }
-        catch (FileNotFoundException e) {
-            throw new FileNotFoundException("Logging file path is not valid.");
+        finally {
+            closedLogBytes += writer.bytesWritten();
+            writer = null;
         }
     }
 
@@ -246,4 +365,52 @@ public class Repository implements IRepository {
     public void programStates(IList<ProgramState> states) {
         container = states;
     }
+
+    /**
+     * Gets the writer of the logging file, opening the logging file if needed.
+     * @return The writer of the logging file.
+     * @throws FileNotFoundException if the file path is not valid.
+     */
+    private AsyncLogWriter writer() throws FileNotFoundException {
+        if (writer == null) {
+            writer = new AsyncLogWriter(logFilePath, logQueueCapacity, backpressurePolicy);
+            logFileEmpty = writer.initiallyEmpty();
+        }
+
+        return writer;
+    }
+
+    /**
+     * Hands a rendered log record over to the writer of the logging file.
+     * @param writer The writer of the logging file.
+     * @param stringBuilder The rendered log record.
+     * @throws IOException if the logging file could not be written.
+     */
+    private static void write(AsyncLogWriter writer, StringBuilder stringBuilder) throws IOException {
+        try {
+            writer.write(stringBuilder.toString());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while logging.");
+        }
+    }
+
+    /**
+     * Appends a line to a log record.
+     * @param stringBuilder The log record.
+     * @param line The line to append.
+     */
+    private static void line(StringBuilder stringBuilder, String line) {
+        stringBuilder.append(line).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Centers a text on the width of the splitter.
+     * @param str The text to center.
+     * @return The text preceded by enough spaces to center it.
+     */
+    private static String center(String str) {
+        return String.join("", Collections.nCopies(Math.max(0, (logFileSplitter.length() - str.length()) / 2), " ")) + str;
+    }
 }
@@ -0,0 +1,251 @@
+package edu.interpreter.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+
+/**
+ * Records the schedule of the observed program states, so that a <code>ScheduleReplayer</code> can reproduce their interleaving on a single thread.
+ * The steps of the observed program states are serialized by a lock and recorded in the order they run: the program states keep running on
+ * their worker threads, but never two steps at the same time, so the order of the steps is the whole interleaving.
+ * <p>
+ * Program states are numbered in the order they are observed or forked, since their identificators depend on what ran before them.
+ * The schedule is a sequence of variable-length records: runs of consecutive steps of one program state, <code>(number << 2, steps)</code>,
+ * and, after the run of their step and in the order they happened, the count of every latch decrement, <code>(count << 2 | 1)</code>,
+ * and the address of every heap allocation, <code>(address << 2 | 2)</code>.
+ * @author David Perisanu
+ */
+public class ScheduleRecorder implements IExecutionListener, AutoCloseable {
+    /**
+     * The first four bytes of every schedule, "TISR".
+     */
+    public static final int MAGIC = 0x54495352;
+    /**
+     * The version of the schedule format.
+     */
+    public static final int VERSION = 2;
+
+    static final int RUN = 0;
+    static final int LATCH = 1;
+    static final int ALLOCATION = 2;
+    static final int KIND_BITS = 2;
+
+    private final String filePath;
+    private final DataOutputStream output;
+    private final ReentrantLock lock;
+    private final IdentityHashMap<ProgramState, Integer> numbers;
+    private final ArrayList<Long> checks;
+    private int nextNumber;
+    private int stepNumber;
+    private int runNumber;
+    private long runSteps;
+    private long recordedSteps;
+    private IOException failure;
+
+    /**
+     * Initializes a new instance of the <code>ScheduleRecorder</code> class that writes a new schedule to the specified file.
+     * @param filePath The path of the schedule file.
+     * @throws FileNotFoundException if the file path is not valid.
+     */
+    public ScheduleRecorder(String filePath) throws FileNotFoundException {
+        this.filePath = filePath;
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath), 1 << 16));
+        lock = new ReentrantLock();
+        numbers = new IdentityHashMap<>();
+        checks = new ArrayList<>();
+        runNumber = -1;
+
+        try {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Gets the path of the schedule file of the <code>ScheduleRecorder</code>.
+     * @return The path of the schedule file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the number of steps recorded so far.
+     * @return The number of recorded steps.
+     */
+    public long recordedSteps() {
+        lock.lock();
+        try {
+            return recordedSteps;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts recording a <code>ProgramState</code> and every <code>ProgramState</code> it forks.
+     * The program states must be observed in the order the replay will provide them.
+     * @param programState The <code>ProgramState</code> to record.
+     */
+    public void observe(ProgramState programState) {
+        if (programState.hasExecutionListener(this))
+            return;
+
+        lock.lock();
+        try {
+            numbers.put(programState, nextNumber++);
+            programState.addExecutionListener(this);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until no other step runs, so that the step is the next one of the schedule.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    @Override
+    public void stepStarting(ProgramState programState) {
+        lock.lock();
+        stepNumber = numbers.computeIfAbsent(programState, key -> nextNumber++);
+    }
+
+    /**
+     * Buffers the count of a latch decrement of the current step.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    @Override
+    public void latchCountedDown(ProgramState programState, int latch, int count) {
+        checks.add((long)count << KIND_BITS | LATCH);
+    }
+
+    /**
+     * Buffers the address of a heap allocation of the current step.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    @Override
+    public void heapAllocated(ProgramState programState, int address) {
+        checks.add((long)address << KIND_BITS | ALLOCATION);
+    }
+
+    /**
+     * Appends the step to the schedule, numbers the forked <code>ProgramState</code> and lets the next step run.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    @Override
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState) {
+        try {
+            if (forkProgramState != null) {
+                numbers.put(forkProgramState, nextNumber++);
+                forkProgramState.addExecutionListener(this);
+            }
+
+            if (stepNumber != runNumber) {
+                writeRun();
+                runNumber = stepNumber;
+            }
+            runSteps++;
+            recordedSteps++;
+
+            // The checks follow the run that ends with their step, so the replay can check them as soon as it has executed it.
+            if (!checks.isEmpty()) {
+                writeRun();
+                for (long check : checks)
+                    writeVarLong(check);
+                checks.clear();
+            }
+
+            if (!programState.notCompleted())
+                numbers.remove(programState);
+        }
+        catch (IOException e) {
+            if (failure == null)
+                failure = e;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the recorded steps to the schedule file.
+     * @throws IOException if the schedule file could not be written.
+     */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            if (failure == null)
+                try {
+                    writeRun();
+                    output.flush();
+                }
+                catch (IOException e) {
+                    failure = e;
+                }
+
+            if (failure != null)
+                throw failure;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the recorded steps and closes the schedule file.
+     * @throws IOException if the schedule file could not be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Writes the current run of steps, if any, and starts a new one.
+     * @throws IOException if the schedule file could not be written.
+     */
+    private void writeRun() throws IOException {
+        if (runNumber >= 0 && runSteps > 0) {
+            writeVarLong((long)runNumber << KIND_BITS | RUN);
+            writeVarLong(runSteps);
+        }
+
+        runNumber = -1;
+        runSteps = 0;
+    }
+
+    /**
+     * Writes an unsigned long integral as a variable-length quantity.
+     * @param value The long integral.
+     * @throws IOException if the schedule file could not be written.
+     */
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int)(value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int)value);
+    }
+}
@@ -0,0 +1,250 @@
+package edu.interpreter.repository;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+import edu.interpreter.model.utilities.interfaces.IList;
+
+/**
+ * Reproduces a schedule recorded by a <code>ScheduleRecorder</code>: the steps run on the calling thread, in the recorded order, without locks.
+ * The program states must start as they did when the schedule was recorded, and run in the same execution mode, since the steps of a
+ * compiled program are longer than the steps of a tree. Every latch decrement is checked against the recorded count and every heap allocation
+ * against the recorded address, so that a replay that takes another path, or whose heap hands out other addresses, stops at the first step that differs.
+ * @author David Perisanu
+ */
+public class ScheduleReplayer implements IExecutionListener, AutoCloseable {
+    private static final long KIND_MASK = (1L << ScheduleRecorder.KIND_BITS) - 1;
+
+    private final String filePath;
+    private final DataInputStream input;
+    private final ArrayDeque<Long> checks;
+    private long replayedSteps;
+
+    /**
+     * Initializes a new instance of the <code>ScheduleReplayer</code> class that reads the specified schedule file.
+     * @param filePath The path of the schedule file.
+     * @throws FileNotFoundException if the schedule file could not be found.
+     * @throws IOException if the file could not be read or is not a schedule of a supported version.
+     */
+    public ScheduleReplayer(String filePath) throws FileNotFoundException, IOException {
+        this.filePath = filePath;
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath), 1 << 16));
+        checks = new ArrayDeque<>();
+
+        try {
+            if (input.readInt() != ScheduleRecorder.MAGIC)
+                throw new IOException("The file is not a schedule.");
+            if (input.readUnsignedByte() != ScheduleRecorder.VERSION)
+                throw new IOException("The version of the schedule is not supported.");
+        }
+        catch (IOException e) {
+            input.close();
+            throw e instanceof EOFException ? new IOException("The file is not a schedule.") : e;
+        }
+    }
+
+    /**
+     * Gets the path of the schedule file of the <code>ScheduleReplayer</code>.
+     * @return The path of the schedule file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the number of steps replayed so far.
+     * @return The number of replayed steps.
+     */
+    public long replayedSteps() {
+        return replayedSteps;
+    }
+
+    /**
+     * Executes the steps of the schedule. The program states are numbered in the order they are provided, then forked.
+     * Program states that the schedule does not complete are left as they are.
+     * @param programStates <code>IList<></code> of program states, in the order they were observed by the <code>ScheduleRecorder</code>.
+     * @return The provided program states followed by the program states they forked.
+     * @throws IOException if the schedule could not be read.
+     * @throws InvalidOperationException if the program states do not follow the schedule.
+     */
+    public IList<ProgramState> replay(IList<ProgramState> programStates) throws IOException {
+        ArrayList<ProgramState> numbered = new ArrayList<>();
+        List<ProgramState> replayedProgramStates = new List<>();
+        ProgramState programState, forkProgramState;
+        long record, steps;
+
+        for (ProgramState initialProgramState : programStates.all()) {
+            numbered.add(initialProgramState);
+            initialProgramState.addExecutionListener(this);
+        }
+
+        try {
+            while ((record = readRecord()) != -1) {
+                if ((record & KIND_MASK) != ScheduleRecorder.RUN) {
+                    Long check = checks.poll();
+
+                    if (check == null || check != record)
+                        throw diverged(describe(record) + " expected");
+                    continue;
+                }
+
+                if (!checks.isEmpty())
+                    throw diverged("unexpected " + describe(checks.peek()));
+
+                if ((record >>> ScheduleRecorder.KIND_BITS) >= numbered.size())
+                    throw diverged("program state " + (record >>> ScheduleRecorder.KIND_BITS) + " does not exist");
+
+                programState = numbered.get((int)(record >>> ScheduleRecorder.KIND_BITS));
+                steps = readVarLong();
+
+                for (long step = 0; step < steps; step++) {
+                    if (!programState.notCompleted())
+                        throw diverged("program state " + (record >>> ScheduleRecorder.KIND_BITS) + " has already completed");
+
+                    forkProgramState = programState.executeOneStep();
+                    replayedSteps++;
+
+                    if (forkProgramState != null) {
+                        numbered.add(forkProgramState);
+                        forkProgramState.addExecutionListener(this);
+                    }
+                }
+            }
+
+            if (!checks.isEmpty())
+                throw diverged("unexpected " + describe(checks.peek()));
+        }
+        finally {
+            for (ProgramState numberedProgramState : numbered)
+                numberedProgramState.removeExecutionListener(this);
+        }
+
+        for (ProgramState numberedProgramState : numbered)
+            replayedProgramStates.add(numberedProgramState);
+
+        return replayedProgramStates;
+    }
+
+    /**
+     * Does nothing, since the steps are ordered by the schedule.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    @Override
+    public void stepStarting(ProgramState programState) {
+    }
+
+    /**
+     * Does nothing, since the forked program states are numbered by <code>replay</code>.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    @Override
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState) {
+    }
+
+    /**
+     * Keeps the count of a latch decrement until the schedule checks it.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    @Override
+    public void latchCountedDown(ProgramState programState, int latch, int count) {
+        checks.add((long)count << ScheduleRecorder.KIND_BITS | ScheduleRecorder.LATCH);
+    }
+
+    /**
+     * Keeps the address of a heap allocation until the schedule checks it.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    @Override
+    public void heapAllocated(ProgramState programState, int address) {
+        checks.add((long)address << ScheduleRecorder.KIND_BITS | ScheduleRecorder.ALLOCATION);
+    }
+
+    /**
+     * Closes the schedule file.
+     * @throws IOException if the schedule file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Creates the exception thrown when the program states do not follow the schedule.
+     * @param reason What differs from the schedule.
+     * @return The exception.
+     */
+    private InvalidOperationException diverged(String reason) {
+        return new InvalidOperationException("The replay has diverged from the schedule after " + replayedSteps + " steps: " + reason + ".");
+    }
+
+    /**
+     * Describes a latch count or heap allocation record.
+     * @param record The record.
+     * @return The description of the record.
+     */
+    private static String describe(long record) {
+        if ((record & KIND_MASK) == ScheduleRecorder.LATCH)
+            return "latch count " + (record >>> ScheduleRecorder.KIND_BITS);
+
+        return "heap address " + (record >>> ScheduleRecorder.KIND_BITS);
+    }
+
+    /**
+     * Reads the next record of the schedule.
+     * @return The record, or -1 if the end of the schedule has been reached.
+     * @throws IOException if the schedule could not be read or ends inside a record.
+     */
+    private long readRecord() throws IOException {
+        int first = input.read();
+
+        if (first == -1)
+            return -1;
+
+        return readVarLong(first);
+    }
+
+    /**
+     * Reads an unsigned long integral written as a variable-length quantity.
+     * @return The long integral.
+     * @throws IOException if the schedule could not be read or ends inside the integral.
+     */
+    private long readVarLong() throws IOException {
+        return readVarLong(input.readUnsignedByte());
+    }
+
+    /**
+     * Reads the rest of an unsigned long integral written as a variable-length quantity.
+     * @param first The first byte of the integral.
+     * @return The long integral.
+     * @throws IOException if the schedule could not be read or ends inside the integral.
+     */
+    private long readVarLong(int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7, current = first;
+
+        while ((current & 0x80) != 0) {
+            if (shift > 63)
+                throw new IOException("The schedule is corrupted.");
+
+            current = input.readUnsignedByte();
+            value |= (long)(current & 0x7F) << shift;
+            shift += 7;
+        }
+
+        return value;
+    }
+}
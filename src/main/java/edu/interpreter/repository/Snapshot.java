@@ -0,0 +1,685 @@
+package edu.interpreter.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.TreeMap;
+import java.util.ListIterator;
+import java.util.Map;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.ProgramState.HeapStorage;
+import edu.interpreter.model.bytecode.BytecodeProgram;
+import edu.interpreter.model.bytecode.CompiledStatement;
+import edu.interpreter.model.bytecode.OpCode;
+import edu.interpreter.model.parser.ProgramCodec;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ArenaHeap;
+import edu.interpreter.model.utilities.ConcurrentHeap;
+import edu.interpreter.model.utilities.Deque;
+import edu.interpreter.model.utilities.Dictionary;
+import edu.interpreter.model.utilities.DiscardOutputSink;
+import edu.interpreter.model.utilities.FileOutputSink;
+import edu.interpreter.model.utilities.FileTable;
+import edu.interpreter.model.utilities.IdGenerator;
+import edu.interpreter.model.utilities.IdGenerator.Namespace;
+import edu.interpreter.model.utilities.IntHeap;
+import edu.interpreter.model.utilities.LatchTable;
+import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.MappedIntegerReader;
+import edu.interpreter.model.utilities.MappedOutputSink;
+import edu.interpreter.model.utilities.MemoryOutputSink;
+import edu.interpreter.model.utilities.ObservedFileTable;
+import edu.interpreter.model.utilities.ObservedHeap;
+import edu.interpreter.model.utilities.ObservedLatchTable;
+import edu.interpreter.model.utilities.ObservedList;
+import edu.interpreter.model.utilities.ObservedSymbolTable;
+import edu.interpreter.model.utilities.Pair;
+import edu.interpreter.model.utilities.SlotResolver;
+import edu.interpreter.model.utilities.SymbolTable;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IFileTable;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ILatchTable;
+import edu.interpreter.model.utilities.interfaces.IList;
+import edu.interpreter.model.utilities.interfaces.ISymbolTable;
+
+/**
+ * Saves program states to a versioned binary checkpoint and restores them.
+ * The output lists, heaps, latch tables and file tables are written once and referred to by index,
+ * so that the program states that share them before a checkpoint share them again once it is restored.
+ * Execution stacks are written with the <code>ProgramCodec</code>, and compiled statements together with their registers and program counter.
+ * Slots are assigned to variable names in the order a run resolves them, so every compiled program is written with the names of its slots
+ * and its instructions are given the slots of the restoring run.
+ * Open files are recorded by path and position and opened again when the checkpoint is restored.
+ * Output sinks keep their kind and the number of messages they have appended: a file sink is recorded by path and length and reopened
+ * to append to the file, a mapped sink is mapped again with the messages it kept, and a memory sink is filled again.
+ * Program states parked on a latch are restored running, so that they execute their await statement again and park until the latch is released.
+ * @author David Perisanu
+ */
+public final class Snapshot {
+    /**
+     * The first four bytes of every checkpoint, "TISS".
+     */
+    public static final int MAGIC = 0x54495353;
+    /**
+     * The version of the checkpoint format.
+     */
+    public static final int VERSION = 3;
+
+    private static final byte TREE = 0;
+    private static final byte COMPILED = 1;
+    private static final byte LIST_OUTPUT = 0;
+    private static final byte MEMORY_OUTPUT = 1;
+    private static final byte FILE_OUTPUT = 2;
+    private static final byte MAPPED_OUTPUT = 3;
+    private static final byte DISCARD_OUTPUT = 4;
+    private static final byte SLOT_SYMBOL_TABLE = 0;
+    private static final byte DICTIONARY_SYMBOL_TABLE = 1;
+
+    private Snapshot() { }      // Simulate static class.
+
+    /**
+     * Saves program states to a checkpoint file. The file is written under a temporary name and then moved, so that an interrupted save keeps the previous checkpoint.
+     * The program states must not be running while they are saved.
+     * @param programStates The program states.
+     * @param filePath The path of the checkpoint file.
+     * @throws IOException if the file could not be written or an open file is not read by a <code>MappedIntegerReader</code>.
+     */
+    public static void save(IList<ProgramState> programStates, String filePath) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath();
+        Path temporaryPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream stream = Files.newOutputStream(temporaryPath); DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+                write(programStates, output);
+            }
+
+            try {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Restores the program states of a checkpoint file with their recorded identificators.
+     * @param filePath The path of the checkpoint file.
+     * @return The restored program states.
+     * @throws IOException if the file could not be read, is not a checkpoint of a supported version or refers to a file that could not be opened.
+     */
+    public static IList<ProgramState> restore(String filePath) throws IOException {
+        try (InputStream stream = Files.newInputStream(Paths.get(filePath)); DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+            return read(input, true);
+        }
+    }
+
+    /**
+     * Writes program states to a checkpoint.
+     * @param programStates The program states.
+     * @param output The stream to write to.
+     * @throws IOException if the stream could not be written, an open file is not read by a <code>MappedIntegerReader</code> or an output file could not be written.
+     */
+    public static void write(IList<ProgramState> programStates, DataOutputStream output) throws IOException {
+        IdentityHashMap<Object, Integer> outputs = new IdentityHashMap<>(), heaps = new IdentityHashMap<>(), latchTables = new IdentityHashMap<>(), fileTables = new IdentityHashMap<>();
+        ArrayList<IList<String>> outputList = new ArrayList<>();
+        ArrayList<IHeap<Integer, Integer>> heapList = new ArrayList<>();
+        ArrayList<ILatchTable<Integer, Integer>> latchTableList = new ArrayList<>();
+        ArrayList<IFileTable<Integer, Pair<String, BufferedReader>>> fileTableList = new ArrayList<>();
+
+        // Shared tables are found by identity, once the tracing wrappers are removed.
+        for (ProgramState programState : programStates.all()) {
+            if (outputs.putIfAbsent(unwrap(programState.outputMessages()), outputs.size()) == null)
+                outputList.add(unwrap(programState.outputMessages()));
+            if (heaps.putIfAbsent(unwrap(programState.heap()), heaps.size()) == null)
+                heapList.add(unwrap(programState.heap()));
+            if (latchTables.putIfAbsent(unwrap(programState.latchTable()), latchTables.size()) == null)
+                latchTableList.add(unwrap(programState.latchTable()));
+            if (fileTables.putIfAbsent(unwrap(programState.fileTable()), fileTables.size()) == null)
+                fileTableList.add(unwrap(programState.fileTable()));
+        }
+
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+
+        output.writeInt(outputList.size());
+        for (IList<String> outputMessages : outputList) {
+            output.writeBoolean(outputMessages != null);
+            if (outputMessages != null)
+                writeOutputMessages(output, outputMessages);
+        }
+
+        output.writeInt(heapList.size());
+        for (IHeap<Integer, Integer> heap : heapList) {
+            output.writeBoolean(heap != null);
+            if (heap != null) {
+                output.writeByte(storage(heap).ordinal());
+                writeEntries(output, heap.entries());
+            }
+        }
+
+        output.writeInt(latchTableList.size());
+        for (ILatchTable<Integer, Integer> latchTable : latchTableList) {
+            output.writeBoolean(latchTable != null);
+            if (latchTable != null)
+                synchronized (latchTable) {
+                    writeEntries(output, latchTable.entries());
+                }
+        }
+
+        output.writeInt(fileTableList.size());
+        for (IFileTable<Integer, Pair<String, BufferedReader>> fileTable : fileTableList) {
+            output.writeBoolean(fileTable != null);
+            if (fileTable != null) {
+                output.writeInt(fileTable.size());
+                for (Pair<Integer, Pair<String, BufferedReader>> file : fileTable.entries()) {
+                    BufferedReader reader = file.right().right();
+
+                    if (!(reader instanceof MappedIntegerReader))
+                        throw new IOException("The position of " + file.right().left() + " cannot be recorded.");
+
+                    output.writeInt(file.left());
+                    output.writeUTF(file.right().left());
+                    output.writeLong(((MappedIntegerReader)reader).position());
+                    output.writeBoolean(((MappedIntegerReader)reader).skipsLineFeed());
+                }
+            }
+        }
+
+        output.writeInt(programStates.size());
+        for (ProgramState programState : programStates.all()) {
+            output.writeInt(programState.id());
+            output.writeInt(outputs.get(unwrap(programState.outputMessages())));
+            output.writeInt(heaps.get(unwrap(programState.heap())));
+            output.writeInt(latchTables.get(unwrap(programState.latchTable())));
+            output.writeInt(fileTables.get(unwrap(programState.fileTable())));
+            writeSymbolTable(output, programState.symbolTable());
+            writeExecutionStack(output, programState);
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Reads program states from a checkpoint and reserves the identificators they use, so that new heap cells, latches, files and program states do not reuse them.
+     * @param input The stream to read from.
+     * @param keepIdentificators <code>true</code> to restore the recorded identificators of the program states, to resume them;
+     * <code>false</code> to give them new identificators, to run copies of them next to the recorded ones.
+     * @return The restored program states.
+     * @throws IOException if the stream could not be read, is not a checkpoint of a supported version or refers to a file that could not be opened.
+     */
+    public static IList<ProgramState> read(DataInputStream input, boolean keepIdentificators) throws IOException {
+        ArrayList<IList<String>> outputList = new ArrayList<>();
+        ArrayList<IHeap<Integer, Integer>> heapList = new ArrayList<>();
+        ArrayList<ILatchTable<Integer, Integer>> latchTableList = new ArrayList<>();
+        ArrayList<IFileTable<Integer, Pair<String, BufferedReader>>> fileTableList = new ArrayList<>();
+        List<ProgramState> programStates = new List<>();
+        long maxHeapAddress = 0, maxLatch = 0, maxFile = 0, maxState = 0;
+        int count;
+
+        if (input.readInt() != MAGIC)
+            throw new IOException("The file is not a checkpoint.");
+        if (input.readUnsignedByte() != VERSION)
+            throw new IOException("The checkpoint version is not supported.");
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++)
+            outputList.add(input.readBoolean() ? readOutputMessages(input) : null);
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            IHeap<Integer, Integer> heap = null;
+
+            if (input.readBoolean()) {
+                heap = readStorage(input).create();
+
+                for (int size = input.readInt(), j = 0; j < size; j++) {
+                    int address = input.readInt();
+
+                    heap.add(address, input.readInt());
+                    maxHeapAddress = Math.max(maxHeapAddress, address);
+                }
+            }
+
+            heapList.add(heap);
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            LatchTable<Integer, Integer> latchTable = null;
+
+            if (input.readBoolean()) {
+                latchTable = new LatchTable<>();
+
+                for (int size = input.readInt(), j = 0; j < size; j++) {
+                    int latch = input.readInt();
+
+                    latchTable.add(latch, input.readInt());
+                    maxLatch = Math.max(maxLatch, latch);
+                }
+            }
+
+            latchTableList.add(latchTable);
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            FileTable<Integer, Pair<String, BufferedReader>> fileTable = null;
+
+            if (input.readBoolean()) {
+                fileTable = new FileTable<>();
+
+                for (int size = input.readInt(), j = 0; j < size; j++) {
+                    int file = input.readInt();
+                    String filePath = input.readUTF();
+                    long position = input.readLong();
+                    boolean skipLineFeed = input.readBoolean();
+                    MappedIntegerReader reader = new MappedIntegerReader(filePath);
+
+                    reader.seek(position, skipLineFeed);
+                    fileTable.add(file, new Pair<>(filePath, reader));
+                    maxFile = Math.max(maxFile, file);
+                }
+            }
+
+            fileTableList.add(fileTable);
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            int id = input.readInt();
+            IList<String> outputMessages = outputList.get(index(input, outputList.size()));
+            IHeap<Integer, Integer> heap = heapList.get(index(input, heapList.size()));
+            ILatchTable<Integer, Integer> latchTable = latchTableList.get(index(input, latchTableList.size()));
+            IFileTable<Integer, Pair<String, BufferedReader>> fileTable = fileTableList.get(index(input, fileTableList.size()));
+            IDictionary<String, Integer> symbolTable = readSymbolTable(input);
+            Deque<Statement> executionStack = readExecutionStack(input);
+
+            if (keepIdentificators) {
+                programStates.add(new ProgramState(id, executionStack, symbolTable, outputMessages, fileTable, heap, latchTable));
+                maxState = Math.max(maxState, id);
+            }
+            else
+                programStates.add(new ProgramState(executionStack, symbolTable, outputMessages, fileTable, heap, latchTable));
+        }
+
+        IdGenerator.reserve(Namespace.Heap, maxHeapAddress + 1);
+        IdGenerator.reserve(Namespace.Latch, maxLatch + 1);
+        IdGenerator.reserve(Namespace.File, maxFile + 1);
+        IdGenerator.reserve(Namespace.State, maxState + 1);
+
+        return programStates;
+    }
+
+    /**
+     * Writes an output list, keeping the kind of output sink it is.
+     * @param output The stream to write to.
+     * @param outputMessages The output list.
+     * @throws IOException if the stream could not be written or the output file could not be written.
+     */
+    private static void writeOutputMessages(DataOutputStream output, IList<String> outputMessages) throws IOException {
+        if (outputMessages instanceof FileOutputSink) {
+            FileOutputSink sink = (FileOutputSink)outputMessages;
+
+            // The file must hold every message the checkpoint counts.
+            sink.flush();
+            output.writeByte(FILE_OUTPUT);
+            output.writeUTF(sink.filePath());
+            output.writeLong(sink.fileLength());
+            output.writeLong(sink.written());
+            return;
+        }
+
+        if (outputMessages instanceof DiscardOutputSink) {
+            output.writeByte(DISCARD_OUTPUT);
+            output.writeLong(((DiscardOutputSink)outputMessages).written());
+            return;
+        }
+
+        if (outputMessages instanceof MappedOutputSink) {
+            output.writeByte(MAPPED_OUTPUT);
+            output.writeUTF(((MappedOutputSink)outputMessages).filePath());
+            output.writeInt(((MappedOutputSink)outputMessages).capacity());
+            output.writeLong(((MappedOutputSink)outputMessages).written());
+        }
+        else
+            output.writeByte(outputMessages instanceof MemoryOutputSink ? MEMORY_OUTPUT : LIST_OUTPUT);
+
+        output.writeInt(outputMessages.size());
+        for (String message : outputMessages.all())
+            output.writeUTF(message);
+    }
+
+    /**
+     * Reads an output list, reopening the output sink it was.
+     * @param input The stream to read from.
+     * @return The output list.
+     * @throws IOException if the stream could not be read, the kind of output list is unknown or the output file could not be opened.
+     */
+    private static IList<String> readOutputMessages(DataInputStream input) throws IOException {
+        byte kind = input.readByte();
+        ArrayList<String> messages = new ArrayList<>();
+        IList<String> outputMessages;
+        String filePath = null;
+        int capacity = 0;
+        long written = 0;
+
+        if (kind == FILE_OUTPUT) {
+            filePath = input.readUTF();
+            return new FileOutputSink(filePath, input.readLong(), input.readLong());
+        }
+
+        if (kind == DISCARD_OUTPUT)
+            return new DiscardOutputSink(input.readLong());
+
+        if (kind == MAPPED_OUTPUT) {
+            filePath = input.readUTF();
+            capacity = input.readInt();
+            written = input.readLong();
+        }
+        else if (kind != MEMORY_OUTPUT && kind != LIST_OUTPUT)
+            throw new IOException("The checkpoint refers to an unknown kind of output list.");
+
+        for (int size = input.readInt(), i = 0; i < size; i++)
+            messages.add(input.readUTF());
+
+        if (kind == MAPPED_OUTPUT)
+            return new MappedOutputSink(filePath, capacity, messages, written);
+
+        outputMessages = kind == MEMORY_OUTPUT ? new MemoryOutputSink() : new List<>(Math.max(messages.size(), 16));
+        for (String message : messages)
+            outputMessages.add(message);
+
+        return outputMessages;
+    }
+
+    /**
+     * Writes the variables of a symbol table, keeping whether it is a slot symbol table or a dictionary.
+     * @param output The stream to write to.
+     * @param symbolTable The symbol table.
+     * @throws IOException if the stream could not be written.
+     */
+    private static void writeSymbolTable(DataOutputStream output, IDictionary<String, Integer> symbolTable) throws IOException {
+        IDictionary<String, Integer> table = symbolTable instanceof ObservedSymbolTable ? ((ObservedSymbolTable)symbolTable).inner() : symbolTable;
+
+        output.writeByte(table instanceof ISymbolTable ? SLOT_SYMBOL_TABLE : DICTIONARY_SYMBOL_TABLE);
+        output.writeInt(table.size());
+        for (Pair<String, Integer> variable : table.entries()) {
+            output.writeUTF(variable.left());
+            output.writeInt(variable.right());
+        }
+    }
+
+    /**
+     * Reads the variables of a symbol table.
+     * @param input The stream to read from.
+     * @return The symbol table.
+     * @throws IOException if the stream could not be read.
+     */
+    private static IDictionary<String, Integer> readSymbolTable(DataInputStream input) throws IOException {
+        IDictionary<String, Integer> symbolTable = input.readByte() == SLOT_SYMBOL_TABLE ? new SymbolTable() : new Dictionary<>();
+
+        for (int size = input.readInt(), i = 0; i < size; i++) {
+            String variableName = input.readUTF();
+
+            symbolTable.add(variableName, input.readInt());
+        }
+
+        return symbolTable;
+    }
+
+    /**
+     * Writes the execution stack of a <code>ProgramState</code>, from the front to the back.
+     * @param output The stream to write to.
+     * @param programState The <code>ProgramState</code>.
+     * @throws IOException if the stream could not be written.
+     */
+    private static void writeExecutionStack(DataOutputStream output, ProgramState programState) throws IOException {
+        ArrayList<Statement> statements = new ArrayList<>();
+        ListIterator<Statement> iterator = programState.executionStack().iteratorFront();
+
+        while (iterator.hasNext())
+            statements.add(iterator.next());
+
+        output.writeInt(statements.size());
+        for (Statement statement : statements)
+            if (statement instanceof CompiledStatement) {
+                CompiledStatement compiledStatement = (CompiledStatement)statement;
+
+                output.writeByte(COMPILED);
+                writeProgram(output, compiledStatement.program());
+                output.writeInt(compiledStatement.programCounter());
+                for (int register : compiledStatement.registers())
+                    output.writeInt(register);
+            }
+            else {
+                output.writeByte(TREE);
+                ProgramCodec.writeStatement(output, statement);
+            }
+    }
+
+    /**
+     * Reads an execution stack.
+     * @param input The stream to read from.
+     * @return The execution stack.
+     * @throws IOException if the stream could not be read.
+     */
+    private static Deque<Statement> readExecutionStack(DataInputStream input) throws IOException {
+        Deque<Statement> executionStack = new Deque<>();
+
+        for (int size = input.readInt(), i = 0; i < size; i++)
+            if (input.readByte() == COMPILED) {
+                CompiledStatement compiledStatement = new CompiledStatement(readProgram(input));
+                int[] registers = compiledStatement.registers();
+
+                compiledStatement.programCounter(input.readInt());
+                for (int register = 0; register < registers.length; register++)
+                    registers[register] = input.readInt();
+
+                executionStack.pushBack(compiledStatement);
+            }
+            else
+                executionStack.pushBack(ProgramCodec.readStatement(input));
+
+        return executionStack;
+    }
+
+    /**
+     * Writes a <code>BytecodeProgram</code> and the programs nested inside it.
+     * @param output The stream to write to.
+     * @param program The <code>BytecodeProgram</code>.
+     * @throws IOException if the stream could not be written.
+     */
+    private static void writeProgram(DataOutputStream output, BytecodeProgram program) throws IOException {
+        int[] code = program.code();
+        TreeMap<Integer, String> slots = new TreeMap<>();
+
+        output.writeInt(code.length);
+        for (int instruction : code)
+            output.writeInt(instruction);
+
+        for (int pc = 0; pc < code.length; pc += OpCode.operands(code[pc]) + 1) {
+            int operand = OpCode.slotOperand(code[pc]);
+
+            if (operand > 0)
+                slots.putIfAbsent(code[pc + operand], SlotResolver.name(code[pc + operand]));
+        }
+
+        output.writeInt(slots.size());
+        for (Map.Entry<Integer, String> slot : slots.entrySet()) {
+            output.writeInt(slot.getKey());
+            output.writeUTF(slot.getValue());
+        }
+
+        output.writeInt(program.statements().length);
+        for (Statement statement : program.statements())
+            ProgramCodec.writeStatement(output, statement);
+
+        output.writeInt(program.programs().length);
+        for (BytecodeProgram nestedProgram : program.programs())
+            writeProgram(output, nestedProgram);
+
+        output.writeInt(program.registers());
+        output.writeUTF(program.toString());
+    }
+
+    /**
+     * Reads a <code>BytecodeProgram</code> and the programs nested inside it.
+     * @param input The stream to read from.
+     * @return The <code>BytecodeProgram</code>.
+     * @throws IOException if the stream could not be read.
+     */
+    private static BytecodeProgram readProgram(DataInputStream input) throws IOException {
+        int[] code = new int[input.readInt()];
+        HashMap<Integer, Integer> slots = new HashMap<>();
+        Statement[] statements;
+        BytecodeProgram[] programs;
+
+        for (int i = 0; i < code.length; i++)
+            code[i] = input.readInt();
+
+        for (int size = input.readInt(), i = 0; i < size; i++) {
+            int slot = input.readInt();
+
+            slots.put(slot, SlotResolver.resolve(input.readUTF()));
+        }
+
+        for (int pc = 0; pc < code.length; pc += OpCode.operands(code[pc]) + 1) {
+            int operand = OpCode.slotOperand(code[pc]);
+
+            if (operand > 0) {
+                if (!slots.containsKey(code[pc + operand]))
+                    throw new IOException("The checkpoint refers to a missing variable slot.");
+                code[pc + operand] = slots.get(code[pc + operand]);
+            }
+        }
+
+        statements = new Statement[input.readInt()];
+        for (int i = 0; i < statements.length; i++)
+            statements[i] = ProgramCodec.readStatement(input);
+
+        programs = new BytecodeProgram[input.readInt()];
+        for (int i = 0; i < programs.length; i++)
+            programs[i] = readProgram(input);
+
+        return new BytecodeProgram(code, statements, programs, input.readInt(), input.readUTF());
+    }
+
+    /**
+     * Writes the entries of a heap or a latch table.
+     * @param output The stream to write to.
+     * @param entries The entries.
+     * @throws IOException if the stream could not be written.
+     */
+    private static void writeEntries(DataOutputStream output, java.util.Set<Pair<Integer, Integer>> entries) throws IOException {
+        output.writeInt(entries.size());
+        for (Pair<Integer, Integer> entry : entries) {
+            output.writeInt(entry.left());
+            output.writeInt(entry.right());
+        }
+    }
+
+    /**
+     * Reads the index of a shared table and checks it.
+     * @param input The stream to read from.
+     * @param size The number of shared tables.
+     * @return The index.
+     * @throws IOException if the stream could not be read or the index is not valid.
+     */
+    private static int index(DataInputStream input, int size) throws IOException {
+        int index = input.readInt();
+
+        if (index < 0 || index >= size)
+            throw new IOException("The checkpoint refers to a missing table.");
+
+        return index;
+    }
+
+    /**
+     * Gets the storage of a heap.
+     * @param heap The heap.
+     * @return The <code>HeapStorage</code> that creates heaps of the same kind.
+     */
+    private static HeapStorage storage(IHeap<Integer, Integer> heap) {
+        if (heap instanceof IntHeap)
+            return ((IntHeap)heap).direct() ? HeapStorage.Direct : HeapStorage.Primitive;
+
+        if (heap instanceof ConcurrentHeap)
+            return HeapStorage.Concurrent;
+
+        if (heap instanceof ArenaHeap)
+            return HeapStorage.Arena;
+
+        return HeapStorage.Boxed;
+    }
+
+    /**
+     * Reads the storage of a heap.
+     * @param input The stream to read from.
+     * @return The <code>HeapStorage</code>.
+     * @throws IOException if the stream could not be read or the storage is unknown.
+     */
+    private static HeapStorage readStorage(DataInputStream input) throws IOException {
+        int storage = input.readUnsignedByte();
+
+        if (storage >= HeapStorage.values().length)
+            throw new IOException("Unknown heap storage " + storage + ".");
+
+        return HeapStorage.values()[storage];
+    }
+
+    /**
+     * Removes the tracing wrapper of an output list.
+     * @param outputMessages The output list.
+     * @return The wrapped output list, or the provided one if it is not wrapped.
+     */
+    private static IList<String> unwrap(IList<String> outputMessages) {
+        return outputMessages instanceof ObservedList ? ((ObservedList)outputMessages).inner() : outputMessages;
+    }
+
+    /**
+     * Removes the tracing wrapper of a heap.
+     * @param heap The heap.
+     * @return The wrapped heap, or the provided one if it is not wrapped.
+     */
+    private static IHeap<Integer, Integer> unwrap(IHeap<Integer, Integer> heap) {
+        return heap instanceof ObservedHeap ? ((ObservedHeap)heap).inner() : heap;
+    }
+
+    /**
+     * Removes the observing wrapper of a latch table.
+     * @param latchTable The latch table.
+     * @return The wrapped latch table, or the provided one if it is not wrapped.
+     */
+    private static ILatchTable<Integer, Integer> unwrap(ILatchTable<Integer, Integer> latchTable) {
+        return latchTable instanceof ObservedLatchTable ? ((ObservedLatchTable)latchTable).inner() : latchTable;
+    }
+
+    /**
+     * Removes the tracing wrapper of a file table.
+     * @param fileTable The file table.
+     * @return The wrapped file table, or the provided one if it is not wrapped.
+     */
+    private static IFileTable<Integer, Pair<String, BufferedReader>> unwrap(IFileTable<Integer, Pair<String, BufferedReader>> fileTable) {
+        return fileTable instanceof ObservedFileTable ? ((ObservedFileTable)fileTable).inner() : fileTable;
+    }
+}
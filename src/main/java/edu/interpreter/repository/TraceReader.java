@@ -0,0 +1,423 @@
+package edu.interpreter.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.Deque;
+import edu.interpreter.model.utilities.FileTable;
+import edu.interpreter.model.utilities.LatchTable;
+import edu.interpreter.model.utilities.List;
+import edu.interpreter.model.utilities.Pair;
+import edu.interpreter.model.utilities.SymbolTable;
+import edu.interpreter.model.utilities.exceptions.InvalidOperationException;
+import edu.interpreter.model.utilities.interfaces.IDeque;
+
+/**
+ * Rebuilds the program states recorded by a <code>TraceWriter</code> and logs them through a <code>Repository</code>,
+ * producing the same human-readable dump the <code>Repository</code> writes while the programs run.
+ * Every program state is logged when it is first traced, when it is forked and after each of its steps.
+ * @author David Perisanu
+ */
+public final class TraceReader {
+    private final DataInputStream input;
+    private final Repository repository;
+    private final long startTime;
+    private final ArrayList<Statement> statements;
+    private final ArrayList<String> names;
+    private final HashMap<Integer, ProgramState> programStates;
+
+    /**
+     * Initializes a new instance of the <code>TraceReader</code> class with the specified values.
+     * @param input The trace.
+     * @param repository The repository that logs the rebuilt program states.
+     * @throws IOException if the trace could not be read or is not a trace.
+     */
+    private TraceReader(DataInputStream input, Repository repository) throws IOException {
+        this.input = input;
+        this.repository = repository;
+        statements = new ArrayList<>();
+        names = new ArrayList<>();
+        programStates = new HashMap<>();
+
+        if (input.readInt() != TraceRecord.MAGIC)
+            throw new IOException("The file is not a trace.");
+        if (input.readUnsignedByte() != TraceRecord.VERSION)
+            throw new IOException("The version of the trace is not supported.");
+
+        startTime = input.readLong();
+    }
+
+    /**
+     * Rebuilds the program states of a trace and logs them through a <code>Repository</code>.
+     * @param traceFilePath The path of the trace file.
+     * @param repository The repository that logs the rebuilt program states.
+     * @throws FileNotFoundException if the trace file could not be found.
+     * @throws IOException if the trace could not be read or the log could not be written.
+     */
+    public static void read(String traceFilePath, Repository repository) throws FileNotFoundException, IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(traceFilePath), 1 << 16))) {
+            new TraceReader(input, repository).readRecords();
+        }
+
+        repository.flush();
+    }
+
+    /**
+     * Converts a trace file to the human-readable log of the <code>Repository</code>.
+     * @param args The path of the trace file and the path of the log file.
+     */
+    public static void main(String[] args) {
+        Repository repository;
+
+        if (args.length != 2) {
+            System.err.println("Usage: TraceReader <trace file> <log file>");
+            System.exit(2);
+        }
+
+        repository = new Repository(args[1]);
+        try {
+            read(args[0], repository);
+            repository.close();
+        }
+        catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads every record of the trace.
+     * @throws IOException if the trace could not be read or the log could not be written.
+     */
+    private void readRecords() throws IOException {
+        int kind;
+
+        while ((kind = input.read()) != -1)
+            switch (kind) {
+                case TraceRecord.STATEMENT:
+                    define(statements, readVarInt(), new RecordedStatement(readString()));
+                    break;
+
+                case TraceRecord.NAME:
+                    define(names, readVarInt(), readString());
+                    break;
+
+                case TraceRecord.STATE:
+                case TraceRecord.STEP:
+                case TraceRecord.DETACHED:
+                    readBlock(kind);
+                    break;
+
+                default:
+                    throw new IOException("Unknown trace record " + kind + ".");
+            }
+    }
+
+    /**
+     * Reads a block record, applies its operations and logs the program states it changes.
+     * @param kind The kind of block.
+     * @throws IOException if the trace could not be read or the log could not be written.
+     */
+    private void readBlock(int kind) throws IOException {
+        int id = readVarInt();
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(startTime + readVarLong()), ZoneId.systemDefault());
+        ArrayList<ProgramState> changed = new ArrayList<>();
+        ProgramState programState;
+        int operation;
+
+        if (kind == TraceRecord.STATE) {
+            programState = new ProgramState(id, new Deque<>(), new SymbolTable(), new List<>(), new FileTable<>(), ProgramState.HeapStorage.Concurrent.create(), new LatchTable<>());
+            programStates.put(id, programState);
+        }
+        else
+            programState = state(id);
+
+        if (kind != TraceRecord.DETACHED)
+            changed.add(programState);
+
+        while ((operation = input.readUnsignedByte()) != TraceRecord.END)
+            switch (operation) {
+                case TraceRecord.PUSH_BACK:
+                    programState.executionStack().pushBack(statement(readVarInt()));
+                    break;
+
+                case TraceRecord.PUSH_FRONT:
+                    programState.executionStack().pushFront(statement(readVarInt()));
+                    break;
+
+                case TraceRecord.POP_BACK:
+                    programState.executionStack().popBack();
+                    break;
+
+                case TraceRecord.POP_FRONT:
+                    programState.executionStack().popFront();
+                    break;
+
+                case TraceRecord.SYMBOL_WRITE:
+                    programState.symbolTable().add(name(readVarInt()), readSignedVarInt());
+                    break;
+
+                case TraceRecord.SYMBOL_REMOVE:
+                    programState.symbolTable().remove(name(readVarInt()));
+                    break;
+
+                case TraceRecord.HEAP_WRITE:
+                    programState.heap().add(readSignedVarInt(), readSignedVarInt());
+                    break;
+
+                case TraceRecord.HEAP_REMOVE:
+                    programState.heap().remove(readSignedVarInt());
+                    break;
+
+                case TraceRecord.MESSAGE:
+                    programState.outputMessages().add(readString());
+                    break;
+
+                case TraceRecord.FILE_OPEN:
+                    programState.fileTable().add(readSignedVarInt(), new Pair<>(readString(), null));
+                    break;
+
+                case TraceRecord.FILE_CLOSE:
+                    programState.fileTable().remove(readSignedVarInt());
+                    break;
+
+                case TraceRecord.FORK: {
+                    int forkId = readVarInt();
+                    ProgramState forkProgramState = new ProgramState(forkId, readStatements(), ((SymbolTable)programState.symbolTable()).copy(), programState.outputMessages(), programState.fileTable(), programState.heap(), programState.latchTable());
+
+                    programStates.put(forkId, forkProgramState);
+                    changed.add(forkProgramState);
+                    break;
+                }
+
+                case TraceRecord.STACK_RESET:
+                    programState.executionStack(readStatements());
+                    break;
+
+                case TraceRecord.SYMBOLS_RESET: {
+                    SymbolTable symbolTable = new SymbolTable();
+
+                    for (int count = readVarInt(); count > 0; count--)
+                        symbolTable.add(name(readVarInt()), readSignedVarInt());
+                    programState.symbolTable(symbolTable);
+                    break;
+                }
+
+                case TraceRecord.HEAP_RESET: {
+                    ProgramState.HeapStorage storage = ProgramState.HeapStorage.values()[input.readUnsignedByte()];
+
+                    programState.heap(storage.create());
+                    for (int count = readVarInt(); count > 0; count--)
+                        programState.heap().add(readSignedVarInt(), readSignedVarInt());
+                    break;
+                }
+
+                case TraceRecord.MESSAGES_RESET: {
+                    List<String> outputMessages = new List<>();
+
+                    for (int count = readVarInt(); count > 0; count--)
+                        outputMessages.add(readString());
+                    programState.outputMessages(outputMessages);
+                    break;
+                }
+
+                case TraceRecord.FILES_RESET: {
+                    FileTable<Integer, Pair<String, BufferedReader>> fileTable = new FileTable<>();
+
+                    for (int count = readVarInt(); count > 0; count--)
+                        fileTable.add(readSignedVarInt(), new Pair<>(readString(), null));
+                    programState.fileTable(fileTable);
+                    break;
+                }
+
+                case TraceRecord.HEAP_SHARE:
+                    programState.heap(state(readVarInt()).heap());
+                    break;
+
+                case TraceRecord.MESSAGES_SHARE:
+                    programState.outputMessages(state(readVarInt()).outputMessages());
+                    break;
+
+                case TraceRecord.FILES_SHARE:
+                    programState.fileTable(state(readVarInt()).fileTable());
+                    break;
+
+                default:
+                    throw new IOException("Unknown trace operation " + operation + ".");
+            }
+
+        for (ProgramState changedProgramState : changed) {
+            repository.logProgramStateExecutionHeader(changedProgramState, time);
+            repository.logProgramStateExecution(changedProgramState);
+            repository.logProgramStateExecutionFooter(changedProgramState);
+        }
+    }
+
+    /**
+     * Reads a list of interned statements into a new execution stack.
+     * @return The execution stack, filled front to back.
+     * @throws IOException if the trace could not be read.
+     */
+    private IDeque<Statement> readStatements() throws IOException {
+        Deque<Statement> executionStack = new Deque<>();
+
+        for (int count = readVarInt(); count > 0; count--)
+            executionStack.pushBack(statement(readVarInt()));
+
+        return executionStack;
+    }
+
+    /**
+     * Gets a rebuilt program state.
+     * @param id The identificator of the program state.
+     * @return The program state.
+     * @throws IOException if the program state has not been traced.
+     */
+    private ProgramState state(int id) throws IOException {
+        ProgramState programState = programStates.get(id);
+
+        if (programState == null)
+            throw new IOException("Program state " + id + " has not been traced.");
+
+        return programState;
+    }
+
+    /**
+     * Gets an interned statement.
+     * @param id The identificator of the statement.
+     * @return The statement.
+     * @throws IOException if the statement has not been interned.
+     */
+    private Statement statement(int id) throws IOException {
+        if (id < 1 || id > statements.size())
+            throw new IOException("Statement " + id + " has not been interned.");
+
+        return statements.get(id - 1);
+    }
+
+    /**
+     * Gets an interned variable name.
+     * @param id The identificator of the variable name.
+     * @return The variable name.
+     * @throws IOException if the variable name has not been interned.
+     */
+    private String name(int id) throws IOException {
+        if (id < 1 || id > names.size())
+            throw new IOException("Variable name " + id + " has not been interned.");
+
+        return names.get(id - 1);
+    }
+
+    /**
+     * Adds an interned value.
+     * The writer hands out identificators in the order it appends the definitions.
+     * @param values The interned values.
+     * @param id The identificator of the value.
+     * @param value The value being interned.
+     * @throws IOException if the definition is out of order.
+     */
+    private static <T> void define(ArrayList<T> values, int id, T value) throws IOException {
+        if (id != values.size() + 1)
+            throw new IOException("Definition " + id + " is out of order.");
+
+        values.add(value);
+    }
+
+    /**
+     * Reads an unsigned integral written as a variable-length quantity.
+     * @return The integral.
+     * @throws IOException if the trace could not be read.
+     */
+    private int readVarInt() throws IOException {
+        return (int)readVarLong();
+    }
+
+    /**
+     * Reads an unsigned long integral written as a variable-length quantity.
+     * @return The long integral.
+     * @throws IOException if the trace could not be read.
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        int shift = 0, b;
+
+        do {
+            b = input.readUnsignedByte();
+            value |= (long)(b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Reads a zigzag encoded signed integral.
+     * @return The integral.
+     * @throws IOException if the trace could not be read.
+     */
+    private int readSignedVarInt() throws IOException {
+        int value = readVarInt();
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a string written as its length followed by its UTF-8 bytes.
+     * @return The string.
+     * @throws IOException if the trace could not be read.
+     */
+    private String readString() throws IOException {
+        byte[] utf8 = new byte[readVarInt()];
+
+        input.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Represents a statement rebuilt from a trace, which only knows its string representation.
+     */
+    private static final class RecordedStatement extends Statement {
+        private final String text;
+
+        /**
+         * Initializes a new instance of the <code>RecordedStatement</code> class with the specified value.
+         * @param text The string representation of the recorded statement.
+         */
+        RecordedStatement(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Recorded statements cannot be executed.
+         * @param programState The program state.
+         * @return Nothing.
+         * @throws InvalidOperationException always.
+         */
+        @Override
+        public ProgramState execute(ProgramState programState) throws InvalidOperationException {
+            throw new InvalidOperationException("Statements rebuilt from a trace cannot be executed.");
+        }
+
+        /**
+         * Gets a string representation of the <code>RecordedStatement</code>.
+         * @return The string representation of the <code>RecordedStatement</code>.
+         */
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package edu.interpreter.repository;
+
+/**
+ * Record and operation codes of the binary trace format.
+ * A trace starts with <code>MAGIC</code>, <code>VERSION</code> and the start time in milliseconds, followed by records.
+ * Definition records intern a statement or a variable name; block records (<code>STATE</code>, <code>STEP</code> and
+ * <code>DETACHED</code>) hold a program state identificator, the milliseconds elapsed since the start and a list of
+ * operations ended by <code>END</code>. Integrals are written as variable-length quantities, values zigzag encoded.
+ * @author David Perisanu
+ */
+public final class TraceRecord {
+    private TraceRecord() { }   // Simulate static class.
+
+    /**
+     * First four bytes of a trace file.
+     */
+    public static final int MAGIC = 0x54524345;
+    /**
+     * Version of the trace format.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * <code>STATE id, time, operations</code>: a program state is traced for the first time.
+     */
+    public static final int STATE = 1;
+    /**
+     * <code>STEP id, time, operations</code>: a program state has executed a step.
+     */
+    public static final int STEP = 2;
+    /**
+     * <code>DETACHED owner, time, operations</code>: changes made outside of any step, such as garbage collections.
+     */
+    public static final int DETACHED = 3;
+    /**
+     * <code>STATEMENT id, text</code>: interns a statement.
+     */
+    public static final int STATEMENT = 4;
+    /**
+     * <code>NAME id, text</code>: interns a variable name.
+     */
+    public static final int NAME = 5;
+
+    /**
+     * <code>END</code>: ends the operations of a block.
+     */
+    public static final int END = 0;
+    /**
+     * <code>PUSH_BACK statement</code>: pushes a statement on top of the execution stack.
+     */
+    public static final int PUSH_BACK = 16;
+    /**
+     * <code>PUSH_FRONT statement</code>: pushes a statement at the bottom of the execution stack.
+     */
+    public static final int PUSH_FRONT = 17;
+    /**
+     * <code>POP_BACK</code>: pops the top-most statement of the execution stack.
+     */
+    public static final int POP_BACK = 18;
+    /**
+     * <code>POP_FRONT</code>: pops the bottom-most statement of the execution stack.
+     */
+    public static final int POP_FRONT = 19;
+    /**
+     * <code>SYMBOL_WRITE name, value</code>: writes a variable.
+     */
+    public static final int SYMBOL_WRITE = 20;
+    /**
+     * <code>SYMBOL_REMOVE name</code>: removes a variable.
+     */
+    public static final int SYMBOL_REMOVE = 21;
+    /**
+     * <code>HEAP_WRITE address, value</code>: writes an address of the heap.
+     */
+    public static final int HEAP_WRITE = 22;
+    /**
+     * <code>HEAP_REMOVE address</code>: removes an address of the heap.
+     */
+    public static final int HEAP_REMOVE = 23;
+    /**
+     * <code>MESSAGE text</code>: appends an output message.
+     */
+    public static final int MESSAGE = 24;
+    /**
+     * <code>FILE_OPEN descriptor, name</code>: adds a file to the file table.
+     */
+    public static final int FILE_OPEN = 25;
+    /**
+     * <code>FILE_CLOSE descriptor</code>: removes a file from the file table.
+     */
+    public static final int FILE_CLOSE = 26;
+    /**
+     * <code>FORK id, count, statements</code>: forks a program state that copies the symbol table and shares everything else.
+     */
+    public static final int FORK = 27;
+    /**
+     * <code>STACK_RESET count, statements</code>: replaces the execution stack, listed front to back.
+     */
+    public static final int STACK_RESET = 32;
+    /**
+     * <code>SYMBOLS_RESET count, (name, value)</code>: replaces the symbol table.
+     */
+    public static final int SYMBOLS_RESET = 33;
+    /**
+     * <code>HEAP_RESET storage, count, (address, value)</code>: replaces the heap.
+     */
+    public static final int HEAP_RESET = 34;
+    /**
+     * <code>MESSAGES_RESET count, texts</code>: replaces the output messages.
+     */
+    public static final int MESSAGES_RESET = 35;
+    /**
+     * <code>FILES_RESET count, (descriptor, name)</code>: replaces the file table.
+     */
+    public static final int FILES_RESET = 36;
+    /**
+     * <code>HEAP_SHARE owner</code>: shares the heap of the program state <code>owner</code>.
+     */
+    public static final int HEAP_SHARE = 37;
+    /**
+     * <code>MESSAGES_SHARE owner</code>: shares the output messages of the program state <code>owner</code>.
+     */
+    public static final int MESSAGES_SHARE = 38;
+    /**
+     * <code>FILES_SHARE owner</code>: shares the file table of the program state <code>owner</code>.
+     */
+    public static final int FILES_SHARE = 39;
+}
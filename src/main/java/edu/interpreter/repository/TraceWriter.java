@@ -0,0 +1,733 @@
+package edu.interpreter.repository;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.ListIterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ArenaHeap;
+import edu.interpreter.model.utilities.ConcurrentHeap;
+import edu.interpreter.model.utilities.IntHeap;
+import edu.interpreter.model.utilities.ObservedDeque;
+import edu.interpreter.model.utilities.ObservedFileTable;
+import edu.interpreter.model.utilities.ObservedHeap;
+import edu.interpreter.model.utilities.ObservedList;
+import edu.interpreter.model.utilities.ObservedSymbolTable;
+import edu.interpreter.model.utilities.Pair;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IDeque;
+import edu.interpreter.model.utilities.interfaces.IDictionary;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+import edu.interpreter.model.utilities.interfaces.IFileTable;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.IList;
+
+/**
+ * Writes a binary trace that records only what every step of the observed program states changes.
+ * Every step is encoded on the thread that executes it and appended to the trace as a whole once it completes,
+ * so steps running at the same time are recorded in the order they complete.
+ * Statements and variable names are interned and referenced by their identificators.
+ * @author David Perisanu
+ */
+public class TraceWriter implements IExecutionListener, IChangeListener, AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String filePath;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long startTime;
+    private final ConcurrentHashMap<Statement, Integer> statements;
+    private final ConcurrentHashMap<String, Integer> names;
+    private final Encoder definitions;
+    private final ThreadLocal<Encoder> encoder;
+    private final IdentityHashMap<Object, Object> wrappers;
+    private IOException failure;
+
+    /**
+     * Initializes a new instance of the <code>TraceWriter</code> class that writes a new trace to the specified file.
+     * @param filePath The path of the trace file.
+     * @throws FileNotFoundException if the file path is not valid.
+     */
+    public TraceWriter(String filePath) throws FileNotFoundException {
+        this.filePath = filePath;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        startTime = System.currentTimeMillis();
+        statements = new ConcurrentHashMap<>();
+        names = new ConcurrentHashMap<>();
+        definitions = new Encoder();
+        encoder = ThreadLocal.withInitial(Encoder::new);
+        wrappers = new IdentityHashMap<>();
+
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Trace file path is not valid.");
+        }
+
+        buffer.putInt(TraceRecord.MAGIC).put((byte)TraceRecord.VERSION).putLong(startTime);
+    }
+
+    /**
+     * Gets the path of the trace file of the <code>TraceWriter</code>.
+     * @return The path of the trace file.
+     */
+    public String filePath() {
+        return filePath;
+    }
+
+    /**
+     * Starts tracing a <code>ProgramState</code> and every <code>ProgramState</code> it forks.
+     * The current content of the <code>ProgramState</code> is recorded once, only its changes are recorded afterwards.
+     * @param programState The <code>ProgramState</code> to trace.
+     */
+    public void observe(ProgramState programState) {
+        Encoder e;
+
+        if (programState.hasExecutionListener(this))
+            return;
+
+        e = encoder.get();
+        e.begin(TraceRecord.STATE, programState.id(), elapsed());
+        observeParts(programState, e);
+        e.writeByte(TraceRecord.END);
+        commit(e);
+
+        programState.addExecutionListener(this);
+    }
+
+    /**
+     * Starts the record of a step.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    @Override
+    public void stepStarting(ProgramState programState) {
+        Encoder e = encoder.get();
+
+        e.begin(TraceRecord.STEP, programState.id(), elapsed());
+        e.active = true;
+
+        // The scheduler may have replaced parts of the program state since its last step (e.g. by compiling its execution stack).
+        observeParts(programState, e);
+    }
+
+    /**
+     * Ends the record of a step, starts tracing the forked <code>ProgramState</code> and appends the record to the trace.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    @Override
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState) {
+        Encoder e = encoder.get();
+
+        if (forkProgramState != null) {
+            ArrayList<Statement> forkStatements = forkProgramState.executionStack().all();
+
+            e.writeByte(TraceRecord.FORK);
+            e.writeVarInt(forkProgramState.id());
+            e.writeVarInt(forkStatements.size());
+            for (Statement statement : forkStatements)
+                e.writeVarInt(statementId(statement));
+
+            forkProgramState.executionStack(new ObservedDeque(forkProgramState.executionStack(), forkProgramState.id(), this));
+
+            // The copy of the symbol table of the parent is recorded by the fork itself; any other table is recorded by the first step.
+            if (forkProgramState.symbolTable() instanceof ObservedSymbolTable && ((ObservedSymbolTable)forkProgramState.symbolTable()).listener() == this)
+                forkProgramState.symbolTable(new ObservedSymbolTable(((ObservedSymbolTable)forkProgramState.symbolTable()).inner(), forkProgramState.id(), this));
+
+            forkProgramState.addExecutionListener(this);
+        }
+
+        e.writeByte(TraceRecord.END);
+        e.active = false;
+        commit(e);
+    }
+
+    /**
+     * Does nothing, since count downs are recorded by the output messages they add.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    @Override
+    public void latchCountedDown(ProgramState programState, int latch, int count) {
+    }
+
+    /**
+     * Does nothing, since allocations are recorded by the heap writes they make.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    @Override
+    public void heapAllocated(ProgramState programState, int address) {
+    }
+
+    /**
+     * Records a <code>Statement</code> pushed on an execution stack.
+     * @param owner The owner of the execution stack.
+     * @param statement The pushed <code>Statement</code>.
+     * @param front <code>true</code> if the <code>Statement</code> has been pushed at the bottom of the execution stack.
+     */
+    @Override
+    public void statementPushed(int owner, Statement statement, boolean front) {
+        int id = statementId(statement);
+        Encoder e = operation(owner);
+
+        e.writeByte(front ? TraceRecord.PUSH_FRONT : TraceRecord.PUSH_BACK);
+        e.writeVarInt(id);
+        detach(e);
+    }
+
+    /**
+     * Records a <code>Statement</code> popped off an execution stack.
+     * @param owner The owner of the execution stack.
+     * @param front <code>true</code> if the <code>Statement</code> has been popped off the bottom of the execution stack.
+     */
+    @Override
+    public void statementPopped(int owner, boolean front) {
+        Encoder e = operation(owner);
+
+        e.writeByte(front ? TraceRecord.POP_FRONT : TraceRecord.POP_BACK);
+        detach(e);
+    }
+
+    /**
+     * Records a written variable.
+     * @param owner The owner of the symbol table.
+     * @param name The name of the variable.
+     * @param value The value of the variable.
+     */
+    @Override
+    public void symbolWritten(int owner, String name, int value) {
+        int id = nameId(name);
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.SYMBOL_WRITE);
+        e.writeVarInt(id);
+        e.writeSignedVarInt(value);
+        detach(e);
+    }
+
+    /**
+     * Records a removed variable.
+     * @param owner The owner of the symbol table.
+     * @param name The name of the variable.
+     */
+    @Override
+    public void symbolRemoved(int owner, String name) {
+        int id = nameId(name);
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.SYMBOL_REMOVE);
+        e.writeVarInt(id);
+        detach(e);
+    }
+
+    /**
+     * Records a written heap address.
+     * @param owner The owner of the heap.
+     * @param address The address.
+     * @param value The value stored at the address.
+     */
+    @Override
+    public void heapWritten(int owner, int address, int value) {
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.HEAP_WRITE);
+        e.writeSignedVarInt(address);
+        e.writeSignedVarInt(value);
+        detach(e);
+    }
+
+    /**
+     * Records a removed heap address.
+     * @param owner The owner of the heap.
+     * @param address The address.
+     */
+    @Override
+    public void heapRemoved(int owner, int address) {
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.HEAP_REMOVE);
+        e.writeSignedVarInt(address);
+        detach(e);
+    }
+
+    /**
+     * Records an appended output message.
+     * @param owner The owner of the output messages.
+     * @param message The message.
+     */
+    @Override
+    public void messageAdded(int owner, String message) {
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.MESSAGE);
+        e.writeString(message);
+        detach(e);
+    }
+
+    /**
+     * Records every output message after a change other than an append.
+     * @param owner The owner of the output messages.
+     * @param messages Every message, in order.
+     */
+    @Override
+    public void messagesReplaced(int owner, ArrayList<String> messages) {
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.MESSAGES_RESET);
+        e.writeVarInt(messages.size());
+        for (String message : messages)
+            e.writeString(message);
+        detach(e);
+    }
+
+    /**
+     * Records an opened file.
+     * @param owner The owner of the file table.
+     * @param descriptor The descriptor of the file.
+     * @param fileName The name of the file.
+     */
+    @Override
+    public void fileOpened(int owner, int descriptor, String fileName) {
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.FILE_OPEN);
+        e.writeSignedVarInt(descriptor);
+        e.writeString(fileName);
+        detach(e);
+    }
+
+    /**
+     * Records a closed file.
+     * @param owner The owner of the file table.
+     * @param descriptor The descriptor of the file.
+     */
+    @Override
+    public void fileClosed(int owner, int descriptor) {
+        Encoder e = operation(owner);
+
+        e.writeByte(TraceRecord.FILE_CLOSE);
+        e.writeSignedVarInt(descriptor);
+        detach(e);
+    }
+
+    /**
+     * Does nothing, since latch tables are not part of the trace.
+     * @param owner The owner of the latch table.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch.
+     */
+    @Override
+    public void latchWritten(int owner, int latch, int count) {
+    }
+
+    /**
+     * Does nothing, since latch tables are not part of the trace.
+     * @param owner The owner of the latch table.
+     * @param latch The identificator of the latch.
+     */
+    @Override
+    public void latchRemoved(int owner, int latch) {
+    }
+
+    /**
+     * Writes the records appended so far to the trace file.
+     * @throws IOException if the trace file could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        drain();
+
+        if (failure != null)
+            throw new IOException("Trace file could not be written. " + failure.getMessage());
+    }
+
+    /**
+     * Writes the records appended so far and closes the trace file.
+     * @throws IOException if the trace file could not be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Records the parts of a <code>ProgramState</code> that are not observed by the <code>TraceWriter</code> and observes them.
+     * @param programState The <code>ProgramState</code>.
+     * @param e The encoder of the current block.
+     */
+    private void observeParts(ProgramState programState, Encoder e) {
+        ObservedHeap observedHeap;
+        ObservedList observedOutputMessages;
+        ObservedFileTable observedFileTable;
+        int id = programState.id();
+        IDeque<Statement> executionStack = programState.executionStack();
+        IDictionary<String, Integer> symbolTable = programState.symbolTable();
+        IHeap<Integer, Integer> heap = programState.heap();
+        IList<String> outputMessages = programState.outputMessages();
+        IFileTable<Integer, Pair<String, BufferedReader>> fileTable = programState.fileTable();
+
+        if (!(executionStack instanceof ObservedDeque && ((ObservedDeque)executionStack).listener() == this && ((ObservedDeque)executionStack).owner() == id)) {
+            if (executionStack instanceof ObservedDeque)
+                executionStack = ((ObservedDeque)executionStack).inner();
+
+            ArrayList<Statement> all = executionStack.all();
+
+            e.writeByte(TraceRecord.STACK_RESET);
+            e.writeVarInt(all.size());
+            for (Statement statement : all)
+                e.writeVarInt(statementId(statement));
+
+            programState.executionStack(new ObservedDeque(executionStack, id, this));
+        }
+
+        if (!(symbolTable instanceof ObservedSymbolTable && ((ObservedSymbolTable)symbolTable).listener() == this && ((ObservedSymbolTable)symbolTable).owner() == id)) {
+            if (symbolTable instanceof ObservedSymbolTable)
+                symbolTable = ((ObservedSymbolTable)symbolTable).inner();
+
+            e.writeByte(TraceRecord.SYMBOLS_RESET);
+            e.writeVarInt(symbolTable.size());
+            for (ListIterator<String> iterator = symbolTable.keysIterator(); iterator.hasNext();) {
+                String name = iterator.next();
+
+                e.writeVarInt(nameId(name));
+                e.writeSignedVarInt(symbolTable.get(name));
+            }
+
+            programState.symbolTable(new ObservedSymbolTable(symbolTable, id, this));
+        }
+
+        // The heap, output messages and file table are shared with the forks, so they keep the owner they were observed with.
+        // Program states that share one of them also share its wrapper, which is recorded once and referenced by the others.
+        synchronized (wrappers) {
+            if (heap != null && !(heap instanceof ObservedHeap && ((ObservedHeap)heap).listener() == this)) {
+                if (heap instanceof ObservedHeap)
+                    heap = ((ObservedHeap)heap).inner();
+
+                observedHeap = (ObservedHeap)wrappers.get(heap);
+                if (observedHeap != null) {
+                    e.writeByte(TraceRecord.HEAP_SHARE);
+                    e.writeVarInt(observedHeap.owner());
+                }
+                else {
+                    e.writeByte(TraceRecord.HEAP_RESET);
+                    e.writeByte(storage(heap).ordinal());
+                    e.writeVarInt(heap.size());
+                    for (ListIterator<Integer> iterator = heap.keysIterator(); iterator.hasNext();) {
+                        int address = iterator.next();
+
+                        e.writeSignedVarInt(address);
+                        e.writeSignedVarInt(heap.get(address));
+                    }
+
+                    observedHeap = new ObservedHeap(heap, id, this);
+                    wrappers.put(heap, observedHeap);
+                }
+
+                programState.heap(observedHeap);
+            }
+
+            if (!(outputMessages instanceof ObservedList && ((ObservedList)outputMessages).listener() == this)) {
+                if (outputMessages instanceof ObservedList)
+                    outputMessages = ((ObservedList)outputMessages).inner();
+
+                observedOutputMessages = (ObservedList)wrappers.get(outputMessages);
+                if (observedOutputMessages != null) {
+                    e.writeByte(TraceRecord.MESSAGES_SHARE);
+                    e.writeVarInt(observedOutputMessages.owner());
+                }
+                else {
+                    e.writeByte(TraceRecord.MESSAGES_RESET);
+                    e.writeVarInt(outputMessages.size());
+                    for (String message : outputMessages.all())
+                        e.writeString(message);
+
+                    observedOutputMessages = new ObservedList(outputMessages, id, this);
+                    wrappers.put(outputMessages, observedOutputMessages);
+                }
+
+                programState.outputMessages(observedOutputMessages);
+            }
+
+            if (!(fileTable instanceof ObservedFileTable && ((ObservedFileTable)fileTable).listener() == this)) {
+                if (fileTable instanceof ObservedFileTable)
+                    fileTable = ((ObservedFileTable)fileTable).inner();
+
+                observedFileTable = (ObservedFileTable)wrappers.get(fileTable);
+                if (observedFileTable != null) {
+                    e.writeByte(TraceRecord.FILES_SHARE);
+                    e.writeVarInt(observedFileTable.owner());
+                }
+                else {
+                    e.writeByte(TraceRecord.FILES_RESET);
+                    e.writeVarInt(fileTable.size());
+                    for (ListIterator<Integer> iterator = fileTable.keysIterator(); iterator.hasNext();) {
+                        int descriptor = iterator.next();
+
+                        e.writeSignedVarInt(descriptor);
+                        e.writeString(fileTable.get(descriptor).left());
+                    }
+
+                    observedFileTable = new ObservedFileTable(fileTable, id, this);
+                    wrappers.put(fileTable, observedFileTable);
+                }
+
+                programState.fileTable(observedFileTable);
+            }
+        }
+    }
+
+    /**
+     * Gets the encoder an operation is written to, starting a detached block if the current thread is not executing a step.
+     * @param owner The owner of the changed part.
+     * @return The encoder of the current block.
+     */
+    private Encoder operation(int owner) {
+        Encoder e = encoder.get();
+
+        if (!e.active)
+            e.begin(TraceRecord.DETACHED, owner, elapsed());
+
+        return e;
+    }
+
+    /**
+     * Ends and appends a detached block to the trace; operations made inside a step are left to <code>stepCompleted</code>.
+     * @param e The encoder of the current block.
+     */
+    private void detach(Encoder e) {
+        if (e.active)
+            return;
+
+        e.writeByte(TraceRecord.END);
+        commit(e);
+    }
+
+    /**
+     * Gets the identificator of an interned <code>Statement</code>, interning it if needed.
+     * @param statement The <code>Statement</code>.
+     * @return The identificator of the <code>Statement</code>.
+     */
+    private int statementId(Statement statement) {
+        Integer id = statements.get(statement);
+
+        if (id != null)
+            return id;
+
+        synchronized (this) {
+            id = statements.get(statement);
+            if (id == null) {
+                id = statements.size() + 1;
+                define(TraceRecord.STATEMENT, id, statement.toString());
+                statements.put(statement, id);
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Gets the identificator of an interned variable name, interning it if needed.
+     * @param name The variable name.
+     * @return The identificator of the variable name.
+     */
+    private int nameId(String name) {
+        Integer id = names.get(name);
+
+        if (id != null)
+            return id;
+
+        synchronized (this) {
+            id = names.get(name);
+            if (id == null) {
+                id = names.size() + 1;
+                define(TraceRecord.NAME, id, name);
+                names.put(name, id);
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Appends a definition record to the trace.
+     * Definitions are appended before the block that uses them, since that block is appended once its step completes.
+     * @param kind The kind of definition.
+     * @param id The identificator being defined.
+     * @param text The text being interned.
+     */
+    private synchronized void define(int kind, int id, String text) {
+        definitions.length = 0;
+        definitions.writeByte(kind);
+        definitions.writeVarInt(id);
+        definitions.writeString(text);
+        commit(definitions);
+    }
+
+    /**
+     * Appends the content of an encoder to the trace.
+     * @param e The encoder.
+     */
+    private synchronized void commit(Encoder e) {
+        if (buffer.remaining() < e.length)
+            drain();
+
+        if (e.length > buffer.capacity())
+            write(ByteBuffer.wrap(e.bytes, 0, e.length));
+        else
+            buffer.put(e.bytes, 0, e.length);
+
+        e.length = 0;
+    }
+
+    /**
+     * Writes the content of the buffer to the trace file.
+     */
+    private void drain() {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes bytes to the trace file, recording the first failure.
+     * @param bytes The bytes to write.
+     */
+    private void write(ByteBuffer bytes) {
+        try {
+            while (failure == null && bytes.hasRemaining())
+                channel.write(bytes);
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Gets the number of milliseconds elapsed since the trace has started.
+     * @return The number of elapsed milliseconds.
+     */
+    private long elapsed() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Gets the storage of a heap, so that the reader can rebuild it with the same iteration order.
+     * @param heap The heap.
+     * @return The storage of the heap.
+     */
+    private static ProgramState.HeapStorage storage(IHeap<Integer, Integer> heap) {
+        if (heap instanceof ConcurrentHeap)
+            return ProgramState.HeapStorage.Concurrent;
+
+        if (heap instanceof IntHeap)
+            return ((IntHeap)heap).direct() ? ProgramState.HeapStorage.Direct : ProgramState.HeapStorage.Primitive;
+
+        if (heap instanceof ArenaHeap)
+            return ProgramState.HeapStorage.Arena;
+
+        return ProgramState.HeapStorage.Boxed;
+    }
+
+    /**
+     * Represents a growable byte array that encodes the records of one thread.
+     */
+    private static final class Encoder {
+        private byte[] bytes = new byte[256];
+        private int length;
+        private boolean active;
+
+        /**
+         * Starts a block.
+         * @param kind The kind of block.
+         * @param id The program state identificator or owner of the block.
+         * @param time The milliseconds elapsed since the start of the trace.
+         */
+        void begin(int kind, int id, long time) {
+            length = 0;
+            writeByte(kind);
+            writeVarInt(id);
+            writeVarLong(time);
+        }
+
+        /**
+         * Writes a byte.
+         * @param value The byte.
+         */
+        void writeByte(int value) {
+            ensure(1);
+            bytes[length++] = (byte)value;
+        }
+
+        /**
+         * Writes an unsigned integral as a variable-length quantity.
+         * @param value The integral.
+         */
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        /**
+         * Writes an unsigned long integral as a variable-length quantity.
+         * @param value The long integral.
+         */
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int)(value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int)value);
+        }
+
+        /**
+         * Writes a signed integral as a zigzag encoded variable-length quantity.
+         * @param value The integral.
+         */
+        void writeSignedVarInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        /**
+         * Writes a string as its length followed by its UTF-8 bytes.
+         * @param value The string.
+         */
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+
+            writeVarInt(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        /**
+         * Grows the byte array so that it can hold the specified number of additional bytes.
+         * @param count The number of additional bytes.
+         */
+        private void ensure(int count) {
+            if (length + count > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, length + count));
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package edu.interpreter.view;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.statements.Statement;
+import edu.interpreter.model.utilities.ObservedDeque;
+import edu.interpreter.model.utilities.ObservedFileTable;
+import edu.interpreter.model.utilities.ObservedHeap;
+import edu.interpreter.model.utilities.ObservedLatchTable;
+import edu.interpreter.model.utilities.ObservedList;
+import edu.interpreter.model.utilities.ObservedSymbolTable;
+import edu.interpreter.model.utilities.Pair;
+import edu.interpreter.model.utilities.interfaces.IChangeListener;
+import edu.interpreter.model.utilities.interfaces.IExecutionListener;
+import edu.interpreter.model.utilities.interfaces.IFileTable;
+import edu.interpreter.model.utilities.interfaces.IHeap;
+import edu.interpreter.model.utilities.interfaces.ILatchTable;
+import edu.interpreter.model.utilities.interfaces.IList;
+
+/**
+ * Collects the changes made to the displayed program states on the threads that execute them, so that a window can apply them once per frame.
+ * Writes to the same heap address, latch, file or variable are coalesced and only the last one is kept;
+ * output messages, execution stack operations, forks and completions are kept in order.
+ * The shared heap, output messages, file table and latch table are observed for every program state, the symbol table and the execution stack only for the selected one.
+ * @author David Perisanu
+ */
+public class ChangeBuffer implements IChangeListener, IExecutionListener {
+    /**
+     * Number of execution stack operations collected between two frames before the execution stack is marked as stale instead.
+     */
+    public static final int MAX_STACK_OPERATIONS = 4096;
+
+    /**
+     * Represents the changes collected since the last frame.
+     * A <code>null</code> value marks a removed heap address, latch, file or variable, and every program state change is a pair
+     * of the identificator and <code>true</code> for a fork or <code>false</code> for a completion. When the selection changes,
+     * the symbol table and execution stack of the selected program state replace the displayed ones before the changes that follow.
+     * A stale execution stack has had too many operations to replay them, and must be refreshed with <code>refreshSelection</code>.
+     */
+    public static final class Changes {
+        final LinkedHashMap<Integer, Integer> heap = new LinkedHashMap<>();
+        final LinkedHashMap<Integer, Integer> latches = new LinkedHashMap<>();
+        final LinkedHashMap<Integer, String> files = new LinkedHashMap<>();
+        final LinkedHashMap<String, Integer> symbols = new LinkedHashMap<>();
+        final ArrayList<String> messages = new ArrayList<>();
+        final ArrayList<Pair<Statement, Boolean>> stackOperations = new ArrayList<>();
+        final ArrayList<Pair<Integer, Boolean>> programStates = new ArrayList<>();
+        ArrayList<String> replacedMessages;
+        ArrayList<Pair<String, Integer>> selectedSymbols;
+        ArrayList<Statement> selectedStack;
+        boolean stackStale;
+
+        /**
+         * Checks whether no change has been collected.
+         * @return <code>true</code> if there is no change; otherwise, <code>false</code>.
+         */
+        boolean isEmpty() {
+            return heap.isEmpty() && latches.isEmpty() && files.isEmpty() && symbols.isEmpty() && messages.isEmpty() && stackOperations.isEmpty()
+                && programStates.isEmpty() && replacedMessages == null && selectedStack == null && !stackStale;
+        }
+    }
+
+    private final IdentityHashMap<Object, Object> wrappers;
+    private Changes changes;
+    private ProgramState selectedProgramState;
+    private volatile int selected;
+    private boolean stackStale;
+
+    /**
+     * Initializes a new instance of the <code>ChangeBuffer</code> class that observes no program state yet.
+     */
+    public ChangeBuffer() {
+        wrappers = new IdentityHashMap<>();
+        changes = new Changes();
+        selected = -1;
+    }
+
+    /**
+     * Starts observing the shared parts of the program states and the program states they fork.
+     * Parts shared by several program states get a single wrapper, since the program states synchronize on their latch table.
+     * Must be called while no step runs.
+     * @param programStates The program states.
+     */
+    @SuppressWarnings("unchecked")
+    public void observe(IList<ProgramState> programStates) {
+        for (ProgramState programState : programStates.all()) {
+            int owner = programState.id();
+
+            if (programState.heap() != null && !(programState.heap() instanceof ObservedHeap))
+                programState.heap((IHeap<Integer, Integer>)wrappers.computeIfAbsent(programState.heap(), heap -> new ObservedHeap((IHeap<Integer, Integer>)heap, owner, this)));
+            if (programState.outputMessages() != null && !(programState.outputMessages() instanceof ObservedList))
+                programState.outputMessages((IList<String>)wrappers.computeIfAbsent(programState.outputMessages(), outputMessages -> new ObservedList((IList<String>)outputMessages, owner, this)));
+            if (programState.fileTable() != null && !(programState.fileTable() instanceof ObservedFileTable))
+                programState.fileTable((IFileTable<Integer, Pair<String, BufferedReader>>)wrappers.computeIfAbsent(programState.fileTable(), fileTable -> new ObservedFileTable((IFileTable<Integer, Pair<String, BufferedReader>>)fileTable, owner, this)));
+            if (programState.latchTable() != null && !(programState.latchTable() instanceof ObservedLatchTable))
+                programState.latchTable((ILatchTable<Integer, Integer>)wrappers.computeIfAbsent(programState.latchTable(), latchTable -> new ObservedLatchTable((ILatchTable<Integer, Integer>)latchTable, owner, this)));
+
+            programState.addExecutionListener(this);
+        }
+    }
+
+    /**
+     * Stops observing the symbol table and execution stack of the previously selected program state and starts observing the ones of the provided one.
+     * Their current content is collected as the first change of the selection. Must be called while no step runs.
+     * @param programState The selected program state, or <code>null</code>.
+     */
+    public void select(ProgramState programState) {
+        ProgramState previous = selectedProgramState;
+
+        if (previous != null) {
+            if (previous.symbolTable() instanceof ObservedSymbolTable && ((ObservedSymbolTable)previous.symbolTable()).listener() == this)
+                previous.symbolTable(((ObservedSymbolTable)previous.symbolTable()).inner());
+            if (previous.executionStack() instanceof ObservedDeque && ((ObservedDeque)previous.executionStack()).listener() == this)
+                previous.executionStack(((ObservedDeque)previous.executionStack()).inner());
+        }
+
+        if (programState != null) {
+            programState.symbolTable(new ObservedSymbolTable(programState.symbolTable(), programState.id(), this));
+            programState.executionStack(new ObservedDeque(programState.executionStack(), programState.id(), this));
+        }
+
+        selectedProgramState = programState;
+
+        synchronized (this) {
+            selected = programState == null ? -1 : programState.id();
+        }
+
+        refreshSelection();
+    }
+
+    /**
+     * Collects the current content of the symbol table and execution stack of the selected program state, replacing the changes collected for them.
+     * Must be called while no step runs.
+     */
+    public void refreshSelection() {
+        ProgramState programState = selectedProgramState;
+        ArrayList<Pair<String, Integer>> symbols = new ArrayList<>();
+        ArrayList<Statement> statements = new ArrayList<>();
+
+        if (programState != null) {
+            symbols.addAll(programState.symbolTable().entries());
+            statements.addAll(programState.executionStack().all());
+        }
+
+        synchronized (this) {
+            changes.symbols.clear();
+            changes.stackOperations.clear();
+            changes.selectedSymbols = symbols;
+            changes.selectedStack = statements;
+            stackStale = false;
+        }
+    }
+
+    /**
+     * Takes the changes collected since the last call.
+     * @return The changes, or <code>null</code> if nothing has changed.
+     */
+    public synchronized Changes drain() {
+        Changes drained = changes;
+
+        if (drained.isEmpty())
+            return null;
+
+        changes = new Changes();
+
+        return drained;
+    }
+
+    /**
+     * Does nothing, since the steps themselves are not displayed.
+     * @param programState The <code>ProgramState</code> about to execute a step.
+     */
+    @Override
+    public void stepStarting(ProgramState programState) {
+    }
+
+    /**
+     * Records the forked <code>ProgramState</code> and the completion of the <code>ProgramState</code>, if any.
+     * The forked <code>ProgramState</code> gets an unobserved copy of the symbol table, since it is not selected.
+     * @param programState The <code>ProgramState</code> that has executed the step.
+     * @param forkProgramState The <code>ProgramState</code> forked by the step, or <code>null</code>.
+     */
+    @Override
+    public void stepCompleted(ProgramState programState, ProgramState forkProgramState) {
+        if (forkProgramState != null) {
+            if (forkProgramState.symbolTable() instanceof ObservedSymbolTable && ((ObservedSymbolTable)forkProgramState.symbolTable()).listener() == this)
+                forkProgramState.symbolTable(((ObservedSymbolTable)forkProgramState.symbolTable()).inner());
+            forkProgramState.addExecutionListener(this);
+        }
+
+        if (forkProgramState != null || !programState.notCompleted())
+            synchronized (this) {
+                if (forkProgramState != null)
+                    changes.programStates.add(new Pair<>(forkProgramState.id(), true));
+                if (!programState.notCompleted())
+                    changes.programStates.add(new Pair<>(programState.id(), false));
+            }
+    }
+
+    /**
+     * Does nothing, since latch counts are reported by the latch table.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch after the decrement.
+     */
+    @Override
+    public void latchCountedDown(ProgramState programState, int latch, int count) {
+    }
+
+    /**
+     * Does nothing, since allocations are reported by the heap.
+     * @param programState The <code>ProgramState</code> executing the step.
+     * @param address The address of the allocated cell.
+     */
+    @Override
+    public void heapAllocated(ProgramState programState, int address) {
+    }
+
+    /**
+     * Records a <code>Statement</code> pushed on the execution stack of the selected program state.
+     * @param owner The owner of the execution stack.
+     * @param statement The pushed <code>Statement</code>.
+     * @param front <code>true</code> if the <code>Statement</code> has been pushed at the bottom of the execution stack.
+     */
+    @Override
+    public void statementPushed(int owner, Statement statement, boolean front) {
+        if (owner == selected)
+            synchronized (this) {
+                addStackOperation(new Pair<>(statement, front));
+            }
+    }
+
+    /**
+     * Records a <code>Statement</code> popped off the execution stack of the selected program state.
+     * @param owner The owner of the execution stack.
+     * @param front <code>true</code> if the <code>Statement</code> has been popped off the bottom of the execution stack.
+     */
+    @Override
+    public void statementPopped(int owner, boolean front) {
+        if (owner == selected)
+            synchronized (this) {
+                addStackOperation(new Pair<>(null, front));
+            }
+    }
+
+    /**
+     * Records a written variable of the selected program state.
+     * @param owner The owner of the symbol table.
+     * @param name The name of the variable.
+     * @param value The value of the variable.
+     */
+    @Override
+    public void symbolWritten(int owner, String name, int value) {
+        if (owner == selected)
+            synchronized (this) {
+                changes.symbols.put(name, value);
+            }
+    }
+
+    /**
+     * Records a removed variable of the selected program state.
+     * @param owner The owner of the symbol table.
+     * @param name The name of the variable.
+     */
+    @Override
+    public void symbolRemoved(int owner, String name) {
+        if (owner == selected)
+            synchronized (this) {
+                changes.symbols.put(name, null);
+            }
+    }
+
+    /**
+     * Records a written heap address.
+     * @param owner The owner of the heap.
+     * @param address The address.
+     * @param value The value stored at the address.
+     */
+    @Override
+    public synchronized void heapWritten(int owner, int address, int value) {
+        changes.heap.put(address, value);
+    }
+
+    /**
+     * Records a removed heap address.
+     * @param owner The owner of the heap.
+     * @param address The address.
+     */
+    @Override
+    public synchronized void heapRemoved(int owner, int address) {
+        changes.heap.put(address, null);
+    }
+
+    /**
+     * Records an appended output message.
+     * @param owner The owner of the output messages.
+     * @param message The message.
+     */
+    @Override
+    public synchronized void messageAdded(int owner, String message) {
+        changes.messages.add(message);
+    }
+
+    /**
+     * Records every output message after a change other than an append; the messages appended before are dropped.
+     * @param owner The owner of the output messages.
+     * @param messages Every message of the list, in order.
+     */
+    @Override
+    public synchronized void messagesReplaced(int owner, ArrayList<String> messages) {
+        changes.messages.clear();
+        changes.replacedMessages = messages;
+    }
+
+    /**
+     * Records an opened file.
+     * @param owner The owner of the file table.
+     * @param descriptor The descriptor of the file.
+     * @param fileName The name of the file.
+     */
+    @Override
+    public synchronized void fileOpened(int owner, int descriptor, String fileName) {
+        changes.files.put(descriptor, fileName);
+    }
+
+    /**
+     * Records a closed file.
+     * @param owner The owner of the file table.
+     * @param descriptor The descriptor of the file.
+     */
+    @Override
+    public synchronized void fileClosed(int owner, int descriptor) {
+        changes.files.put(descriptor, null);
+    }
+
+    /**
+     * Records a written latch.
+     * @param owner The owner of the latch table.
+     * @param latch The identificator of the latch.
+     * @param count The count of the latch.
+     */
+    @Override
+    public synchronized void latchWritten(int owner, int latch, int count) {
+        changes.latches.put(latch, count);
+    }
+
+    /**
+     * Records a removed latch.
+     * @param owner The owner of the latch table.
+     * @param latch The identificator of the latch.
+     */
+    @Override
+    public synchronized void latchRemoved(int owner, int latch) {
+        changes.latches.put(latch, null);
+    }
+
+    /**
+     * Collects an execution stack operation, or marks the execution stack as stale once too many operations have been collected since the last frame.
+     * Callers must synchronize on the <code>ChangeBuffer</code>.
+     * @param operation The pushed <code>Statement</code>, or <code>null</code> for a pop, and whether the operation is made at the bottom of the execution stack.
+     */
+    private void addStackOperation(Pair<Statement, Boolean> operation) {
+        if (stackStale)
+            return;
+
+        if (changes.stackOperations.size() < MAX_STACK_OPERATIONS) {
+            changes.stackOperations.add(operation);
+            return;
+        }
+
+        changes.stackOperations.clear();
+        changes.stackStale = true;
+        stackStale = true;
+    }
+}
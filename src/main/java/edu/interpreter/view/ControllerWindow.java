@@ -1,20 +1,18 @@
 package edu.interpreter.view;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.Executors;
 
 import edu.interpreter.controller.Controller;
 import edu.interpreter.model.ProgramState;
 import edu.interpreter.model.utilities.Pair;
-import edu.interpreter.model.utilities.exceptions.IndexOutOfRangeException;
-import edu.interpreter.model.utilities.interfaces.IDeque;
-import edu.interpreter.model.utilities.interfaces.IDictionary;
-import edu.interpreter.model.utilities.interfaces.IFileTable;
-import edu.interpreter.model.utilities.interfaces.IHeap;
-import edu.interpreter.model.utilities.interfaces.ILatchTable;
 import edu.interpreter.model.statements.Statement;
 import edu.interpreter.model.utilities.interfaces.IList;
 import edu.interpreter.repository.IRepository;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -28,14 +26,29 @@ import javafx.scene.control.ListView;
 import javafx.scene.control.MultipleSelectionModel;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 
+/**
+ * Displays the program states of a <code>Controller</code> and executes their steps on a <code>ProgramRunner</code>.
+ * The tables and lists are filled once, then the changes published by the program states are applied at most 30 times per second.
+ * @author David Perisanu
+ */
 public class ControllerWindow extends Window {
+    /**
+     * Minimum number of nanoseconds between two refreshes of the window.
+     */
+    public static final long REFRESH_INTERVAL = 1000000000L / 30;
+
     private Controller controller;
+    private ProgramRunner runner;
+    private ChangeBuffer changeBuffer;
+    private AnimationTimer refresher;
 
     private Label programStatesNo;
     private TableView<Pair<Integer, Integer>> heapTable, latchTable;
@@ -43,6 +56,11 @@ public class ControllerWindow extends Window {
     private TableView<Pair<String, Integer>> symbolTable;
     private ListView<String> outputMessages, executionStack;
     private ListView<Integer> programStates;
+    private KeyedRows<Integer, Integer> heapRows, latchRows;
+    private KeyedRows<Integer, String> fileRows;
+    private KeyedRows<String, Integer> symbolRows;
+    private ObservableList<String> outputItems, stackItems;
+    private ObservableList<Integer> programStateItems;
 
     @SuppressWarnings("unchecked")
     public ControllerWindow(Stage parent, String title, Controller controller) {
@@ -50,10 +68,13 @@ public class ControllerWindow extends Window {
 
         Stage window;
         GridPane layout;
-        Button runButton;
+        Button runButton, continuousRunButton, pauseButton, stepsButton;
+        TextField stepsField;
 
         controller.executor(Executors.newFixedThreadPool(2));
         this.controller = controller;
+        runner = new ProgramRunner(controller);
+        changeBuffer = new ChangeBuffer();
         window = stage();
         layout = new GridPane();
         programStatesNo = new Label("Number of program states: " + controller.repository().programStates().size());
@@ -65,12 +86,51 @@ public class ControllerWindow extends Window {
         symbolTable = new TableView<>();
         executionStack = new ListView<>();
         runButton = new Button("One step for all");
+        continuousRunButton = new Button("Run");
+        pauseButton = new Button("Pause");
+        stepsField = new TextField("100");
+        stepsButton = new Button("Steps for all");
+        heapRows = new KeyedRows<>();
+        latchRows = new KeyedRows<>();
+        fileRows = new KeyedRows<>();
+        symbolRows = new KeyedRows<>();
+        outputItems = FXCollections.observableArrayList();
+        stackItems = FXCollections.observableArrayList();
+        programStateItems = FXCollections.observableArrayList();
+        refresher = new AnimationTimer() {
+            private long lastRefresh;
+
+            @Override
+            public void handle(long now) {
+                if (now - lastRefresh < REFRESH_INTERVAL)
+                    return;
+
+                lastRefresh = now;
+                applyChanges(changeBuffer.drain());
+            }
+        };
         
         // Window
         window.setTitle(title);
         window.setMinWidth(800);
         window.setMinHeight(600);
         window.setOnCloseRequest(event -> {
+            refresher.stop();
+
+            try {
+                runner.close();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            try {
+                controller.repository().close();
+            }
+            catch (IOException e) {
+                // The window is closed either way.
+            }
+
             controller.closeExecutor();
         });
 
@@ -120,11 +180,10 @@ public class ControllerWindow extends Window {
                     selectionModel = ((ListView<Integer>)mouseEvent.getSource()).getSelectionModel();
 
                     if (selectionModel.getSelectedItem() != null && selectionModel.getSelectedItem() >= 0) {
-                        symbolTable.setItems(symbolTable(programState(controller.repository().programStates(), selectionModel.getSelectedItem()).symbolTable()));
-                    }
+                        int id = selectionModel.getSelectedItem();
 
-                    if (selectionModel.getSelectedItem() != null && selectionModel.getSelectedItem() >= 0) {
-                        executionStack.setItems(executionStack(programState(controller.repository().programStates(), selectionModel.getSelectedItem()).executionStack()));
+                        // The symbol table and execution stack are replaced while no step runs.
+                        runner.execute(() -> changeBuffer.select(programState(controller.repository().programStates(), id)));
                     }
                 }
             }
@@ -152,109 +211,167 @@ public class ControllerWindow extends Window {
         latchValueColumn.setCellValueFactory(new PropertyValueFactory<>("right"));
         latchTable.getColumns().addAll(locationColumn, latchValueColumn);
         layout.add(latchTable, 0, 3);
-        //  Run button
-        layout.add(runButton, 2, 0);
+        //  Run buttons
+        stepsField.setPrefColumnCount(5);
+        pauseButton.setDisable(true);
+        layout.add(new HBox(3, runButton, stepsField, stepsButton, continuousRunButton, pauseButton), 1, 0, 2, 1);
         runButton.setOnAction(new EventHandler<ActionEvent>(){
         
             @Override
             public void handle(ActionEvent e) {
-                IList<ProgramState> programStates;
-                
-                programStates = controller.removeCompletedPrograms(controller.repository().programStates());
+                runner.step(1);
+            }
+        });
+        stepsButton.setOnAction(new EventHandler<ActionEvent>(){
+        
+            @Override
+            public void handle(ActionEvent e) {
+                int count;
+
                 try {
-                    controller.executeOneStepGlobal(programStates);
-                    programStates = controller.removeCompletedPrograms(controller.repository().programStates());
-                    updateUI();
+                    count = Integer.parseInt(stepsField.getText().trim());
                 }
-                catch (IndexOutOfRangeException ex) {
-                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                    
-                    alert.setTitle("Attention");
-                    alert.setHeaderText("Execution done.");
-                    alert.showAndWait();
-                }
-                catch (Exception ex) {
-                    // Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                    
-                    // alert.setTitle("Attention");
-                    // alert.setHeaderText("Execution done.");
-                    // alert.showAndWait();
-
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    
-                    alert.setTitle("Error");
-                    alert.setHeaderText("Message: " + ex.getMessage());
-                    alert.showAndWait();
+                catch (NumberFormatException ex) {
+                    count = 0;
                 }
+
+                if (count > 0)
+                    runner.step(count);
+                else
+                    showError("The number of steps must be a positive integer.");
             }
         });
-
-        updateUI();
+        continuousRunButton.setOnAction(new EventHandler<ActionEvent>(){
+        
+            @Override
+            public void handle(ActionEvent e) {
+                runner.run();
+            }
+        });
+        pauseButton.setOnAction(new EventHandler<ActionEvent>(){
+        
+            @Override
+            public void handle(ActionEvent e) {
+                runner.pause();
+            }
+        });
+        runner.runningListener(running -> Platform.runLater(() -> {
+            runButton.setDisable(running);
+            stepsButton.setDisable(running);
+            continuousRunButton.setDisable(running);
+            pauseButton.setDisable(!running);
+        }));
+        runner.finishedListener(() -> Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            
+            alert.setTitle("Attention");
+            alert.setHeaderText("Execution done.");
+            alert.showAndWait();
+        }));
+        runner.failureListener(ex -> Platform.runLater(() -> showError(ex.getMessage())));
+
+        heapTable.setItems(heapRows.rows());
+        outputMessages.setItems(outputItems);
+        fileTable.setItems(fileRows.rows());
+        programStates.setItems(programStateItems);
+        symbolTable.setItems(symbolRows.rows());
+        executionStack.setItems(stackItems);
+        latchTable.setItems(latchRows.rows());
+
+        changeBuffer.observe(controller.repository().programStates());
+        loadUI();
+        refresher.start();
     }
 
-    private void updateUI() {
+    /**
+     * Fills the tables and lists with the current content of the program states, once, before the changes are applied incrementally.
+     */
+    private void loadUI() {
         IRepository repository = controller.repository();
+        ProgramState first = repository.programStates().get(0);
 
-        programStatesNo.setText("Number of program states: " + repository.programStates().size());
-
-        heapTable.setItems(heap(repository.programStates().get(0).heap()));
-
-        outputMessages.setItems(outputMessages(repository.programStates().get(0).outputMessages()));
+        for (Pair<Integer, Integer> cell : first.heap().entries())
+            heapRows.put(cell.left(), cell.right());
 
-        fileTable.setItems(fileTable(repository.programStates().get(0).fileTable()));
+        outputItems.setAll(first.outputMessages().all());
 
-        programStates.setItems(programStatesIdentifiers(repository.programStates()));
+        for (Pair<Integer, Pair<String, BufferedReader>> file : first.fileTable().entries())
+            fileRows.put(file.left(), file.right().left());
 
-        if (programStates.getSelectionModel().getSelectedItem() != null && programStates.getSelectionModel().getSelectedItem() >= 0) {
-            symbolTable.setItems(symbolTable(programState(repository.programStates(), programStates.getSelectionModel().getSelectedItem()).symbolTable()));
-        }
+        for (ProgramState programState : repository.programStates().all())
+            if (programState.notCompleted())
+                programStateItems.add(programState.id());
 
-        if (programStates.getSelectionModel().getSelectedItem() != null && programStates.getSelectionModel().getSelectedItem() >= 0) {
-            executionStack.setItems(executionStack(programState(repository.programStates(), programStates.getSelectionModel().getSelectedItem()).executionStack()));
-        }
+        if (first.latchTable() != null)
+            for (Pair<Integer, Integer> latch : first.latchTable().entries())
+                latchRows.put(latch.left(), latch.right());
 
-        if (repository.programStates().get(0).latchTable() != null)
-            latchTable.setItems(latchTable(repository.programStates().get(0).latchTable()));
+        programStatesNo.setText("Number of program states: " + programStateItems.size());
     }
 
-    private ObservableList<Pair<Integer, Integer>> heap(IHeap<Integer, Integer> heap) {
-        ObservableList<Pair<Integer, Integer>> pairs = FXCollections.observableArrayList();
-        
-        for (Integer address : heap.allKeys()) {
-            pairs.add(new Pair<>(address, heap.get(address)));
+    /**
+     * Applies the changes collected since the last frame to the tables and lists.
+     * @param changes The changes, or <code>null</code> if nothing has changed.
+     */
+    private void applyChanges(ChangeBuffer.Changes changes) {
+        if (changes == null)
+            return;
+
+        for (Map.Entry<Integer, Integer> cell : changes.heap.entrySet())
+            heapRows.apply(cell.getKey(), cell.getValue());
+
+        if (changes.replacedMessages != null)
+            outputItems.setAll(changes.replacedMessages);
+        outputItems.addAll(changes.messages);
+
+        for (Map.Entry<Integer, String> file : changes.files.entrySet())
+            fileRows.apply(file.getKey(), file.getValue());
+
+        for (Pair<Integer, Boolean> programState : changes.programStates)
+            if (programState.right())
+                programStateItems.add(programState.left());
+            else
+                programStateItems.remove(programState.left());
+
+        // Too many operations have been made to the execution stack since the last refresh, so it is read again between two rounds.
+        if (changes.stackStale)
+            runner.execute(changeBuffer::refreshSelection);
+
+        if (changes.selectedStack != null) {
+            symbolRows.clear();
+            for (Pair<String, Integer> variable : changes.selectedSymbols)
+                symbolRows.put(variable.left(), variable.right());
+
+            stackItems.clear();
+            for (Statement statement : changes.selectedStack)
+                stackItems.add(statement.toString());
         }
 
-        return pairs;
-    }
-
-    private ObservableList<String> outputMessages(IList<String> outputMessages) {
-        ObservableList<String> messages = FXCollections.observableArrayList();
-        
-        for (String str : outputMessages.all()) {
-            messages.add(str);
-        }
+        for (Map.Entry<String, Integer> variable : changes.symbols.entrySet())
+            symbolRows.apply(variable.getKey(), variable.getValue());
 
-        return messages;
-    }
+        for (Pair<Statement, Boolean> operation : changes.stackOperations)
+            if (operation.left() != null)
+                stackItems.add(operation.right() ? 0 : stackItems.size(), operation.left().toString());
+            else if (!stackItems.isEmpty())
+                stackItems.remove(operation.right() ? 0 : stackItems.size() - 1);
 
-    private ObservableList<Pair<Integer, String>> fileTable(IFileTable<Integer, Pair<String, BufferedReader>> fileTable) {
-        ObservableList<Pair<Integer, String>> pairs = FXCollections.observableArrayList();
-        
-        for (Integer identifier : fileTable.allKeys()) {
-            pairs.add(new Pair<>(identifier, fileTable.get(identifier).left()));
-        }
+        for (Map.Entry<Integer, Integer> latch : changes.latches.entrySet())
+            latchRows.apply(latch.getKey(), latch.getValue());
 
-        return pairs;
+        programStatesNo.setText("Number of program states: " + programStateItems.size());
     }
 
-    private ObservableList<Integer> programStatesIdentifiers(IList<ProgramState> programStates) {
-        ObservableList<Integer> identifiers = FXCollections.observableArrayList();
+    /**
+     * Shows an error message.
+     * @param message The message.
+     */
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
         
-        for (ProgramState s : programStates.all()) {
-            identifiers.add(s.id());
-        }
-
-        return identifiers;
+        alert.setTitle("Error");
+        alert.setHeaderText("Message: " + message);
+        alert.showAndWait();
     }
 
     private ProgramState programState(IList<ProgramState> programStates, int id) {
@@ -264,34 +381,4 @@ public class ControllerWindow extends Window {
 
         return null;
     }
-
-    private ObservableList<Pair<String, Integer>> symbolTable(IDictionary<String, Integer> symbolTable) {
-        ObservableList<Pair<String, Integer>> pairs = FXCollections.observableArrayList();
-        
-        for (String var : symbolTable.allKeys()) {
-            pairs.add(new Pair<>(var, symbolTable.get(var)));
-        }
-
-        return pairs;
-    }
-
-    private ObservableList<String> executionStack(IDeque<Statement> executionStack) {
-        ObservableList<String> statements = FXCollections.observableArrayList();
-        
-        for (Statement s : executionStack.all()) {
-            statements.add(s.toString());
-        }
-
-        return statements;
-    }
-
-    private ObservableList<Pair<Integer, Integer>> latchTable(ILatchTable<Integer, Integer> latchTable) {
-        ObservableList<Pair<Integer, Integer>> pairs = FXCollections.observableArrayList();
-        
-        for (Integer address : latchTable.allKeys()) {
-            pairs.add(new Pair<>(address, latchTable.get(address)));
-        }
-
-        return pairs;
-    }
 }
@@ -0,0 +1,90 @@
+package edu.interpreter.view;
+
+import java.util.HashMap;
+
+import edu.interpreter.model.utilities.Pair;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Represents the rows of a table keyed by their first column, so that a single row can be written or removed without rebuilding the table.
+ * Removing a row moves the last row into its place, so the rows are not kept in any particular order.
+ * @author David Perisanu
+ */
+class KeyedRows<Key, Value> {
+    private final ObservableList<Pair<Key, Value>> rows;
+    private final HashMap<Key, Integer> indices;
+
+    /**
+     * Initializes a new instance of the <code>KeyedRows<></code> class that has no rows.
+     */
+    KeyedRows() {
+        rows = FXCollections.observableArrayList();
+        indices = new HashMap<>();
+    }
+
+    /**
+     * Gets the rows displayed by the table.
+     * @return The rows.
+     */
+    ObservableList<Pair<Key, Value>> rows() {
+        return rows;
+    }
+
+    /**
+     * Writes the row of a key, adding it if it does not exist.
+     * @param key The key.
+     * @param value The value.
+     */
+    void put(Key key, Value value) {
+        Integer index = indices.get(key);
+
+        if (index == null) {
+            indices.put(key, rows.size());
+            rows.add(new Pair<>(key, value));
+        }
+        else
+            rows.set(index, new Pair<>(key, value));
+    }
+
+    /**
+     * Removes the row of a key, if it exists.
+     * @param key The key.
+     */
+    void remove(Key key) {
+        Integer index = indices.remove(key);
+        int last = rows.size() - 1;
+
+        if (index == null)
+            return;
+
+        if (index != last) {
+            Pair<Key, Value> moved = rows.get(last);
+
+            rows.set(index, moved);
+            indices.put(moved.left(), index);
+        }
+
+        rows.remove(last);
+    }
+
+    /**
+     * Writes the row of a key, or removes it if the value is <code>null</code>.
+     * @param key The key.
+     * @param value The value, or <code>null</code>.
+     */
+    void apply(Key key, Value value) {
+        if (value == null)
+            remove(key);
+        else
+            put(key, value);
+    }
+
+    /**
+     * Removes every row.
+     */
+    void clear() {
+        indices.clear();
+        rows.clear();
+    }
+}
@@ -0,0 +1,195 @@
+package edu.interpreter.view;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import edu.interpreter.controller.Controller;
+import edu.interpreter.model.ProgramState;
+import edu.interpreter.model.utilities.interfaces.IList;
+
+/**
+ * Executes the steps of the program states of a <code>Controller</code> on a background thread, so that a window stays responsive while they run.
+ * The steps run in rounds of the controller; a pause takes effect at the end of the current round, and the actions that must not overlap a step
+ * run between two rounds. The listeners are notified on the background thread.
+ * @author David Perisanu
+ */
+public class ProgramRunner {
+    private final Controller controller;
+    private final ExecutorService thread;
+    private final ConcurrentLinkedQueue<Runnable> actions;
+    private final AtomicBoolean running;
+    private volatile boolean pauseRequested;
+    private volatile Runnable finishedListener;
+    private volatile Consumer<Exception> failureListener;
+    private volatile Consumer<Boolean> runningListener;
+
+    /**
+     * Initializes a new instance of the <code>ProgramRunner</code> class that executes the steps of the specified controller.
+     * @param controller The controller, whose executor must have been set.
+     */
+    public ProgramRunner(Controller controller) {
+        this.controller = controller;
+        thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread runner = new Thread(runnable, "Program runner");
+
+            runner.setDaemon(true);
+            return runner;
+        });
+        actions = new ConcurrentLinkedQueue<>();
+        running = new AtomicBoolean();
+    }
+
+    /**
+     * Sets the listener that is notified when no program state is left to execute.
+     * @param finishedListener The listener, or <code>null</code>.
+     */
+    public void finishedListener(Runnable finishedListener) {
+        this.finishedListener = finishedListener;
+    }
+
+    /**
+     * Sets the listener that is notified when a round fails; the steps stop after a failure.
+     * @param failureListener The listener, or <code>null</code>.
+     */
+    public void failureListener(Consumer<Exception> failureListener) {
+        this.failureListener = failureListener;
+    }
+
+    /**
+     * Sets the listener that is notified with <code>true</code> when the steps start running and <code>false</code> when they stop.
+     * @param runningListener The listener, or <code>null</code>.
+     */
+    public void runningListener(Consumer<Boolean> runningListener) {
+        this.runningListener = runningListener;
+    }
+
+    /**
+     * Checks whether steps are running.
+     * @return <code>true</code> if steps are running; otherwise, <code>false</code>.
+     */
+    public boolean running() {
+        return running.get();
+    }
+
+    /**
+     * Executes every step of the program states, a quantum of steps per program state and round, until they complete or <code>pause</code> is called.
+     * @return <code>true</code> if the steps have started; <code>false</code> if steps are already running.
+     */
+    public boolean run() {
+        return start(Long.MAX_VALUE, controller.quantum());
+    }
+
+    /**
+     * Executes a number of rounds of one step for every program state, unless <code>pause</code> is called first.
+     * @param count The number of steps every program state executes.
+     * @return <code>true</code> if the steps have started; <code>false</code> if steps are already running.
+     */
+    public boolean step(int count) {
+        return start(count, 1);
+    }
+
+    /**
+     * Stops the running steps at the end of the current round.
+     */
+    public void pause() {
+        pauseRequested = true;
+    }
+
+    /**
+     * Runs an action on the background thread while no step runs: at once if the steps are paused, otherwise between two rounds.
+     * @param action The action.
+     */
+    public void execute(Runnable action) {
+        actions.add(action);
+        thread.execute(this::runActions);
+    }
+
+    /**
+     * Stops the running steps and the background thread, waiting for the current round to end.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public void close() throws InterruptedException {
+        pause();
+        thread.shutdown();
+        thread.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Starts executing rounds on the background thread, unless steps are already running.
+     * @param rounds The maximum number of rounds.
+     * @param steps The maximum number of steps every program state executes per round.
+     * @return <code>true</code> if the steps have started; <code>false</code> if steps are already running.
+     */
+    private boolean start(long rounds, int steps) {
+        if (!running.compareAndSet(false, true))
+            return false;
+
+        pauseRequested = false;
+        notifyRunning(true);
+        thread.execute(() -> execute(rounds, steps));
+
+        return true;
+    }
+
+    /**
+     * Executes rounds until the maximum number of rounds, a pause, a failure or the completion of every program state.
+     * @param rounds The maximum number of rounds.
+     * @param steps The maximum number of steps every program state executes per round.
+     */
+    private void execute(long rounds, int steps) {
+        IList<ProgramState> programStates;
+
+        try {
+            for (long round = 0; round < rounds && !pauseRequested; round++) {
+                runActions();
+
+                programStates = controller.removeCompletedPrograms(controller.repository().programStates());
+                if (programStates.size() == 0)
+                    break;
+
+                controller.executeStepsGlobal(programStates, steps);
+            }
+
+            runActions();
+
+            // The log is written in the background, so it is complete whenever the steps stop.
+            controller.repository().flush();
+
+            if (controller.removeCompletedPrograms(controller.repository().programStates()).size() == 0 && finishedListener != null)
+                finishedListener.run();
+        }
+        catch (Exception e) {
+            if (failureListener != null)
+                failureListener.accept(e);
+        }
+        finally {
+            running.set(false);
+            notifyRunning(false);
+        }
+    }
+
+    /**
+     * Runs the pending actions.
+     */
+    private void runActions() {
+        Runnable action;
+
+        while ((action = actions.poll()) != null)
+            action.run();
+    }
+
+    /**
+     * Notifies the running listener, if any.
+     * @param value <code>true</code> if the steps start running; <code>false</code> if they stop.
+     */
+    private void notifyRunning(boolean value) {
+        Consumer<Boolean> listener = runningListener;
+
+        if (listener != null)
+            listener.accept(value);
+    }
+}